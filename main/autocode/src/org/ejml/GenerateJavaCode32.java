@@ -31,7 +31,7 @@ public class GenerateJavaCode32 extends GenerateCode32 {
     public GenerateJavaCode32() {
         super("java",new ConvertFile32From64(false));
 
-        String[] sufficeRoot = new String[]{"DRM","DMA","DRB","SCC","STL","DF2","DF3","DF4","DF5","DF6","TRIPLET"};
+        String[] sufficeRoot = new String[]{"DRM","DMA","DRB","SCC","SCR","STL","DF2","DF3","DF4","DF5","DF6","TRIPLET"};
 
         suffices64.add("_DDRB_to_DDRM");
         suffices64.add("_F64");
@@ -62,6 +62,8 @@ public class GenerateJavaCode32 extends GenerateCode32 {
         prefix32.add("FSemiRings");
         prefix64.add("DMask");
         prefix32.add("FMask");
+        prefix64.add("DVectorSparse");
+        prefix32.add("FVectorSparse");
         prefix64.add("DScalar");
         prefix32.add("FScalar");
         prefix64.add("DMatrix");
@@ -105,6 +107,7 @@ public class GenerateJavaCode32 extends GenerateCode32 {
         converter.replacePattern("DMask", "FMask");
         converter.replacePattern("DConvert", "FConvert");
         converter.replacePattern("DGrowArray", "FGrowArray");
+        converter.replacePattern("DVectorSparse", "FVectorSparse");
         converter.replacePattern("DMatrix", "FMatrix");
         converter.replacePattern("DSubmatrix", "FSubmatrix");
         converter.replacePattern("DEigen", "FEigen");
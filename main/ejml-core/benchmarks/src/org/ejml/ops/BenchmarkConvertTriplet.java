@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.ops;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DMatrixSparseTriplet;
+import org.ejml.data.IGrowArray;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import pabeles.concurrency.GrowArray;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the single threaded and concurrent conversion from {@link DMatrixSparseTriplet} to
+ * {@link DMatrixSparseCSC}. Elements are added in the order they would be by finite element assembly, i.e. a small
+ * dense block at a time, which results in many duplicates. Sorting the output and summing duplicates afterwards is
+ * benchmarked separately.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+public class BenchmarkConvertTriplet {
+    @Param({"10000", "100000"})
+    private int numElements;
+
+    // number of degrees of freedom in each element
+    private static final int BLOCK = 8;
+
+    DMatrixSparseTriplet triplet = new DMatrixSparseTriplet(1, 1, 1);
+    DMatrixSparseCSC output = new DMatrixSparseCSC(1, 1);
+    IGrowArray histogram = new IGrowArray();
+    IGrowArray histogramMT = new IGrowArray();
+    GrowArray<DConvertMatrixStruct_MT.Workspace> workspace = new GrowArray<>(DConvertMatrixStruct_MT.Workspace::new);
+
+    @Setup
+    public void setup() {
+        // the serial benchmark should not switch to the concurrent implementation
+        EjmlConcurrency.USE_CONCURRENT = false;
+
+        Random rand = new Random(234);
+        int N = numElements;
+        triplet.reshape(N, N, numElements*BLOCK*BLOCK);
+        int[] nodes = new int[BLOCK];
+        for (int element = 0; element < numElements; element++) {
+            // elements share nodes with elements which are near by
+            for (int i = 0; i < BLOCK; i++) {
+                nodes[i] = Math.min(N - 1, Math.max(0, element + rand.nextInt(2*BLOCK) - BLOCK));
+            }
+            for (int i = 0; i < BLOCK; i++) {
+                for (int j = 0; j < BLOCK; j++) {
+                    triplet.addItem(nodes[i], nodes[j], rand.nextDouble());
+                }
+            }
+        }
+    }
+
+    @TearDown
+    public void teardown() {
+        EjmlConcurrency.USE_CONCURRENT = true;
+    }
+
+    @Benchmark
+    public DMatrixSparseCSC serial() {
+        return DConvertMatrixStruct.convert(triplet, output, histogram);
+    }
+
+    @Benchmark
+    public DMatrixSparseCSC concurrent() {
+        return DConvertMatrixStruct_MT.convert(triplet, output, histogramMT);
+    }
+
+    @Benchmark
+    public DMatrixSparseCSC concurrent_sortAndSum() {
+        DConvertMatrixStruct_MT.convert(triplet, output, histogramMT);
+        DConvertMatrixStruct_MT.sortAndSumColumns(output, workspace);
+        return output;
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkConvertTriplet.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.ops;
+
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DMatrixSparseTriplet;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Compares the single threaded Matrix Market reader followed by conversion into CSC against
+ * {@link ReadMatrixMarket_MT}. Besides the number of operations per second, the throughput in megabytes per
+ * second is reported by the "megabytes" counter.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+public class BenchmarkReadMatrixMarket {
+    @Param({"2000000"})
+    private int nonZero;
+
+    @Param({"%.16e", "%.6f"})
+    private String floatFormat;
+
+    Path path;
+    double megabytes;
+
+    ReadMatrixMarket_MT reader = new ReadMatrixMarket_MT();
+    DMatrixSparseCSC output = new DMatrixSparseCSC(1, 1);
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Throughput {
+        public double megabytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            megabytes = 0;
+        }
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        Random rand = new Random(234);
+        int N = Math.max(1, nonZero/20);
+        path = Files.createTempFile("ejml", ".mtx");
+        try (BufferedWriter writer = Files.newBufferedWriter(path, UTF_8)) {
+            writer.write("%%MatrixMarket matrix coordinate real general\n");
+            writer.write(N + " " + N + " " + nonZero + "\n");
+            String lineFormat = "%d %d " + floatFormat + "\n";
+            for (int i = 0; i < nonZero; i++) {
+                writer.write(String.format(Locale.US, lineFormat,
+                        rand.nextInt(N) + 1, rand.nextInt(N) + 1, rand.nextGaussian()));
+            }
+        }
+        megabytes = Files.size(path)/1e6;
+    }
+
+    @TearDown
+    public void teardown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    public DMatrixSparseCSC serial( Throughput counter ) throws IOException {
+        counter.megabytes += megabytes;
+        try (Reader in = Files.newBufferedReader(path, UTF_8)) {
+            DMatrixSparseTriplet triplet = MatrixIO.loadMatrixMarketD(in);
+            return DConvertMatrixStruct.convert(triplet, (DMatrixSparseCSC)null);
+        }
+    }
+
+    @Benchmark
+    public DMatrixSparseCSC concurrent( Throughput counter ) throws IOException {
+        counter.megabytes += megabytes;
+        return reader.read(path, output);
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkReadMatrixMarket.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
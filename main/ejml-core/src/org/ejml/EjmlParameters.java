@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2020, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
  *
  * This file is part of Efficient Java Matrix Library (EJML).
  *
@@ -20,7 +20,8 @@ package org.ejml;
 
 /**
  * This is a list of parameters that are used across the code.  To tune performance
- * for a particular system change these values.
+ * for a particular system change these values. Values for the current machine can be loaded from
+ * a profile at startup, see {@link EjmlProfile}.
  *
  * @author Peter Abeles
  */
@@ -45,17 +46,37 @@ public class EjmlParameters {
      * </p>
      */
     // See design notes
-    public static int BLOCK_WIDTH = 60;
-    public static int BLOCK_WIDTH_CHOL = 20;
+    public static int BLOCK_WIDTH = EjmlProfile.getStartup(EjmlProfile.BLOCK_WIDTH, 60);
+    public static int BLOCK_WIDTH_CHOL = EjmlProfile.getStartup(EjmlProfile.BLOCK_WIDTH_CHOL, 20);
 
-    public static int TRANSPOSE_SWITCH = 375;
+    public static int TRANSPOSE_SWITCH = EjmlProfile.getStartup(EjmlProfile.TRANSPOSE_SWITCH, 375);
 
     /**
      * At what point does it switch from a small matrix multiply to the reorder version.
      */
-    public static int MULT_COLUMN_SWITCH = 15;
-    public static int MULT_TRANAB_COLUMN_SWITCH = 40;
-    public static int MULT_INNER_SWITCH = 100;
+    public static int MULT_COLUMN_SWITCH = EjmlProfile.getStartup(EjmlProfile.MULT_COLUMN_SWITCH, 15);
+    public static int MULT_TRANAB_COLUMN_SWITCH = EjmlProfile.getStartup(EjmlProfile.MULT_TRANAB_COLUMN_SWITCH, 40);
+    public static int MULT_INNER_SWITCH = EjmlProfile.getStartup(EjmlProfile.MULT_INNER_SWITCH, 100);
+
+    /**
+     * Matrix multiplication will switch to a cache blocked algorithm when all the dimensions are at least this size
+     */
+    public static int MULT_BLOCKED_SWITCH = EjmlProfile.getStartup(EjmlProfile.MULT_BLOCKED_SWITCH, 64);
+
+    /**
+     * Block sizes used by cache blocked matrix multiplication. Packed blocks of MULT_BLOCK_M rows by
+     * MULT_BLOCK_K columns should fit inside the L2 cache. MULT_BLOCK_M should be a multiple of 4 and
+     * MULT_BLOCK_N a multiple of 8.
+     */
+    public static int MULT_BLOCK_M = 128;
+    public static int MULT_BLOCK_K = 256;
+    public static int MULT_BLOCK_N = 2048;
+
+    /**
+     * SIMD kernels are only used on vectors with at least this many elements. Below that the overhead of setting
+     * up the vector operations is larger than the savings.
+     */
+    public static int SIMD_LENGTH_SWITCH = 32;
 
     public static int CMULT_COLUMN_SWITCH = 7;
     public static int CMULT_TRANAB_COLUMN_SWITCH = 20;
@@ -70,9 +91,20 @@ public class EjmlParameters {
      * in that case the block performed much better.
      * </p>
      */
-    public static int SWITCH_BLOCK64_CHOLESKY = 1000;
+    public static int SWITCH_BLOCK64_CHOLESKY = EjmlProfile.getStartup(EjmlProfile.SWITCH_BLOCK64_CHOLESKY, 1000);
+
+    public static int SWITCH_BLOCK64_QR = EjmlProfile.getStartup(EjmlProfile.SWITCH_BLOCK64_QR, 1500);
 
-    public static int SWITCH_BLOCK64_QR = 1500;
+    /**
+     * Size of a square matrix at which it switches to the block LU decomposition
+     */
+    public static int SWITCH_BLOCK64_LU = EjmlProfile.getStartup(EjmlProfile.SWITCH_BLOCK64_LU, 600);
+
+    /**
+     * Size of a symmetric matrix at which it switches to the divide and conquer eigen decomposition when
+     * eigenvectors are required
+     */
+    public static int SWITCH_EIG_DIVIDE_CONQUER = EjmlProfile.getStartup(EjmlProfile.SWITCH_EIG_DIVIDE_CONQUER, 600);
 
     public enum MemoryUsage {
         /**
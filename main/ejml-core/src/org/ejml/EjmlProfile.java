@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+/**
+ * <p>Loads and saves machine specific values for the tuning parameters in {@link EjmlParameters} and
+ * {@link EjmlConcurrency}. A profile is a properties file where each key is the name of a parameter. Parameters
+ * which are not in the profile keep their default value.</p>
+ *
+ * <p>When EJML is loaded it will look for a profile at the location specified by the system property
+ * {@link #PROPERTY_PATH} or, if that's not set, {@link #defaultLocation()}. A profile for the current machine
+ * can be created by running the parameter tuner in the dense module.</p>
+ *
+ * @author Peter Abeles
+ */
+public class EjmlProfile {
+    /** System property which can be used to specify the location of the profile */
+    public static final String PROPERTY_PATH = "ejml.profile";
+
+    // Names of each parameter in the profile
+    public static final String BLOCK_WIDTH = "BLOCK_WIDTH";
+    public static final String BLOCK_WIDTH_CHOL = "BLOCK_WIDTH_CHOL";
+    public static final String TRANSPOSE_SWITCH = "TRANSPOSE_SWITCH";
+    public static final String MULT_COLUMN_SWITCH = "MULT_COLUMN_SWITCH";
+    public static final String MULT_TRANAB_COLUMN_SWITCH = "MULT_TRANAB_COLUMN_SWITCH";
+    public static final String MULT_INNER_SWITCH = "MULT_INNER_SWITCH";
+    public static final String MULT_BLOCKED_SWITCH = "MULT_BLOCKED_SWITCH";
+    public static final String SWITCH_BLOCK64_CHOLESKY = "SWITCH_BLOCK64_CHOLESKY";
+    public static final String SWITCH_BLOCK64_QR = "SWITCH_BLOCK64_QR";
+    public static final String SWITCH_BLOCK64_LU = "SWITCH_BLOCK64_LU";
+    public static final String SWITCH_EIG_DIVIDE_CONQUER = "SWITCH_EIG_DIVIDE_CONQUER";
+    public static final String ELEMENT_THRESHOLD = "ELEMENT_THRESHOLD";
+
+    // Profile that was found when the class was loaded. Empty if there was none.
+    private static final Properties startup = loadStartup();
+
+    /**
+     * Returns the value of a parameter in the profile which was found at startup
+     *
+     * @param key Name of the parameter
+     * @param defaultValue Value returned if the profile doesn't specify the parameter
+     */
+    public static int getStartup( String key, int defaultValue ) {
+        return getInt(startup, key, defaultValue);
+    }
+
+    /**
+     * Default location of the profile, which is inside of the user's home directory
+     */
+    public static File defaultLocation() {
+        return new File(System.getProperty("user.home", "."), ".ejml/profile.properties");
+    }
+
+    /**
+     * Reads the profile from the file and applies it to the parameters. Parameters not in the file are not modified.
+     */
+    public static void load( File file ) throws IOException {
+        apply(read(file));
+    }
+
+    /**
+     * Saves the current value of all the parameters to the file
+     */
+    public static void save( File file ) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs())
+            throw new IOException("Failed to create directory " + parent.getPath());
+
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            capture().store(writer, "EJML tuning profile");
+        }
+    }
+
+    /**
+     * Returns the current value of all the parameters
+     */
+    public static Properties capture() {
+        Properties p = new Properties();
+        p.setProperty(BLOCK_WIDTH, "" + EjmlParameters.BLOCK_WIDTH);
+        p.setProperty(BLOCK_WIDTH_CHOL, "" + EjmlParameters.BLOCK_WIDTH_CHOL);
+        p.setProperty(TRANSPOSE_SWITCH, "" + EjmlParameters.TRANSPOSE_SWITCH);
+        p.setProperty(MULT_COLUMN_SWITCH, "" + EjmlParameters.MULT_COLUMN_SWITCH);
+        p.setProperty(MULT_TRANAB_COLUMN_SWITCH, "" + EjmlParameters.MULT_TRANAB_COLUMN_SWITCH);
+        p.setProperty(MULT_INNER_SWITCH, "" + EjmlParameters.MULT_INNER_SWITCH);
+        p.setProperty(MULT_BLOCKED_SWITCH, "" + EjmlParameters.MULT_BLOCKED_SWITCH);
+        p.setProperty(SWITCH_BLOCK64_CHOLESKY, "" + EjmlParameters.SWITCH_BLOCK64_CHOLESKY);
+        p.setProperty(SWITCH_BLOCK64_QR, "" + EjmlParameters.SWITCH_BLOCK64_QR);
+        p.setProperty(SWITCH_BLOCK64_LU, "" + EjmlParameters.SWITCH_BLOCK64_LU);
+        p.setProperty(SWITCH_EIG_DIVIDE_CONQUER, "" + EjmlParameters.SWITCH_EIG_DIVIDE_CONQUER);
+        p.setProperty(ELEMENT_THRESHOLD, "" + EjmlConcurrency.ELEMENT_THRESHOLD);
+        return p;
+    }
+
+    /**
+     * Sets the parameters to the values in the profile. Parameters which are not in the profile are not modified.
+     */
+    public static void apply( Properties p ) {
+        EjmlParameters.BLOCK_WIDTH = getInt(p, BLOCK_WIDTH, EjmlParameters.BLOCK_WIDTH);
+        EjmlParameters.BLOCK_WIDTH_CHOL = getInt(p, BLOCK_WIDTH_CHOL, EjmlParameters.BLOCK_WIDTH_CHOL);
+        EjmlParameters.TRANSPOSE_SWITCH = getInt(p, TRANSPOSE_SWITCH, EjmlParameters.TRANSPOSE_SWITCH);
+        EjmlParameters.MULT_COLUMN_SWITCH = getInt(p, MULT_COLUMN_SWITCH, EjmlParameters.MULT_COLUMN_SWITCH);
+        EjmlParameters.MULT_TRANAB_COLUMN_SWITCH = getInt(p, MULT_TRANAB_COLUMN_SWITCH, EjmlParameters.MULT_TRANAB_COLUMN_SWITCH);
+        EjmlParameters.MULT_INNER_SWITCH = getInt(p, MULT_INNER_SWITCH, EjmlParameters.MULT_INNER_SWITCH);
+        EjmlParameters.MULT_BLOCKED_SWITCH = getInt(p, MULT_BLOCKED_SWITCH, EjmlParameters.MULT_BLOCKED_SWITCH);
+        EjmlParameters.SWITCH_BLOCK64_CHOLESKY = getInt(p, SWITCH_BLOCK64_CHOLESKY, EjmlParameters.SWITCH_BLOCK64_CHOLESKY);
+        EjmlParameters.SWITCH_BLOCK64_QR = getInt(p, SWITCH_BLOCK64_QR, EjmlParameters.SWITCH_BLOCK64_QR);
+        EjmlParameters.SWITCH_BLOCK64_LU = getInt(p, SWITCH_BLOCK64_LU, EjmlParameters.SWITCH_BLOCK64_LU);
+        EjmlParameters.SWITCH_EIG_DIVIDE_CONQUER = getInt(p, SWITCH_EIG_DIVIDE_CONQUER, EjmlParameters.SWITCH_EIG_DIVIDE_CONQUER);
+        EjmlConcurrency.ELEMENT_THRESHOLD = getInt(p, ELEMENT_THRESHOLD, EjmlConcurrency.ELEMENT_THRESHOLD);
+    }
+
+    /**
+     * Reads a profile from a file without applying it
+     */
+    public static Properties read( File file ) throws IOException {
+        Properties p = new Properties();
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+            p.load(reader);
+        }
+        return p;
+    }
+
+    private static int getInt( Properties p, String key, int defaultValue ) {
+        @Nullable String value = p.getProperty(key);
+        if (value == null)
+            return defaultValue;
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Looks for a profile at startup. Any problem reading it results in the default values being used, since
+     * EJML should still work on a machine with a bad profile.
+     */
+    private static Properties loadStartup() {
+        try {
+            @Nullable String path = System.getProperty(PROPERTY_PATH);
+            File file = path != null ? new File(path) : defaultLocation();
+            if (file.isFile())
+                return read(file);
+        } catch (IOException | SecurityException ignore) {
+            // The profile is optional. If it can't be read then the default parameters are kept
+        }
+        return new Properties();
+    }
+}
@@ -17,6 +17,7 @@
  */
 package org.ejml.concurrency;
 
+import org.ejml.EjmlProfile;
 import org.ejml.data.Matrix;
 import org.ejml.data.MatrixSparse;
 import pabeles.concurrency.ConcurrencyOps;
@@ -31,7 +32,7 @@ public class EjmlConcurrency extends ConcurrencyOps {
 	public static boolean USE_CONCURRENT = true;
 
 	/** Minimum number of elements in a matrix before it will switch to concurrent implementation */
-	public static int ELEMENT_THRESHOLD = 50_000;
+	public static int ELEMENT_THRESHOLD = EjmlProfile.getStartup(EjmlProfile.ELEMENT_THRESHOLD, 50_000);
 
 	/**
 	 * Sets the maximum number of threads available in the thread pool and adjusts USE_CONCURRENT. If
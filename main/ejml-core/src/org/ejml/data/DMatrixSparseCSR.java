@@ -0,0 +1,483 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.data;
+
+import org.ejml.UtilEjml;
+import org.ejml.ops.MatrixIO;
+import org.ejml.ops.SortCoupledArray_F64;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * <p>Compressed Sparse Row (CSR) sparse matrix format.   Only non-zero elements are stored. This is the
+ * row-major counterpart of {@link DMatrixSparseCSC}. Operations which traverse a matrix one row at a time, such
+ * as sparse matrix-vector multiplication, access memory sequentially with this format.</p>
+ * <p>
+ * Format:<br>
+ * Column indexes for row i are stored in nz_cols[row_idx[i]] to nz_cols[row_idx[i+1]-1].  The values
+ * for the corresponding elements are stored at nz_values[row_idx[i]] to nz_values[row_idx[i+1]-1].<br>
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DMatrixSparseCSR implements DMatrixSparse {
+    /**
+     * Storage for non-zero values.  Only valid up to length-1.
+     */
+    public double[] nz_values = UtilEjml.ZERO_LENGTH_F64;
+    /**
+     * Length of data. Number of non-zero values in the matrix
+     */
+    public int nz_length;
+    /**
+     * Specifies which column a specific non-zero value corresponds to.  If they are sorted or not with in each row
+     * is specified by the {@link #indicesSorted} flag.
+     */
+    public int[] nz_cols = UtilEjml.ZERO_LENGTH_I32;
+    /**
+     * Stores the range of indexes in the non-zero lists that belong to each row.  Row 'i' corresponds to
+     * indexes row_idx[i] to row_idx[i+1]-1, inclusive.
+     */
+    public int[] row_idx;
+
+    /**
+     * Number of rows in the matrix
+     */
+    public int numRows;
+    /**
+     * Number of columns in the matrix
+     */
+    public int numCols;
+
+    /**
+     * Flag that's used to indicate of the column indices are sorted or not.
+     */
+    public boolean indicesSorted = false;
+
+    /**
+     * Constructor with a default arrayLength of zero.
+     *
+     * @param numRows Number of rows
+     * @param numCols Number of columns
+     */
+    public DMatrixSparseCSR( int numRows, int numCols ) {
+        this(numRows, numCols, 0);
+    }
+
+    /**
+     * Specifies shape and number of non-zero elements that can be stored.
+     *
+     * @param numRows Number of rows
+     * @param numCols Number of columns
+     * @param arrayLength Initial maximum number of non-zero elements that can be in the matrix
+     */
+    public DMatrixSparseCSR( int numRows, int numCols, int arrayLength ) {
+        if (numRows < 0 || numCols < 0 || arrayLength < 0)
+            throw new IllegalArgumentException("Rows, columns, and arrayLength must be not be negative");
+        this.numRows = numRows;
+        this.numCols = numCols;
+        this.nz_length = 0;
+        row_idx = new int[numRows + 1];
+        growMaxLength(arrayLength, false);
+    }
+
+    public DMatrixSparseCSR( DMatrixSparseCSR original ) {
+        this(original.numRows, original.numCols, original.nz_length);
+
+        setTo(original);
+    }
+
+    @Override
+    public int getNumRows() {
+        return numRows;
+    }
+
+    @Override
+    public int getNumCols() {
+        return numCols;
+    }
+
+    @Override
+    public DMatrixSparseCSR copy() {
+        return new DMatrixSparseCSR(this);
+    }
+
+    @Override
+    public DMatrixSparseCSR createLike() {
+        return new DMatrixSparseCSR(numRows, numCols);
+    }
+
+    @Override
+    public void setTo( Matrix original ) {
+        DMatrixSparseCSR o = (DMatrixSparseCSR)original;
+        reshape(o.numRows, o.numCols, o.nz_length);
+        this.nz_length = o.nz_length;
+
+        System.arraycopy(o.nz_values, 0, nz_values, 0, nz_length);
+        System.arraycopy(o.nz_cols, 0, nz_cols, 0, nz_length);
+        System.arraycopy(o.row_idx, 0, row_idx, 0, numRows + 1);
+        this.indicesSorted = o.indicesSorted;
+    }
+
+    @Override
+    public void print() {
+        MatrixIO.printFancy(System.out, this, MatrixIO.DEFAULT_LENGTH);
+    }
+
+    @Override
+    public void print( String format ) {
+        MatrixIO.print(System.out, this, format);
+    }
+
+    @Override
+    public void printNonZero() {
+        String format = "%d %d " + MatrixIO.DEFAULT_FLOAT_FORMAT + "\n";
+        System.out.println("Type = " + getType().name() + " , rows = " + numRows + " , cols = " + numCols
+                + " , nz_length = " + nz_length);
+
+        for (int row = 0; row < numRows; row++) {
+            int idx0 = row_idx[row];
+            int idx1 = row_idx[row + 1];
+
+            for (int i = idx0; i < idx1; i++) {
+                int col = nz_cols[i];
+                double value = nz_values[i];
+
+                System.out.printf(format, row, col, value);
+            }
+        }
+    }
+
+    @Override
+    public boolean isAssigned( int row, int col ) {
+        return nz_index(row, col) >= 0;
+    }
+
+    @Override
+    public double get( int row, int col ) {
+        if (row < 0 || row >= numRows || col < 0 || col >= numCols)
+            throw new IllegalArgumentException("Outside of matrix bounds");
+
+        return unsafe_get(row, col);
+    }
+
+    @Override
+    public double get( int row, int col, double fallBackValue ) {
+        if (row < 0 || row >= numRows || col < 0 || col >= numCols)
+            throw new IllegalArgumentException("Outside of matrix bounds");
+
+        return unsafe_get(row, col, fallBackValue);
+    }
+
+    @Override
+    public double unsafe_get( int row, int col ) {
+        int index = nz_index(row, col);
+        if (index >= 0)
+            return nz_values[index];
+        return 0;
+    }
+
+    @Override
+    public double unsafe_get( int row, int col, double fallBackValue ) {
+        int index = nz_index(row, col);
+        if (index >= 0)
+            return nz_values[index];
+        return fallBackValue;
+    }
+
+    /**
+     * Returns the index in nz_cols for the element at (row,col) if it already exists in the matrix. If not then -1
+     * is returned.
+     *
+     * @param row row coordinate
+     * @param col column coordinate
+     * @return nz_cols index or -1 if the element does not exist
+     */
+    public int nz_index( int row, int col ) {
+        int row0 = row_idx[row];
+        int row1 = row_idx[row + 1];
+
+        if (this.indicesSorted) {
+            return Arrays.binarySearch(nz_cols, row0, row1, col);
+        } else {
+            for (int i = row0; i < row1; i++) {
+                if (nz_cols[i] == col) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    @Override
+    public void set( int row, int col, double val ) {
+        if (row < 0 || row >= numRows || col < 0 || col >= numCols)
+            throw new IllegalArgumentException("Outside of matrix bounds");
+
+        unsafe_set(row, col, val);
+    }
+
+    @Override
+    public void unsafe_set( int row, int col, double val ) {
+        int index = nz_index(row, col);
+        if (index >= 0) {
+            nz_values[index] = val;
+        } else {
+
+            int idx0 = row_idx[row];
+            int idx1 = row_idx[row + 1];
+
+            // determine the index the new element should be inserted at. This is done to keep it sorted if
+            // it was already sorted
+            for (index = idx0; index < idx1; index++) {
+                if (col < nz_cols[index]) {
+                    break;
+                }
+            }
+
+            // shift all the row_idx after this point by 1
+            for (int i = row + 1; i <= numRows; i++) {
+                row_idx[i]++;
+            }
+
+            // if it's already at the maximum array length grow the arrays
+            if (nz_length >= nz_values.length)
+                growMaxLength(nz_length*2 + 1, true);
+
+            // shift everything by one
+            for (int i = nz_length; i > index; i--) {
+                nz_cols[i] = nz_cols[i - 1];
+                nz_values[i] = nz_values[i - 1];
+            }
+            nz_cols[index] = col;
+            nz_values[index] = val;
+            nz_length++;
+        }
+    }
+
+    @Override
+    public void remove( int row, int col ) {
+        int index = nz_index(row, col);
+
+        if (index < 0) // it's not in the nz structure
+            return;
+
+        // shift all the row_idx after this point by -1
+        for (int i = row + 1; i <= numRows; i++) {
+            row_idx[i]--;
+        }
+
+        nz_length--;
+        for (int i = index; i < nz_length; i++) {
+            nz_cols[i] = nz_cols[i + 1];
+            nz_values[i] = nz_values[i + 1];
+        }
+    }
+
+    @Override
+    public void zero() {
+        Arrays.fill(row_idx, 0, numRows + 1, 0);
+        nz_length = 0;
+        indicesSorted = false; // see justification in reshape
+    }
+
+    @Override
+    public DMatrixSparseCSR create( int numRows, int numCols ) {
+        return new DMatrixSparseCSR(numRows, numCols);
+    }
+
+    @Override
+    public int getNonZeroLength() {
+        return nz_length;
+    }
+
+    @Override
+    public void reshape( int numRows, int numCols, int arrayLength ) {
+        // Conservatively mark it as unsorted, see DMatrixSparseCSC
+        this.indicesSorted = false;
+        this.numRows = numRows;
+        this.numCols = numCols;
+        growMaxLength(arrayLength, false);
+        this.nz_length = 0;
+
+        if (numRows + 1 > row_idx.length) {
+            row_idx = new int[numRows + 1];
+        } else {
+            Arrays.fill(row_idx, 0, numRows + 1, 0);
+        }
+    }
+
+    @Override
+    public void reshape( int numRows, int numCols ) {
+        reshape(numRows, numCols, 0);
+    }
+
+    @Override
+    public void shrinkArrays() {
+        if (nz_length < nz_values.length) {
+            double[] tmp_values = new double[nz_length];
+            int[] tmp_cols = new int[nz_length];
+
+            System.arraycopy(this.nz_values, 0, tmp_values, 0, nz_length);
+            System.arraycopy(this.nz_cols, 0, tmp_cols, 0, nz_length);
+
+            this.nz_values = tmp_values;
+            this.nz_cols = tmp_cols;
+        }
+    }
+
+    /**
+     * Increases the maximum size of the data array so that it can store sparse data up to 'length'.  The class
+     * parameter nz_length is not modified by this function call.
+     *
+     * @param arrayLength Desired maximum length of sparse data
+     * @param preserveValue If true the old values will be copied into the new arrays.  If false that step will be skipped.
+     */
+    public void growMaxLength( int arrayLength, boolean preserveValue ) {
+        if (arrayLength < 0)
+            throw new IllegalArgumentException("Negative array length. Overflow?");
+
+        if (arrayLength > this.nz_values.length) {
+            double[] data = new double[arrayLength];
+            int[] col_idx = new int[arrayLength];
+
+            if (preserveValue) {
+                System.arraycopy(this.nz_values, 0, data, 0, this.nz_length);
+                System.arraycopy(this.nz_cols, 0, col_idx, 0, this.nz_length);
+            }
+
+            this.nz_values = data;
+            this.nz_cols = col_idx;
+        }
+    }
+
+    /**
+     * Increases the maximum number of rows in the matrix.
+     *
+     * @param desiredRows Desired number of rows.
+     * @param preserveValue If the array needs to be expanded should it copy the previous values?
+     */
+    public void growMaxRows( int desiredRows, boolean preserveValue ) {
+        if (row_idx.length < desiredRows + 1) {
+            int[] r = new int[desiredRows + 1];
+            if (preserveValue)
+                System.arraycopy(row_idx, 0, r, 0, row_idx.length);
+            row_idx = r;
+        }
+    }
+
+    /**
+     * Given the histogram of rows compute the row_idx for the matrix.  nz_length is automatically set and
+     * nz_values will grow if needed.
+     *
+     * @param histogram histogram of row values in the sparse matrix. modified, see above.
+     */
+    public void histogramToStructure( int[] histogram ) {
+        row_idx[0] = 0;
+        int index = 0;
+        for (int i = 1; i <= numRows; i++) {
+            row_idx[i] = index += histogram[i - 1];
+        }
+        nz_length = index;
+        growMaxLength(nz_length, false);
+    }
+
+    /**
+     * Sorts the column indices in ascending order.
+     *
+     * @param sorter (Optional) Used to sort columns.  If null a new instance will be declared internally.
+     */
+    public void sortIndices( @Nullable SortCoupledArray_F64 sorter ) {
+        if (sorter == null)
+            sorter = new SortCoupledArray_F64();
+
+        sorter.quick(row_idx, numRows + 1, nz_cols, nz_values);
+        indicesSorted = true;
+    }
+
+    /**
+     * Copies the non-zero structure of orig into "this"
+     *
+     * @param orig Matrix who's structure is to be copied
+     */
+    public void copyStructure( DMatrixSparseCSR orig ) {
+        reshape(orig.numRows, orig.numCols, orig.nz_length);
+        this.nz_length = orig.nz_length;
+        System.arraycopy(orig.row_idx, 0, row_idx, 0, orig.numRows + 1);
+        System.arraycopy(orig.nz_cols, 0, nz_cols, 0, orig.nz_length);
+    }
+
+    /**
+     * If the indices has been sorted or not
+     *
+     * @return true if sorted or false if not sorted
+     */
+    public boolean isIndicesSorted() {
+        return indicesSorted;
+    }
+
+    /**
+     * Returns true if number of non-zero elements is the maximum size
+     *
+     * @return true if no more non-zero elements can be added
+     */
+    public boolean isFull() {
+        return nz_length == numRows*numCols;
+    }
+
+    @Override
+    public MatrixType getType() {
+        return MatrixType.DSCR;
+    }
+
+    @Override
+    public Iterator<CoordinateRealValue> createCoordinateIterator() {
+        return new Iterator<>() {
+            final CoordinateRealValue coordinate = new CoordinateRealValue();
+            int nz_index = 0; // the index of the non-zero value and column
+            int row = 0; // which row it's in
+
+            {
+                incrementRow();
+            }
+
+            @Override
+            public boolean hasNext() {
+                return nz_index < nz_length;
+            }
+
+            @Override
+            public CoordinateRealValue next() {
+                coordinate.row = row;
+                coordinate.col = nz_cols[nz_index];
+                coordinate.value = nz_values[nz_index];
+                nz_index++;
+                incrementRow();
+                return coordinate;
+            }
+
+            private void incrementRow() {
+                while (row + 1 <= numRows && nz_index >= row_idx[row + 1]) {
+                    row++;
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.data;
+
+import org.ejml.UtilEjml;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * <p>Sparse vector where only the non-zero elements are stored. Indices of non-zero elements are always sorted
+ * in increasing order.</p>
+ *
+ * <p>
+ * Format:<br>
+ * The i-th non-zero element is at index nz_indices[i] and has the value nz_values[i], for i &lt; nz_length.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DVectorSparse implements Serializable {
+    /**
+     * Storage for non-zero values.  Only valid up to nz_length-1.
+     */
+    public double[] nz_values = UtilEjml.ZERO_LENGTH_F64;
+    /**
+     * Index of each non-zero value in the vector. Sorted in increasing order.
+     */
+    public int[] nz_indices = UtilEjml.ZERO_LENGTH_I32;
+    /**
+     * Number of non-zero values in the vector
+     */
+    public int nz_length;
+    /**
+     * Number of elements in the vector
+     */
+    public int size;
+
+    /**
+     * Specifies the size and number of non-zero elements that can be stored.
+     *
+     * @param size Number of elements in the vector
+     * @param arrayLength Initial maximum number of non-zero elements that can be in the vector
+     */
+    public DVectorSparse( int size, int arrayLength ) {
+        if (size < 0 || arrayLength < 0)
+            throw new IllegalArgumentException("Size and arrayLength must be not be negative");
+        this.size = size;
+        growMaxLength(arrayLength, false);
+    }
+
+    public DVectorSparse( int size ) {
+        this(size, 0);
+    }
+
+    public DVectorSparse( DVectorSparse original ) {
+        this(original.size, original.nz_length);
+        setTo(original);
+    }
+
+    public DVectorSparse copy() {
+        return new DVectorSparse(this);
+    }
+
+    public void setTo( DVectorSparse original ) {
+        this.size = original.size;
+        this.nz_length = 0;
+        growMaxLength(original.nz_length, false);
+        System.arraycopy(original.nz_indices, 0, nz_indices, 0, original.nz_length);
+        System.arraycopy(original.nz_values, 0, nz_values, 0, original.nz_length);
+        this.nz_length = original.nz_length;
+    }
+
+    /**
+     * Returns true if the element has been assigned a value
+     */
+    public boolean isAssigned( int index ) {
+        return nz_index(index) >= 0;
+    }
+
+    public double get( int index ) {
+        return get(index, 0.0);
+    }
+
+    /**
+     * Returns the value of the element or fallBackValue if it has not been assigned
+     */
+    public double get( int index, double fallBackValue ) {
+        if (index < 0 || index >= size)
+            throw new IllegalArgumentException("Outside of vector bounds");
+        int where = nz_index(index);
+        return where >= 0 ? nz_values[where] : fallBackValue;
+    }
+
+    /**
+     * Returns the location of the element in the non-zero arrays or a negative number if it isn't assigned.
+     */
+    public int nz_index( int index ) {
+        return Arrays.binarySearch(nz_indices, 0, nz_length, index);
+    }
+
+    /**
+     * Assigns a value to the element, inserting it if needed.
+     */
+    public void set( int index, double value ) {
+        if (index < 0 || index >= size)
+            throw new IllegalArgumentException("Outside of vector bounds");
+
+        int where = nz_index(index);
+        if (where >= 0) {
+            nz_values[where] = value;
+            return;
+        }
+
+        // the binary search returns -(insertion point) - 1
+        where = -where - 1;
+        if (nz_length >= nz_values.length)
+            growMaxLength(nz_length*2 + 1, true);
+        System.arraycopy(nz_indices, where, nz_indices, where + 1, nz_length - where);
+        System.arraycopy(nz_values, where, nz_values, where + 1, nz_length - where);
+        nz_indices[where] = index;
+        nz_values[where] = value;
+        nz_length++;
+    }
+
+    /**
+     * Adds an element after all the existing elements. The index must be larger than any index already in
+     * the vector. This is not checked.
+     */
+    public void append( int index, double value ) {
+        if (nz_length >= nz_values.length)
+            growMaxLength(nz_length*2 + 1, true);
+        nz_indices[nz_length] = index;
+        nz_values[nz_length] = value;
+        nz_length++;
+    }
+
+    /**
+     * Removes the element if it has been assigned
+     */
+    public void remove( int index ) {
+        int where = nz_index(index);
+        if (where < 0)
+            return;
+        System.arraycopy(nz_indices, where + 1, nz_indices, where, nz_length - where - 1);
+        System.arraycopy(nz_values, where + 1, nz_values, where, nz_length - where - 1);
+        nz_length--;
+    }
+
+    /**
+     * Removes all the non-zero elements
+     */
+    public void zero() {
+        nz_length = 0;
+    }
+
+    /**
+     * Changes the size of the vector and removes all the non-zero elements
+     */
+    public void reshape( int size ) {
+        if (size < 0)
+            throw new IllegalArgumentException("Size must be not be negative");
+        this.size = size;
+        this.nz_length = 0;
+    }
+
+    /**
+     * Increases the maximum number of non-zero elements that can be stored.
+     *
+     * @param arrayLength Desired maximum number of non-zero elements
+     * @param preserveValue If the array needs to be expanded should it copy the previous values?
+     */
+    public void growMaxLength( int arrayLength, boolean preserveValue ) {
+        if (arrayLength < 0)
+            throw new IllegalArgumentException("Negative array length. Overflow?");
+        if (arrayLength <= nz_values.length)
+            return;
+
+        double[] values = new double[arrayLength];
+        int[] indices = new int[arrayLength];
+        if (preserveValue) {
+            System.arraycopy(nz_values, 0, values, 0, nz_length);
+            System.arraycopy(nz_indices, 0, indices, 0, nz_length);
+        }
+        nz_values = values;
+        nz_indices = indices;
+    }
+
+    /**
+     * Returns true if the indices are in strictly increasing order and inside the vector
+     */
+    public boolean checkStructure() {
+        for (int i = 0; i < nz_length; i++) {
+            int index = nz_indices[i];
+            if (index < 0 || index >= size)
+                return false;
+            if (i > 0 && nz_indices[i - 1] >= index)
+                return false;
+        }
+        return true;
+    }
+
+    public int getNonZeroLength() {
+        return nz_length;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void print() {
+        System.out.println("Type = DVectorSparse , size = " + size + " , nz_length = " + nz_length);
+        for (int i = 0; i < nz_length; i++) {
+            System.out.printf("  %6d  %11.4E%n", nz_indices[i], nz_values[i]);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.interfaces;
+
+/**
+ * A linear operator which is only known through its product with a vector, y = A*x. This allows algorithms to be
+ * applied to matrices which are never explicitly formed or are stored in a custom format.
+ *
+ * @author Peter Abeles
+ */
+public interface LinearOperator_F32 {
+    /**
+     * Number of rows in A and elements in y
+     */
+    int getNumRows();
+
+    /**
+     * Number of columns in A and elements in x
+     */
+    int getNumCols();
+
+    /**
+     * Computes y = A*x
+     *
+     * @param x (Input) vector with {@link #getNumCols()} elements. Not modified.
+     * @param y (Output) vector with {@link #getNumRows()} elements.
+     */
+    void mult( float[] x, float[] y );
+}
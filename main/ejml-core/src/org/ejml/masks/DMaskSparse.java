@@ -88,6 +88,11 @@ public class DMaskSparse extends Mask {
         }
     }
 
+    @Override
+    public Mask concurrentCopy() {
+        return new DMaskSparse(matrix, negated, zeroElement, null, false);
+    }
+
     @Override
     public int maxMaskedEntries() {
         if (negated) {
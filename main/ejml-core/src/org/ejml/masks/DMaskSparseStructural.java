@@ -21,6 +21,8 @@ import org.ejml.data.DMatrixSparseCSC;
 import org.ejml.data.IGrowArray;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
+
 import static org.ejml.UtilEjml.adjust;
 
 /**
@@ -80,6 +82,24 @@ public class DMaskSparseStructural extends Mask {
         }
     }
 
+    /**
+     * Must be called after the structure of the wrapped matrix has changed. The index is cleared and its
+     * storage is recycled, so the mask can be reused instead of building a new one.
+     */
+    public void reset() {
+        indexedColumn = -1;
+        if (rowIndicesInIndexedColumn.length < matrix.numRows) {
+            rowIndicesInIndexedColumn = new int[matrix.numRows];
+        } else {
+            Arrays.fill(rowIndicesInIndexedColumn, 0, matrix.numRows, 0);
+        }
+    }
+
+    @Override
+    public Mask concurrentCopy() {
+        return new DMaskSparseStructural(matrix, negated, null, false);
+    }
+
     @Override
     public int maxMaskedEntries() {
         if (negated) {
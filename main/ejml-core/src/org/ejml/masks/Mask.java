@@ -93,6 +93,16 @@ public abstract class Mask {
         }
     }
 
+    /**
+     * Creates a mask which can be used by another thread at the same time as this one. Masks without
+     * internal state, e.g. the indexed column, can return themselves.
+     *
+     * @return Mask which is safe to use concurrently with this one
+     */
+    public Mask concurrentCopy() {
+        return this;
+    }
+
     /**
      * Pessimistic estimation of entries set in the mask
      *
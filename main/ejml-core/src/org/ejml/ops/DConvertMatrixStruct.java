@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2020, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
  *
  * This file is part of Efficient Java Matrix Library (EJML).
  *
@@ -19,6 +19,7 @@
 package org.ejml.ops;
 
 import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
 import org.ejml.data.*;
 import org.jetbrains.annotations.Nullable;
 
@@ -848,7 +849,8 @@ public class DConvertMatrixStruct {
 
     /**
      * Converts DMatrixSparseTriplet into a DMatrixSparseCSC. Duplicate elements in triplet will result in an
-     * illegal matrix in output having duplicate elements.
+     * illegal matrix in output having duplicate elements. If {@link EjmlConcurrency#useConcurrent} is true for
+     * the triplet then {@link DConvertMatrixStruct_MT} is used instead, which produces an identical output.
      *
      * @param src Original matrix which is to be copied.  Not modified.
      * @param dst Destination. Will be a copy.  Modified.
@@ -856,6 +858,9 @@ public class DConvertMatrixStruct {
      */
     public static DMatrixSparseCSC convert( DMatrixSparseTriplet src, @Nullable DMatrixSparseCSC dst,
                                             @Nullable IGrowArray histStorage ) {
+        if (EjmlConcurrency.useConcurrent(src))
+            return DConvertMatrixStruct_MT.convert(src, dst, histStorage);
+
         dst = UtilEjml.reshapeOrDeclare(dst, src.numRows, src.numCols, src.nz_length);
 
         int[] hist = UtilEjml.adjustClear(histStorage, src.numCols);
@@ -907,4 +912,195 @@ public class DConvertMatrixStruct {
 
         return dst;
     }
+
+    public static DMatrixRMaj convert( DMatrixSparseCSR src, @Nullable DMatrixRMaj dst ) {
+        if (dst == null)
+            dst = new DMatrixRMaj(src.numRows, src.numCols);
+        else {
+            dst.reshape(src.numRows, src.numCols);
+            dst.zero();
+        }
+
+        for (int row = 0; row < src.numRows; row++) {
+            int idx0 = src.row_idx[row];
+            int idx1 = src.row_idx[row + 1];
+            int offset = row*src.numCols;
+
+            for (int i = idx0; i < idx1; i++) {
+                dst.data[offset + src.nz_cols[i]] = src.nz_values[i];
+            }
+        }
+
+        return dst;
+    }
+
+    /**
+     * Converts DMatrixRMaj into a DMatrixSparseCSR
+     *
+     * @param src Original matrix that is to be converted.
+     * @param dst Storage for the converted matrix.  If null a new instance will be returned.
+     * @param tol Values with a magnitude less than or equal to this will be treated as zero
+     * @return The converted matrix
+     */
+    public static DMatrixSparseCSR convert( DMatrixRMaj src, @Nullable DMatrixSparseCSR dst, double tol ) {
+        int nonzero = 0;
+        int N = src.numRows*src.numCols;
+        for (int i = 0; i < N; i++) {
+            if (Math.abs(src.data[i]) > tol)
+                nonzero++;
+        }
+
+        dst = UtilEjml.reshapeOrDeclare(dst, src.numRows, src.numCols, nonzero);
+        dst.nz_length = 0;
+
+        dst.row_idx[0] = 0;
+        for (int row = 0; row < src.numRows; row++) {
+            int offset = row*src.numCols;
+            for (int col = 0; col < src.numCols; col++) {
+                double value = src.data[offset + col];
+                if (Math.abs(value) <= tol)
+                    continue;
+
+                dst.nz_cols[dst.nz_length] = col;
+                dst.nz_values[dst.nz_length] = value;
+                dst.nz_length += 1;
+            }
+            dst.row_idx[row + 1] = dst.nz_length;
+        }
+        dst.indicesSorted = true;
+
+        return dst;
+    }
+
+    /**
+     * Converts DMatrixSparseTriplet into a DMatrixSparseCSR. Duplicate elements in triplet will result in an
+     * illegal matrix in output having duplicate elements.
+     *
+     * @param src Original matrix which is to be copied.  Not modified.
+     * @param dst Destination. Will be a copy.  Modified.
+     * @param histStorage Workspace. Can be null.
+     */
+    public static DMatrixSparseCSR convert( DMatrixSparseTriplet src, @Nullable DMatrixSparseCSR dst,
+                                            @Nullable IGrowArray histStorage ) {
+        dst = UtilEjml.reshapeOrDeclare(dst, src.numRows, src.numCols, src.nz_length);
+
+        int[] hist = UtilEjml.adjustClear(histStorage, src.numRows);
+
+        // compute the number of elements in each row
+        for (int i = 0; i < src.nz_length; i++) {
+            hist[src.nz_rowcol.data[i*2]]++;
+        }
+
+        // define row_idx
+        dst.histogramToStructure(hist);
+        System.arraycopy(dst.row_idx, 0, hist, 0, dst.numRows);
+
+        // now write the column indexes and the values
+        for (int i = 0; i < src.nz_length; i++) {
+            int row = src.nz_rowcol.data[i*2];
+            int col = src.nz_rowcol.data[i*2 + 1];
+            double value = src.nz_value.data[i];
+
+            int index = hist[row]++;
+            dst.nz_cols[index] = col;
+            dst.nz_values[index] = value;
+        }
+        dst.indicesSorted = false;
+
+        return dst;
+    }
+
+    public static DMatrixSparseCSR convert( DMatrixSparseTriplet src, @Nullable DMatrixSparseCSR dst ) {
+        return convert(src, dst, null);
+    }
+
+    /**
+     * Converts a compressed sparse column matrix into a compressed sparse row matrix. This is done using a
+     * counting sort and is O(nz_length + numRows + numCols). The column indices in the output are always sorted.
+     *
+     * @param src Original matrix which is to be converted.  Not modified.
+     * @param dst Storage for the converted matrix.  If null a new instance will be returned.  Modified.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @return The converted matrix
+     */
+    public static DMatrixSparseCSR convert( DMatrixSparseCSC src, @Nullable DMatrixSparseCSR dst,
+                                            @Nullable IGrowArray gw ) {
+        dst = UtilEjml.reshapeOrDeclare(dst, src.numRows, src.numCols, src.nz_length);
+
+        int[] hist = UtilEjml.adjustClear(gw, src.numRows);
+
+        // compute the number of elements in each row
+        final int nz_length = src.nz_length;
+        for (int i = 0; i < nz_length; i++) {
+            hist[src.nz_rows[i]]++;
+        }
+
+        // define row_idx
+        dst.histogramToStructure(hist);
+        System.arraycopy(dst.row_idx, 0, hist, 0, dst.numRows);
+
+        // columns are traversed in order so each row will have sorted column indices
+        for (int col = 0; col < src.numCols; col++) {
+            int idx0 = src.col_idx[col];
+            int idx1 = src.col_idx[col + 1];
+
+            for (int i = idx0; i < idx1; i++) {
+                int index = hist[src.nz_rows[i]]++;
+                dst.nz_cols[index] = col;
+                dst.nz_values[index] = src.nz_values[i];
+            }
+        }
+        dst.indicesSorted = true;
+
+        return dst;
+    }
+
+    public static DMatrixSparseCSR convert( DMatrixSparseCSC src, @Nullable DMatrixSparseCSR dst ) {
+        return convert(src, dst, null);
+    }
+
+    /**
+     * Converts a compressed sparse row matrix into a compressed sparse column matrix. This is done using a
+     * counting sort and is O(nz_length + numRows + numCols). The row indices in the output are always sorted.
+     *
+     * @param src Original matrix which is to be converted.  Not modified.
+     * @param dst Storage for the converted matrix.  If null a new instance will be returned.  Modified.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @return The converted matrix
+     */
+    public static DMatrixSparseCSC convert( DMatrixSparseCSR src, @Nullable DMatrixSparseCSC dst,
+                                            @Nullable IGrowArray gw ) {
+        dst = UtilEjml.reshapeOrDeclare(dst, src.numRows, src.numCols, src.nz_length);
+
+        int[] hist = UtilEjml.adjustClear(gw, src.numCols);
+
+        // compute the number of elements in each column
+        final int nz_length = src.nz_length;
+        for (int i = 0; i < nz_length; i++) {
+            hist[src.nz_cols[i]]++;
+        }
+
+        // define col_idx
+        dst.histogramToStructure(hist);
+        System.arraycopy(dst.col_idx, 0, hist, 0, dst.numCols);
+
+        // rows are traversed in order so each column will have sorted row indices
+        for (int row = 0; row < src.numRows; row++) {
+            int idx0 = src.row_idx[row];
+            int idx1 = src.row_idx[row + 1];
+
+            for (int i = idx0; i < idx1; i++) {
+                int index = hist[src.nz_cols[i]]++;
+                dst.nz_rows[index] = row;
+                dst.nz_values[index] = src.nz_values[i];
+            }
+        }
+        dst.indicesSorted = true;
+
+        return dst;
+    }
+
+    public static DMatrixSparseCSC convert( DMatrixSparseCSR src, @Nullable DMatrixSparseCSC dst ) {
+        return convert(src, dst, null);
+    }
 }
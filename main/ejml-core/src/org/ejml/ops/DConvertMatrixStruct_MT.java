@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.ops;
+
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DMatrixSparseTriplet;
+import org.ejml.data.IGrowArray;
+import org.jetbrains.annotations.Nullable;
+import pabeles.concurrency.GrowArray;
+
+import java.util.Arrays;
+
+/**
+ * Concurrent implementations of functions found in {@link DConvertMatrixStruct}.
+ *
+ * @author Peter Abeles
+ */
+public class DConvertMatrixStruct_MT {
+
+    /**
+     * Converts DMatrixSparseTriplet into a DMatrixSparseCSC. Elements are split into one block per thread. Each
+     * block computes a histogram of its columns and then scatters its elements into the output, which has
+     * been partitioned using the histograms. Blocks are ordered so that the output is identical to
+     * {@link DConvertMatrixStruct#convert(DMatrixSparseTriplet, DMatrixSparseCSC, IGrowArray)}, i.e. elements
+     * in each column are in the same order as in the triplet and duplicate elements are not summed. Call
+     * {@link #sortAndSumColumns} afterwards to get a legal matrix.
+     *
+     * @param src Original matrix which is to be copied.  Not modified.
+     * @param dst Destination. Will be a copy.  Modified.
+     * @param histStorage Workspace for the histogram of every block. Can be null.
+     */
+    public static DMatrixSparseCSC convert( DMatrixSparseTriplet src, @Nullable DMatrixSparseCSC dst,
+                                            @Nullable IGrowArray histStorage ) {
+        dst = UtilEjml.reshapeOrDeclare(dst, src.numRows, src.numCols, src.nz_length);
+
+        final DMatrixSparseCSC output = dst;
+        final int numCols = src.numCols;
+        final int nz_length = src.nz_length;
+        final int[] rowcol = src.nz_rowcol.data;
+        final double[] values = src.nz_value.data;
+
+        // Split the elements into blocks. Each block has its own histogram, stored one after another
+        final int numBlocks = Math.max(1, Math.min(EjmlConcurrency.getMaxThreads(), nz_length/1000));
+        final int[] hist = UtilEjml.adjustClear(histStorage, numBlocks*numCols);
+
+        // Count the number of elements in each column for every block
+        EjmlConcurrency.loopFor(0, numBlocks, block -> {
+            int offset = block*numCols;
+            int idx1 = blockStart(block + 1, numBlocks, nz_length);
+            for (int i = blockStart(block, numBlocks, nz_length); i < idx1; i++) {
+                hist[offset + rowcol[i*2 + 1]]++;
+            }
+        });
+
+        // Total number of elements in each column
+        int[] col_idx = dst.col_idx;
+        EjmlConcurrency.loopBlocks(0, numCols, ( col0, col1 ) -> {
+            for (int col = col0; col < col1; col++) {
+                int count = 0;
+                for (int block = 0; block < numBlocks; block++) {
+                    count += hist[block*numCols + col];
+                }
+                col_idx[col + 1] = count;
+            }
+        });
+        col_idx[0] = 0;
+        for (int col = 0; col < numCols; col++) {
+            col_idx[col + 1] += col_idx[col];
+        }
+
+        // Convert the histograms into the location each block writes to next inside each column. Earlier
+        // blocks come first so the original order of the elements is preserved
+        EjmlConcurrency.loopBlocks(0, numCols, ( col0, col1 ) -> {
+            for (int col = col0; col < col1; col++) {
+                int location = col_idx[col];
+                for (int block = 0; block < numBlocks; block++) {
+                    int count = hist[block*numCols + col];
+                    hist[block*numCols + col] = location;
+                    location += count;
+                }
+            }
+        });
+
+        // Each block copies its elements into its part of the columns
+        EjmlConcurrency.loopFor(0, numBlocks, block -> {
+            int offset = block*numCols;
+            int[] nz_rows = output.nz_rows;
+            double[] nz_values = output.nz_values;
+            int idx1 = blockStart(block + 1, numBlocks, nz_length);
+            for (int i = blockStart(block, numBlocks, nz_length); i < idx1; i++) {
+                int index = hist[offset + rowcol[i*2 + 1]]++;
+                nz_rows[index] = rowcol[i*2];
+                nz_values[index] = values[i];
+            }
+        });
+        dst.nz_length = nz_length;
+        dst.indicesSorted = false;
+
+        return dst;
+    }
+
+    public static DMatrixSparseCSC convert( DMatrixSparseTriplet src, @Nullable DMatrixSparseCSC dst ) {
+        return convert(src, dst, null);
+    }
+
+    /**
+     * Sorts the row indices inside each column and sums elements which have the same row and column. Columns
+     * are processed in parallel and afterwards the gaps left by duplicates are removed.
+     *
+     * @param A (Input/Output) Matrix whose columns are sorted. nz_length and col_idx are modified if there are
+     * duplicates.
+     * @param workspace (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static void sortAndSumColumns( DMatrixSparseCSC A, @Nullable GrowArray<Workspace> workspace ) {
+        if (workspace == null)
+            workspace = new GrowArray<>(Workspace::new);
+        final int numCols = A.numCols;
+        final int[] col_idx = A.col_idx;
+
+        // The number of unique elements in each column is saved in the first workspace's histogram
+        workspace.reset();
+        final int[] counts = workspace.grow().adjustHistogram(numCols);
+        EjmlConcurrency.loopBlocks(0, numCols, workspace, ( work, col0, col1 ) -> {
+            work.resetMarker(A.numRows);
+            for (int col = col0; col < col1; col++) {
+                counts[col] = work.sortColumn(A, col);
+            }
+        });
+
+        // Remove the space left by duplicates
+        int length = 0;
+        for (int col = 0; col < numCols; col++) {
+            int idx0 = col_idx[col];
+            int count = counts[col];
+            if (idx0 != length) {
+                System.arraycopy(A.nz_rows, idx0, A.nz_rows, length, count);
+                System.arraycopy(A.nz_values, idx0, A.nz_values, length, count);
+            }
+            col_idx[col] = length;
+            length += count;
+        }
+        col_idx[numCols] = length;
+        A.nz_length = length;
+        A.indicesSorted = true;
+    }
+
+    /**
+     * Index of the first element in a block
+     */
+    private static int blockStart( int block, int numBlocks, int length ) {
+        return (int)((long)block*length/numBlocks);
+    }
+
+    /**
+     * Workspace for a single thread
+     */
+    public static class Workspace {
+        int[] hist = new int[0];
+        // location of the most recent element in each row. Used to find duplicates.
+        int[] marker = new int[0];
+        // sort keys with the row in the upper bits and the original location in the lower bits
+        long[] keys = new long[0];
+        double[] values = new double[0];
+
+        int[] adjustHistogram( int length ) {
+            if (hist.length < length)
+                hist = new int[length];
+            else
+                Arrays.fill(hist, 0, length, 0);
+            return hist;
+        }
+
+        void resetMarker( int numRows ) {
+            if (marker.length < numRows)
+                marker = new int[numRows];
+            Arrays.fill(marker, 0, numRows, -1);
+        }
+
+        /**
+         * Sums elements in the column with the same row and then sorts the unique elements. Columns must be
+         * processed in increasing order after calling {@link #resetMarker}. The unique elements are moved to the
+         * start of the column.
+         *
+         * @return Number of unique elements
+         */
+        int sortColumn( DMatrixSparseCSC A, int col ) {
+            final int[] nz_rows = A.nz_rows;
+            final double[] nz_values = A.nz_values;
+            final int idx0 = A.col_idx[col];
+            final int idx1 = A.col_idx[col + 1];
+
+            // Sum duplicates. If the marker points inside this column then the row has already been seen
+            int unique = idx0;
+            boolean sorted = true;
+            for (int i = idx0; i < idx1; i++) {
+                int row = nz_rows[i];
+                int location = marker[row];
+                if (location >= idx0) {
+                    nz_values[location] += nz_values[i];
+                } else {
+                    marker[row] = unique;
+                    if (unique > idx0 && nz_rows[unique - 1] > row)
+                        sorted = false;
+                    nz_rows[unique] = row;
+                    nz_values[unique++] = nz_values[i];
+                }
+            }
+            int length = unique - idx0;
+            if (sorted)
+                return length;
+
+            // Insertion sort is faster for the short columns typically found in sparse matrices
+            if (length <= 32) {
+                for (int i = idx0 + 1; i < unique; i++) {
+                    int row = nz_rows[i];
+                    double value = nz_values[i];
+                    int j = i - 1;
+                    while (j >= idx0 && nz_rows[j] > row) {
+                        nz_rows[j + 1] = nz_rows[j];
+                        nz_values[j + 1] = nz_values[j];
+                        j--;
+                    }
+                    nz_rows[j + 1] = row;
+                    nz_values[j + 1] = value;
+                }
+                return length;
+            }
+
+            if (keys.length < length) {
+                keys = new long[length];
+                values = new double[length];
+            }
+            for (int i = 0; i < length; i++) {
+                keys[i] = ((long)nz_rows[idx0 + i] << 32) | i;
+                values[i] = nz_values[idx0 + i];
+            }
+            Arrays.sort(keys, 0, length);
+            for (int i = 0; i < length; i++) {
+                nz_rows[idx0 + i] = (int)(keys[i] >>> 32);
+                nz_values[idx0 + i] = values[(int)keys[i]];
+            }
+            return length;
+        }
+    }
+}
@@ -25,6 +25,7 @@ import us.hebi.matlab.mat.format.Mat5;
 import us.hebi.matlab.mat.types.MatFile;
 
 import java.io.*;
+import java.nio.file.Paths;
 import java.text.DecimalFormat;
 import java.util.Arrays;
 import java.util.Iterator;
@@ -265,6 +266,20 @@ public class MatrixIO {
         return output;
     }
 
+    /**
+     * Reads a file in Matrix Market Coordinate format directly into a sparse matrix. The file is memory mapped and
+     * parsed by multiple threads. Duplicate elements are summed.
+     *
+     * https://math.nist.gov/MatrixMarket/formats.html
+     *
+     * @param fileName The file being loaded.
+     * @return Matrix in compressed sparse column format
+     * @see ReadMatrixMarket_MT
+     */
+    public static DMatrixSparseCSC loadMatrixMarketCSC( String fileName ) throws IOException {
+        return new ReadMatrixMarket_MT().read(Paths.get(fileName), null);
+    }
+
     /**
      * Saves a matrix to disk using MATLAB's MAT-File Format (Level 5) binary serialization.
      *
@@ -357,7 +372,8 @@ public class MatrixIO {
     }
 
     /**
-     * Saves a matrix to disk using Java binary serialization.
+     * Saves a matrix to disk using Java binary serialization. See {@link #saveBinary(DMatrix, String)} for a
+     * format which is faster and safe to load.
      *
      * @param A The matrix being saved.
      * @param fileName Name of the file its being saved at.
@@ -411,6 +427,30 @@ public class MatrixIO {
         return (T)ret;
     }
 
+    /**
+     * Saves a {@link DMatrixRMaj}, {@link DMatrixRBlock} or {@link DMatrixSparseCSC} using a little-endian binary
+     * format which can be loaded quickly with {@link #loadBinary(String)}.
+     *
+     * @param A The matrix being saved.
+     * @param fileName Name of the file its being saved at.
+     * @see MatrixIOBinary
+     */
+    public static void saveBinary( DMatrix A, String fileName ) throws IOException {
+        MatrixIOBinary.save(A, Paths.get(fileName));
+    }
+
+    /**
+     * Loads a matrix which was saved with {@link #saveBinary(DMatrix, String)}. The file is memory mapped and its
+     * arrays are copied in bulk.
+     *
+     * @param fileName The file being loaded.
+     * @return The loaded matrix
+     * @see MatrixIOBinary
+     */
+    public static <T extends DMatrix> T loadBinary( String fileName ) throws IOException {
+        return MatrixIOBinary.load(Paths.get(fileName));
+    }
+
     /**
      * Saves a matrix to disk using in a Column Space Value (CSV) format. For a
      * description of the format see {@link MatrixIO#loadCSV(String, boolean)}.
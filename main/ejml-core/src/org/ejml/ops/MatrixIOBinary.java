@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.ops;
+
+import org.ejml.data.DMatrix;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>
+ * Reads and writes matrices using a simple binary format which is designed to be loaded quickly. The internal arrays
+ * of the matrix are written as is so that they can be copied in bulk straight from a memory mapped file, avoiding
+ * the per element parsing of text formats and the memory overhead of Java serialization. Writing is done through a
+ * fixed size buffer, so it doesn't matter how large the matrix is. Supported types are {@link DMatrixRMaj},
+ * {@link DMatrixRBlock} and {@link DMatrixSparseCSC}.
+ * </p>
+ *
+ * <p>
+ * Everything is stored in little-endian byte order. The file starts with a header of eight 32-bit integers:
+ * </p>
+ * <pre>
+ * offset  value
+ *  0      magic number 0x4C4D4A45, which is "EJML" in ASCII
+ *  4      format version. Currently 1
+ *  8      matrix type. 1 = DMatrixRMaj, 2 = DMatrixRBlock, 3 = DMatrixSparseCSC
+ * 12      number of rows
+ * 16      number of columns
+ * 20      block length for DMatrixRBlock, nz_length for DMatrixSparseCSC and 0 otherwise
+ * 24      flags. Bit 0 is set if the row indices in a DMatrixSparseCSC are sorted
+ * 28      reserved. Always 0
+ * </pre>
+ * <p>
+ * The header is followed by the arrays. Dense matrices store the first rows*cols elements of their data
+ * array as 64-bit floats. DMatrixSparseCSC stores col_idx (cols+1 integers), then nz_rows (nz_length integers),
+ * then zero padding so that the next array starts at a multiple of 8 bytes, and then nz_values (nz_length
+ * 64-bit floats).
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MatrixIOBinary {
+    /** "EJML" in ASCII when read as little-endian */
+    public static final int MAGIC = 0x4C4D4A45;
+    public static final int VERSION = 1;
+
+    public static final int TYPE_DDRM = 1;
+    public static final int TYPE_DDRB = 2;
+    public static final int TYPE_DSCC = 3;
+
+    /** Number of bytes in the header */
+    public static final int HEADER_BYTES = 32;
+
+    /** Default size of the buffer used when writing */
+    public static final int DEFAULT_CHUNK_BYTES = 1 << 20;
+
+    /** Largest region which is mapped at once. Must be a multiple of 8 */
+    static int MAX_MAP_BYTES = 1 << 30;
+
+    /**
+     * Saves the matrix using the default chunk size.
+     *
+     * @see #save(DMatrix, Path, int)
+     */
+    public static void save( DMatrix A, Path path ) throws IOException {
+        save(A, path, DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * Saves the matrix to a file, overwriting it if it already exists. The arrays are written in chunks through
+     * a buffer of the specified size.
+     *
+     * @param A (Input) The matrix being saved. Not modified.
+     * @param path Path to the file being written
+     * @param chunkBytes Size of the write buffer in bytes. Must be at least the size of the header.
+     */
+    public static void save( DMatrix A, Path path, int chunkBytes ) throws IOException {
+        if (chunkBytes < HEADER_BYTES)
+            throw new IllegalArgumentException("Chunk size must be at least " + HEADER_BYTES + " bytes");
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(chunkBytes - chunkBytes%8).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            if (A instanceof DMatrixSparseCSC) {
+                DMatrixSparseCSC S = (DMatrixSparseCSC)A;
+                writeHeader(channel, buffer, TYPE_DSCC, S.numRows, S.numCols, S.nz_length, S.indicesSorted ? 1 : 0);
+                writeInts(channel, buffer, S.col_idx, S.numCols + 1);
+                writeInts(channel, buffer, S.nz_rows, S.nz_length);
+                if (((long)S.numCols + 1 + S.nz_length)%2 != 0)
+                    writeInts(channel, buffer, new int[1], 1);
+                writeDoubles(channel, buffer, S.nz_values, S.nz_length);
+            } else if (A instanceof DMatrixRBlock) {
+                DMatrixRBlock B = (DMatrixRBlock)A;
+                writeHeader(channel, buffer, TYPE_DDRB, B.numRows, B.numCols, B.blockLength, 0);
+                writeDoubles(channel, buffer, B.data, B.getNumElements());
+            } else if (A instanceof DMatrixRMaj) {
+                DMatrixRMaj M = (DMatrixRMaj)A;
+                writeHeader(channel, buffer, TYPE_DDRM, M.numRows, M.numCols, 0, 0);
+                writeDoubles(channel, buffer, M.data, M.getNumElements());
+            } else {
+                throw new IllegalArgumentException("Unsupported matrix type " + A.getClass().getSimpleName());
+            }
+        }
+    }
+
+    /**
+     * Loads a matrix. A new matrix is always declared.
+     *
+     * @see #load(Path, DMatrix)
+     */
+    public static <T extends DMatrix> T load( Path path ) throws IOException {
+        return load(path, null);
+    }
+
+    /**
+     * Loads a matrix which was saved by {@link #save}. The arrays are copied in bulk from memory mapped regions
+     * of the file, which is much faster than parsing and requires no memory beyond the matrix itself.
+     *
+     * @param path Path to the file being read
+     * @param output (Optional) Storage for the matrix. Used if it has the same type as the saved matrix.
+     * @return The loaded matrix
+     * @throws IOException If the file can't be read or isn't a valid file
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends DMatrix> T load( Path path, @Nullable T output ) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES)
+                throw new IOException("File is too small to contain a header");
+
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC)
+                throw new IOException("Not an EJML binary matrix file");
+            int version = header.getInt(4);
+            if (version != VERSION)
+                throw new IOException("Unsupported version " + version);
+            int type = header.getInt(8);
+            int numRows = header.getInt(12);
+            int numCols = header.getInt(16);
+            int extra = header.getInt(20);
+            int flags = header.getInt(24);
+            if (numRows < 0 || numCols < 0 || extra < 0)
+                throw new IOException("Negative value in the header");
+
+            long position = HEADER_BYTES;
+            switch (type) {
+                case TYPE_DDRM: {
+                    checkSize(fileSize, position + 8L*numRows*numCols);
+                    DMatrixRMaj M = output instanceof DMatrixRMaj ? (DMatrixRMaj)output : new DMatrixRMaj(0, 0);
+                    M.reshape(numRows, numCols);
+                    readDoubles(channel, position, M.data, M.getNumElements());
+                    return (T)M;
+                }
+
+                case TYPE_DDRB: {
+                    checkSize(fileSize, position + 8L*numRows*numCols);
+                    if (extra == 0)
+                        throw new IOException("Block length must be positive");
+                    DMatrixRBlock B = output instanceof DMatrixRBlock ? (DMatrixRBlock)output : new DMatrixRBlock();
+                    B.reshape(numRows, numCols, extra, false);
+                    readDoubles(channel, position, B.data, B.getNumElements());
+                    return (T)B;
+                }
+
+                case TYPE_DSCC: {
+                    int nz_length = extra;
+                    long numInts = (long)numCols + 1 + nz_length;
+                    long offsetValues = position + 4L*(numInts + numInts%2);
+                    checkSize(fileSize, offsetValues + 8L*nz_length);
+                    DMatrixSparseCSC S = output instanceof DMatrixSparseCSC ?
+                            (DMatrixSparseCSC)output : new DMatrixSparseCSC(0, 0, 0);
+                    S.reshape(numRows, numCols, nz_length);
+                    readInts(channel, position, S.col_idx, numCols + 1);
+                    readInts(channel, position + 4L*(numCols + 1), S.nz_rows, nz_length);
+                    readDoubles(channel, offsetValues, S.nz_values, nz_length);
+                    S.nz_length = nz_length;
+                    S.indicesSorted = (flags & 1) != 0;
+                    return (T)S;
+                }
+
+                default:
+                    throw new IOException("Unknown matrix type " + type);
+            }
+        }
+    }
+
+    private static void checkSize( long fileSize, long expected ) throws IOException {
+        if (fileSize != expected)
+            throw new IOException("Expected file to have " + expected + " bytes but it has " + fileSize);
+    }
+
+    private static void writeHeader( FileChannel channel, ByteBuffer buffer,
+                                     int type, int numRows, int numCols, int extra, int flags ) throws IOException {
+        buffer.clear();
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(type).putInt(numRows).putInt(numCols).putInt(extra)
+                .putInt(flags).putInt(0);
+        buffer.flip();
+        writeFully(channel, buffer);
+    }
+
+    private static void writeInts( FileChannel channel, ByteBuffer buffer, int[] array, int length ) throws IOException {
+        int maxElements = buffer.capacity()/4;
+        // the loop is advanced by n, which can't go past length, so unlike start += maxElements it can't overflow
+        int start = 0;
+        while (start < length) {
+            int n = Math.min(maxElements, length - start);
+            buffer.clear();
+            buffer.asIntBuffer().put(array, start, n);
+            buffer.limit(n*4);
+            writeFully(channel, buffer);
+            start += n;
+        }
+    }
+
+    private static void writeDoubles( FileChannel channel, ByteBuffer buffer, double[] array, int length )
+            throws IOException {
+        int maxElements = buffer.capacity()/8;
+        int start = 0;
+        while (start < length) {
+            int n = Math.min(maxElements, length - start);
+            buffer.clear();
+            buffer.asDoubleBuffer().put(array, start, n);
+            buffer.limit(n*8);
+            writeFully(channel, buffer);
+            start += n;
+        }
+    }
+
+    private static void writeFully( FileChannel channel, ByteBuffer buffer ) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void readInts( FileChannel channel, long position, int[] array, int length ) throws IOException {
+        int maxElements = MAX_MAP_BYTES/4;
+        int start = 0;
+        while (start < length) {
+            int n = Math.min(maxElements, length - start);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position + 4L*start, 4L*n);
+            mapped.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(array, start, n);
+            start += n;
+        }
+    }
+
+    private static void readDoubles( FileChannel channel, long position, double[] array, int length )
+            throws IOException {
+        int maxElements = MAX_MAP_BYTES/8;
+        int start = 0;
+        while (start < length) {
+            int n = Math.min(maxElements, length - start);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position + 8L*start, 8L*n);
+            mapped.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(array, start, n);
+            start += n;
+        }
+    }
+}
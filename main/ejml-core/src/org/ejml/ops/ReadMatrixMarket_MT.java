@@ -0,0 +1,638 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.ops;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DMatrixSparseTriplet;
+import org.jetbrains.annotations.Nullable;
+import pabeles.concurrency.GrowArray;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * <p>
+ * Concurrent reader for files in the Matrix Market coordinate format. The file is memory mapped and split into chunks
+ * at line boundaries. Each thread parses chunks directly from the mapped bytes into its own
+ * {@link DMatrixSparseTriplet}, so no Strings are created per line. Numbers are usually
+ * converted without calling {@link Double#parseDouble} and give identical results. Only numbers which are
+ * too close to call, have more than 18 significant digits, or are subnormal fall back to it. Afterwards the
+ * triplets are merged into a {@link DMatrixSparseCSC}. Each column is sorted and duplicate elements are summed.
+ * </p>
+ *
+ * <p>
+ * Real, integer and pattern fields are supported, as are general, symmetric and skew-symmetric matrices. Only one
+ * triangle of a symmetric matrix is stored in the file. The other one is filled in when the triplets are
+ * merged. Files without the %%MatrixMarket banner are read as real general, which is what
+ * {@link MatrixIO#saveMatrixMarketD} writes.
+ * </p>
+ *
+ * <p>
+ * https://math.nist.gov/MatrixMarket/formats.html
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ReadMatrixMarket_MT {
+    /** The file is split into chunks which are at least this many bytes */
+    public int minChunkBytes = 1 << 20;
+
+    /** The file is split into chunks which are at most this many bytes, so that each chunk can be mapped */
+    public int maxChunkBytes = 1 << 29;
+
+    // 10^i for all the powers which can be exactly represented by a double
+    private static final double[] POW10 = new double[23];
+
+    // Range of powers of ten which are handled by the Eisel-Lemire algorithm
+    private static final int SMALLEST_POWER = -342;
+    private static final int LARGEST_POWER = 308;
+    // Upper and lower 64-bits of the 128-bit truncated significand of 5^q
+    private static final long[] POW5_HI = new long[LARGEST_POWER - SMALLEST_POWER + 1];
+    private static final long[] POW5_LO = new long[LARGEST_POWER - SMALLEST_POWER + 1];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1]*10;
+        }
+
+        BigInteger two128 = BigInteger.ONE.shiftLeft(128);
+        BigInteger mask64 = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+        for (int q = SMALLEST_POWER; q <= LARGEST_POWER; q++) {
+            BigInteger c;
+            if (q < 0) {
+                // reciprocal rounded up so that it's never smaller than the true value
+                BigInteger power5 = BigInteger.valueOf(5).pow(-q);
+                int z = power5.bitLength();
+                int b = q >= -27 ? z + 127 : 2*z + 128;
+                c = BigInteger.ONE.shiftLeft(b).divide(power5).add(BigInteger.ONE);
+                while (c.compareTo(two128) >= 0) {
+                    c = c.shiftRight(1);
+                }
+            } else {
+                BigInteger power5 = BigInteger.valueOf(5).pow(q);
+                int bits = power5.bitLength();
+                c = bits <= 128 ? power5.shiftLeft(128 - bits) : power5.shiftRight(bits - 128);
+            }
+            POW5_HI[q - SMALLEST_POWER] = c.shiftRight(64).longValue();
+            POW5_LO[q - SMALLEST_POWER] = c.and(mask64).longValue();
+        }
+    }
+
+    // Information from the header
+    boolean pattern;
+    boolean symmetric;
+    boolean skew;
+    int numRows, numCols, declaredLength;
+
+    // Byte offset of the first chunk and the start of every chunk. The last element is the file size
+    long[] chunkStart = new long[0];
+    int numChunks;
+
+    // Triplets parsed by each thread
+    final GrowArray<ChunkParser> workers = new GrowArray<>(ChunkParser::new, ChunkParser::reset);
+    // Used to sort each column
+    final GrowArray<DConvertMatrixStruct_MT.Workspace> sortWork =
+            new GrowArray<>(DConvertMatrixStruct_MT.Workspace::new);
+
+    /**
+     * Reads a matrix from the file.
+     *
+     * @param path Path to a Matrix Market coordinate file
+     * @param output (Optional) Storage for the matrix
+     * @return The matrix
+     * @throws IOException If the file can't be read or isn't a valid file
+     */
+    public DMatrixSparseCSC read( Path path, @Nullable DMatrixSparseCSC output ) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long dataStart = readHeader(channel);
+            splitIntoChunks(channel, dataStart);
+
+            EjmlConcurrency.loopFor(0, numChunks, 1, workers, ( worker, chunk ) ->
+                    worker.parse(channel, chunkStart[chunk], chunkStart[chunk + 1], this));
+        }
+
+        int found = 0;
+        for (int i = 0; i < workers.size(); i++) {
+            ChunkParser worker = workers.get(i);
+            if (worker.error != null)
+                throw new IOException(worker.error);
+            found += worker.triplet.nz_length;
+        }
+        if (found != declaredLength)
+            throw new IOException("Header declared " + declaredLength + " elements but " + found + " were found");
+
+        if (output == null)
+            output = new DMatrixSparseCSC(numRows, numCols, 0);
+        merge(output);
+        return output;
+    }
+
+    /**
+     * Parses the banner, comments and the size line
+     *
+     * @return Byte offset of the first line after the size line
+     */
+    long readHeader( FileChannel channel ) throws IOException {
+        pattern = symmetric = skew = false;
+
+        long fileSize = channel.size();
+        long position = 0;
+        boolean first = true;
+        while (true) {
+            String line = readLine(channel, position, fileSize);
+            if (line == null)
+                throw new IOException("Size line is missing");
+            position += line.length() + 1;
+
+            if (first && line.startsWith("%%MatrixMarket")) {
+                parseBanner(line);
+            }
+            first = false;
+
+            line = line.trim();
+            if (line.isEmpty() || line.charAt(0) == '%')
+                continue;
+
+            String[] words = line.split("\\s+");
+            if (words.length != 3)
+                throw new IOException("Unexpected number of words in the size line: " + words.length);
+            try {
+                numRows = Integer.parseInt(words[0]);
+                numCols = Integer.parseInt(words[1]);
+                declaredLength = Integer.parseInt(words[2]);
+            } catch (NumberFormatException e) {
+                throw new IOException("Bad size line: " + line, e);
+            }
+            if (numRows < 0 || numCols < 0 || declaredLength < 0)
+                throw new IOException("Negative value in the size line");
+            if ((symmetric || skew) && numRows != numCols)
+                throw new IOException("Symmetric matrices must be square");
+            return Math.min(position, fileSize);
+        }
+    }
+
+    private void parseBanner( String line ) throws IOException {
+        String[] words = line.trim().toLowerCase(Locale.ENGLISH).split("\\s+");
+        if (words.length != 5 || !words[1].equals("matrix"))
+            throw new IOException("Unsupported banner: " + line);
+        if (!words[2].equals("coordinate"))
+            throw new IOException("Only the coordinate format is supported");
+        switch (words[3]) {
+            case "real": case "integer": break;
+            case "pattern": pattern = true; break;
+            default: throw new IOException("Unsupported field: " + words[3]);
+        }
+        switch (words[4]) {
+            case "general": break;
+            case "symmetric": symmetric = true; break;
+            case "skew-symmetric": skew = true; break;
+            default: throw new IOException("Unsupported symmetry: " + words[4]);
+        }
+    }
+
+    /**
+     * Reads the line which starts at the specified location. Only used for the header.
+     */
+    private static @Nullable String readLine( FileChannel channel, long position, long fileSize ) throws IOException {
+        if (position >= fileSize)
+            return null;
+        long window = 1024;
+        while (true) {
+            int length = (int)Math.min(window, fileSize - position);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            for (int i = 0; i < length; i++) {
+                if (buffer.get(i) == '\n') {
+                    length = i;
+                    break;
+                }
+            }
+            if (length < window || position + length == fileSize) {
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                return new String(bytes, StandardCharsets.US_ASCII);
+            }
+            window *= 2;
+        }
+    }
+
+    /**
+     * Selects where each chunk starts. Every chunk other than the first one starts just after a new line
+     */
+    void splitIntoChunks( FileChannel channel, long dataStart ) throws IOException {
+        long fileSize = channel.size();
+        long length = fileSize - dataStart;
+
+        long count = Math.min(EjmlConcurrency.getMaxThreads()*4L, length/Math.max(1, minChunkBytes));
+        count = Math.max(count, (length + maxChunkBytes - 1)/maxChunkBytes);
+        numChunks = (int)Math.max(1, count);
+
+        if (chunkStart.length < numChunks + 1)
+            chunkStart = new long[numChunks + 1];
+        chunkStart[0] = dataStart;
+        chunkStart[numChunks] = fileSize;
+        for (int i = 1; i < numChunks; i++) {
+            long nominal = Math.max(dataStart + length*i/numChunks, chunkStart[i - 1]);
+            chunkStart[i] = nextLine(channel, nominal, fileSize);
+        }
+    }
+
+    /**
+     * Returns the first location at or after the specified location which is the start of a line
+     */
+    private static long nextLine( FileChannel channel, long position, long fileSize ) throws IOException {
+        // the character before it is checked in case it's already at the start of a line
+        long location = position - 1;
+        int window = 4096;
+        while (location < fileSize) {
+            int length = (int)Math.min(window, fileSize - location);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, location, length);
+            for (int i = 0; i < length; i++) {
+                if (buffer.get(i) == '\n')
+                    return location + i + 1;
+            }
+            location += length;
+        }
+        return fileSize;
+    }
+
+    /**
+     * Merges the triplets found by all the threads into a CSC matrix. Elements in symmetric matrices are mirrored.
+     */
+    void merge( DMatrixSparseCSC output ) {
+        // count the number of elements in each column
+        int total = 0;
+        output.reshape(numRows, numCols, 0);
+        int[] col_idx = output.col_idx;
+        for (int w = 0; w < workers.size(); w++) {
+            DMatrixSparseTriplet T = workers.get(w).triplet;
+            int[] rowcol = T.nz_rowcol.data;
+            for (int i = 0; i < T.nz_length; i++) {
+                int row = rowcol[i*2];
+                int col = rowcol[i*2 + 1];
+                col_idx[col + 1]++;
+                if ((symmetric || skew) && row != col) {
+                    col_idx[row + 1]++;
+                    total++;
+                }
+            }
+            total += T.nz_length;
+        }
+        for (int col = 0; col < numCols; col++) {
+            col_idx[col + 1] += col_idx[col];
+        }
+
+        // copy elements into their columns
+        output.growMaxLength(total, false);
+        int[] next = new int[numCols];
+        System.arraycopy(col_idx, 0, next, 0, numCols);
+        double mirror = skew ? -1 : 1;
+        for (int w = 0; w < workers.size(); w++) {
+            DMatrixSparseTriplet T = workers.get(w).triplet;
+            int[] rowcol = T.nz_rowcol.data;
+            double[] values = T.nz_value.data;
+            for (int i = 0; i < T.nz_length; i++) {
+                int row = rowcol[i*2];
+                int col = rowcol[i*2 + 1];
+                int index = next[col]++;
+                output.nz_rows[index] = row;
+                output.nz_values[index] = values[i];
+                if ((symmetric || skew) && row != col) {
+                    index = next[row]++;
+                    output.nz_rows[index] = col;
+                    output.nz_values[index] = mirror*values[i];
+                }
+            }
+        }
+
+        // Sort each column and sum duplicates
+        DConvertMatrixStruct_MT.sortAndSumColumns(output, sortWork);
+    }
+
+    /**
+     * Parses the lines in a chunk and saves the elements in a triplet
+     */
+    static class ChunkParser {
+        final DMatrixSparseTriplet triplet = new DMatrixSparseTriplet();
+        @Nullable String error;
+
+        // storage for numbers which can't be parsed by the fast path
+        byte[] token = new byte[32];
+
+        // values parsed by the most recent call
+        int intValue;
+        double doubleValue;
+
+        // the triplet is shared by all the chunks processed by this thread
+        void reset() {
+            triplet.nz_length = 0;
+            error = null;
+        }
+
+        void parse( FileChannel channel, long start, long end, ReadMatrixMarket_MT owner ) {
+            if (error != null || start >= end)
+                return;
+            MappedByteBuffer buffer;
+            try {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            } catch (IOException e) {
+                error = e.getMessage();
+                return;
+            }
+
+            int length = (int)(end - start);
+            int i = 0;
+            while (i < length) {
+                byte b = buffer.get(i);
+                if (isSpace(b)) {
+                    i++;
+                    continue;
+                }
+                if (b == '%') {
+                    while (i < length && buffer.get(i) != '\n') {
+                        i++;
+                    }
+                    continue;
+                }
+
+                int lineStart = i;
+                if ((i = parseInt(buffer, i, length)) < 0) {
+                    fail("row", start + lineStart);
+                    return;
+                }
+                int row = intValue - 1;
+                if ((i = parseInt(buffer, skipBlank(buffer, i, length), length)) < 0) {
+                    fail("column", start + lineStart);
+                    return;
+                }
+                int col = intValue - 1;
+                double value = 1;
+                if (!owner.pattern) {
+                    if ((i = parseDouble(buffer, skipBlank(buffer, i, length), length)) < 0) {
+                        fail("value", start + lineStart);
+                        return;
+                    }
+                    value = doubleValue;
+                }
+                i = skipBlank(buffer, i, length);
+                if (i < length && buffer.get(i) != '\n' && buffer.get(i) != '\r') {
+                    fail("line ending", start + lineStart);
+                    return;
+                }
+                if (row < 0 || col < 0 || row >= owner.numRows || col >= owner.numCols) {
+                    error = "Element out of bounds at byte " + (start + lineStart);
+                    return;
+                }
+
+                if (triplet.nz_length == triplet.nz_value.data.length) {
+                    int amount = Math.max(16, triplet.nz_length);
+                    triplet.nz_value.growInternal(amount);
+                    triplet.nz_rowcol.growInternal(amount*2);
+                }
+                triplet.addItem(row, col, value);
+            }
+        }
+
+        private void fail( String what, long location ) {
+            error = "Bad " + what + " in line starting at byte " + location;
+        }
+
+        private static boolean isSpace( byte b ) {
+            return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+        }
+
+        private static int skipBlank( ByteBuffer buffer, int i, int length ) {
+            while (i < length) {
+                byte b = buffer.get(i);
+                if (b != ' ' && b != '\t')
+                    break;
+                i++;
+            }
+            return i;
+        }
+
+        /**
+         * Parses a positive integer and saves it in intValue
+         *
+         * @return Location after the number or -1 if it isn't valid
+         */
+        int parseInt( ByteBuffer buffer, int i, int length ) {
+            int start = i;
+            long value = 0;
+            while (i < length) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9)
+                    break;
+                value = value*10 + digit;
+                if (value > Integer.MAX_VALUE)
+                    return -1;
+                i++;
+            }
+            if (i == start)
+                return -1;
+            intValue = (int)value;
+            return i;
+        }
+
+        /**
+         * Parses a floating point number and saves it in doubleValue. If the significand fits in 53-bits and the
+         * power of ten can be represented exactly then a single multiplication or division results in a
+         * correctly rounded value. Otherwise the Eisel-Lemire algorithm is tried and only if that fails does it
+         * fall back to {@link Double#parseDouble}.
+         *
+         * @return Location after the number or -1 if it isn't valid
+         */
+        int parseDouble( ByteBuffer buffer, int i, int length ) {
+            int start = i;
+            boolean negative = false;
+            if (i < length && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+                negative = buffer.get(i) == '-';
+                i++;
+            }
+
+            long significand = 0;
+            int numDigits = 0;
+            int exponent = 0;
+            boolean truncated = false;
+            boolean anyDigits = false;
+            boolean fraction = false;
+            while (i < length) {
+                byte b = buffer.get(i);
+                if (b == '.' && !fraction) {
+                    fraction = true;
+                    i++;
+                    continue;
+                }
+                int digit = b - '0';
+                if (digit < 0 || digit > 9)
+                    break;
+                anyDigits = true;
+                if (numDigits < 18) {
+                    significand = significand*10 + digit;
+                    if (significand != 0)
+                        numDigits++;
+                    if (fraction)
+                        exponent--;
+                } else {
+                    truncated |= digit != 0;
+                    if (!fraction)
+                        exponent++;
+                }
+                i++;
+            }
+
+            if (anyDigits && i < length && (buffer.get(i) == 'e' || buffer.get(i) == 'E')) {
+                i++;
+                boolean negativeExp = false;
+                if (i < length && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+                    negativeExp = buffer.get(i) == '-';
+                    i++;
+                }
+                int expStart = i;
+                int value = 0;
+                while (i < length) {
+                    int digit = buffer.get(i) - '0';
+                    if (digit < 0 || digit > 9)
+                        break;
+                    if (value < 100_000)
+                        value = value*10 + digit;
+                    i++;
+                }
+                if (i == expStart)
+                    return -1;
+                exponent += negativeExp ? -value : value;
+            }
+
+            // the number must end at white space
+            if (!anyDigits || (i < length && !isSpace(buffer.get(i)))) {
+                return parseSlow(buffer, start, length);
+            }
+
+            if (significand == 0) {
+                doubleValue = negative ? -0.0 : 0.0;
+            } else if (!truncated && significand < (1L << 53) && exponent >= -22 && exponent <= 22) {
+                double value = significand;
+                value = exponent < 0 ? value/POW10[-exponent] : value*POW10[exponent];
+                doubleValue = negative ? -value : value;
+            } else {
+                double value = truncated ? Double.NaN : eiselLemire(significand, exponent);
+                if (Double.isNaN(value))
+                    return parseSlow(buffer, start, length);
+                doubleValue = negative ? -value : value;
+            }
+            return i;
+        }
+
+        /**
+         * Converts w*10^q into the closest double using the algorithm by Eisel and Lemire, which multiplies the
+         * significand by a 128-bit approximation of 5^q. Cases which are too close to call, subnormal numbers
+         * and overflow are not handled.
+         *
+         * <p>Lemire, Daniel. "Number parsing at a gigabyte per second." Software: Practice and Experience 2021</p>
+         *
+         * @param w Significand. Must be positive.
+         * @param q Power of ten
+         * @return The value or NaN if it can't be computed
+         */
+        static double eiselLemire( long w, int q ) {
+            if (q < SMALLEST_POWER || q > LARGEST_POWER)
+                return Double.NaN;
+
+            int lz = Long.numberOfLeadingZeros(w);
+            w <<= lz;
+
+            long factorHi = POW5_HI[q - SMALLEST_POWER];
+            long upper = multiplyHigh(w, factorHi);
+            long lower = w*factorHi;
+            if ((upper & 0x1FF) == 0x1FF && Long.compareUnsigned(lower + w, lower) < 0) {
+                // the truncated product isn't accurate enough. Use the lower bits of the power too
+                long factorLo = POW5_LO[q - SMALLEST_POWER];
+                long productLow = w*factorLo;
+                long middle = lower + multiplyHigh(w, factorLo);
+                if (Long.compareUnsigned(middle, lower) < 0)
+                    upper++;
+                if (middle + 1 == 0 && (upper & 0x1FF) == 0x1FF && Long.compareUnsigned(productLow + w, productLow) < 0)
+                    return Double.NaN;
+                lower = middle;
+            }
+
+            // the final significand should be 53-bits with a leading 1
+            int upperBit = (int)(upper >>> 63);
+            long mantissa = upper >>> (upperBit + 9);
+            lz += 1 ^ upperBit;
+
+            // too close to half way between two doubles to round to even
+            if (lower == 0 && (upper & 0x1FF) == 0 && (mantissa & 3) == 1)
+                return Double.NaN;
+
+            mantissa += mantissa & 1;
+            mantissa >>>= 1;
+            if (mantissa >= (1L << 53)) {
+                mantissa = 1L << 52;
+                lz--;
+            }
+            mantissa &= ~(1L << 52);
+
+            long realExponent = (((152170L + 65536L)*q) >> 16) + 1024 + 63 - lz;
+            if (realExponent < 1 || realExponent > 2046)
+                return Double.NaN;
+            return Double.longBitsToDouble(mantissa | (realExponent << 52));
+        }
+
+        /**
+         * Upper 64-bits of the unsigned 128-bit product
+         */
+        static long multiplyHigh( long a, long b ) {
+            long aLo = a & 0xFFFFFFFFL, aHi = a >>> 32;
+            long bLo = b & 0xFFFFFFFFL, bHi = b >>> 32;
+            long t = aHi*bLo + ((aLo*bLo) >>> 32);
+            long w1 = aLo*bHi + (t & 0xFFFFFFFFL);
+            return aHi*bHi + (t >>> 32) + (w1 >>> 32);
+        }
+
+        /**
+         * Copies the token into a String and parses it with {@link Double#parseDouble}
+         */
+        int parseSlow( ByteBuffer buffer, int start, int length ) {
+            int i = start;
+            while (i < length && !isSpace(buffer.get(i))) {
+                i++;
+            }
+            int tokenLength = i - start;
+            if (token.length < tokenLength)
+                token = new byte[tokenLength];
+            for (int k = 0; k < tokenLength; k++) {
+                token[k] = buffer.get(start + k);
+            }
+            try {
+                doubleValue = Double.parseDouble(new String(token, 0, tokenLength, StandardCharsets.US_ASCII));
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+            return i;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
  *
  * This file is part of Efficient Java Matrix Library (EJML).
  *
@@ -35,5 +35,15 @@ public enum FillReducing {
     /**
      * TESTING ONLY. Doesn't change the input.
      */
-    IDENTITY
+    IDENTITY,
+    /**
+     * Approximate Minimum Degree ordering of A+A<sup>T</sup>. A symmetric permutation intended for use with
+     * Cholesky and LU decompositions of square matrices.
+     */
+    AMD,
+    /**
+     * Column Approximate Minimum Degree ordering. Orders the columns using the pattern of A<sup>T</sup>A and does
+     * not permute the rows. Intended for use with QR and LU decompositions of unsymmetric or rectangular matrices.
+     */
+    COLAMD
 }
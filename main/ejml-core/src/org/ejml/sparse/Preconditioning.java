@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.sparse;
+
+/**
+ * Different types of preconditioners which can be used by iterative sparse linear solvers
+ *
+ * @author Peter Abeles
+ */
+public enum Preconditioning {
+    /**
+     * No preconditioner is applied
+     */
+    NONE,
+    /**
+     * Jacobi preconditioner. Scales by the inverse of the diagonal elements. Very cheap but only effective when
+     * the matrix is diagonally dominant.
+     */
+    JACOBI,
+    /**
+     * Incomplete Cholesky with zero fill in, IC(0). The lower triangular factor has the same non-zero pattern
+     * as the lower triangle of A. Only for symmetric positive definite matrices.
+     */
+    INCOMPLETE_CHOLESKY,
+    /**
+     * Incomplete LU with zero fill in, ILU(0). L and U have the same non-zero pattern as A. Intended for
+     * general square matrices. No pivoting is done so every diagonal element in A must be non-zero.
+     */
+    INCOMPLETE_LU
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestEjmlProfile {
+    Properties original;
+
+    @BeforeEach
+    void before() {
+        original = EjmlProfile.capture();
+    }
+
+    @AfterEach
+    void after() {
+        EjmlProfile.apply(original);
+    }
+
+    /**
+     * Every parameter should be captured and then restored by apply
+     */
+    @Test
+    void captureApply() {
+        Properties p = EjmlProfile.capture();
+        assertEquals(12, p.size());
+
+        EjmlParameters.BLOCK_WIDTH = 1;
+        EjmlParameters.BLOCK_WIDTH_CHOL = 2;
+        EjmlParameters.TRANSPOSE_SWITCH = 3;
+        EjmlParameters.MULT_COLUMN_SWITCH = 4;
+        EjmlParameters.MULT_TRANAB_COLUMN_SWITCH = 5;
+        EjmlParameters.MULT_INNER_SWITCH = 6;
+        EjmlParameters.MULT_BLOCKED_SWITCH = 10;
+        EjmlParameters.SWITCH_BLOCK64_CHOLESKY = 7;
+        EjmlParameters.SWITCH_BLOCK64_QR = 8;
+        EjmlParameters.SWITCH_BLOCK64_LU = 11;
+        EjmlParameters.SWITCH_EIG_DIVIDE_CONQUER = 12;
+        EjmlConcurrency.ELEMENT_THRESHOLD = 9;
+
+        EjmlProfile.apply(p);
+        assertEquals(p, EjmlProfile.capture());
+    }
+
+    /**
+     * Parameters not in the profile or with invalid values are not modified
+     */
+    @Test
+    void apply_partial() {
+        Properties p = new Properties();
+        p.setProperty(EjmlProfile.MULT_COLUMN_SWITCH, " 33 ");
+        p.setProperty(EjmlProfile.BLOCK_WIDTH, "foo");
+
+        int blockWidth = EjmlParameters.BLOCK_WIDTH;
+        int threshold = EjmlConcurrency.ELEMENT_THRESHOLD;
+        EjmlProfile.apply(p);
+
+        assertEquals(33, EjmlParameters.MULT_COLUMN_SWITCH);
+        assertEquals(blockWidth, EjmlParameters.BLOCK_WIDTH);
+        assertEquals(threshold, EjmlConcurrency.ELEMENT_THRESHOLD);
+    }
+
+    @Test
+    void saveLoad() throws IOException {
+        File directory = Files.createTempDirectory("ejml").toFile();
+        File file = new File(directory, "sub/profile.properties");
+        try {
+            EjmlParameters.SWITCH_BLOCK64_QR = 1234;
+            EjmlConcurrency.ELEMENT_THRESHOLD = 4321;
+            EjmlProfile.save(file);
+            Properties expected = EjmlProfile.capture();
+
+            EjmlProfile.apply(original);
+            EjmlProfile.load(file);
+
+            assertEquals(1234, EjmlParameters.SWITCH_BLOCK64_QR);
+            assertEquals(4321, EjmlConcurrency.ELEMENT_THRESHOLD);
+            assertEquals(expected, EjmlProfile.capture());
+        } finally {
+            assertTrue(file.delete());
+            assertTrue(file.getParentFile().delete());
+            assertTrue(directory.delete());
+        }
+    }
+}
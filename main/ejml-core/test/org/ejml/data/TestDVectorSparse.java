@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestDVectorSparse {
+    Random rand = new Random(234);
+
+    @Test
+    public void set_get() {
+        DVectorSparse v = new DVectorSparse(20);
+        double[] expected = new double[20];
+        for (int trial = 0; trial < 100; trial++) {
+            int index = rand.nextInt(20);
+            double value = rand.nextDouble() + 0.1;
+            v.set(index, value);
+            expected[index] = value;
+            assertTrue(v.checkStructure());
+        }
+        for (int i = 0; i < 20; i++) {
+            assertEquals(expected[i], v.get(i));
+            assertEquals(expected[i] != 0, v.isAssigned(i));
+        }
+        assertEquals(5.0, new DVectorSparse(4).get(2, 5.0));
+        assertThrows(IllegalArgumentException.class, () -> v.set(20, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> v.get(-1));
+    }
+
+    @Test
+    public void append() {
+        DVectorSparse v = new DVectorSparse(50);
+        for (int i = 0; i < 50; i += 3) {
+            v.append(i, i + 0.5);
+        }
+        assertEquals(17, v.nz_length);
+        assertTrue(v.checkStructure());
+        assertEquals(9.5, v.get(9));
+        assertEquals(0.0, v.get(10));
+    }
+
+    @Test
+    public void remove() {
+        DVectorSparse v = new DVectorSparse(10);
+        v.set(2, 1);
+        v.set(5, 2);
+        v.set(7, 3);
+        v.remove(5);
+        v.remove(6);
+        assertEquals(2, v.nz_length);
+        assertFalse(v.isAssigned(5));
+        assertEquals(3.0, v.get(7));
+        assertTrue(v.checkStructure());
+    }
+
+    @Test
+    public void setTo_copy() {
+        DVectorSparse v = new DVectorSparse(10);
+        v.set(2, 1);
+        v.set(8, 2);
+
+        DVectorSparse c = v.copy();
+        v.set(2, 5);
+        assertEquals(10, c.size);
+        assertEquals(2, c.nz_length);
+        assertEquals(1.0, c.get(2));
+        assertEquals(2.0, c.get(8));
+
+        DVectorSparse d = new DVectorSparse(3, 1);
+        d.setTo(v);
+        assertEquals(10, d.size);
+        assertEquals(5.0, d.get(2));
+    }
+
+    @Test
+    public void reshape() {
+        DVectorSparse v = new DVectorSparse(10);
+        v.set(2, 1);
+        v.reshape(30);
+        assertEquals(30, v.size);
+        assertEquals(0, v.nz_length);
+    }
+
+    @Test
+    public void checkStructure() {
+        DVectorSparse v = new DVectorSparse(10, 5);
+        v.append(3, 1);
+        v.append(2, 1);
+        assertFalse(v.checkStructure());
+        v.zero();
+        v.append(12, 1);
+        assertFalse(v.checkStructure());
+    }
+}
@@ -79,6 +79,28 @@ public class TestDMasksSparseStructural {
         }
     }
 
+    /**
+     * Change the matrix after the mask has been created and see if reset() updates the mask
+     */
+    @Test
+    void reset() {
+        Random rand = new Random(42);
+        DMatrixSparseCSC matrix = RandomMatrices_DSCC.rectangle(5, 5, 10, rand);
+        DMaskSparseStructural mask = new DMaskSparseStructural.Builder(matrix).build();
+        mask.setIndexColumn(1);
+
+        for (int dim : new int[]{12, 5}) {
+            matrix.setTo(RandomMatrices_DSCC.rectangle(dim, dim, 3*dim, rand));
+            mask.reset();
+            for (int col = 0; col < dim; col++) {
+                mask.setIndexColumn(col);
+                for (int row = 0; row < dim; row++) {
+                    assertEquals(matrix.isAssigned(row, col), mask.isSet(row, col));
+                }
+            }
+        }
+    }
+
     @ParameterizedTest
     @MethodSource("maskAndExpectedMaxEntries")
     void maxEntries( Mask mask, int expected ) {
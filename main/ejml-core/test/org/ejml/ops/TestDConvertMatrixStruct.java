@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2020, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
  *
  * This file is part of Efficient Java Matrix Library (EJML).
  *
@@ -27,6 +27,7 @@ import org.ejml.dense.row.RandomMatrices_DDRM;
 import org.ejml.sparse.csc.CommonOps_DSCC;
 import org.ejml.sparse.csc.MatrixFeatures_DSCC;
 import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.ejml.sparse.csr.CommonOps_DSCR;
 import org.ejml.sparse.triplet.MatrixFeatures_DSTL;
 import org.ejml.sparse.triplet.RandomMatrices_DSTL;
 import org.jetbrains.annotations.Nullable;
@@ -346,4 +347,50 @@ public class TestDConvertMatrixStruct {
         assertTrue(MatrixFeatures_DSTL.isEquals(a,c, UtilEjml.TEST_F64));
     }
 
+    @Test
+    public void SMatrixCC_SMatrixCR() {
+        for (int trial = 0; trial < 10; trial++) {
+            DMatrixSparseCSC a = RandomMatrices_DSCC.rectangle(5 + trial, 7, 3*trial + 1, -1, 1, rand);
+            DMatrixSparseCSR b = DConvertMatrixStruct.convert(a, (DMatrixSparseCSR)null);
+            assertEquals(a.nz_length, b.nz_length);
+            assertTrue(b.indicesSorted);
+            assertTrue(CommonOps_DSCR.checkStructure(b));
+            EjmlUnitTests.assertEquals(a, b);
+
+            // convert it back using a matrix and workspace which need to be resized
+            DMatrixSparseCSC c = DConvertMatrixStruct.convert(b, new DMatrixSparseCSC(1, 1, 1), new IGrowArray());
+            assertTrue(c.indicesSorted);
+            assertTrue(CommonOps_DSCC.checkStructure(c));
+            assertTrue(MatrixFeatures_DSCC.isEqualsSort(a, c, UtilEjml.TEST_F64));
+        }
+    }
+
+    @Test
+    public void SMatrixCR_DMatrixRow() {
+        DMatrixRMaj a = RandomMatrices_DDRM.rectangle(5, 6, -1, 1, rand);
+        a.set(1, 2, 0);
+        a.set(4, 0, 0);
+
+        DMatrixSparseCSR b = DConvertMatrixStruct.convert(a, (DMatrixSparseCSR)null, UtilEjml.EPS);
+        assertEquals(28, b.nz_length);
+        assertTrue(CommonOps_DSCR.checkStructure(b));
+        EjmlUnitTests.assertEquals(a, b);
+
+        DMatrixRMaj c = DConvertMatrixStruct.convert(b, new DMatrixRMaj(1, 1));
+        assertTrue(MatrixFeatures_DDRM.isIdentical(a, c, UtilEjml.TEST_F64));
+    }
+
+    @Test
+    public void SMatrixTriplet_SMatrixCR() {
+        DMatrixSparseTriplet a = RandomMatrices_DSTL.uniform(5, 6, 10, -1, 1, rand);
+
+        DMatrixSparseCSR b = DConvertMatrixStruct.convert(a, new DMatrixSparseCSR(1, 1, 2));
+        assertEquals(a.nz_length, b.nz_length);
+        for (int i = 0; i < a.nz_length; i++) {
+            int row = a.nz_rowcol.data[i*2];
+            int col = a.nz_rowcol.data[i*2 + 1];
+            assertEquals(a.nz_value.data[i], b.get(row, col), UtilEjml.TEST_F64);
+        }
+        assertTrue(CommonOps_DSCR.checkSortedFlag(b));
+    }
 }
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.ops;
+
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DMatrixSparseTriplet;
+import org.ejml.data.IGrowArray;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pabeles.concurrency.GrowArray;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestDConvertMatrixStruct_MT {
+    private final Random rand = new Random(234);
+
+    // Force multiple threads to be used even if there's only one core
+    private int originalThreads;
+    private boolean originalConcurrent;
+    private int originalThreshold;
+
+    @BeforeEach void before() {
+        originalThreads = EjmlConcurrency.getMaxThreads();
+        originalConcurrent = EjmlConcurrency.USE_CONCURRENT;
+        originalThreshold = EjmlConcurrency.ELEMENT_THRESHOLD;
+        EjmlConcurrency.setMaxThreads(4);
+    }
+
+    @AfterEach void after() {
+        EjmlConcurrency.setMaxThreads(originalThreads);
+        EjmlConcurrency.USE_CONCURRENT = originalConcurrent;
+        EjmlConcurrency.ELEMENT_THRESHOLD = originalThreshold;
+    }
+
+    /**
+     * The output should be identical to the single threaded version, including the order of elements and
+     * duplicates which are not summed
+     */
+    @Test void triplet_csc() {
+        var hist = new IGrowArray();
+        var found = new DMatrixSparseCSC(1, 1);
+        // multiple sizes to test different numbers of blocks. The same workspace and output are used to make
+        // sure the previous results don't contaminate the next
+        for (boolean duplicates : new boolean[]{false, true}) {
+            for (int nz : new int[]{0, 1, 50, 5000, 20000}) {
+                DMatrixSparseTriplet T = randomTriplet(200, 150, nz, duplicates);
+                DConvertMatrixStruct_MT.convert(T, found, hist);
+                assertIdentical(serial(T), found);
+            }
+        }
+    }
+
+    /**
+     * Elements with the same coordinate should be summed together
+     */
+    @Test void sortAndSumColumns() {
+        var workspace = new GrowArray<>(DConvertMatrixStruct_MT.Workspace::new);
+        for (int nz : new int[]{0, 2000, 5000, 30000}) {
+            DMatrixSparseTriplet T = randomTriplet(30, 45, nz, true);
+            DMatrixSparseCSC found = DConvertMatrixStruct_MT.convert(T, null);
+            DConvertMatrixStruct_MT.sortAndSumColumns(found, workspace);
+            check(T, found);
+            if (nz > 0)
+                assertTrue(found.nz_length < nz);
+        }
+    }
+
+    /**
+     * The serial conversion should switch to the concurrent one for large matrices without changing the output
+     */
+    @Test void triplet_csc_autoSelect() {
+        DMatrixSparseTriplet T = randomTriplet(20, 25, 3000, true);
+        DMatrixSparseCSC expected = serial(T);
+
+        var hist = new IGrowArray();
+        EjmlConcurrency.ELEMENT_THRESHOLD = 100;
+        DMatrixSparseCSC concurrent = DConvertMatrixStruct.convert(T, (DMatrixSparseCSC)null, hist);
+        assertIdentical(expected, concurrent);
+        // the provided workspace should have been used
+        assertTrue(hist.length >= T.numCols);
+    }
+
+    /**
+     * Converts the triplet using the single threaded code
+     */
+    private static DMatrixSparseCSC serial( DMatrixSparseTriplet T ) {
+        int previous = EjmlConcurrency.ELEMENT_THRESHOLD;
+        EjmlConcurrency.ELEMENT_THRESHOLD = Integer.MAX_VALUE;
+        try {
+            return DConvertMatrixStruct.convert(T, (DMatrixSparseCSC)null);
+        } finally {
+            EjmlConcurrency.ELEMENT_THRESHOLD = previous;
+        }
+    }
+
+    private static void assertIdentical( DMatrixSparseCSC expected, DMatrixSparseCSC found ) {
+        assertEquals(expected.numRows, found.numRows);
+        assertEquals(expected.numCols, found.numCols);
+        assertEquals(expected.nz_length, found.nz_length);
+        assertEquals(expected.indicesSorted, found.indicesSorted);
+        for (int col = 0; col <= expected.numCols; col++) {
+            assertEquals(expected.col_idx[col], found.col_idx[col]);
+        }
+        for (int i = 0; i < expected.nz_length; i++) {
+            assertEquals(expected.nz_rows[i], found.nz_rows[i]);
+            assertEquals(expected.nz_values[i], found.nz_values[i]);
+        }
+    }
+
+    private DMatrixSparseTriplet randomTriplet( int numRows, int numCols, int nz, boolean duplicates ) {
+        var T = new DMatrixSparseTriplet(numRows, numCols, nz);
+        if (duplicates) {
+            for (int i = 0; i < nz; i++) {
+                T.addItem(rand.nextInt(numRows), rand.nextInt(numCols), rand.nextDouble() - 0.5);
+            }
+        } else {
+            // shuffle the coordinates so that the order isn't sorted
+            int N = numRows*numCols;
+            int[] order = new int[N];
+            for (int i = 0; i < N; i++) {
+                order[i] = i;
+            }
+            for (int i = 0; i < Math.min(nz, N); i++) {
+                int j = i + rand.nextInt(N - i);
+                int tmp = order[i];
+                order[i] = order[j];
+                order[j] = tmp;
+                T.addItem(order[i]/numCols, order[i]%numCols, rand.nextDouble() - 0.5);
+            }
+        }
+        return T;
+    }
+
+    private static void check( DMatrixSparseTriplet T, DMatrixSparseCSC found ) {
+        assertEquals(T.numRows, found.numRows);
+        assertEquals(T.numCols, found.numCols);
+        assertTrue(found.indicesSorted);
+
+        // sum up the elements in the triplet
+        double[] expected = new double[T.numRows*T.numCols];
+        boolean[] assigned = new boolean[expected.length];
+        for (int i = 0; i < T.nz_length; i++) {
+            int index = T.nz_rowcol.data[i*2]*T.numCols + T.nz_rowcol.data[i*2 + 1];
+            expected[index] += T.nz_value.data[i];
+            assigned[index] = true;
+        }
+
+        int count = 0;
+        for (int col = 0; col < found.numCols; col++) {
+            int idx0 = found.col_idx[col];
+            int idx1 = found.col_idx[col + 1];
+            for (int i = idx0; i < idx1; i++) {
+                if (i > idx0)
+                    assertTrue(found.nz_rows[i - 1] < found.nz_rows[i]);
+                int index = found.nz_rows[i]*T.numCols + col;
+                assertTrue(assigned[index]);
+                assertEquals(expected[index], found.nz_values[i], UtilEjml.TEST_F64);
+                count++;
+            }
+        }
+        assertEquals(found.nz_length, count);
+        for (int i = 0; i < assigned.length; i++) {
+            if (assigned[i])
+                count--;
+        }
+        assertEquals(0, count);
+    }
+}
@@ -123,6 +123,23 @@ public class TestMatrixIO {
         assertTrue(f.delete());
     }
 
+    @Test
+    public void load_save_binary_mapped() throws IOException {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(6,3,rand);
+
+        MatrixIO.saveBinary(A, "temp.bin");
+
+        DMatrixRMaj A_copy = MatrixIO.loadBinary("temp.bin");
+
+        assertTrue(A != A_copy);
+        assertTrue(MatrixFeatures_DDRM.isEquals(A,A_copy));
+
+        // clean up
+        File f = new File("temp.bin");
+        assertTrue(f.exists());
+        assertTrue(f.delete());
+    }
+
     @Test
     public void load_save_dense_csv() throws IOException {
         DMatrixRMaj A = RandomMatrices_DDRM.rectangle(6,3,rand);
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.ops;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.block.MatrixOps_DDRB;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMatrixIOBinary {
+    Random rand = new Random(234);
+
+    Path path;
+    int previousMapBytes;
+
+    @BeforeEach
+    public void before() throws IOException {
+        path = Files.createTempFile("ejml", ".bin");
+        previousMapBytes = MatrixIOBinary.MAX_MAP_BYTES;
+    }
+
+    @AfterEach
+    public void after() throws IOException {
+        MatrixIOBinary.MAX_MAP_BYTES = previousMapBytes;
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    public void dense_row() throws IOException {
+        for (int numRows : new int[]{0, 1, 7, 30}) {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(numRows, 11, rand);
+            MatrixIOBinary.save(A, path);
+            assertEquals(MatrixIOBinary.HEADER_BYTES + 8L*A.getNumElements(), Files.size(path));
+
+            DMatrixRMaj found = MatrixIOBinary.load(path);
+            assertNotSame(A, found);
+            assertTrue(MatrixFeatures_DDRM.isIdentical(A, found, 0));
+        }
+    }
+
+    @Test
+    public void dense_block() throws IOException {
+        DMatrixRBlock A = MatrixOps_DDRB.createRandom(17, 9, -1, 1, rand, 4);
+        MatrixIOBinary.save(A, path);
+
+        DMatrixRBlock found = MatrixIOBinary.load(path);
+        assertEquals(4, found.blockLength);
+        assertEquals(17, found.numRows);
+        assertEquals(9, found.numCols);
+        for (int i = 0; i < A.getNumElements(); i++) {
+            assertEquals(A.data[i], found.data[i]);
+        }
+    }
+
+    @Test
+    public void sparse() throws IOException {
+        for (int nz : new int[]{0, 1, 20, 41}) {
+            DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(10, 12, nz, rand);
+            A.indicesSorted = nz%2 == 0;
+            MatrixIOBinary.save(A, path);
+            // values must start on an 8-byte boundary
+            assertEquals(0, (Files.size(path) - 8L*nz)%8);
+
+            DMatrixSparseCSC found = MatrixIOBinary.load(path);
+            assertEquals(A.indicesSorted, found.indicesSorted);
+            EjmlUnitTests.assertEquals(A, found);
+        }
+    }
+
+    /**
+     * Arrays larger than the write buffer and the mapped region should be split into chunks
+     */
+    @Test
+    public void chunks() throws IOException {
+        MatrixIOBinary.MAX_MAP_BYTES = 64;
+
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(50, 40, 301, rand);
+        MatrixIOBinary.save(A, path, 36);
+        EjmlUnitTests.assertEquals(A, MatrixIOBinary.load(path));
+
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(13, 21, rand);
+        MatrixIOBinary.save(B, path, 36);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(B, MatrixIOBinary.load(path), 0));
+    }
+
+    /**
+     * The output is used if it's the same type
+     */
+    @Test
+    public void recycleOutput() throws IOException {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(10, 12, 30, rand);
+        MatrixIOBinary.save(A, path);
+
+        DMatrixSparseCSC storage = new DMatrixSparseCSC(2, 3, 50);
+        assertSame(storage, MatrixIOBinary.load(path, storage));
+        EjmlUnitTests.assertEquals(A, storage);
+
+        DMatrixRMaj wrongType = new DMatrixRMaj(2, 2);
+        assertNotSame(wrongType, MatrixIOBinary.load(path, wrongType));
+    }
+
+    /**
+     * Little-endian layout described in the documentation
+     */
+    @Test
+    public void layout() throws IOException {
+        DMatrixRMaj A = new DMatrixRMaj(new double[][]{{1, 2, 3}});
+        MatrixIOBinary.save(A, path);
+
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals('E', bytes.get(0));
+        assertEquals('J', bytes.get(1));
+        assertEquals('M', bytes.get(2));
+        assertEquals('L', bytes.get(3));
+        assertEquals(MatrixIOBinary.VERSION, bytes.getInt(4));
+        assertEquals(MatrixIOBinary.TYPE_DDRM, bytes.getInt(8));
+        assertEquals(1, bytes.getInt(12));
+        assertEquals(3, bytes.getInt(16));
+        assertEquals(3.0, bytes.getDouble(MatrixIOBinary.HEADER_BYTES + 16));
+    }
+
+    @Test
+    public void invalidFile() throws IOException {
+        Files.write(path, new byte[10]);
+        assertThrows(IOException.class, () -> MatrixIOBinary.load(path));
+
+        Files.write(path, new byte[64]);
+        assertThrows(IOException.class, () -> MatrixIOBinary.load(path));
+
+        // truncated file
+        MatrixIOBinary.save(RandomMatrices_DDRM.rectangle(5, 5, rand), path);
+        byte[] data = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(data, data.length - 8));
+        assertThrows(IOException.class, () -> MatrixIOBinary.load(path));
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.ops;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixSparseCSC;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestReadMatrixMarket_MT {
+    Random rand = new Random(234);
+
+    Path path;
+    int previousThreads;
+    boolean previousConcurrent;
+
+    @BeforeEach
+    public void before() throws IOException {
+        path = Files.createTempFile("ejml", ".mtx");
+        previousThreads = EjmlConcurrency.getMaxThreads();
+        previousConcurrent = EjmlConcurrency.USE_CONCURRENT;
+    }
+
+    @AfterEach
+    public void after() throws IOException {
+        EjmlConcurrency.setMaxThreads(previousThreads);
+        EjmlConcurrency.USE_CONCURRENT = previousConcurrent;
+        Files.deleteIfExists(path);
+    }
+
+    /**
+     * Random elements with duplicates in a random order. Split into many chunks across several threads.
+     */
+    @Test
+    public void general() throws IOException {
+        for (int threads : new int[]{1, 3}) {
+            EjmlConcurrency.setMaxThreads(threads);
+            for (int trial = 0; trial < 5; trial++) {
+                int rows = 1 + rand.nextInt(30);
+                int cols = 1 + rand.nextInt(30);
+                int N = rand.nextInt(200);
+                double[][] expected = new double[rows][cols];
+                boolean[][] assigned = new boolean[rows][cols];
+
+                StringBuilder text = new StringBuilder();
+                text.append("%%MatrixMarket matrix coordinate real general\n% comment\n\n");
+                text.append(rows).append(' ').append(cols).append(' ').append(N).append('\n');
+                for (int i = 0; i < N; i++) {
+                    int row = rand.nextInt(rows);
+                    int col = rand.nextInt(cols);
+                    double value = rand.nextGaussian();
+                    expected[row][col] += value;
+                    assigned[row][col] = true;
+                    text.append(String.format(Locale.US, "%d\t%d  %.17g\n", row + 1, col + 1, value));
+                    if (i%17 == 0)
+                        text.append("% comment in the data\n");
+                }
+
+                ReadMatrixMarket_MT alg = new ReadMatrixMarket_MT();
+                alg.minChunkBytes = 20;
+                DMatrixSparseCSC found = alg.read(save(text), null);
+                if (threads > 1 && text.length() > 200)
+                    assertTrue(alg.numChunks > 1);
+                check(expected, assigned, found);
+            }
+        }
+    }
+
+    /**
+     * Files without a banner, CRLF line endings and a variety of number formats
+     */
+    @Test
+    public void formats() throws IOException {
+        String text = "2 3 6\r\n1 1 1\r\n1 2 -2.5e1\r\n2 1 .5\r\n2 2 +3.\r\n2 3 -0\r\n  1 3   7E-3  \r\n";
+        DMatrixSparseCSC found = new ReadMatrixMarket_MT().read(save(text), null);
+
+        assertEquals(6, found.nz_length);
+        assertEquals(1, found.get(0, 0));
+        assertEquals(-25, found.get(0, 1));
+        assertEquals(0.5, found.get(1, 0));
+        assertEquals(3, found.get(1, 1));
+        assertEquals(0.007, found.get(0, 2));
+        assertTrue(found.isAssigned(1, 2));
+    }
+
+    @Test
+    public void symmetric() throws IOException {
+        String text = "%%MatrixMarket matrix coordinate real symmetric\n3 3 3\n1 1 2\n3 1 4\n2 3 5\n";
+        DMatrixSparseCSC found = new ReadMatrixMarket_MT().read(save(text), null);
+        assertEquals(5, found.nz_length);
+        assertEquals(2, found.get(0, 0));
+        assertEquals(4, found.get(2, 0));
+        assertEquals(4, found.get(0, 2));
+        assertEquals(5, found.get(1, 2));
+        assertEquals(5, found.get(2, 1));
+
+        text = "%%MatrixMarket matrix coordinate integer skew-symmetric\n3 3 1\n3 1 4\n";
+        found = new ReadMatrixMarket_MT().read(save(text), null);
+        assertEquals(2, found.nz_length);
+        assertEquals(4, found.get(2, 0));
+        assertEquals(-4, found.get(0, 2));
+    }
+
+    @Test
+    public void pattern() throws IOException {
+        String text = "%%MatrixMarket matrix coordinate pattern general\n2 2 3\n1 2\n2 1\n1 2\n";
+        DMatrixSparseCSC found = new ReadMatrixMarket_MT().read(save(text), null);
+        assertEquals(2, found.nz_length);
+        assertEquals(2, found.get(0, 1));
+        assertEquals(1, found.get(1, 0));
+        assertTrue(found.indicesSorted);
+    }
+
+    @Test
+    public void badFiles() throws IOException {
+        ReadMatrixMarket_MT alg = new ReadMatrixMarket_MT();
+        assertThrows(IOException.class, () -> alg.read(save("% only a comment\n"), null));
+        assertThrows(IOException.class, () -> alg.read(save("%%MatrixMarket matrix array real general\n1 1\n1\n"), null));
+        assertThrows(IOException.class, () -> alg.read(save("2 2 1\n3 1 1.0\n"), null));
+        assertThrows(IOException.class, () -> alg.read(save("2 2 1\n1 1 abc\n"), null));
+        assertThrows(IOException.class, () -> alg.read(save("2 2 2\n1 1 1.0\n"), null));
+        assertThrows(IOException.class, () -> alg.read(save("2 2 1\n1 1 1.0 5\n"), null));
+    }
+
+    /**
+     * The parsed value must be identical to Double.parseDouble for numbers handled by the fast path and
+     * the fall back
+     */
+    @Test
+    public void parseDouble() {
+        ReadMatrixMarket_MT.ChunkParser parser = new ReadMatrixMarket_MT.ChunkParser();
+        String[] formats = new String[]{"%.17g", "%.15e", "%.6f", "%.3e", "%g", "%.1f", "%.20e"};
+        for (int trial = 0; trial < 2000; trial++) {
+            double value = rand.nextGaussian()*Math.pow(10, rand.nextInt(40) - 20);
+            String text = String.format(Locale.US, formats[trial%formats.length], value);
+            checkParse(parser, text);
+        }
+        // random bits across the entire range of exponents with enough digits to require the slow paths
+        for (int trial = 0; trial < 2000; trial++) {
+            double value = Double.longBitsToDouble(rand.nextLong());
+            if (Double.isNaN(value) || Double.isInfinite(value))
+                continue;
+            checkParse(parser, Double.toString(value));
+            checkParse(parser, String.format(Locale.US, "%.17e", value));
+            checkParse(parser, String.format(Locale.US, "%.16e", value));
+        }
+        for (String text : new String[]{"0", "-0.0", "123456789012345678901234", "1e308", "4.9e-324", "1e-400",
+                "000001.50000", "Infinity", "-NaN", "1.7976931348623157E308", "9007199254740993",
+                "2.2250738585072014E-308", "2.2250738585072011E-308", "9007199254740993e-10", "7.3177701707893310e+15",
+                "1.00000000000000011102230246251565404236316680908203125", "5e-324", "123456789012345678e-300"}) {
+            checkParse(parser, text);
+        }
+        ByteBuffer bytes = ByteBuffer.wrap("1.5x".getBytes(StandardCharsets.US_ASCII));
+        assertEquals(-1, parser.parseDouble(bytes, 0, 4));
+    }
+
+    private static void checkParse( ReadMatrixMarket_MT.ChunkParser parser, String text ) {
+        byte[] bytes = (text + " ").getBytes(StandardCharsets.US_ASCII);
+        double expected = text.contains("NaN") ? Double.NaN : Double.parseDouble(text);
+        assertEquals(text.length(), parser.parseDouble(ByteBuffer.wrap(bytes), 0, bytes.length), text);
+        assertEquals(Double.doubleToLongBits(expected), Double.doubleToLongBits(parser.doubleValue), text);
+    }
+
+    private Path save( CharSequence text ) throws IOException {
+        Files.write(path, text.toString().getBytes(StandardCharsets.US_ASCII));
+        return path;
+    }
+
+    private static void check( double[][] expected, boolean[][] assigned, DMatrixSparseCSC found ) {
+        assertTrue(found.indicesSorted);
+        int count = 0;
+        for (int row = 0; row < expected.length; row++) {
+            for (int col = 0; col < expected[0].length; col++) {
+                assertEquals(assigned[row][col], found.isAssigned(row, col));
+                assertEquals(expected[row][col], found.get(row, col), 1e-12);
+                if (assigned[row][col])
+                    count++;
+            }
+        }
+        assertEquals(count, found.nz_length);
+        for (int col = 0; col < found.numCols; col++) {
+            for (int idx = found.col_idx[col] + 1; idx < found.col_idx[col + 1]; idx++) {
+                assertTrue(found.nz_rows[idx - 1] < found.nz_rows[idx]);
+            }
+        }
+    }
+}
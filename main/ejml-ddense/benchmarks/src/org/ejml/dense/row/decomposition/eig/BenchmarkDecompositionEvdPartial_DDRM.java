@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.eig;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.decomposition.hessenberg.TridiagonalDecompositionHouseholder_DDRM;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares finding a few of the largest eigenpairs of a symmetric matrix against a full decomposition
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 2)
+public class BenchmarkDecompositionEvdPartial_DDRM {
+    //    @Param({"500", "1000", "2000", "5000"})
+    @Param({"1000"})
+    public int size;
+
+    @Param({"1", "10", "50"})
+    public int numEigen;
+
+    public DMatrixRMaj S;
+
+    SymmetricQRAlgorithmDecomposition_DDRM full;
+    SymmetricLanczosDecomposition_DDRM partial;
+    SymmetricLanczosDecomposition_MT_DDRM partialMT;
+
+    @Setup
+    public void setup() {
+        full = new SymmetricQRAlgorithmDecomposition_DDRM(new TridiagonalDecompositionHouseholder_DDRM(), true);
+        partial = new SymmetricLanczosDecomposition_DDRM(numEigen, true);
+        partialMT = new SymmetricLanczosDecomposition_MT_DDRM(numEigen, true);
+
+        Random rand = new Random(234);
+
+        S = RandomMatrices_DDRM.symmetric(size, -1, 1, rand);
+    }
+
+    @Benchmark
+    public void full() {
+        full.decompose(S.copy());
+    }
+
+    @Benchmark
+    public void lanczos() {
+        partial.decompose(S);
+    }
+
+    @Benchmark
+    public void lanczos_MT() {
+        partialMT.decompose(S);
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkDecompositionEvdPartial_DDRM.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
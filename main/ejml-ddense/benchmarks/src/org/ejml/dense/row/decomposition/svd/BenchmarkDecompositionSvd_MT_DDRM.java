@@ -43,6 +43,8 @@ public class BenchmarkDecompositionSvd_MT_DDRM {
     public DMatrixRMaj A, U, V;
 
     SvdImplicitQrDecompose_MT_DDRM svd = new SvdImplicitQrDecompose_MT_DDRM(true, true, true, true);
+    SvdOneSidedJacobi_MT_DDRM jacobi = new SvdOneSidedJacobi_MT_DDRM(true, true, true);
+    SvdOneSidedJacobi_MT_DDRM jacobi_sv = new SvdOneSidedJacobi_MT_DDRM(true, false, false);
 
     @Setup
     public void setup() {
@@ -65,6 +67,18 @@ public class BenchmarkDecompositionSvd_MT_DDRM {
         svd.decompose(A.copy());
     }
 
+    @Benchmark
+    public void jacobi_uv() {
+        jacobi.decompose(A);
+        jacobi.getU(U, false);
+        jacobi.getV(V, true);
+    }
+
+    @Benchmark
+    public void jacobi() {
+        jacobi_sv.decompose(A);
+    }
+
     public static void main( String[] args ) throws RunnerException {
         Options opt = new OptionsBuilder()
                 .include(BenchmarkDecompositionSvd_MT_DDRM.class.getSimpleName())
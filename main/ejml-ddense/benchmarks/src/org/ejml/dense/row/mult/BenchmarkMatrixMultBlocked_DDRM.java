@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.mult;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cache blocked matrix multiplication against the row major algorithms. The 'gflop' counter
+ * is normalized by time, so it's reported in GFLOPS.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+public class BenchmarkMatrixMultBlocked_DDRM {
+
+    @Param({"64", "256", "1000", "2000", "4000"})
+    public int size;
+
+    public DMatrixRMaj A = new DMatrixRMaj(1, 1);
+    public DMatrixRMaj B = new DMatrixRMaj(1, 1);
+    public DMatrixRMaj C = new DMatrixRMaj(1, 1);
+
+    /**
+     * Counts the number of floating point operations performed
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Flops {
+        public double gflop;
+    }
+
+    @Setup
+    public void setup() {
+        var rand = new Random(234);
+        A = RandomMatrices_DDRM.rectangle(size, size, -1, 1, rand);
+        B = RandomMatrices_DDRM.rectangle(size, size, -1, 1, rand);
+        C = RandomMatrices_DDRM.rectangle(size, size, -1, 1, rand);
+    }
+
+    private double gflop() {
+        return 2.0*size*size*(double)size/1e9;
+    }
+
+    // @formatter:off
+    @Benchmark public void mult_reorder( Flops f ) { MatrixMatrixMult_DDRM.mult_reorder(A, B, C); f.gflop += gflop(); }
+    @Benchmark public void mult_blocked( Flops f ) { MatrixMultBlocked_DDRM.mult(1.0, A, B, C); f.gflop += gflop(); }
+    @Benchmark public void multTransA_reorder( Flops f ) { MatrixMatrixMult_DDRM.multTransA_reorder(A, B, C); f.gflop += gflop(); }
+    @Benchmark public void multTransA_blocked( Flops f ) { MatrixMultBlocked_DDRM.multTransA(1.0, A, B, C); f.gflop += gflop(); }
+    @Benchmark public void multTransB( Flops f ) { MatrixMatrixMult_DDRM.multTransB(A, B, C); f.gflop += gflop(); }
+    @Benchmark public void multTransB_blocked( Flops f ) { MatrixMultBlocked_DDRM.multTransB(1.0, A, B, C); f.gflop += gflop(); }
+    @Benchmark public void multAdd_reorder( Flops f ) { MatrixMatrixMult_DDRM.multAdd_reorder(A, B, C); f.gflop += gflop(); }
+    @Benchmark public void multAdd_blocked( Flops f ) { MatrixMultBlocked_DDRM.multAdd(1.0, A, B, C); f.gflop += gflop(); }
+    // @formatter:on
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkMatrixMultBlocked_DDRM.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
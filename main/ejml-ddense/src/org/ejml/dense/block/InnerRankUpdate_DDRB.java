@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
  *
  * This file is part of Efficient Java Matrix Library (EJML).
  *
@@ -283,24 +283,58 @@ public class InnerRankUpdate_DDRB {
 //            }
 //        }
 
-        int rowA = indexA;
-        int c = indexC;
-        for (int i = 0; i < heightA; i++, rowA += widthA) {
-            final int endA = rowA + widthA;
-            int rowB = indexB;
-            final int endLoopJ = c + widthC;
-
-            // for( int j = 0; j < widthC; j++  ) {
-            while (c != endLoopJ) {
-                int a = rowA;
-                int b = rowB;
-
+        // Two rows and two columns are computed at once. This reduces the number of times an element is read
+        // and allows the CPU to compute the independent sums in parallel
+        int i = 0;
+        for (; i + 1 < heightA; i += 2) {
+            final int rowA0 = i*widthA + indexA;
+            final int rowA1 = rowA0 + widthA;
+            final int rowC0 = i*widthC + indexC;
+            final int rowC1 = rowC0 + widthC;
+
+            int j = 0;
+            for (; j + 1 < widthC; j += 2) {
+                final int rowB0 = j*widthA + indexB;
+                final int rowB1 = rowB0 + widthA;
+
+                double sum00 = 0, sum01 = 0, sum10 = 0, sum11 = 0;
+                for (int k = 0; k < widthA; k++) {
+                    double a0 = dataA[rowA0 + k];
+                    double a1 = dataA[rowA1 + k];
+                    double b0 = dataA[rowB0 + k];
+                    double b1 = dataA[rowB1 + k];
+                    sum00 += a0*b0;
+                    sum01 += a0*b1;
+                    sum10 += a1*b0;
+                    sum11 += a1*b1;
+                }
+                dataC[rowC0 + j] -= sum00;
+                dataC[rowC0 + j + 1] -= sum01;
+                dataC[rowC1 + j] -= sum10;
+                dataC[rowC1 + j + 1] -= sum11;
+            }
+            if (j < widthC) {
+                final int rowB0 = j*widthA + indexB;
+                double sum00 = 0, sum10 = 0;
+                for (int k = 0; k < widthA; k++) {
+                    double b0 = dataA[rowB0 + k];
+                    sum00 += dataA[rowA0 + k]*b0;
+                    sum10 += dataA[rowA1 + k]*b0;
+                }
+                dataC[rowC0 + j] -= sum00;
+                dataC[rowC1 + j] -= sum10;
+            }
+        }
+        if (i < heightA) {
+            final int rowA = i*widthA + indexA;
+            final int rowC = i*widthC + indexC;
+            for (int j = 0; j < widthC; j++) {
+                final int rowB = j*widthA + indexB;
                 double sum = 0;
-                while (a != endA) {
-                    sum += dataA[a++]*dataA[b++];
+                for (int k = 0; k < widthA; k++) {
+                    sum += dataA[rowA + k]*dataA[rowB + k];
                 }
-                dataC[c++] -= sum;
-                rowB += widthA;
+                dataC[rowC + j] -= sum;
             }
         }
     }
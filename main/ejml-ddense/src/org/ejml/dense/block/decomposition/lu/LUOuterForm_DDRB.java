@@ -0,0 +1,351 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.block.decomposition.lu;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.Complex_F64;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DSubmatrixD1;
+import org.ejml.data.IGrowArray;
+import org.ejml.dense.block.MatrixMult_DDRB;
+import org.ejml.interfaces.decomposition.LUDecomposition_F64;
+import org.jetbrains.annotations.Nullable;
+
+//CONCURRENT_INLINE import org.ejml.dense.block.*;
+//CONCURRENT_INLINE import org.ejml.concurrency.EjmlConcurrency;
+
+//CONCURRENT_MACRO MatrixMult_DDRB MatrixMult_MT_DDRB
+
+/**
+ * <p>
+ * Right looking block LU decomposition with partial pivoting. The original matrix is stored and modified.
+ * For each block column the panel is factored using an unblocked algorithm, the row swaps are applied to the
+ * other block columns, the block row to the right is solved against the unit lower triangular diagonal block
+ * and then the trailing submatrix is updated with a single block matrix multiplication.
+ * </p>
+ *
+ * <p>
+ * Based on the description provided in "Matrix Computations" 4th Ed. by Gene H. Golub and Charles F. Van Loan.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("NullAway.Init")
+public class LUOuterForm_DDRB implements LUDecomposition_F64<DMatrixRBlock> {
+
+    // The decomposed matrix.
+    private DMatrixRBlock LU;
+
+    // At step i row i was swapped with row swaps[i]
+    private int[] swaps = new int[0];
+    // the resulting permutation of the rows
+    private int[] pivot = new int[0];
+    // sign of the permutation
+    private double pivsign;
+
+    // predeclare local work space
+    private final DSubmatrixD1 subA = new DSubmatrixD1();
+    private final DSubmatrixD1 subB = new DSubmatrixD1();
+    private final DSubmatrixD1 subC = new DSubmatrixD1();
+
+    // storage for the determinant
+    private final Complex_F64 det = new Complex_F64();
+
+    /**
+     * Decomposes the provided matrix and stores the result in the same matrix.
+     *
+     * @param A Matrix that is to be decomposed.  Modified.
+     * @return If it succeeded or not.
+     */
+    @Override
+    public boolean decompose( DMatrixRBlock A ) {
+        this.LU = A;
+
+        int m = A.numRows;
+        int n = A.numCols;
+        int blockLength = A.blockLength;
+        int kmax = Math.min(m, n);
+
+        if (swaps.length < kmax)
+            swaps = new int[kmax];
+        if (pivot.length < m)
+            pivot = new int[m];
+
+        subA.set(A);
+        subB.set(A);
+        subC.set(A);
+
+        for (int k0 = 0; k0 < kmax; k0 += blockLength) {
+            int width = Math.min(blockLength, n - k0);
+            int height = Math.min(blockLength, m - k0);
+            int steps = Math.min(width, height);
+
+            // LU of the panel below and including the diagonal block
+            factorPanel(k0, width, steps);
+
+            // apply the row swaps to the other block columns and solve for the block row of U
+            updateBlockColumns(k0, width, height, steps);
+
+            // on the last block row or column the trailing update is not needed
+            if (k0 + height < m && k0 + width < n) {
+                //@formatter:off
+                subA.row0 = k0 + height;  subA.row1 = m;
+                subA.col0 = k0;           subA.col1 = k0 + width;
+
+                subB.row0 = k0;           subB.row1 = k0 + height;
+                subB.col0 = k0 + width;   subB.col1 = n;
+
+                subC.row0 = k0 + height;  subC.row1 = m;
+                subC.col0 = k0 + width;   subC.col1 = n;
+                //@formatter:on
+
+                // A22 = A22 - L21*U12
+                MatrixMult_DDRB.multMinus(blockLength, subA, subB, subC);
+            }
+        }
+
+        // convert the sequence of swaps into a permutation
+        for (int i = 0; i < m; i++) {
+            pivot[i] = i;
+        }
+        pivsign = 1;
+        for (int i = 0; i < kmax; i++) {
+            int p = swaps[i];
+            if (p != i) {
+                int tmp = pivot[p];
+                pivot[p] = pivot[i];
+                pivot[i] = tmp;
+                pivsign = -pivsign;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Unblocked LU with partial pivoting of the block column which starts at k0. Rows inside of each
+     * block are contiguous so the pivot rows can be swapped and updated efficiently.
+     */
+    private void factorPanel( int k0, int width, int steps ) {
+        final double[] data = LU.data;
+        final int m = LU.numRows;
+        final int blockLength = LU.blockLength;
+
+        for (int j = 0; j < steps; j++) {
+            int col = k0 + j;
+
+            // find the pivot
+            int p = col;
+            double max = -1;
+            for (int r0 = k0; r0 < m; r0 += blockLength) {
+                int indexBlock = indexRow(k0, width, r0);
+                int start = Math.max(r0, col);
+                int end = Math.min(m, r0 + blockLength);
+                for (int row = start; row < end; row++) {
+                    double v = Math.abs(data[indexBlock + (row - r0)*width + j]);
+                    if (v > max) {
+                        max = v;
+                        p = row;
+                    }
+                }
+            }
+            swaps[col] = p;
+
+            int indexCol = indexRow(k0, width, col);
+            if (p != col) {
+                int indexP = indexRow(k0, width, p);
+                for (int i = 0; i < width; i++) {
+                    double tmp = data[indexCol + i];
+                    data[indexCol + i] = data[indexP + i];
+                    data[indexP + i] = tmp;
+                }
+            }
+
+            double diag = data[indexCol + j];
+            if (diag == 0)
+                continue;
+
+            // compute the multipliers and update the remainder of the panel
+            for (int r0 = col - col%blockLength; r0 < m; r0 += blockLength) {
+                int indexBlock = indexRow(k0, width, r0);
+                int start = Math.max(r0, col + 1);
+                int end = Math.min(m, r0 + blockLength);
+                for (int row = start; row < end; row++) {
+                    int indexRow = indexBlock + (row - r0)*width;
+                    double l = data[indexRow + j] /= diag;
+                    for (int i = j + 1; i < width; i++) {
+                        data[indexRow + i] -= l*data[indexCol + i];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies the row swaps from the most recent panel to all the other block columns. Block columns to the
+     * right of the panel are then multiplied by the inverse of the unit lower triangular diagonal block.
+     */
+    private void updateBlockColumns( final int k0, final int width, final int height, final int steps ) {
+        final double[] data = LU.data;
+        final int n = LU.numCols;
+        final int blockLength = LU.blockLength;
+
+        //CONCURRENT_BELOW EjmlConcurrency.loopFor(0, n, blockLength, j0 -> {
+        for (int j0 = 0; j0 < n; j0 += blockLength) {
+            if (j0 != k0) {
+                int widthB = Math.min(blockLength, n - j0);
+
+                for (int i = k0; i < k0 + steps; i++) {
+                    int p = swaps[i];
+                    if (p == i)
+                        continue;
+                    int indexI = indexRow(j0, widthB, i);
+                    int indexP = indexRow(j0, widthB, p);
+                    for (int k = 0; k < widthB; k++) {
+                        double tmp = data[indexI + k];
+                        data[indexI + k] = data[indexP + k];
+                        data[indexP + k] = tmp;
+                    }
+                }
+
+                if (j0 > k0) {
+                    // B = L^-1 B where L is unit lower triangular
+                    int indexL = k0*n + k0*height;
+                    int indexB = k0*n + j0*height;
+                    for (int i = 1; i < steps; i++) {
+                        int rowB = indexB + i*widthB;
+                        for (int k = 0; k < i; k++) {
+                            double l = data[indexL + i*width + k];
+                            if (l == 0)
+                                continue;
+                            int rowK = indexB + k*widthB;
+                            for (int c = 0; c < widthB; c++) {
+                                data[rowB + c] -= l*data[rowK + c];
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        //CONCURRENT_ABOVE });
+    }
+
+    /**
+     * Index of the first element in the specified row inside of the block column which starts at col0
+     */
+    private int indexRow( int col0, int widthBlock, int row ) {
+        int blockLength = LU.blockLength;
+        int r0 = row - row%blockLength;
+        int heightBlock = Math.min(blockLength, LU.numRows - r0);
+        return r0*LU.numCols + col0*heightBlock + (row - r0)*widthBlock;
+    }
+
+    @Override
+    public DMatrixRBlock getLower( @Nullable DMatrixRBlock lower ) {
+        int numRows = LU.numRows;
+        int numCols = Math.min(LU.numRows, LU.numCols);
+
+        lower = declareOutput(lower, numRows, numCols);
+
+        for (int i = 0; i < numRows; i++) {
+            if (i < numCols)
+                lower.unsafe_set(i, i, 1.0);
+            int end = Math.min(i, numCols);
+            for (int j = 0; j < end; j++) {
+                lower.unsafe_set(i, j, LU.unsafe_get(i, j));
+            }
+        }
+        return lower;
+    }
+
+    @Override
+    public DMatrixRBlock getUpper( @Nullable DMatrixRBlock upper ) {
+        int numRows = Math.min(LU.numRows, LU.numCols);
+        int numCols = LU.numCols;
+
+        upper = declareOutput(upper, numRows, numCols);
+
+        for (int i = 0; i < numRows; i++) {
+            for (int j = i; j < numCols; j++) {
+                upper.unsafe_set(i, j, LU.unsafe_get(i, j));
+            }
+        }
+        return upper;
+    }
+
+    @Override
+    public DMatrixRBlock getRowPivot( @Nullable DMatrixRBlock pivot ) {
+        pivot = declareOutput(pivot, LU.numRows, LU.numRows);
+        for (int i = 0; i < LU.numRows; i++) {
+            pivot.unsafe_set(i, this.pivot[i], 1.0);
+        }
+        return pivot;
+    }
+
+    @Override
+    public int[] getRowPivotV( @Nullable IGrowArray pivot ) {
+        return UtilEjml.pivotVector(this.pivot, LU.numRows, pivot);
+    }
+
+    private DMatrixRBlock declareOutput( @Nullable DMatrixRBlock output, int numRows, int numCols ) {
+        if (output == null)
+            return new DMatrixRBlock(numRows, numCols, LU.blockLength);
+        output.reshape(numRows, numCols, LU.blockLength, false);
+        output.zero();
+        return output;
+    }
+
+    /**
+     * Returns the decomposed matrix. Both L and U are stored inside of it.
+     */
+    public DMatrixRBlock getLU() {
+        return LU;
+    }
+
+    @Override
+    public boolean isSingular() {
+        int N = Math.min(LU.numRows, LU.numCols);
+        for (int i = 0; i < N; i++) {
+            if (Math.abs(LU.unsafe_get(i, i)) < UtilEjml.EPS)
+                return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Complex_F64 computeDeterminant() {
+        if (LU.numRows != LU.numCols)
+            throw new IllegalArgumentException("Must be a square matrix.");
+
+        double prod = pivsign;
+        for (int i = 0; i < LU.numRows; i++) {
+            prod *= LU.unsafe_get(i, i);
+        }
+
+        det.real = prod;
+        det.imaginary = 0;
+
+        return det;
+    }
+
+    @Override
+    public boolean inputModified() {
+        return true;
+    }
+}
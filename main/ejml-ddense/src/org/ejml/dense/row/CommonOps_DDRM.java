@@ -30,7 +30,9 @@ import org.ejml.dense.row.linsol.lu.LinearSolverLu_DDRM;
 import org.ejml.dense.row.linsol.svd.SolvePseudoInverseSvd_DDRM;
 import org.ejml.dense.row.misc.*;
 import org.ejml.dense.row.mult.MatrixMatrixMult_DDRM;
+import org.ejml.dense.row.mult.MatrixMultBlocked_DDRM;
 import org.ejml.dense.row.mult.MatrixMultProduct_DDRM;
+import org.ejml.dense.row.mult.MatrixVectorMultSimd_DDRM;
 import org.ejml.dense.row.mult.MatrixVectorMult_DDRM;
 import org.ejml.dense.row.mult.VectorVectorMult_DDRM;
 import org.ejml.interfaces.linsol.LinearSolverDense;
@@ -61,6 +63,33 @@ import static org.ejml.UtilEjml.*;
  */
 @SuppressWarnings({"ForLoopReplaceableByForEach"})
 public class CommonOps_DDRM {
+    /**
+     * SIMD accelerated kernels. Loaded at startup when the optional ejml-simd module is on the class path,
+     * otherwise null and the standard Java implementations are used.
+     */
+    private static @Nullable SimdKernels_DDRM simd = SimdKernels_DDRM.load();
+
+    /**
+     * Returns the SIMD kernels being used or null if there are none
+     */
+    public static @Nullable SimdKernels_DDRM getSimdKernels() {
+        return simd;
+    }
+
+    /**
+     * Changes the SIMD kernels used internally. Set to null to use the standard Java implementations.
+     */
+    public static void setSimdKernels( @Nullable SimdKernels_DDRM kernels ) {
+        simd = kernels;
+    }
+
+    /**
+     * Returns the SIMD kernels if they should be used on vectors of the specified length, otherwise null
+     */
+    private static @Nullable SimdKernels_DDRM simdKernels( int length ) {
+        return length >= EjmlParameters.SIMD_LENGTH_SWITCH ? simd : null;
+    }
+
     /**
      * <p>Performs the following operation:<br>
      * <br>
@@ -79,7 +108,14 @@ public class CommonOps_DDRM {
         UtilEjml.checkSameInstance(b, output);
 
         if (b.numCols == 1) {
-            MatrixVectorMult_DDRM.mult(a, b, output);
+            SimdKernels_DDRM kernels = simdKernels(a.numCols);
+            if (kernels != null) {
+                MatrixVectorMultSimd_DDRM.mult(kernels, a, b, output);
+            } else {
+                MatrixVectorMult_DDRM.mult(a, b, output);
+            }
+        } else if (useBlockedMult(a.numRows, a.numCols, b.numCols)) {
+            MatrixMultBlocked_DDRM.mult(1.0, a, b, output);
         } else if (b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH) {
             MatrixMatrixMult_DDRM.mult_reorder(a, b, output);
         } else {
@@ -108,7 +144,9 @@ public class CommonOps_DDRM {
         UtilEjml.checkSameInstance(b, output);
 
         // TODO add a matrix vectory multiply here
-        if (b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH) {
+        if (useBlockedMult(a.numRows, a.numCols, b.numCols)) {
+            MatrixMultBlocked_DDRM.mult(alpha, a, b, output);
+        } else if (b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH) {
             MatrixMatrixMult_DDRM.mult_reorder(alpha, a, b, output);
         } else {
             MatrixMatrixMult_DDRM.mult_small(alpha, a, b, output);
@@ -137,11 +175,16 @@ public class CommonOps_DDRM {
         if (b.numCols == 1) {
             // todo check a.numCols == 1 and do inner product?
             // there are significantly faster algorithms when dealing with vectors
-            if (a.numCols >= EjmlParameters.MULT_COLUMN_SWITCH) {
+            SimdKernels_DDRM kernels = simdKernels(a.numCols);
+            if (kernels != null) {
+                MatrixVectorMultSimd_DDRM.multTransA(kernels, a, b, output);
+            } else if (a.numCols >= EjmlParameters.MULT_COLUMN_SWITCH) {
                 MatrixVectorMult_DDRM.multTransA_reorder(a, b, output);
             } else {
                 MatrixVectorMult_DDRM.multTransA_small(a, b, output);
             }
+        } else if (useBlockedMult(a.numCols, a.numRows, b.numCols)) {
+            MatrixMultBlocked_DDRM.multTransA(1.0, a, b, output);
         } else if (a.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ||
                 b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH) {
             MatrixMatrixMult_DDRM.multTransA_reorder(a, b, output);
@@ -171,7 +214,9 @@ public class CommonOps_DDRM {
         UtilEjml.checkSameInstance(b, output);
 
         // TODO add a matrix vectory multiply here
-        if (a.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ||
+        if (useBlockedMult(a.numCols, a.numRows, b.numCols)) {
+            MatrixMultBlocked_DDRM.multTransA(alpha, a, b, output);
+        } else if (a.numCols >= EjmlParameters.MULT_COLUMN_SWITCH ||
                 b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH) {
             MatrixMatrixMult_DDRM.multTransA_reorder(alpha, a, b, output);
         } else {
@@ -199,7 +244,14 @@ public class CommonOps_DDRM {
         UtilEjml.checkSameInstance(b, output);
 
         if (b.numRows == 1) {
-            MatrixVectorMult_DDRM.mult(a, b, output);
+            SimdKernels_DDRM kernels = simdKernels(a.numCols);
+            if (kernels != null) {
+                MatrixVectorMultSimd_DDRM.mult(kernels, a, b, output);
+            } else {
+                MatrixVectorMult_DDRM.mult(a, b, output);
+            }
+        } else if (useBlockedMult(a.numRows, a.numCols, b.numRows)) {
+            MatrixMultBlocked_DDRM.multTransB(1.0, a, b, output);
         } else {
             MatrixMatrixMult_DDRM.multTransB(a, b, output);
         }
@@ -226,7 +278,11 @@ public class CommonOps_DDRM {
         UtilEjml.checkSameInstance(b, output);
 
         // TODO add a matrix vectory multiply here
-        MatrixMatrixMult_DDRM.multTransB(alpha, a, b, output);
+        if (useBlockedMult(a.numRows, a.numCols, b.numRows)) {
+            MatrixMultBlocked_DDRM.multTransB(alpha, a, b, output);
+        } else {
+            MatrixMatrixMult_DDRM.multTransB(alpha, a, b, output);
+        }
 
         return output;
     }
@@ -250,7 +306,10 @@ public class CommonOps_DDRM {
 
         if (b.numRows == 1) {
             // there are significantly faster algorithms when dealing with vectors
-            if (a.numCols >= EjmlParameters.MULT_COLUMN_SWITCH) {
+            SimdKernels_DDRM kernels = simdKernels(a.numCols);
+            if (kernels != null) {
+                MatrixVectorMultSimd_DDRM.multTransA(kernels, a, b, output);
+            } else if (a.numCols >= EjmlParameters.MULT_COLUMN_SWITCH) {
                 MatrixVectorMult_DDRM.multTransA_reorder(a, b, output);
             } else {
                 MatrixVectorMult_DDRM.multTransA_small(a, b, output);
@@ -308,6 +367,10 @@ public class CommonOps_DDRM {
         if (!MatrixFeatures_DDRM.isVector(a) || !MatrixFeatures_DDRM.isVector(b))
             throw new RuntimeException("Both inputs must be vectors");
 
+        SimdKernels_DDRM kernels = simdKernels(a.getNumElements());
+        if (kernels != null) {
+            return kernels.dot(a.data, 0, b.data, 0, a.getNumElements());
+        }
         return VectorVectorMult_DDRM.innerProd(a, b);
     }
 
@@ -373,9 +436,16 @@ public class CommonOps_DDRM {
      */
     public static void multAdd( DMatrix1Row a, DMatrix1Row b, DMatrix1Row c ) {
         if (b.numCols == 1) {
-            MatrixVectorMult_DDRM.multAdd(a, b, c);
+            SimdKernels_DDRM kernels = simdKernels(a.numCols);
+            if (kernels != null) {
+                MatrixVectorMultSimd_DDRM.multAdd(kernels, a, b, c);
+            } else {
+                MatrixVectorMult_DDRM.multAdd(a, b, c);
+            }
         } else {
-            if (b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH) {
+            if (useBlockedMult(a.numRows, a.numCols, b.numCols)) {
+                MatrixMultBlocked_DDRM.multAdd(1.0, a, b, c);
+            } else if (b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH) {
                 MatrixMatrixMult_DDRM.multAdd_reorder(a, b, c);
             } else {
                 MatrixMatrixMult_DDRM.multAdd_small(a, b, c);
@@ -398,13 +468,24 @@ public class CommonOps_DDRM {
      */
     public static void multAdd( double alpha, DMatrix1Row a, DMatrix1Row b, DMatrix1Row c ) {
         // TODO add a matrix vectory multiply here
-        if (b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH) {
+        if (useBlockedMult(a.numRows, a.numCols, b.numCols)) {
+            MatrixMultBlocked_DDRM.multAdd(alpha, a, b, c);
+        } else if (b.numCols >= EjmlParameters.MULT_COLUMN_SWITCH) {
             MatrixMatrixMult_DDRM.multAdd_reorder(alpha, a, b, c);
         } else {
             MatrixMatrixMult_DDRM.multAdd_small(alpha, a, b, c);
         }
     }
 
+    /**
+     * The cache blocked multiplication is only used when every dimension is large enough to offset the cost
+     * of packing the inputs
+     */
+    private static boolean useBlockedMult( int rows, int inner, int cols ) {
+        int threshold = EjmlParameters.MULT_BLOCKED_SWITCH;
+        return rows >= threshold && inner >= threshold && cols >= threshold;
+    }
+
     /**
      * <p>
      * Performs the following operation:<br>
@@ -419,7 +500,10 @@ public class CommonOps_DDRM {
      */
     public static void multAddTransA( DMatrix1Row a, DMatrix1Row b, DMatrix1Row c ) {
         if (b.numCols == 1) {
-            if (a.numCols >= EjmlParameters.MULT_COLUMN_SWITCH) {
+            SimdKernels_DDRM kernels = simdKernels(a.numCols);
+            if (kernels != null) {
+                MatrixVectorMultSimd_DDRM.multAddTransA(kernels, a, b, c);
+            } else if (a.numCols >= EjmlParameters.MULT_COLUMN_SWITCH) {
                 MatrixVectorMult_DDRM.multAddTransA_reorder(a, b, c);
             } else {
                 MatrixVectorMult_DDRM.multAddTransA_small(a, b, c);
@@ -1529,6 +1613,12 @@ public class CommonOps_DDRM {
      * @param B The right matrix in the multiplication operation. Not modified.
      */
     public static void elementMult( DMatrixD1 A, DMatrixD1 B ) {
+        SimdKernels_DDRM kernels = simdKernels(A.getNumElements());
+        if (kernels != null) {
+            UtilEjml.checkSameShape(A, B, true);
+            kernels.elementMult(A.data, B.data, A.data, A.getNumElements());
+            return;
+        }
         ImplCommonOps_DDRM.elementMult(A, B);
     }
 
@@ -1543,6 +1633,13 @@ public class CommonOps_DDRM {
      * @param output Where the results of the operation are stored. Modified.
      */
     public static <T extends DMatrixD1> T elementMult( T A, T B, @Nullable T output ) {
+        SimdKernels_DDRM kernels = simdKernels(A.getNumElements());
+        if (kernels != null) {
+            UtilEjml.checkSameShape(A, B, true);
+            output = UtilEjml.reshapeOrDeclare(output, A);
+            kernels.elementMult(A.data, B.data, output.data, A.getNumElements());
+            return output;
+        }
         return ImplCommonOps_DDRM.elementMult(A, B, output);
     }
 
@@ -1556,6 +1653,12 @@ public class CommonOps_DDRM {
      * @param B The right matrix in the division operation. Not modified.
      */
     public static void elementDiv( DMatrixD1 A, DMatrixD1 B ) {
+        SimdKernels_DDRM kernels = simdKernels(A.getNumElements());
+        if (kernels != null) {
+            UtilEjml.checkSameShape(A, B, true);
+            kernels.elementDiv(A.data, B.data, A.data, A.getNumElements());
+            return;
+        }
         ImplCommonOps_DDRM.elementDiv(A, B);
     }
 
@@ -1570,6 +1673,13 @@ public class CommonOps_DDRM {
      * @param output Where the results of the operation are stored. Modified.
      */
     public static <T extends DMatrixD1> T elementDiv( T A, T B, @Nullable T output ) {
+        SimdKernels_DDRM kernels = simdKernels(A.getNumElements());
+        if (kernels != null) {
+            UtilEjml.checkSameShape(A, B, true);
+            output = UtilEjml.reshapeOrDeclare(output, A);
+            kernels.elementDiv(A.data, B.data, output.data, A.getNumElements());
+            return output;
+        }
         return ImplCommonOps_DDRM.elementDiv(A, B, output);
     }
 
@@ -1969,6 +2079,12 @@ public class CommonOps_DDRM {
 
         final int length = a.getNumElements();
 
+        SimdKernels_DDRM kernels = simdKernels(length);
+        if (kernels != null) {
+            kernels.add(a.data, b.data, a.data, length);
+            return;
+        }
+
         for (int i = 0; i < length; i++) {
             a.plus(i, b.get(i));
         }
@@ -1990,6 +2106,12 @@ public class CommonOps_DDRM {
 
         final int length = a.getNumElements();
 
+        SimdKernels_DDRM kernels = simdKernels(length);
+        if (kernels != null) {
+            kernels.axpy(beta, b.data, 0, a.data, 0, length);
+            return;
+        }
+
         for (int i = 0; i < length; i++) {
             a.plus(i, beta*b.get(i));
         }
@@ -2017,6 +2139,12 @@ public class CommonOps_DDRM {
 
         final int length = a.getNumElements();
 
+        SimdKernels_DDRM kernels = simdKernels(length);
+        if (kernels != null) {
+            kernels.add(a.data, b.data, output.data, length);
+            return output;
+        }
+
         for (int i = 0; i < length; i++) {
             output.set(i, a.get(i) + b.get(i));
         }
@@ -2078,6 +2206,12 @@ public class CommonOps_DDRM {
 
         final int length = a.getNumElements();
 
+        SimdKernels_DDRM kernels = simdKernels(length);
+        if (kernels != null) {
+            kernels.add(alpha, a.data, beta, b.data, output.data, length);
+            return output;
+        }
+
         for (int i = 0; i < length; i++) {
             output.set(i, alpha*a.get(i) + beta*b.get(i));
         }
@@ -2219,6 +2353,12 @@ public class CommonOps_DDRM {
         UtilEjml.checkSameShape(a, b, true);
         final int length = a.getNumElements();
 
+        SimdKernels_DDRM kernels = simdKernels(length);
+        if (kernels != null) {
+            kernels.subtract(a.data, b.data, a.data, length);
+            return;
+        }
+
         for (int i = 0; i < length; i++) {
             a.data[i] -= b.data[i];
         }
@@ -2245,6 +2385,12 @@ public class CommonOps_DDRM {
 
         final int length = a.getNumElements();
 
+        SimdKernels_DDRM kernels = simdKernels(length);
+        if (kernels != null) {
+            kernels.subtract(a.data, b.data, output.data, length);
+            return output;
+        }
+
         for (int i = 0; i < length; i++) {
             output.data[i] = a.data[i] - b.data[i];
         }
@@ -2267,6 +2413,12 @@ public class CommonOps_DDRM {
         // slightly compared to other libraries since it involves an extra multiplication.
         final int size = a.getNumElements();
 
+        SimdKernels_DDRM kernels = simdKernels(size);
+        if (kernels != null) {
+            kernels.scale(alpha, a.data, a.data, size);
+            return;
+        }
+
         for (int i = 0; i < size; i++) {
             a.data[i] *= alpha;
         }
@@ -2288,6 +2440,12 @@ public class CommonOps_DDRM {
 
         final int size = a.getNumElements();
 
+        SimdKernels_DDRM kernels = simdKernels(size);
+        if (kernels != null) {
+            kernels.scale(alpha, a.data, b.data, size);
+            return;
+        }
+
         for (int i = 0; i < size; i++) {
             b.data[i] = a.data[i]*alpha;
         }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.eig;
+
+import org.ejml.data.Complex_F64;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.decomposition.eig.symm.SymmetricDivideConquer_DDRM;
+import org.ejml.dense.row.factory.DecompositionFactory_DDRM;
+import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
+import org.ejml.interfaces.decomposition.TridiagonalSimilarDecomposition_F64;
+
+/**
+ * <p>
+ * Computes the eigenvalues and eigenvectors of a real symmetric matrix by first reducing it to a tridiagonal
+ * matrix and then applying the divide and conquer algorithm. Eigenvectors are always computed. For large matrices
+ * this is significantly faster than {@link SymmetricQRAlgorithmDecomposition_DDRM} when eigenvectors are needed.
+ * Eigenvalues are sorted in ascending order.
+ * </p>
+ *
+ * @author Peter Abeles
+ * @see SymmetricDivideConquer_DDRM
+ */
+@SuppressWarnings("NullAway.Init")
+public class SymmetricDivideConquerDecomposition_DDRM
+        implements EigenDecomposition_F64<DMatrixRMaj> {
+
+    // computes a tridiagonal matrix whose eigenvalues are the same as the original
+    private final TridiagonalSimilarDecomposition_F64<DMatrixRMaj> decomp;
+    // computes the eigen decomposition of the tridiagonal matrix
+    private final SymmetricDivideConquer_DDRM alg;
+
+    // where the tridiagonal matrix is stored
+    private double[] diag;
+    private double[] off;
+
+    // orthogonal matrix from the tridiagonal decomposition
+    private DMatrixRMaj Q;
+    // the extracted eigenvectors
+    private DMatrixRMaj[] eigenvectors;
+
+    private int N;
+
+    public SymmetricDivideConquerDecomposition_DDRM( TridiagonalSimilarDecomposition_F64<DMatrixRMaj> decomp,
+                                                     SymmetricDivideConquer_DDRM alg ) {
+        this.decomp = decomp;
+        this.alg = alg;
+    }
+
+    public SymmetricDivideConquerDecomposition_DDRM() {
+        this(DecompositionFactory_DDRM.tridiagonal(0), new SymmetricDivideConquer_DDRM());
+    }
+
+    @Override
+    public int getNumberOfEigenvalues() {
+        return N;
+    }
+
+    @Override
+    public Complex_F64 getEigenvalue( int index ) {
+        return new Complex_F64(alg.getEigenvalues()[index], 0);
+    }
+
+    @Override
+    public DMatrixRMaj getEigenVector( int index ) {
+        return eigenvectors[index];
+    }
+
+    /**
+     * Decomposes the matrix.
+     *
+     * @param orig The matrix which is being decomposed.  Not modified.
+     * @return true if it decomposed the matrix or false if an error was detected.  This will not catch all errors.
+     */
+    @Override
+    public boolean decompose( DMatrixRMaj orig ) {
+        if (orig.numCols != orig.numRows)
+            throw new IllegalArgumentException("Matrix must be square.");
+        if (orig.numCols <= 0)
+            return false;
+
+        N = orig.numRows;
+
+        // compute a similar tridiagonal matrix
+        if (!decomp.decompose(orig))
+            return false;
+
+        if (diag == null || diag.length < N) {
+            diag = new double[N];
+            off = new double[N];
+        }
+        decomp.getDiagonal(diag, off);
+        Q = decomp.getQ(Q, false);
+
+        if (!alg.process(diag, off, N, Q))
+            return false;
+
+        eigenvectors = CommonOps_DDRM.columnsToVector(alg.getEigenvectors(), eigenvectors);
+        return true;
+    }
+
+    @Override
+    public boolean inputModified() {
+        return decomp.inputModified();
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.eig;
+
+import org.ejml.data.Complex_F64;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.decomposition.eig.symm.ThickRestartLanczos_DDRM;
+import org.ejml.interfaces.LinearOperator_F64;
+import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
+
+/**
+ * <p>
+ * Computes a few of the largest or smallest eigenvalues and eigenvectors of a symmetric matrix using
+ * {@link ThickRestartLanczos_DDRM}. Only the requested eigenpairs are found and {@link #getNumberOfEigenvalues()}
+ * will return the number requested, not the size of the matrix. When only a few eigenpairs are needed this is
+ * much faster than a full eigen decomposition.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("NullAway.Init")
+public class SymmetricLanczosDecomposition_DDRM
+        implements EigenDecomposition_F64<DMatrixRMaj> {
+
+    protected final ThickRestartLanczos_DDRM alg;
+
+    // The matrix being decomposed
+    protected DMatrixRMaj A;
+
+    // Provides access to A as an operator
+    protected final LinearOperator_F64 operator = new LinearOperator_F64() {
+        @Override public int getNumRows() {return A.numRows;}
+
+        @Override public int getNumCols() {return A.numCols;}
+
+        @Override public void mult( double[] x, double[] y ) {SymmetricLanczosDecomposition_DDRM.this.mult(x, y);}
+    };
+
+    // the extracted eigenvectors
+    protected DMatrixRMaj[] eigenvectors = new DMatrixRMaj[0];
+
+    public SymmetricLanczosDecomposition_DDRM( ThickRestartLanczos_DDRM alg ) {
+        this.alg = alg;
+    }
+
+    /**
+     * @param numEigen Number of eigenpairs which are to be found
+     * @param largest If true then the algebraically largest eigenvalues are found. Otherwise the smallest.
+     */
+    public SymmetricLanczosDecomposition_DDRM( int numEigen, boolean largest ) {
+        this(new ThickRestartLanczos_DDRM(numEigen, largest));
+    }
+
+    /**
+     * Number of eigenvalues which were requested
+     */
+    @Override
+    public int getNumberOfEigenvalues() {
+        return alg.getNumEigen();
+    }
+
+    @Override
+    public Complex_F64 getEigenvalue( int index ) {
+        return new Complex_F64(alg.getEigenvalues()[index], 0);
+    }
+
+    @Override
+    public DMatrixRMaj getEigenVector( int index ) {
+        return eigenvectors[index];
+    }
+
+    /**
+     * Decomposes the matrix.
+     *
+     * @param orig The symmetric matrix which is being decomposed. Not modified.
+     * @return true if all the requested eigenpairs converged
+     */
+    @Override
+    public boolean decompose( DMatrixRMaj orig ) {
+        if (orig.numCols != orig.numRows)
+            throw new IllegalArgumentException("Matrix must be square.");
+
+        this.A = orig;
+        if (!alg.process(operator))
+            return false;
+
+        // copy the eigenvectors from the rows, recycling memory if possible
+        DMatrixRMaj found = alg.getEigenvectors();
+        if (eigenvectors.length != found.numRows)
+            eigenvectors = new DMatrixRMaj[found.numRows];
+        for (int i = 0; i < found.numRows; i++) {
+            if (eigenvectors[i] == null)
+                eigenvectors[i] = new DMatrixRMaj(found.numCols, 1);
+            else
+                eigenvectors[i].reshape(found.numCols, 1);
+            System.arraycopy(found.data, i*found.numCols, eigenvectors[i].data, 0, found.numCols);
+        }
+        return true;
+    }
+
+    /**
+     * y = A*x
+     */
+    protected void mult( double[] x, double[] y ) {
+        multRows(0, A.numRows, x, y);
+    }
+
+    /**
+     * Computes y = A*x for the specified rows
+     */
+    protected final void multRows( int row0, int row1, double[] x, double[] y ) {
+        final int numCols = A.numCols;
+        int index = row0*numCols;
+        for (int row = row0; row < row1; row++) {
+            double sum = 0;
+            for (int col = 0; col < numCols; col++) {
+                sum += A.data[index++]*x[col];
+            }
+            y[row] = sum;
+        }
+    }
+
+    public ThickRestartLanczos_DDRM getAlgorithm() {
+        return alg;
+    }
+
+    @Override
+    public boolean inputModified() {
+        return false;
+    }
+}
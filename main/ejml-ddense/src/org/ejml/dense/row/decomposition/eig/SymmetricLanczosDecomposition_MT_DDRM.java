@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.eig;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.dense.row.decomposition.eig.symm.ThickRestartLanczos_DDRM;
+
+/**
+ * Concurrent implementation of {@link SymmetricLanczosDecomposition_DDRM}. The matrix vector multiplication, which
+ * dominates the computational cost, is computed using multiple threads.
+ *
+ * @author Peter Abeles
+ */
+public class SymmetricLanczosDecomposition_MT_DDRM extends SymmetricLanczosDecomposition_DDRM {
+    public SymmetricLanczosDecomposition_MT_DDRM( ThickRestartLanczos_DDRM alg ) {
+        super(alg);
+    }
+
+    public SymmetricLanczosDecomposition_MT_DDRM( int numEigen, boolean largest ) {
+        super(numEigen, largest);
+    }
+
+    @Override
+    protected void mult( double[] x, double[] y ) {
+        if (!EjmlConcurrency.useConcurrent(A)) {
+            super.mult(x, y);
+            return;
+        }
+        EjmlConcurrency.loopBlocks(0, A.numRows, ( row0, row1 ) -> multRows(row0, row1, x, y));
+    }
+}
@@ -0,0 +1,639 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.eig.symm;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * <p>
+ * Computes the eigenvalues and eigenvectors of a symmetric tridiagonal matrix using Cuppen's divide and conquer
+ * algorithm. The matrix is recursively split in half by a rank one modification. Once the two halves have been
+ * solved the eigen decomposition of the rank one modified diagonal matrix is found by solving the secular
+ * equation and the eigenvectors are updated with a matrix multiplication. Small sub problems are solved using
+ * {@link SymmetricQrAlgorithm_DDRM}.
+ * </p>
+ *
+ * <p>
+ * Deflation, the secular equation solver, and the computation of orthogonal eigenvectors follow the description
+ * found in LAPACK's DSTEDC, which in turn uses the approach by Gu and Eisenstat. Eigenvalues are returned in
+ * ascending order and the eigenvectors are stored in the columns of the returned matrix.
+ * </p>
+ *
+ * <ul>
+ *     <li>J. J. M. Cuppen, "A divide and conquer method for the symmetric tridiagonal eigenproblem",
+ *     Numer. Math. 36 (1981)</li>
+ *     <li>M. Gu and S. C. Eisenstat, "A Divide-and-Conquer Algorithm for the Symmetric Tridiagonal Eigenproblem",
+ *     SIAM J. Matrix Anal. Appl. 16 (1995)</li>
+ * </ul>
+ *
+ * @author Peter Abeles
+ */
+public class SymmetricDivideConquer_DDRM {
+    // Sub problems this size or smaller are solved using the QR algorithm
+    protected int leafSize = 25;
+
+    // maximum number of iterations when solving for a single root of the secular equation
+    protected int maxRootIterations = 100;
+
+    // size of the matrix being decomposed
+    protected int N;
+
+    // diagonal and off diagonal elements. The diagonal will contain the eigenvalues when done
+    protected double[] d = UtilEjml.ZERO_LENGTH_F64;
+    protected double[] e = UtilEjml.ZERO_LENGTH_F64;
+
+    // eigenvectors of the tridiagonal matrix
+    protected DMatrixRMaj Q = new DMatrixRMaj(1, 1);
+    // eigenvectors of the original matrix, if a transform was provided
+    protected DMatrixRMaj V = new DMatrixRMaj(1, 1);
+    protected DMatrixRMaj eigenvectors = Q;
+
+    // Used to solve the leaves
+    protected SymmetricQREigenHelper_DDRM helper = new SymmetricQREigenHelper_DDRM();
+    protected SymmetricQrAlgorithm_DDRM leafAlg = new SymmetricQrAlgorithm_DDRM(helper);
+    protected DMatrixRMaj leafQ = new DMatrixRMaj(1, 1);
+    protected double[] leafDiag = UtilEjml.ZERO_LENGTH_F64;
+    protected double[] leafOff = UtilEjml.ZERO_LENGTH_F64;
+
+    //------------------ Workspace for merging two sub problems
+    // diagonal and rank one vector of the merged problem
+    protected double[] dw = UtilEjml.ZERO_LENGTH_F64;
+    protected double[] zw = UtilEjml.ZERO_LENGTH_F64;
+    // Indicates if a column in Q is non-zero in the top (1) and/or bottom (2) half
+    protected int[] colType = UtilEjml.ZERO_LENGTH_I32;
+    // order of the merged diagonal elements
+    protected int[] order = UtilEjml.ZERO_LENGTH_I32;
+    // columns which have and have not been deflated
+    protected int[] deflated = UtilEjml.ZERO_LENGTH_I32;
+    protected int[] active = UtilEjml.ZERO_LENGTH_I32;
+    protected int numDeflated;
+    // Number of elements which have not been deflated. Size of the secular equation
+    protected int K;
+    // sorted diagonal elements and normalized vector in the secular equation
+    protected double[] dk = UtilEjml.ZERO_LENGTH_F64;
+    protected double[] zk = UtilEjml.ZERO_LENGTH_F64;
+    // weight of the rank one update
+    protected double rho;
+    // roots are stored as an offset tau from the pole at index 'origin' to avoid cancellation
+    protected double[] tau = UtilEjml.ZERO_LENGTH_F64;
+    protected int[] origin = UtilEjml.ZERO_LENGTH_I32;
+    // the rank one vector recomputed from the roots to ensure the eigenvectors are orthogonal
+    protected double[] zhat = UtilEjml.ZERO_LENGTH_F64;
+    // eigenvectors of the secular equation
+    protected DMatrixRMaj U = new DMatrixRMaj(1, 1);
+    // gathered eigenvectors for the top and bottom half and the result of multiplying them by U
+    protected DMatrixRMaj Qt = new DMatrixRMaj(1, 1);
+    protected DMatrixRMaj Ut = new DMatrixRMaj(1, 1);
+    protected DMatrixRMaj Rt = new DMatrixRMaj(1, 1);
+    protected DMatrixRMaj Qb = new DMatrixRMaj(1, 1);
+    protected DMatrixRMaj Ub = new DMatrixRMaj(1, 1);
+    protected DMatrixRMaj Rb = new DMatrixRMaj(1, 1);
+    // copy of the deflated eigenvectors
+    protected DMatrixRMaj Qd = new DMatrixRMaj(1, 1);
+    protected double[] values = UtilEjml.ZERO_LENGTH_F64;
+    protected int[] source = UtilEjml.ZERO_LENGTH_I32;
+
+    /**
+     * Computes the eigen decomposition of the tridiagonal matrix.
+     *
+     * @param diag Diagonal elements from tridiagonal matrix. Not modified.
+     * @param off Off diagonal elements from tridiagonal matrix. Not modified.
+     * @param N number of columns (and rows) in the matrix.
+     * @param transform (Optional) Orthogonal matrix which transformed the original matrix into a tridiagonal one.
+     * If not null then the returned eigenvectors will be for the original matrix. Not modified.
+     * @return true if it succeeds and false if it fails.
+     */
+    public boolean process( double[] diag, double[] off, int N, @Nullable DMatrixRMaj transform ) {
+        declareWorkspace(N);
+
+        // Scale the matrix to avoid overflow and underflow
+        double scale = 0;
+        for (int i = 0; i < N; i++) {
+            scale = Math.max(scale, Math.abs(diag[i]));
+        }
+        for (int i = 0; i < N - 1; i++) {
+            scale = Math.max(scale, Math.abs(off[i]));
+        }
+        if (scale == 0.0)
+            scale = 1.0;
+        for (int i = 0; i < N; i++) {
+            d[i] = diag[i]/scale;
+        }
+        for (int i = 0; i < N - 1; i++) {
+            e[i] = off[i]/scale;
+        }
+
+        Q.reshape(N, N);
+        Q.zero();
+        if (!solve(0, N))
+            return false;
+
+        for (int i = 0; i < N; i++) {
+            d[i] *= scale;
+        }
+
+        if (transform != null) {
+            V.reshape(N, N);
+            multiply(transform, Q, V);
+            eigenvectors = V;
+        } else {
+            eigenvectors = Q;
+        }
+
+        return true;
+    }
+
+    protected void declareWorkspace( int N ) {
+        this.N = N;
+        if (d.length < N) {
+            d = new double[N];
+            e = new double[N];
+            dw = new double[N];
+            zw = new double[N];
+            colType = new int[N];
+            order = new int[N];
+            deflated = new int[N];
+            active = new int[N];
+            dk = new double[N];
+            zk = new double[N];
+            tau = new double[N];
+            origin = new int[N];
+            zhat = new double[N];
+            values = new double[N];
+            source = new int[N];
+        }
+    }
+
+    /**
+     * Recursively solves for the eigen decomposition of the sub matrix which starts at 'lo' and has 'n' rows
+     */
+    protected boolean solve( int lo, int n ) {
+        if (n <= leafSize)
+            return solveLeaf(lo, n);
+
+        // T = [T1 0;0 T2] + |b|*v*v' where v = [0 ... 1 sign(b) ... 0]
+        int m = n/2;
+        double b = e[lo + m - 1];
+        d[lo + m - 1] -= Math.abs(b);
+        d[lo + m] -= Math.abs(b);
+
+        if (!solve(lo, m))
+            return false;
+        if (!solve(lo + m, n - m))
+            return false;
+
+        merge(lo, n, m, b);
+        return true;
+    }
+
+    /**
+     * Solves small sub problems using the QR algorithm and saves the results sorted by eigenvalue
+     */
+    protected boolean solveLeaf( int lo, int n ) {
+        if (leafDiag.length < n) {
+            leafDiag = new double[n];
+            leafOff = new double[n];
+        }
+        System.arraycopy(d, lo, leafDiag, 0, n);
+        System.arraycopy(e, lo, leafOff, 0, n - 1);
+
+        helper.init(leafDiag, leafOff, n);
+        leafQ.reshape(n, n);
+        CommonOps_DDRM.setIdentity(leafQ);
+        helper.setQ(leafQ);
+        leafAlg.setFastEigenvalues(false);
+        if (!leafAlg.process(-1, null, null))
+            return false;
+        double[] found = helper.copyEigenvalues(values);
+
+        // sort the eigenvalues using insertion sort since the leaves are small
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        for (int i = 1; i < n; i++) {
+            int idx = order[i];
+            int j = i - 1;
+            while (j >= 0 && found[order[j]] > found[idx]) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = idx;
+        }
+
+        // rows in leafQ are the eigenvectors
+        for (int i = 0; i < n; i++) {
+            d[lo + i] = found[order[i]];
+        }
+        for (int row = 0; row < n; row++) {
+            int indexQ = (lo + row)*N + lo;
+            for (int i = 0; i < n; i++) {
+                Q.data[indexQ + i] = leafQ.data[order[i]*n + row];
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Given the solutions for the top and bottom sub problems, finds the solution to the combined problem
+     *
+     * @param lo First row in the sub problem
+     * @param n Number of rows in the sub problem
+     * @param m Number of rows in the top sub problem
+     * @param b Off diagonal element which was removed when splitting the problem
+     */
+    protected void merge( int lo, int n, int m, double b ) {
+        // Construct the rank one modification, z = Q'*v
+        double sign = b >= 0 ? 1.0 : -1.0;
+        double norm = Math.sqrt(2.0);
+        for (int j = 0; j < m; j++) {
+            zw[j] = Q.data[(lo + m - 1)*N + lo + j]/norm;
+            colType[j] = 1;
+        }
+        for (int j = m; j < n; j++) {
+            zw[j] = sign*Q.data[(lo + m)*N + lo + j]/norm;
+            colType[j] = 2;
+        }
+        rho = 2.0*Math.abs(b);
+        System.arraycopy(d, lo, dw, 0, n);
+
+        // both halves are sorted so they can be merged
+        int idx0 = 0, idx1 = m;
+        for (int i = 0; i < n; i++) {
+            if (idx1 >= n || (idx0 < m && dw[idx0] <= dw[idx1]))
+                order[i] = idx0++;
+            else
+                order[i] = idx1++;
+        }
+
+        deflate(lo, n);
+
+        if (K > 0) {
+            computeRoots();
+            computeZHat();
+            computeVectors();
+            updateVectors(lo, n, m);
+        }
+
+        saveSorted(lo, n, m);
+    }
+
+    /**
+     * Removes elements from the secular equation which are already eigenvalues. Either the element in z is
+     * almost zero or two elements on the diagonal are almost the same.
+     */
+    protected void deflate( int lo, int n ) {
+        double dmax = 0;
+        for (int i = 0; i < n; i++) {
+            dmax = Math.max(dmax, Math.abs(dw[i]));
+        }
+        double tol = 8.0*UtilEjml.EPS*Math.max(dmax, rho);
+
+        K = 0;
+        numDeflated = 0;
+        int prev = -1;
+        for (int i = 0; i < n; i++) {
+            int j = order[i];
+            if (rho*Math.abs(zw[j]) <= tol) {
+                deflated[numDeflated++] = j;
+                continue;
+            }
+            if (prev == -1) {
+                prev = j;
+                continue;
+            }
+
+            // See if a Givens rotation can zero one of the elements in z
+            double s = zw[prev];
+            double c = zw[j];
+            double r = Math.sqrt(c*c + s*s);
+            c /= r;
+            s = -s/r;
+            if (Math.abs((dw[j] - dw[prev])*c*s) <= tol) {
+                zw[j] = r;
+                zw[prev] = 0;
+                rotateColumns(lo, n, lo + prev, lo + j, c, s);
+                colType[prev] |= colType[j];
+                colType[j] = colType[prev];
+
+                double t = dw[prev]*c*c + dw[j]*s*s;
+                dw[j] = dw[prev]*s*s + dw[j]*c*c;
+                dw[prev] = t;
+                deflated[numDeflated++] = prev;
+            } else {
+                active[K++] = prev;
+            }
+            prev = j;
+        }
+        if (prev != -1)
+            active[K++] = prev;
+
+        // rotations can change the order slightly
+        for (int i = 1; i < K; i++) {
+            int idx = active[i];
+            int j = i - 1;
+            while (j >= 0 && dw[active[j]] > dw[idx]) {
+                active[j + 1] = active[j];
+                j--;
+            }
+            active[j + 1] = idx;
+        }
+
+        for (int i = 0; i < K; i++) {
+            dk[i] = dw[active[i]];
+            zk[i] = zw[active[i]];
+        }
+    }
+
+    private void rotateColumns( int lo, int n, int colA, int colB, double c, double s ) {
+        for (int row = lo; row < lo + n; row++) {
+            int index = row*N;
+            double a = Q.data[index + colA];
+            double b = Q.data[index + colB];
+            Q.data[index + colA] = c*a + s*b;
+            Q.data[index + colB] = c*b - s*a;
+        }
+    }
+
+    /**
+     * Computes all the roots of the secular equation
+     */
+    protected void computeRoots() {
+        for (int i = 0; i < K; i++) {
+            solveRoot(i);
+        }
+    }
+
+    /**
+     * Computes the rank one vector which is consistent with the found roots
+     */
+    protected void computeZHat() {
+        for (int j = 0; j < K; j++) {
+            computeZHat(j);
+        }
+    }
+
+    /**
+     * Computes the eigenvectors of the secular equation
+     */
+    protected void computeVectors() {
+        U.reshape(K, K);
+        for (int i = 0; i < K; i++) {
+            computeVector(i);
+        }
+    }
+
+    /**
+     * Multiplies the eigenvectors by the eigenvectors of the secular equation
+     */
+    protected void multiply( DMatrixRMaj A, DMatrixRMaj B, DMatrixRMaj C ) {
+        CommonOps_DDRM.mult(A, B, C);
+    }
+
+    /**
+     * Finds the i-th root of the secular equation, 1/rho + sum z[j]^2/(d[j] - lambda) = 0. The root is found
+     * using a rational approximation of both sides of the pole with bisection used as a fall back.
+     */
+    protected void solveRoot( int i ) {
+        if (K == 1) {
+            origin[i] = 0;
+            tau[i] = rho*zk[0]*zk[0];
+            return;
+        }
+
+        // the two poles closest to the root
+        int a, b, o;
+        double lower, upper;
+        double rhoinv = 1.0/rho;
+        if (i < K - 1) {
+            a = i;
+            b = i + 1;
+            double mid = (dk[b] - dk[a])/2.0;
+            double g = rhoinv;
+            for (int j = 0; j < K; j++) {
+                g += zk[j]*zk[j]/((dk[j] - dk[a]) - mid);
+            }
+            if (g >= 0) {
+                o = a;
+                lower = 0;
+                upper = mid;
+            } else {
+                o = b;
+                lower = -mid;
+                upper = 0;
+            }
+        } else {
+            a = K - 2;
+            b = K - 1;
+            o = b;
+            double zz = 0;
+            for (int j = 0; j < K; j++) {
+                zz += zk[j]*zk[j];
+            }
+            lower = 0;
+            upper = rho*zz;
+        }
+
+        double t = (lower + upper)/2.0;
+        for (int iter = 0; iter < maxRootIterations; iter++) {
+            double psi = 0, dpsi = 0;
+            for (int j = 0; j <= a; j++) {
+                double ratio = zk[j]/((dk[j] - dk[o]) - t);
+                psi += zk[j]*ratio;
+                dpsi += ratio*ratio;
+            }
+            double phi = 0, dphi = 0;
+            for (int j = b; j < K; j++) {
+                double ratio = zk[j]/((dk[j] - dk[o]) - t);
+                phi += zk[j]*ratio;
+                dphi += ratio*ratio;
+            }
+            double g = rhoinv + psi + phi;
+            double errorBound = 8.0*(phi - psi) + rhoinv + Math.abs(t)*(dpsi + dphi);
+            if (Math.abs(g) <= UtilEjml.EPS*errorBound)
+                break;
+
+            // the function is increasing so the sign indicates which side of the root it's on
+            if (g < 0)
+                lower = t;
+            else
+                upper = t;
+
+            // Approximate the function with c + s/(d[a]-x) + S/(d[b]-x) and find its root closest to t
+            double deltaA = (dk[a] - dk[o]) - t;
+            double deltaB = (dk[b] - dk[o]) - t;
+            double c = g - dpsi*deltaA - dphi*deltaB;
+            double B = c*(deltaA + deltaB) + dpsi*deltaA*deltaA + dphi*deltaB*deltaB;
+            double C = deltaA*deltaB*g;
+            double step;
+            if (c == 0) {
+                step = C/B;
+            } else {
+                double disc = Math.sqrt(Math.max(0.0, B*B - 4.0*c*C));
+                step = 2.0*C/(B + Math.copySign(disc, B));
+            }
+
+            double next = t + step;
+            if (!(next > lower && next < upper))
+                next = (lower + upper)/2.0;
+            if (next == t)
+                break;
+            t = next;
+        }
+
+        origin[i] = o;
+        tau[i] = t;
+    }
+
+    /**
+     * Difference between the j-th pole and the i-th root, computed without cancellation
+     */
+    protected final double delta( int j, int i ) {
+        return (dk[j] - dk[origin[i]]) - tau[i];
+    }
+
+    protected void computeZHat( int j ) {
+        double w = delta(j, j);
+        for (int i = 0; i < K; i++) {
+            if (i != j)
+                w *= delta(j, i)/(dk[j] - dk[i]);
+        }
+        zhat[j] = Math.copySign(Math.sqrt(Math.max(0.0, -w)/rho), zk[j]);
+    }
+
+    protected void computeVector( int i ) {
+        double norm = 0;
+        for (int j = 0; j < K; j++) {
+            double v = zhat[j]/delta(j, i);
+            U.data[j*K + i] = v;
+            norm += v*v;
+        }
+        norm = Math.sqrt(norm);
+        for (int j = 0; j < K; j++) {
+            U.data[j*K + i] /= norm;
+        }
+    }
+
+    /**
+     * Computes the eigenvectors of the merged problem by multiplying the eigenvectors of the sub problems by the
+     * eigenvectors of the secular equation. Only columns which are non-zero in the top or bottom half
+     * are included in each multiplication.
+     */
+    protected void updateVectors( int lo, int n, int m ) {
+        gather(lo, 0, m, 1, Qt, Ut);
+        gather(lo, m, n, 2, Qb, Ub);
+        Rt.reshape(m, K);
+        Rb.reshape(n - m, K);
+        multiply(Qt, Ut, Rt);
+        multiply(Qb, Ub, Rb);
+    }
+
+    private void gather( int lo, int row0, int row1, int type, DMatrixRMaj Qg, DMatrixRMaj Ug ) {
+        int count = 0;
+        for (int j = 0; j < K; j++) {
+            if ((colType[active[j]] & type) != 0)
+                count++;
+        }
+        Qg.reshape(row1 - row0, count);
+        Ug.reshape(count, K);
+
+        int col = 0;
+        for (int j = 0; j < K; j++) {
+            if ((colType[active[j]] & type) == 0)
+                continue;
+            int colQ = lo + active[j];
+            for (int row = row0; row < row1; row++) {
+                Qg.data[(row - row0)*count + col] = Q.data[(lo + row)*N + colQ];
+            }
+            System.arraycopy(U.data, j*K, Ug.data, col*K, K);
+            col++;
+        }
+    }
+
+    /**
+     * Writes the eigenvalues and eigenvectors of the merged problem into Q sorted by eigenvalue
+     */
+    protected void saveSorted( int lo, int n, int m ) {
+        // Sort deflated eigenvalues. They are almost sorted already
+        for (int i = 1; i < numDeflated; i++) {
+            int idx = deflated[i];
+            int j = i - 1;
+            while (j >= 0 && dw[deflated[j]] > dw[idx]) {
+                deflated[j + 1] = deflated[j];
+                j--;
+            }
+            deflated[j + 1] = idx;
+        }
+
+        // copy the deflated eigenvectors since Q is about to be overwritten
+        Qd.reshape(n, numDeflated);
+        for (int row = 0; row < n; row++) {
+            int indexQ = (lo + row)*N + lo;
+            for (int q = 0; q < numDeflated; q++) {
+                Qd.data[row*numDeflated + q] = Q.data[indexQ + deflated[q]];
+            }
+        }
+
+        // merge the roots and deflated values, which are both sorted. Negative sources are deflated
+        int idxR = 0, idxD = 0;
+        for (int p = 0; p < n; p++) {
+            if (idxD >= numDeflated || (idxR < K && dk[origin[idxR]] + tau[idxR] < dw[deflated[idxD]])) {
+                values[p] = dk[origin[idxR]] + tau[idxR];
+                source[p] = idxR++;
+            } else {
+                values[p] = dw[deflated[idxD]];
+                source[p] = -1 - idxD++;
+            }
+        }
+
+        System.arraycopy(values, 0, d, lo, n);
+        for (int row = 0; row < n; row++) {
+            int indexQ = (lo + row)*N + lo;
+            for (int p = 0; p < n; p++) {
+                int s = source[p];
+                if (s >= 0) {
+                    Q.data[indexQ + p] = row < m ? Rt.data[row*K + s] : Rb.data[(row - m)*K + s];
+                } else {
+                    Q.data[indexQ + p] = Qd.data[row*numDeflated - 1 - s];
+                }
+            }
+        }
+    }
+
+    public double[] getEigenvalues() {
+        return d;
+    }
+
+    /**
+     * Returns the found eigenvectors. Each column is an eigenvector.
+     */
+    public DMatrixRMaj getEigenvectors() {
+        return eigenvectors;
+    }
+
+    public int getLeafSize() {
+        return leafSize;
+    }
+
+    public void setLeafSize( int leafSize ) {
+        this.leafSize = leafSize;
+    }
+}
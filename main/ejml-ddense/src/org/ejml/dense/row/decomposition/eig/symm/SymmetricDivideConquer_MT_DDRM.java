@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.eig.symm;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_MT_DDRM;
+
+/**
+ * Concurrent implementation of {@link SymmetricDivideConquer_DDRM}. When merging two sub problems each root of the
+ * secular equation and each of its eigenvectors are computed independently in their own thread, then the
+ * eigenvectors are updated using a concurrent matrix multiplication. Merges with fewer than {@link #minConcurrent}
+ * roots are done in a single thread since the overhead of threading would dominate.
+ *
+ * @author Peter Abeles
+ */
+public class SymmetricDivideConquer_MT_DDRM extends SymmetricDivideConquer_DDRM {
+    /** Minimum number of roots in a merge before it will be computed concurrently */
+    public int minConcurrent = 64;
+
+    @Override
+    protected void computeRoots() {
+        if (K < minConcurrent) {
+            super.computeRoots();
+            return;
+        }
+        EjmlConcurrency.loopBlocks(0, K, 16, ( i0, i1 ) -> {
+            for (int i = i0; i < i1; i++) {
+                solveRoot(i);
+            }
+        });
+    }
+
+    @Override
+    protected void computeZHat() {
+        if (K < minConcurrent) {
+            super.computeZHat();
+            return;
+        }
+        EjmlConcurrency.loopBlocks(0, K, 16, ( j0, j1 ) -> {
+            for (int j = j0; j < j1; j++) {
+                computeZHat(j);
+            }
+        });
+    }
+
+    @Override
+    protected void computeVectors() {
+        if (K < minConcurrent) {
+            super.computeVectors();
+            return;
+        }
+        U.reshape(K, K);
+        EjmlConcurrency.loopBlocks(0, K, 16, ( i0, i1 ) -> {
+            for (int i = i0; i < i1; i++) {
+                computeVector(i);
+            }
+        });
+    }
+
+    @Override
+    protected void multiply( DMatrixRMaj A, DMatrixRMaj B, DMatrixRMaj C ) {
+        CommonOps_MT_DDRM.mult(A, B, C);
+    }
+}
@@ -0,0 +1,555 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.eig.symm;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.decomposition.eig.SymmetricQRAlgorithmDecomposition_DDRM;
+import org.ejml.interfaces.LinearOperator_F64;
+
+import java.util.Random;
+
+/**
+ * <p>
+ * Computes a few of the largest or smallest eigenvalues and their eigenvectors of a symmetric linear operator using
+ * the thick restart Lanczos method. Only products between the operator and a vector are required, which makes it
+ * far faster than a full eigen decomposition when the number of requested eigenpairs is much smaller than the size
+ * of the matrix. The operator can be a dense or sparse matrix or something which is never explicitly formed.
+ * </p>
+ *
+ * <p>
+ * A Krylov subspace is grown using the Lanczos iteration until it contains {@link #getMaxSubspace()} vectors. The
+ * Ritz pairs are then found from the projection of the operator onto this subspace. If the wanted Ritz pairs have
+ * not yet converged the method is restarted using the most promising Ritz vectors, which turns the projected
+ * tridiagonal matrix into an arrowhead matrix, and the subspace is grown again. The Lanczos vectors are fully
+ * reorthogonalized to avoid spurious copies of eigenvalues.
+ * </p>
+ *
+ * <p>
+ * A Krylov subspace which is grown from a single vector contains at most one eigenvector for each distinct
+ * eigenvalue, so copies of a repeated eigenvalue can be missed. Once the wanted Ritz pairs have converged they
+ * are locked and the method is started again from a new random vector. Later Lanczos vectors are kept orthogonal
+ * to the locked eigenvectors, which deflates them from the operator. Newly converged pairs replace locked pairs
+ * which are less wanted. This is repeated until a search of the orthogonal complement doesn't find anything
+ * better than the locked pairs, which means every call needs at least two searches.
+ * </p>
+ *
+ * <p>
+ * All workspace is saved between calls, so decomposing many operators of the same size will not create new
+ * memory.
+ * </p>
+ *
+ * <ul>
+ *     <li>K. Wu and H. Simon, "Thick-Restart Lanczos Method for Large Symmetric Eigenvalue Problems",
+ *     SIAM J. Matrix Anal. Appl. 22 (2000)</li>
+ * </ul>
+ *
+ * @author Peter Abeles
+ */
+public class ThickRestartLanczos_DDRM {
+    // If the norm of a vector drops by more than this during orthogonalization then it's repeated
+    private static final double REORTHO = 0.7071;
+
+    // Number of eigenpairs which are to be found
+    protected int numEigen;
+    // If true the largest eigenvalues are found, otherwise the smallest
+    protected boolean largest;
+
+    // Maximum size of the Krylov subspace. If <= 0 then it is selected automatically
+    protected int maxSubspace = 0;
+    // A Ritz pair has converged when its residual is less than this times the largest magnitude Ritz value
+    protected double tolerance = 1e-10;
+    // Maximum number of times it can restart
+    protected int maxRestarts = 1000;
+
+    // Used to create the initial vector
+    protected Random rand = new Random(0xBEEF);
+
+    // Size of the operator
+    protected int N;
+    // Size of the subspace in the current search
+    protected int m;
+    // Number of Ritz pairs wanted from the current search
+    protected int numWanted;
+
+    // Lanczos vectors. Each row is a vector and there are m+1 rows
+    protected DMatrixRMaj V = new DMatrixRMaj(1, 1);
+    // Projection of the operator onto the Lanczos vectors
+    protected DMatrixRMaj T = new DMatrixRMaj(1, 1);
+    protected DMatrixRMaj work = new DMatrixRMaj(1, 1);
+    // the norm of the last residual vector
+    protected double betaLast;
+    // Estimate of the operator's norm from the Ritz values
+    protected double normA;
+
+    // Used to decompose T
+    protected SymmetricQRAlgorithmDecomposition_DDRM eigT = new SymmetricQRAlgorithmDecomposition_DDRM(true);
+    // Ritz values and vectors of T, sorted so that the most wanted are first
+    protected double[] ritzValues = UtilEjml.ZERO_LENGTH_F64;
+    protected DMatrixRMaj ritzVectors = new DMatrixRMaj(1, 1);
+    protected int[] order = UtilEjml.ZERO_LENGTH_I32;
+    // Ritz vectors in the original space and the coefficients used to compute them
+    protected DMatrixRMaj Vnew = new DMatrixRMaj(1, 1);
+    protected DMatrixRMaj Y = new DMatrixRMaj(1, 1);
+
+    // Workspace for a single vector
+    protected double[] x = UtilEjml.ZERO_LENGTH_F64;
+    protected double[] w = UtilEjml.ZERO_LENGTH_F64;
+    protected double[] h = UtilEjml.ZERO_LENGTH_F64;
+    protected double[] hsum = UtilEjml.ZERO_LENGTH_F64;
+
+    // Converged eigenpairs, sorted so that the most wanted are first. Eigenvectors are stored in rows
+    protected int numLocked;
+    protected double[] lockedValues = UtilEjml.ZERO_LENGTH_F64;
+    protected DMatrixRMaj locked = new DMatrixRMaj(1, 1);
+    // Locked pairs and the pairs from the most recent search. Used when merging them
+    protected double[] candidateValues = UtilEjml.ZERO_LENGTH_F64;
+    protected DMatrixRMaj candidates = new DMatrixRMaj(1, 1);
+
+    // Found eigenvalues and eigenvectors. Eigenvectors are stored in rows
+    protected double[] eigenvalues = UtilEjml.ZERO_LENGTH_F64;
+    protected DMatrixRMaj eigenvectors = new DMatrixRMaj(1, 1);
+
+    // Statistics from the most recent call to process
+    protected int restarts;
+    protected int numMult;
+    protected boolean converged;
+
+    /**
+     * @param numEigen Number of eigenpairs which are to be found
+     * @param largest If true then the algebraically largest eigenvalues are found. Otherwise the smallest.
+     */
+    public ThickRestartLanczos_DDRM( int numEigen, boolean largest ) {
+        if (numEigen <= 0)
+            throw new IllegalArgumentException("Number of eigenvalues must be more than zero");
+        this.numEigen = numEigen;
+        this.largest = largest;
+    }
+
+    /**
+     * Finds the eigenpairs of the symmetric operator.
+     *
+     * @param A (Input) Symmetric operator. Not modified.
+     * @return true if all the eigenpairs converged
+     */
+    public boolean process( LinearOperator_F64 A ) {
+        if (A.getNumRows() != A.getNumCols())
+            throw new IllegalArgumentException("Operator must be square");
+        if (A.getNumRows() < numEigen)
+            throw new IllegalArgumentException("More eigenvalues requested than the operator has");
+
+        N = A.getNumRows();
+        int maxM = maxSubspace > 0 ? maxSubspace : Math.max(2*numEigen + 1, numEigen + 20);
+        maxM = Math.min(Math.max(maxM, numEigen + 1), N);
+
+        restarts = 0;
+        numMult = 0;
+        normA = 0;
+        converged = true;
+        numLocked = 0;
+        locked.reshape(numEigen, N);
+        lockedValues = ensureLength(lockedValues, numEigen);
+
+        // Search the space orthogonal to the locked eigenvectors until nothing better is found
+        while (numLocked < N) {
+            int dof = N - numLocked;
+            numWanted = Math.min(numEigen, dof);
+            m = Math.min(maxM, dof);
+            declareWorkspace();
+
+            if (!search(A))
+                return false;
+            if (!lock() || !converged)
+                break;
+        }
+
+        // Save the results
+        eigenvalues = ensureLength(eigenvalues, numEigen);
+        System.arraycopy(lockedValues, 0, eigenvalues, 0, numEigen);
+        eigenvectors.setTo(locked);
+
+        return converged;
+    }
+
+    /**
+     * Finds the wanted Ritz pairs inside the space orthogonal to the locked eigenvectors using thick restart
+     * Lanczos. If it runs out of restarts then {@link #converged} is set to false.
+     *
+     * @return false if the projected matrix couldn't be decomposed
+     */
+    protected boolean search( LinearOperator_F64 A ) {
+        // Start from a random vector
+        randomOrthogonal(0);
+
+        int start = 0;
+        while (true) {
+            expand(A, start);
+            if (!computeRitz())
+                return false;
+
+            // See if the wanted Ritz pairs have converged
+            int numConverged = 0;
+            for (int i = 0; i < numWanted; i++) {
+                if (residual(i) <= tolerance*normA)
+                    numConverged++;
+            }
+
+            if (numConverged == numWanted || betaLast == 0.0)
+                return true;
+            if (restarts >= maxRestarts) {
+                converged = false;
+                return true;
+            }
+
+            start = restart();
+            restarts++;
+        }
+    }
+
+    /**
+     * Merges the wanted Ritz pairs from the most recent search with the locked eigenpairs, keeping the most wanted.
+     *
+     * @return true if a new pair was locked
+     */
+    protected boolean lock() {
+        // A pair must be better than the least wanted locked pair by more than the tolerance to replace it
+        if (numLocked == numEigen) {
+            double difference = ritzValues[order[0]] - lockedValues[numLocked - 1];
+            if ((largest ? difference : -difference) <= tolerance*normA)
+                return false;
+        }
+
+        int total = numLocked + numWanted;
+        candidateValues = ensureLength(candidateValues, total);
+        candidates.reshape(total, N);
+        System.arraycopy(lockedValues, 0, candidateValues, 0, numLocked);
+        System.arraycopy(locked.data, 0, candidates.data, 0, numLocked*N);
+        for (int i = 0; i < numWanted; i++) {
+            candidateValues[numLocked + i] = ritzValues[order[i]];
+        }
+        ritzToVectors(numWanted, Vnew);
+        System.arraycopy(Vnew.data, 0, candidates.data, numLocked*N, numWanted*N);
+
+        // Both sets of pairs are already sorted, so merge them
+        int idxOld = 0, idxNew = numLocked;
+        int count = Math.min(numEigen, total);
+        for (int i = 0; i < count; i++) {
+            int src;
+            if (idxNew == total) {
+                src = idxOld++;
+            } else if (idxOld == numLocked) {
+                src = idxNew++;
+            } else {
+                double a = candidateValues[idxOld], b = candidateValues[idxNew];
+                src = (largest ? a >= b : a <= b) ? idxOld++ : idxNew++;
+            }
+            lockedValues[i] = candidateValues[src];
+            System.arraycopy(candidates.data, src*N, locked.data, i*N, N);
+        }
+        numLocked = count;
+        return true;
+    }
+
+    protected void declareWorkspace() {
+        V.reshape(m + 1, N);
+        T.reshape(m, m);
+        T.zero();
+        work.reshape(m, m);
+        ritzValues = ensureLength(ritzValues, m);
+        order = ensureLength(order, m);
+        ritzVectors.reshape(m, m);
+        x = ensureLength(x, N);
+        w = ensureLength(w, N);
+        h = ensureLength(h, Math.max(m + 1, numEigen));
+        hsum = ensureLength(hsum, m + 1);
+    }
+
+    /**
+     * Grows the Lanczos basis from vector 'start' until it contains m vectors. The first 'start+1' vectors and
+     * the first 'start' rows and columns of T are already known.
+     */
+    protected void expand( LinearOperator_F64 A, int start ) {
+        for (int j = start; j < m; j++) {
+            System.arraycopy(V.data, j*N, x, 0, N);
+            A.mult(x, w);
+            numMult++;
+
+            // If the vector is inside the subspace then an invariant subspace has been found
+            boolean breakdown = !orthogonalize(w, j + 1);
+            double beta = norm(w);
+
+            T.unsafe_set(j, j, hsum[j]);
+
+            if (j == m - 1) {
+                betaLast = breakdown ? 0.0 : beta;
+                if (!breakdown)
+                    scale(1.0/beta, w, V.data, m*N);
+            } else if (breakdown) {
+                T.unsafe_set(j, j + 1, 0);
+                T.unsafe_set(j + 1, j, 0);
+                randomOrthogonal(j + 1);
+            } else {
+                T.unsafe_set(j, j + 1, beta);
+                T.unsafe_set(j + 1, j, beta);
+                scale(1.0/beta, w, V.data, (j + 1)*N);
+            }
+        }
+    }
+
+    /**
+     * Finds the Ritz values and vectors and sorts them so that the ones which are wanted the most come first
+     */
+    protected boolean computeRitz() {
+        work.setTo(T);
+        if (!eigT.decompose(work))
+            return false;
+
+        for (int i = 0; i < m; i++) {
+            ritzValues[i] = eigT.getEigenvalue(i).real;
+            normA = Math.max(normA, Math.abs(ritzValues[i]));
+            DMatrixRMaj v = eigT.getEigenVector(i);
+            for (int j = 0; j < m; j++) {
+                ritzVectors.data[j*m + i] = v.data[j];
+            }
+            order[i] = i;
+        }
+
+        // Insertion sort since m is small
+        for (int i = 1; i < m; i++) {
+            int idx = order[i];
+            double value = ritzValues[idx];
+            int j = i - 1;
+            while (j >= 0 && (largest ? ritzValues[order[j]] < value : ritzValues[order[j]] > value)) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = idx;
+        }
+        return true;
+    }
+
+    /**
+     * Norm of the residual for the i-th wanted Ritz pair
+     */
+    protected double residual( int i ) {
+        return Math.abs(betaLast*ritzVectors.data[(m - 1)*m + order[i]]);
+    }
+
+    /**
+     * Restarts using the Ritz vectors which are closest to converging. Returns the number of vectors kept.
+     */
+    protected int restart() {
+        // keep more than the wanted vectors to speed up convergence, but leave room to grow the subspace
+        int l = Math.min(m - 1, numWanted + (m - numWanted)/2);
+
+        ritzToVectors(l, Vnew);
+        System.arraycopy(V.data, m*N, V.data, l*N, N);
+        System.arraycopy(Vnew.data, 0, V.data, 0, l*N);
+
+        // T is now an arrowhead matrix
+        T.zero();
+        for (int i = 0; i < l; i++) {
+            double s = betaLast*ritzVectors.data[(m - 1)*m + order[i]];
+            T.unsafe_set(i, i, ritzValues[order[i]]);
+            T.unsafe_set(i, l, s);
+            T.unsafe_set(l, i, s);
+        }
+        return l;
+    }
+
+    /**
+     * Computes the first 'count' wanted Ritz vectors in the original space. Each vector is a row in 'output'.
+     */
+    protected void ritzToVectors( int count, DMatrixRMaj output ) {
+        Y.reshape(count, m);
+        for (int i = 0; i < count; i++) {
+            int col = order[i];
+            for (int j = 0; j < m; j++) {
+                Y.data[i*m + j] = ritzVectors.data[j*m + col];
+            }
+        }
+        output.reshape(count, N);
+        CommonOps_DDRM.mult(Y, DMatrixRMaj.wrap(m, N, V.data), output);
+    }
+
+    /**
+     * Removes the component of 'w' which is in the span of the locked eigenvectors and the first 'count' Lanczos
+     * vectors using classical Gram-Schmidt. The process is repeated if the norm dropped by a large amount, which
+     * indicates that orthogonality was lost to cancellation. The projection coefficients onto the Lanczos vectors
+     * are saved in hsum.
+     *
+     * @return false if 'w' is numerically inside the span of the vectors
+     */
+    protected boolean orthogonalize( double[] w, int count ) {
+        for (int i = 0; i < count; i++) {
+            hsum[i] = 0;
+        }
+        double before = norm(w);
+        for (int pass = 0; pass < 3; pass++) {
+            // The locked eigenvectors are deflated and are not part of T
+            project(locked.data, numLocked, w);
+            project(V.data, count, w);
+            for (int i = 0; i < count; i++) {
+                hsum[i] += h[i];
+            }
+            double after = norm(w);
+            if (after > REORTHO*before)
+                return true;
+            before = after;
+        }
+        return false;
+    }
+
+    /**
+     * Subtracts the projection of 'w' onto the first 'count' rows in 'basis'. The coefficients are saved in h.
+     */
+    private void project( double[] basis, int count, double[] w ) {
+        for (int i = 0; i < count; i++) {
+            double sum = 0;
+            int index = i*N;
+            for (int k = 0; k < N; k++) {
+                sum += basis[index++]*w[k];
+            }
+            h[i] = sum;
+        }
+        for (int i = 0; i < count; i++) {
+            double c = h[i];
+            int index = i*N;
+            for (int k = 0; k < N; k++) {
+                w[k] -= c*basis[index++];
+            }
+        }
+    }
+
+    /**
+     * Fills in the specified Lanczos vector with a random vector that's orthogonal to all the previous vectors
+     */
+    protected void randomOrthogonal( int row ) {
+        // It's very unlikely that this will need more than one attempt
+        for (int attempt = 0; attempt < 10; attempt++) {
+            for (int i = 0; i < N; i++) {
+                w[i] = (double)rand.nextGaussian();
+            }
+            if (orthogonalize(w, row)) {
+                scale(1.0/norm(w), w, V.data, row*N);
+                return;
+            }
+        }
+        throw new RuntimeException("Failed to find an orthogonal vector");
+    }
+
+    private double norm( double[] v ) {
+        double sum = 0;
+        for (int i = 0; i < N; i++) {
+            sum += v[i]*v[i];
+        }
+        return Math.sqrt(sum);
+    }
+
+    private void scale( double alpha, double[] src, double[] dst, int offset ) {
+        for (int i = 0; i < N; i++) {
+            dst[offset + i] = alpha*src[i];
+        }
+    }
+
+    private static double[] ensureLength( double[] array, int length ) {
+        return array.length < length ? new double[length] : array;
+    }
+
+    private static int[] ensureLength( int[] array, int length ) {
+        return array.length < length ? new int[length] : array;
+    }
+
+    /**
+     * Returns the found eigenvalues. Ordered from largest to smallest if the largest eigenvalues were requested
+     * otherwise from smallest to largest. The array can be larger than the number of eigenvalues.
+     */
+    public double[] getEigenvalues() {
+        return eigenvalues;
+    }
+
+    /**
+     * Returns the found eigenvectors. Each row is an eigenvector and has the same order as the eigenvalues.
+     */
+    public DMatrixRMaj getEigenvectors() {
+        return eigenvectors;
+    }
+
+    public int getNumEigen() {
+        return numEigen;
+    }
+
+    public void setNumEigen( int numEigen ) {
+        if (numEigen <= 0)
+            throw new IllegalArgumentException("Number of eigenvalues must be more than zero");
+        this.numEigen = numEigen;
+    }
+
+    public boolean isLargest() {
+        return largest;
+    }
+
+    public void setLargest( boolean largest ) {
+        this.largest = largest;
+    }
+
+    public int getMaxSubspace() {
+        return maxSubspace;
+    }
+
+    /**
+     * Specifies the maximum size of the Krylov subspace. Larger subspaces require fewer matrix vector
+     * multiplications but more memory and orthogonalization. If &le; 0 then it will be selected automatically.
+     */
+    public void setMaxSubspace( int maxSubspace ) {
+        this.maxSubspace = maxSubspace;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    public void setTolerance( double tolerance ) {
+        this.tolerance = tolerance;
+    }
+
+    public int getMaxRestarts() {
+        return maxRestarts;
+    }
+
+    public void setMaxRestarts( int maxRestarts ) {
+        this.maxRestarts = maxRestarts;
+    }
+
+    /** Number of times it restarted in the most recent call to process */
+    public int getRestarts() {
+        return restarts;
+    }
+
+    /** Number of operator vector multiplications in the most recent call to process */
+    public int getNumMult() {
+        return numMult;
+    }
+
+    /** True if all the eigenpairs converged in the most recent call to process */
+    public boolean isConverged() {
+        return converged;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.lu;
+
+import org.ejml.EjmlParameters;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.IGrowArray;
+import org.ejml.dense.block.MatrixOps_DDRB;
+import org.ejml.dense.block.decomposition.lu.LUOuterForm_DDRB;
+import org.ejml.interfaces.decomposition.LUDecomposition_F64;
+
+/**
+ * Wrapper around {@link LUOuterForm_DDRB} that allows it to process DMatrixRMaj. The matrix is converted into
+ * a block format in place, decomposed, then converted back. Since the results are stored in the same format
+ * as the other row major LU decompositions, they can be used by the same solvers.
+ *
+ * @author Peter Abeles
+ */
+public class LUDecomposition_DDRB_to_DDRM extends LUDecompositionBase_DDRM {
+
+    protected LUDecomposition_F64<DMatrixRBlock> alg;
+
+    protected DGrowArray workspace = new DGrowArray();
+    protected DMatrixRBlock Ablock = new DMatrixRBlock();
+    protected int blockLength;
+
+    // storage for the row pivots and for converting them into a sequence of swaps
+    protected IGrowArray permutation = new IGrowArray();
+    protected IGrowArray current = new IGrowArray();
+    protected IGrowArray location = new IGrowArray();
+
+    public LUDecomposition_DDRB_to_DDRM() {
+        this(new LUOuterForm_DDRB(), EjmlParameters.BLOCK_WIDTH);
+    }
+
+    public LUDecomposition_DDRB_to_DDRM( LUDecomposition_F64<DMatrixRBlock> alg, int blockLength ) {
+        this.alg = alg;
+        this.blockLength = blockLength;
+    }
+
+    @Override
+    public boolean decompose( DMatrixRMaj a ) {
+        decomposeCommonInit(a);
+
+        Ablock.numRows = m;
+        Ablock.numCols = n;
+        Ablock.blockLength = blockLength;
+        Ablock.data = dataLU;
+
+        // doing an in-place convert is much more memory efficient at the cost of a little
+        // but of CPU
+        MatrixOps_DDRB.convertRowToBlock(m, n, blockLength, dataLU, workspace);
+        boolean ret = alg.decompose(Ablock);
+        MatrixOps_DDRB.convertBlockToRow(m, n, blockLength, dataLU, workspace);
+
+        // The solvers apply the pivots as a sequence of row swaps. Find the swaps which produce the permutation
+        int[] perm = alg.getRowPivotV(permutation);
+        System.arraycopy(perm, 0, pivot, 0, m);
+
+        current.reshape(m);
+        location.reshape(m);
+        int[] rows = current.data;
+        int[] where = location.data;
+        for (int i = 0; i < m; i++) {
+            rows[i] = i;
+            where[i] = i;
+        }
+        for (int i = 0; i < m; i++) {
+            int p = where[perm[i]];
+            indx[i] = p;
+            if (p == i)
+                continue;
+            // swap rows i and p
+            int row = rows[i];
+            rows[p] = row;
+            where[row] = p;
+            rows[i] = perm[i];
+            where[perm[i]] = i;
+            pivsign = -pivsign;
+        }
+        return ret;
+    }
+}
@@ -0,0 +1,458 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.svd;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.decomposition.qr.QRDecompositionHouseholderColumn_DDRM;
+import org.ejml.interfaces.decomposition.QRDecomposition;
+import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * <p>
+ * Computes the singular value decomposition using one-sided Jacobi rotations. Pairs of columns are rotated
+ * until all the columns are orthogonal to each other, at which point the column norms are the singular values,
+ * the normalized columns are the left singular vectors, and the accumulated rotations are the right singular
+ * vectors. Compared to the implicit QR algorithm it is slower but small singular values are found with
+ * high relative accuracy.
+ * </p>
+ *
+ * <p>
+ * Columns are paired using a round-robin ordering. Within a round every column appears in only one pair, so
+ * all the rotations in a round are independent and can be applied in any order or concurrently. A sweep
+ * consists of n-1 rounds, which covers every pair of columns once.
+ * </p>
+ *
+ * <p>
+ * Wide matrices are handled by decomposing their transpose. Tall matrices are first reduced to an n by n
+ * triangular matrix using a QR decomposition, which greatly reduces the cost of each rotation.
+ * </p>
+ *
+ * <p>
+ * J. Demmel, K. Veselić, "Jacobi's Method is More Accurate than QR" SIAM J. Matrix Anal. Appl., 13(4), 1992
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("NullAway.Init")
+public class SvdOneSidedJacobi_DDRM implements SingularValueDecomposition_F64<DMatrixRMaj> {
+
+    // Maximum number of sweeps before it gives up
+    protected int maxSweeps = 60;
+
+    protected int numRows;
+    protected int numCols;
+
+    // compute a compact SVD
+    protected boolean compact;
+    // What the user requested to be computed
+    protected boolean prefComputeU;
+    protected boolean prefComputeV;
+    // Which vectors are computed for the tall transposed matrix
+    protected boolean computeLeft;
+    protected boolean computeRight;
+
+    // Should it decompose the transpose instead
+    protected boolean transposed;
+
+    protected QRDecomposition<DMatrixRMaj> qr;
+
+    // Each row is a column in the matrix being rotated. Rows are contiguous in memory, making rotations fast.
+    protected DMatrixRMaj W = new DMatrixRMaj(1, 1);
+    // Accumulated rotations. Rows are the right singular vectors.
+    protected DMatrixRMaj Vt = new DMatrixRMaj(1, 1);
+    // Rows are the left singular vectors
+    protected DMatrixRMaj Ut = new DMatrixRMaj(1, 1);
+
+    // Workspace
+    protected DMatrixRMaj At = new DMatrixRMaj(1, 1);
+    protected DMatrixRMaj R = new DMatrixRMaj(1, 1);
+    protected DMatrixRMaj Q = new DMatrixRMaj(1, 1);
+    protected DMatrixRMaj D = new DMatrixRMaj(1, 1);
+
+    // Round-robin ordering of the columns
+    protected int[] order = new int[0];
+    // Pairs of columns in the current round
+    protected int[] pairs = new int[0];
+    protected int numPairs;
+
+    // Rotations are only applied if the columns are less orthogonal than this
+    protected double tol;
+    // true if a rotation was applied during the sweep
+    protected boolean rotated;
+
+    protected double[] singularValues = new double[0];
+    protected int numSingular;
+
+    /**
+     * Configures the class
+     *
+     * @param compact Compute a compact SVD
+     * @param computeU If true it will compute the U matrix
+     * @param computeV If true it will compute the V matrix
+     */
+    public SvdOneSidedJacobi_DDRM( boolean compact, boolean computeU, boolean computeV ) {
+        this(compact, computeU, computeV, new QRDecompositionHouseholderColumn_DDRM());
+    }
+
+    protected SvdOneSidedJacobi_DDRM( boolean compact, boolean computeU, boolean computeV,
+                                      QRDecomposition<DMatrixRMaj> qr ) {
+        this.compact = compact;
+        this.prefComputeU = computeU;
+        this.prefComputeV = computeV;
+        this.qr = qr;
+    }
+
+    @Override
+    public boolean decompose( DMatrixRMaj orig ) {
+        numRows = orig.numRows;
+        numCols = orig.numCols;
+        if (numRows == 0 || numCols == 0)
+            return false;
+
+        transposed = numCols > numRows;
+        computeLeft = transposed ? prefComputeV : prefComputeU;
+        computeRight = transposed ? prefComputeU : prefComputeV;
+
+        DMatrixRMaj A = orig;
+        if (transposed) {
+            At.reshape(numCols, numRows);
+            transpose(orig, At);
+            A = At;
+        }
+        int m = A.numRows;
+        int n = A.numCols;
+        numSingular = n;
+
+        // Rotate the columns of R instead of A, they have the same singular values and right singular vectors
+        if (m > n) {
+            // returns false if A is rank deficient, but R is still valid
+            qr.decompose(A);
+            qr.getR(R, true);
+            W.reshape(n, n);
+            CommonOps_DDRM.transpose(R, W);
+        } else {
+            W.reshape(n, m);
+            transpose(A, W);
+        }
+
+        if (computeRight) {
+            Vt.reshape(n, n);
+            CommonOps_DDRM.setIdentity(Vt);
+        }
+
+        if (!performSweeps())
+            return false;
+
+        extractSingularValues();
+
+        if (computeLeft) {
+            completeBasis();
+            computeLeftVectors(m, n);
+        }
+
+        return true;
+    }
+
+    /**
+     * Performs sweeps until all the columns are orthogonal
+     */
+    protected boolean performSweeps() {
+        int n = W.numRows;
+        int N = n + n%2;
+        tol = UtilEjml.EPS*Math.sqrt(W.numCols);
+
+        if (order.length < N) {
+            order = new int[N];
+            pairs = new int[N];
+        }
+
+        for (int sweep = 0; sweep < maxSweeps; sweep++) {
+            // when n is odd the column with index n is a place holder and any pair it's in is skipped
+            for (int i = 0; i < N; i++) {
+                order[i] = i;
+            }
+
+            rotated = false;
+            for (int round = 0; round < N - 1; round++) {
+                numPairs = 0;
+                for (int i = 0; i < N/2; i++) {
+                    int p = order[i];
+                    int q = order[N - 1 - i];
+                    if (p == n || q == n)
+                        continue;
+                    pairs[numPairs*2] = Math.min(p, q);
+                    pairs[numPairs*2 + 1] = Math.max(p, q);
+                    numPairs++;
+                }
+
+                rotateRound();
+
+                // keep the first element fixed and cycle the others
+                int last = order[N - 1];
+                System.arraycopy(order, 1, order, 2, N - 2);
+                order[1] = last;
+            }
+
+            if (!rotated)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Applies the rotations to all the pairs in the round. Pairs are independent of each other.
+     */
+    protected void rotateRound() {
+        for (int i = 0; i < numPairs; i++) {
+            rotate(pairs[i*2], pairs[i*2 + 1]);
+        }
+    }
+
+    /**
+     * Rotates columns p and q so that they are orthogonal to each other
+     */
+    protected void rotate( int p, int q ) {
+        final double[] w = W.data;
+        final int length = W.numCols;
+        final int indexP = p*length;
+        final int indexQ = q*length;
+
+        double alpha = 0, beta = 0, gamma = 0;
+        for (int i = 0; i < length; i++) {
+            double a = w[indexP + i];
+            double b = w[indexQ + i];
+            alpha += a*a;
+            beta += b*b;
+            gamma += a*b;
+        }
+
+        if (alpha == 0.0 || beta == 0.0 || Math.abs(gamma) <= tol*Math.sqrt(alpha)*Math.sqrt(beta))
+            return;
+        rotated = true;
+
+        // compute the rotation which will zero gamma
+        double zeta = (beta - alpha)/(2.0*gamma);
+        double t;
+        if (Math.abs(zeta) > 1.0/UtilEjml.EPS) {
+            // zeta*zeta could overflow and 1 + zeta*zeta is just zeta*zeta at this precision
+            t = 0.5/zeta;
+        } else {
+            t = Math.copySign(1.0, zeta)/(Math.abs(zeta) + Math.sqrt(1.0 + zeta*zeta));
+        }
+        double c = 1.0/Math.sqrt(1.0 + t*t);
+        double s = c*t;
+
+        applyRotation(w, indexP, indexQ, length, c, s);
+        if (computeRight)
+            applyRotation(Vt.data, p*Vt.numCols, q*Vt.numCols, Vt.numCols, c, s);
+    }
+
+    private static void applyRotation( double[] data, int indexP, int indexQ, int length, double c, double s ) {
+        for (int i = 0; i < length; i++) {
+            double a = data[indexP + i];
+            double b = data[indexQ + i];
+            data[indexP + i] = c*a - s*b;
+            data[indexQ + i] = s*a + c*b;
+        }
+    }
+
+    /**
+     * The singular values are the norm of each column. The columns are then normalized to get the left vectors.
+     */
+    protected void extractSingularValues() {
+        if (singularValues.length < numSingular)
+            singularValues = new double[numSingular];
+
+        final int length = W.numCols;
+        for (int row = 0; row < numSingular; row++) {
+            int index = row*length;
+            double norm = 0;
+            for (int i = 0; i < length; i++) {
+                double v = W.data[index + i];
+                norm += v*v;
+            }
+            norm = Math.sqrt(norm);
+            singularValues[row] = norm;
+            if (norm == 0.0)
+                continue;
+            for (int i = 0; i < length; i++) {
+                W.data[index + i] /= norm;
+            }
+        }
+    }
+
+    /**
+     * Columns with a singular value of zero have no direction. Replace them with unit vectors which are
+     * orthogonal to all the other left singular vectors.
+     */
+    protected void completeBasis() {
+        final int length = W.numCols;
+        for (int row = 0; row < numSingular; row++) {
+            if (singularValues[row] != 0.0)
+                continue;
+
+            int index = row*length;
+            for (int candidate = 0; candidate < length; candidate++) {
+                // select a unit vector and remove components along the other vectors
+                for (int i = 0; i < length; i++) {
+                    W.data[index + i] = 0.0;
+                }
+                W.data[index + candidate] = 1.0;
+                // twice is enough
+                for (int pass = 0; pass < 2; pass++) {
+                    for (int other = 0; other < numSingular; other++) {
+                        if (other == row || (singularValues[other] == 0.0 && other > row))
+                            continue;
+                        int indexO = other*length;
+                        double dot = 0;
+                        for (int i = 0; i < length; i++) {
+                            dot += W.data[index + i]*W.data[indexO + i];
+                        }
+                        for (int i = 0; i < length; i++) {
+                            W.data[index + i] -= dot*W.data[indexO + i];
+                        }
+                    }
+                }
+                double norm = 0;
+                for (int i = 0; i < length; i++) {
+                    norm += W.data[index + i]*W.data[index + i];
+                }
+                norm = Math.sqrt(norm);
+                // The squared norms summed across all unit vectors is at least one, so at least one will pass
+                if (norm >= 0.5/Math.sqrt(length)) {
+                    for (int i = 0; i < length; i++) {
+                        W.data[index + i] /= norm;
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Computes the left singular vectors from the normalized columns
+     */
+    protected void computeLeftVectors( int m, int n ) {
+        if (m == n) {
+            Ut.setTo(W);
+            return;
+        }
+
+        // Undo the QR decomposition, U = Q*[W^T 0;0 I]
+        qr.getQ(Q, compact);
+        if (compact) {
+            Ut.reshape(n, m);
+            multTransB(W, Q, Ut);
+        } else {
+            D.reshape(m, m);
+            CommonOps_DDRM.setIdentity(D);
+            CommonOps_DDRM.insert(W, D, 0, 0);
+            Ut.reshape(m, m);
+            multTransB(D, Q, Ut);
+        }
+    }
+
+    protected void multTransB( DMatrixRMaj A, DMatrixRMaj B, DMatrixRMaj C ) {
+        CommonOps_DDRM.multTransB(A, B, C);
+    }
+
+    protected void transpose( DMatrixRMaj A, DMatrixRMaj At ) {
+        CommonOps_DDRM.transpose(A, At);
+    }
+
+    @Override
+    public double[] getSingularValues() {
+        return singularValues;
+    }
+
+    @Override
+    public int numberOfSingularValues() {
+        return numSingular;
+    }
+
+    @Override
+    public boolean isCompact() {
+        return compact;
+    }
+
+    @Override
+    public DMatrixRMaj getU( @Nullable DMatrixRMaj U, boolean transpose ) {
+        if (!prefComputeU)
+            throw new IllegalArgumentException("As requested U was not computed.");
+        return copyVectors(transposed ? Vt : Ut, U, transpose);
+    }
+
+    @Override
+    public DMatrixRMaj getV( @Nullable DMatrixRMaj V, boolean transpose ) {
+        if (!prefComputeV)
+            throw new IllegalArgumentException("As requested V was not computed.");
+        return copyVectors(transposed ? Ut : Vt, V, transpose);
+    }
+
+    private DMatrixRMaj copyVectors( DMatrixRMaj rows, @Nullable DMatrixRMaj output, boolean transpose ) {
+        if (transpose) {
+            output = UtilEjml.reshapeOrDeclare(output, rows.numRows, rows.numCols);
+            output.setTo(rows);
+        } else {
+            output = UtilEjml.reshapeOrDeclare(output, rows.numCols, rows.numRows);
+            transpose(rows, output);
+        }
+        return output;
+    }
+
+    @Override
+    public DMatrixRMaj getW( @Nullable DMatrixRMaj W ) {
+        int m = compact ? numSingular : numRows;
+        int n = compact ? numSingular : numCols;
+
+        W = UtilEjml.reshapeOrDeclare(W, m, n);
+        W.zero();
+        for (int i = 0; i < numSingular; i++) {
+            W.unsafe_set(i, i, singularValues[i]);
+        }
+
+        return W;
+    }
+
+    @Override
+    public int numRows() {
+        return numRows;
+    }
+
+    @Override
+    public int numCols() {
+        return numCols;
+    }
+
+    @Override
+    public boolean inputModified() {
+        return false;
+    }
+
+    public int getMaxSweeps() {
+        return maxSweeps;
+    }
+
+    public void setMaxSweeps( int maxSweeps ) {
+        this.maxSweeps = maxSweeps;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.svd;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_MT_DDRM;
+import org.ejml.dense.row.decomposition.qr.QRDecompositionHouseholderColumn_MT_DDRM;
+
+/**
+ * Concurrent implementation of {@link SvdOneSidedJacobi_DDRM}. The independent rotations in each round are
+ * split between the threads. The QR decomposition and computation of the left singular vectors also use
+ * multiple threads.
+ *
+ * @author Peter Abeles
+ */
+public class SvdOneSidedJacobi_MT_DDRM extends SvdOneSidedJacobi_DDRM {
+    public SvdOneSidedJacobi_MT_DDRM( boolean compact, boolean computeU, boolean computeV ) {
+        super(compact, computeU, computeV, new QRDecompositionHouseholderColumn_MT_DDRM());
+    }
+
+    @Override
+    protected void rotateRound() {
+        if (!EjmlConcurrency.useConcurrent(W)) {
+            super.rotateRound();
+            return;
+        }
+        EjmlConcurrency.loopBlocks(0, numPairs, ( i0, i1 ) -> {
+            for (int i = i0; i < i1; i++) {
+                rotate(pairs[i*2], pairs[i*2 + 1]);
+            }
+        });
+    }
+
+    @Override
+    protected void multTransB( DMatrixRMaj A, DMatrixRMaj B, DMatrixRMaj C ) {
+        CommonOps_MT_DDRM.multTransB(A, B, C);
+    }
+
+    @Override
+    protected void transpose( DMatrixRMaj A, DMatrixRMaj At ) {
+        CommonOps_MT_DDRM.transpose(A, At);
+    }
+}
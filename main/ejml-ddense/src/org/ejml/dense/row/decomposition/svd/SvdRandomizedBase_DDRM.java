@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.svd;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.SingularOps_DDRM;
+import org.ejml.interfaces.decomposition.QRDecomposition;
+import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Random;
+
+/**
+ * <p>
+ * Computes a truncated singular value decomposition, A &asymp; U*W*V<sup>T</sup>, of rank k using the randomized
+ * range finder of Halko, Martinsson, and Tropp. The matrix A is only accessed through products with a block of
+ * vectors, making it suitable for large dense or sparse matrices when k is much less than min(m,n).
+ * </p>
+ *
+ * <ol>
+ *     <li>&Omega; = random Gaussian n by l matrix, where l = k + oversampling</li>
+ *     <li>Q = orth(A*&Omega;)</li>
+ *     <li>Power iterations: Q = orth(A*orth(A<sup>T</sup>*Q))</li>
+ *     <li>Z = A<sup>T</sup>*Q = B<sup>T</sup>, where B = Q<sup>T</sup>*A</li>
+ *     <li>Z = U<sub>z</sub>*W*V<sub>z</sub><sup>T</sup> then U = Q*V<sub>z</sub> and V = U<sub>z</sub></li>
+ * </ol>
+ *
+ * <p>
+ * Power iterations sharpen the decay of the singular values and should be used when the spectrum decays slowly.
+ * The output is sorted in descending order and truncated to k singular values.
+ * </p>
+ *
+ * <p>
+ * N. Halko, P. G. Martinsson, and J. A. Tropp, "Finding Structure with Randomness: Probabilistic Algorithms
+ * for Constructing Approximate Matrix Decompositions" SIAM Review, 53(2), 217–288, 2011
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("NullAway.Init")
+public abstract class SvdRandomizedBase_DDRM {
+
+    // Number of singular values requested
+    protected int rank;
+    // Number of extra samples used to find the range of A
+    protected int oversampling = 10;
+    // Number of power iterations
+    protected int powerIterations = 2;
+
+    // What the user requested to be computed
+    protected boolean computeU;
+    protected boolean computeV;
+
+    protected Random rand = new Random(0xBEEF);
+
+    // Used to orthogonalize the basis
+    protected QRDecomposition<DMatrixRMaj> qr;
+    // Decomposes the small projected matrix
+    protected SingularValueDecomposition_F64<DMatrixRMaj> svd;
+
+    protected int numRows;
+    protected int numCols;
+    // number of singular values which were found
+    protected int numSingular;
+
+    // Random test matrix
+    protected DMatrixRMaj Omega = new DMatrixRMaj(1, 1);
+    // Orthonormal basis for the range of A. m by l
+    protected DMatrixRMaj Q = new DMatrixRMaj(1, 1);
+    // Orthonormal basis for the range of A^T. n by l
+    protected DMatrixRMaj Z = new DMatrixRMaj(1, 1);
+    // Storage for the product with A before it's orthogonalized
+    protected DMatrixRMaj Y = new DMatrixRMaj(1, 1);
+
+    // singular vectors of Z
+    protected DMatrixRMaj Uz = new DMatrixRMaj(1, 1);
+    protected DMatrixRMaj Vz = new DMatrixRMaj(1, 1);
+
+    // The found singular vectors, stored as columns
+    protected DMatrixRMaj U = new DMatrixRMaj(1, 1);
+    protected DMatrixRMaj V = new DMatrixRMaj(1, 1);
+
+    protected double[] singularValues = new double[0];
+
+    /**
+     * @param rank Number of singular values to compute
+     * @param computeU If true it will compute the U matrix
+     * @param computeV If true it will compute the V matrix
+     * @param qr QR decomposition used to orthogonalize the basis
+     * @param svd Used to decompose the small projected matrix. Must compute U and V and be compact.
+     */
+    protected SvdRandomizedBase_DDRM( int rank, boolean computeU, boolean computeV,
+                                      QRDecomposition<DMatrixRMaj> qr,
+                                      SingularValueDecomposition_F64<DMatrixRMaj> svd ) {
+        if (rank <= 0)
+            throw new IllegalArgumentException("Rank must be more than zero");
+        this.rank = rank;
+        this.computeU = computeU;
+        this.computeV = computeV;
+        this.qr = qr;
+        this.svd = svd;
+    }
+
+    /**
+     * Computes Y = A*X
+     */
+    protected abstract void multA( DMatrixRMaj X, DMatrixRMaj Y );
+
+    /**
+     * Computes Y = A<sup>T</sup>*X
+     */
+    protected abstract void multTransA( DMatrixRMaj X, DMatrixRMaj Y );
+
+    /**
+     * Computes C = A*B for the small dense matrices
+     */
+    protected void mult( DMatrixRMaj A, DMatrixRMaj B, DMatrixRMaj C ) {
+        CommonOps_DDRM.mult(A, B, C);
+    }
+
+    /**
+     * Computes the decomposition of A, which has the specified shape. A is accessed through
+     * {@link #multA} and {@link #multTransA}.
+     *
+     * @return true if successful
+     */
+    protected boolean process( int numRows, int numCols ) {
+        this.numRows = numRows;
+        this.numCols = numCols;
+        if (numRows == 0 || numCols == 0)
+            return false;
+
+        int minLength = Math.min(numRows, numCols);
+        int l = Math.min(rank + oversampling, minLength);
+        numSingular = Math.min(rank, minLength);
+
+        // sample the range of A
+        Omega.reshape(numCols, l);
+        for (int i = 0; i < numCols*l; i++) {
+            Omega.data[i] = (double)rand.nextGaussian();
+        }
+        Y.reshape(numRows, l);
+        multA(Omega, Y);
+        orthonormalize(Y, Q);
+
+        for (int iter = 0; iter < powerIterations; iter++) {
+            Y.reshape(numCols, l);
+            multTransA(Q, Y);
+            orthonormalize(Y, Z);
+            Y.reshape(numRows, l);
+            multA(Z, Y);
+            orthonormalize(Y, Q);
+        }
+
+        // Z = B^T = A^T*Q. This is tall so U and V of the SVD swap roles
+        Z.reshape(numCols, l);
+        multTransA(Q, Z);
+        if (!svd.decompose(Z))
+            return false;
+
+        svd.getU(Uz, false);
+        svd.getV(Vz, false);
+        int N = svd.numberOfSingularValues();
+        if (singularValues.length < N)
+            singularValues = new double[N];
+        System.arraycopy(svd.getSingularValues(), 0, singularValues, 0, N);
+        SingularOps_DDRM.descendingOrder(Uz, false, singularValues, N, Vz, false);
+
+        if (computeU) {
+            // U = Q*Vz(:,0:k)
+            Y.reshape(l, numSingular);
+            CommonOps_DDRM.extract(Vz, 0, l, 0, numSingular, Y, 0, 0);
+            U.reshape(numRows, numSingular);
+            mult(Q, Y, U);
+        }
+        if (computeV) {
+            V.reshape(numCols, numSingular);
+            CommonOps_DDRM.extract(Uz, 0, numCols, 0, numSingular, V, 0, 0);
+        }
+
+        return true;
+    }
+
+    /**
+     * Computes an orthonormal basis for the column space of Y. If Y is rank deficient, e.g. A has a lower rank
+     * than what was requested, then Q will still be orthonormal and the extra columns are ignored by the SVD.
+     *
+     * @param Y (Input) Matrix. Modified.
+     * @param Q (Output) Orthonormal basis with the same shape as Y
+     */
+    protected void orthonormalize( DMatrixRMaj Y, DMatrixRMaj Q ) {
+        // returns false if a column is zero, but the decomposition is still valid
+        qr.decompose(Y);
+        qr.getQ(Q, true);
+    }
+
+    public double[] getSingularValues() {
+        return singularValues;
+    }
+
+    public int numberOfSingularValues() {
+        return numSingular;
+    }
+
+    public boolean isCompact() {
+        return true;
+    }
+
+    public DMatrixRMaj getU( @Nullable DMatrixRMaj U, boolean transpose ) {
+        if (!computeU)
+            throw new IllegalArgumentException("As requested U was not computed.");
+        return copyVectors(this.U, U, transpose);
+    }
+
+    public DMatrixRMaj getV( @Nullable DMatrixRMaj V, boolean transpose ) {
+        if (!computeV)
+            throw new IllegalArgumentException("As requested V was not computed.");
+        return copyVectors(this.V, V, transpose);
+    }
+
+    private static DMatrixRMaj copyVectors( DMatrixRMaj columns, @Nullable DMatrixRMaj output, boolean transpose ) {
+        if (transpose) {
+            output = UtilEjml.reshapeOrDeclare(output, columns.numCols, columns.numRows);
+            CommonOps_DDRM.transpose(columns, output);
+        } else {
+            output = UtilEjml.reshapeOrDeclare(output, columns.numRows, columns.numCols);
+            output.setTo(columns);
+        }
+        return output;
+    }
+
+    public DMatrixRMaj getW( @Nullable DMatrixRMaj W ) {
+        W = UtilEjml.reshapeOrDeclare(W, numSingular, numSingular);
+        W.zero();
+        for (int i = 0; i < numSingular; i++) {
+            W.unsafe_set(i, i, singularValues[i]);
+        }
+        return W;
+    }
+
+    public int numRows() {
+        return numRows;
+    }
+
+    public int numCols() {
+        return numCols;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public int getOversampling() {
+        return oversampling;
+    }
+
+    public void setOversampling( int oversampling ) {
+        this.oversampling = oversampling;
+    }
+
+    public int getPowerIterations() {
+        return powerIterations;
+    }
+
+    public void setPowerIterations( int powerIterations ) {
+        this.powerIterations = powerIterations;
+    }
+
+    public Random getRand() {
+        return rand;
+    }
+
+    public void setRand( Random rand ) {
+        this.rand = rand;
+    }
+}
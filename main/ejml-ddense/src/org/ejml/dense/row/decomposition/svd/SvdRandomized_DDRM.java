@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.svd;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.decomposition.qr.QRDecompositionHouseholderColumn_DDRM;
+import org.ejml.interfaces.decomposition.QRDecomposition;
+import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
+
+/**
+ * Randomized truncated SVD of a dense matrix. See {@link SvdRandomizedBase_DDRM} for a description of the
+ * algorithm. The returned decomposition is compact and only contains the largest singular values.
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("NullAway.Init")
+public class SvdRandomized_DDRM extends SvdRandomizedBase_DDRM
+        implements SingularValueDecomposition_F64<DMatrixRMaj> {
+
+    // The matrix being decomposed
+    protected DMatrixRMaj A;
+
+    /**
+     * @param rank Number of singular values to compute
+     * @param computeU If true it will compute the U matrix
+     * @param computeV If true it will compute the V matrix
+     */
+    public SvdRandomized_DDRM( int rank, boolean computeU, boolean computeV ) {
+        this(rank, computeU, computeV, new QRDecompositionHouseholderColumn_DDRM(),
+                new SvdImplicitQrDecompose_DDRM(true, true, true, false));
+    }
+
+    protected SvdRandomized_DDRM( int rank, boolean computeU, boolean computeV,
+                                  QRDecomposition<DMatrixRMaj> qr,
+                                  SingularValueDecomposition_F64<DMatrixRMaj> svd ) {
+        super(rank, computeU, computeV, qr, svd);
+    }
+
+    @Override
+    public boolean decompose( DMatrixRMaj A ) {
+        this.A = A;
+        return process(A.numRows, A.numCols);
+    }
+
+    @Override
+    protected void multA( DMatrixRMaj X, DMatrixRMaj Y ) {
+        CommonOps_DDRM.mult(A, X, Y);
+    }
+
+    @Override
+    protected void multTransA( DMatrixRMaj X, DMatrixRMaj Y ) {
+        CommonOps_DDRM.multTransA(A, X, Y);
+    }
+
+    @Override
+    public boolean inputModified() {
+        return false;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.svd;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_MT_DDRM;
+import org.ejml.dense.row.decomposition.qr.QRDecompositionHouseholderColumn_MT_DDRM;
+
+/**
+ * Concurrent implementation of {@link SvdRandomized_DDRM}. The products with A, orthogonalization, and
+ * decomposition of the projected matrix are all computed using multiple threads.
+ *
+ * @author Peter Abeles
+ */
+public class SvdRandomized_MT_DDRM extends SvdRandomized_DDRM {
+    public SvdRandomized_MT_DDRM( int rank, boolean computeU, boolean computeV ) {
+        super(rank, computeU, computeV, new QRDecompositionHouseholderColumn_MT_DDRM(),
+                new SvdImplicitQrDecompose_MT_DDRM(true, true, true, false));
+    }
+
+    @Override
+    protected void multA( DMatrixRMaj X, DMatrixRMaj Y ) {
+        CommonOps_MT_DDRM.mult(A, X, Y);
+    }
+
+    @Override
+    protected void multTransA( DMatrixRMaj X, DMatrixRMaj Y ) {
+        CommonOps_MT_DDRM.multTransA(A, X, Y);
+    }
+
+    @Override
+    protected void mult( DMatrixRMaj A, DMatrixRMaj B, DMatrixRMaj C ) {
+        CommonOps_MT_DDRM.mult(A, B, C);
+    }
+}
@@ -31,14 +31,20 @@ import org.ejml.dense.row.decomposition.chol.CholeskyDecompositionInner_DDRM;
 import org.ejml.dense.row.decomposition.chol.CholeskyDecompositionLDL_DDRM;
 import org.ejml.dense.row.decomposition.chol.CholeskyDecomposition_DDRB_to_DDRM;
 import org.ejml.dense.row.decomposition.eig.SwitchingEigenDecomposition_DDRM;
+import org.ejml.dense.row.decomposition.eig.SymmetricDivideConquerDecomposition_DDRM;
+import org.ejml.dense.row.decomposition.eig.SymmetricLanczosDecomposition_DDRM;
 import org.ejml.dense.row.decomposition.eig.SymmetricQRAlgorithmDecomposition_DDRM;
 import org.ejml.dense.row.decomposition.eig.WatchedDoubleStepQRDecomposition_DDRM;
+import org.ejml.dense.row.decomposition.eig.symm.SymmetricDivideConquer_DDRM;
 import org.ejml.dense.row.decomposition.hessenberg.TridiagonalDecompositionHouseholder_DDRM;
 import org.ejml.dense.row.decomposition.hessenberg.TridiagonalDecomposition_DDRB_to_DDRM;
 import org.ejml.dense.row.decomposition.lu.LUDecompositionAlt_DDRM;
+import org.ejml.dense.row.decomposition.lu.LUDecomposition_DDRB_to_DDRM;
 import org.ejml.dense.row.decomposition.qr.QRColPivDecompositionHouseholderColumn_DDRM;
 import org.ejml.dense.row.decomposition.qr.QRDecompositionHouseholderColumn_DDRM;
 import org.ejml.dense.row.decomposition.svd.SvdImplicitQrDecompose_DDRM;
+import org.ejml.dense.row.decomposition.svd.SvdOneSidedJacobi_DDRM;
+import org.ejml.dense.row.decomposition.svd.SvdRandomized_DDRM;
 import org.ejml.interfaces.decomposition.*;
 
 /**
@@ -115,7 +121,11 @@ public class DecompositionFactory_DDRM {
      * @return LUDecomposition
      */
     public static LUDecomposition_F64<DMatrixRMaj> lu( int numRows, int numCol ) {
-        return new LUDecompositionAlt_DDRM();
+        if (Math.min(numRows, numCol) < EjmlParameters.SWITCH_BLOCK64_LU) {
+            return new LUDecompositionAlt_DDRM();
+        } else {
+            return new LUDecomposition_DDRB_to_DDRM();
+        }
     }
 
     public static LUDecomposition_F64<DMatrixRMaj> lu() {
@@ -153,6 +163,38 @@ public class DecompositionFactory_DDRM {
         return svd(100, 100, needU, needV, compact);
     }
 
+    /**
+     * <p>
+     * Returns a {@link SingularValueDecomposition} which uses one-sided Jacobi rotations. It is slower than {@link #svd}.
+     * Small singular values are computed with higher relative accuracy than {@link #svd}.
+     * </p>
+     *
+     * @param needU Should it compute the U matrix. If not sure set to true.
+     * @param needV Should it compute the V matrix. If not sure set to true.
+     * @param compact Should it compute the SVD in compact form. If not sure set to false.
+     * @return SVD
+     */
+    public static SingularValueDecomposition_F64<DMatrixRMaj> svdJacobi( boolean needU, boolean needV, boolean compact ) {
+        return new SvdOneSidedJacobi_DDRM(compact, needU, needV);
+    }
+
+    /**
+     * <p>
+     * Returns a {@link SingularValueDecomposition} which only computes the largest singular values and their
+     * singular vectors using a randomized algorithm. When rank is much less than the size of the matrix this
+     * is much faster than a full decomposition. The decomposition is compact and
+     * {@link SingularValueDecomposition#numberOfSingularValues()} will return min(rank, numRows, numCols).
+     * </p>
+     *
+     * @param rank Number of singular values to compute.
+     * @param needU Should it compute the U matrix. If not sure set to true.
+     * @param needV Should it compute the V matrix. If not sure set to true.
+     * @return Truncated SVD
+     */
+    public static SingularValueDecomposition_F64<DMatrixRMaj> svdRandomized( int rank, boolean needU, boolean needV ) {
+        return new SvdRandomized_DDRM(rank, needU, needV);
+    }
+
     /**
      * <p>
      * Returns a {@link org.ejml.interfaces.decomposition.QRDecomposition} that has been optimized for the specified matrix size.
@@ -214,13 +256,16 @@ public class DecompositionFactory_DDRM {
      * @param matrixSize Number of rows and columns that the returned decomposition is optimized for.
      * @param computeVectors Should it compute the eigenvectors or just eigenvalues.
      * @param isSymmetric If true then the returned algorithm is specialized only for symmetric matrices, if false
-     * then a general purpose algorithm is returned.
+     * then a general purpose algorithm is returned. Large symmetric matrices with eigenvectors use the divide and
+     * conquer algorithm, see {@link EjmlParameters#SWITCH_EIG_DIVIDE_CONQUER}.
      * @return EVD for any matrix.
      */
     public static EigenDecomposition_F64<DMatrixRMaj> eig( int matrixSize, boolean computeVectors,
                                                            boolean isSymmetric ) {
         if (isSymmetric) {
             TridiagonalSimilarDecomposition_F64<DMatrixRMaj> decomp = DecompositionFactory_DDRM.tridiagonal(matrixSize);
+            if (computeVectors && matrixSize >= EjmlParameters.SWITCH_EIG_DIVIDE_CONQUER)
+                return new SymmetricDivideConquerDecomposition_DDRM(decomp, new SymmetricDivideConquer_DDRM());
             return new SymmetricQRAlgorithmDecomposition_DDRM(decomp, computeVectors);
         } else
             return new WatchedDoubleStepQRDecomposition_DDRM(computeVectors);
@@ -231,6 +276,21 @@ public class DecompositionFactory_DDRM {
         return eig(100, computeVectors, isSymmetric);
     }
 
+    /**
+     * <p>
+     * Returns an {@link EigenDecomposition} which only computes a few of the largest or smallest eigenvalues and
+     * their eigenvectors of a symmetric matrix. When only a few eigenpairs are needed this is much faster than
+     * a full decomposition. {@link EigenDecomposition_F64#getNumberOfEigenvalues()} will return numEigen.
+     * </p>
+     *
+     * @param numEigen Number of eigenpairs which are to be found.
+     * @param largest If true then the algebraically largest eigenvalues are found. Otherwise the smallest.
+     * @return EVD for symmetric matrices which computes a subset of the eigenpairs
+     */
+    public static EigenDecomposition_F64<DMatrixRMaj> eigPartial( int numEigen, boolean largest ) {
+        return new SymmetricLanczosDecomposition_DDRM(numEigen, largest);
+    }
+
     /**
      * <p>
      * Computes a metric which measures the the quality of a singular value decomposition. If a
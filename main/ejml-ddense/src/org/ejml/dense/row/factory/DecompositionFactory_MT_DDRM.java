@@ -22,17 +22,25 @@ import org.ejml.EjmlParameters;
 import org.ejml.UtilEjml;
 import org.ejml.data.DMatrix;
 import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.block.decomposition.lu.LUOuterForm_MT_DDRB;
 import org.ejml.dense.row.decomposition.chol.CholeskyDecompositionBlock_MT_DDRM;
 import org.ejml.dense.row.decomposition.eig.SwitchingEigenDecomposition_DDRM;
+import org.ejml.dense.row.decomposition.eig.SymmetricDivideConquerDecomposition_DDRM;
+import org.ejml.dense.row.decomposition.eig.SymmetricLanczosDecomposition_MT_DDRM;
 import org.ejml.dense.row.decomposition.eig.SymmetricQRAlgorithmDecomposition_DDRM;
 import org.ejml.dense.row.decomposition.eig.WatchedDoubleStepQRDecomposition_DDRM;
+import org.ejml.dense.row.decomposition.eig.symm.SymmetricDivideConquer_MT_DDRM;
 import org.ejml.dense.row.decomposition.eig.watched.WatchedDoubleStepQREigen_DDRM;
 import org.ejml.dense.row.decomposition.eig.watched.WatchedDoubleStepQREigen_MT_DDRM;
 import org.ejml.dense.row.decomposition.hessenberg.HessenbergSimilarDecomposition_DDRM;
 import org.ejml.dense.row.decomposition.hessenberg.HessenbergSimilarDecomposition_MT_DDRM;
 import org.ejml.dense.row.decomposition.hessenberg.TridiagonalDecompositionHouseholder_MT_DDRM;
+import org.ejml.dense.row.decomposition.lu.LUDecompositionAlt_DDRM;
+import org.ejml.dense.row.decomposition.lu.LUDecomposition_DDRB_to_DDRM;
 import org.ejml.dense.row.decomposition.qr.QRDecompositionHouseholderColumn_MT_DDRM;
 import org.ejml.dense.row.decomposition.svd.SvdImplicitQrDecompose_MT_DDRM;
+import org.ejml.dense.row.decomposition.svd.SvdOneSidedJacobi_MT_DDRM;
+import org.ejml.dense.row.decomposition.svd.SvdRandomized_MT_DDRM;
 import org.ejml.interfaces.decomposition.*;
 
 /**
@@ -71,6 +79,27 @@ public class DecompositionFactory_MT_DDRM {
         return chol(100, lower);
     }
 
+    /**
+     * <p>
+     * Returns a {@link LUDecomposition} that has been optimized for the specified matrix size.
+     * </p>
+     *
+     * @param numRows Shape of the matrix that the code should be targeted towards. Does not need to be exact.
+     * @param numCol Shape of the matrix that the code should be targeted towards. Does not need to be exact.
+     * @return LUDecomposition
+     */
+    public static LUDecomposition_F64<DMatrixRMaj> lu( int numRows, int numCol ) {
+        if (Math.min(numRows, numCol) < EjmlParameters.SWITCH_BLOCK64_LU) {
+            return new LUDecompositionAlt_DDRM();
+        } else {
+            return new LUDecomposition_DDRB_to_DDRM(new LUOuterForm_MT_DDRB(), EjmlParameters.BLOCK_WIDTH);
+        }
+    }
+
+    public static LUDecomposition_F64<DMatrixRMaj> lu() {
+        return lu(100, 100);
+    }
+
     /**
      * <p>
      * Returns a {@link SingularValueDecomposition} that has been optimized for the specified matrix size.
@@ -102,6 +131,39 @@ public class DecompositionFactory_MT_DDRM {
         return svd(100, 100, needU, needV, compact);
     }
 
+    /**
+     * <p>
+     * Returns a {@link SingularValueDecomposition} which uses one-sided Jacobi rotations. The independent
+     * column rotations in each sweep are computed concurrently.
+     * Small singular values are computed with higher relative accuracy than {@link #svd}.
+     * </p>
+     *
+     * @param needU Should it compute the U matrix. If not sure set to true.
+     * @param needV Should it compute the V matrix. If not sure set to true.
+     * @param compact Should it compute the SVD in compact form. If not sure set to false.
+     * @return SVD
+     */
+    public static SingularValueDecomposition_F64<DMatrixRMaj> svdJacobi( boolean needU, boolean needV, boolean compact ) {
+        return new SvdOneSidedJacobi_MT_DDRM(compact, needU, needV);
+    }
+
+    /**
+     * <p>
+     * Returns a {@link SingularValueDecomposition} which only computes the largest singular values and their
+     * singular vectors using a randomized algorithm. When rank is much less than the size of the matrix this
+     * is much faster than a full decomposition. The decomposition is compact and
+     * {@link SingularValueDecomposition#numberOfSingularValues()} will return min(rank, numRows, numCols).
+     * </p>
+     *
+     * @param rank Number of singular values to compute.
+     * @param needU Should it compute the U matrix. If not sure set to true.
+     * @param needV Should it compute the V matrix. If not sure set to true.
+     * @return Truncated SVD
+     */
+    public static SingularValueDecomposition_F64<DMatrixRMaj> svdRandomized( int rank, boolean needU, boolean needV ) {
+        return new SvdRandomized_MT_DDRM(rank, needU, needV);
+    }
+
     /**
      * <p>
      * Returns a {@link QRDecomposition} that has been optimized for the specified matrix size.
@@ -149,13 +211,16 @@ public class DecompositionFactory_MT_DDRM {
      * @param matrixSize Number of rows and columns that the returned decomposition is optimized for.
      * @param computeVectors Should it compute the eigenvectors or just eigenvalues.
      * @param isSymmetric If true then the returned algorithm is specialized only for symmetric matrices, if false
-     * then a general purpose algorithm is returned.
+     * then a general purpose algorithm is returned. Large symmetric matrices with eigenvectors use the divide and
+     * conquer algorithm, see {@link EjmlParameters#SWITCH_EIG_DIVIDE_CONQUER}.
      * @return EVD for any matrix.
      */
     public static EigenDecomposition_F64<DMatrixRMaj> eig( int matrixSize, boolean computeVectors,
                                                            boolean isSymmetric ) {
         if (isSymmetric) {
             TridiagonalSimilarDecomposition_F64<DMatrixRMaj> decomp = DecompositionFactory_MT_DDRM.tridiagonal(matrixSize);
+            if (computeVectors && matrixSize >= EjmlParameters.SWITCH_EIG_DIVIDE_CONQUER)
+                return new SymmetricDivideConquerDecomposition_DDRM(decomp, new SymmetricDivideConquer_MT_DDRM());
             return new SymmetricQRAlgorithmDecomposition_DDRM(decomp, computeVectors);
         } else {
             HessenbergSimilarDecomposition_DDRM hessenberg = new HessenbergSimilarDecomposition_MT_DDRM();
@@ -169,6 +234,21 @@ public class DecompositionFactory_MT_DDRM {
         return eig(100, computeVectors, isSymmetric);
     }
 
+    /**
+     * <p>
+     * Returns an {@link EigenDecomposition} which only computes a few of the largest or smallest eigenvalues and
+     * their eigenvectors of a symmetric matrix. When only a few eigenpairs are needed this is much faster than
+     * a full decomposition. {@link EigenDecomposition_F64#getNumberOfEigenvalues()} will return numEigen.
+     * </p>
+     *
+     * @param numEigen Number of eigenpairs which are to be found.
+     * @param largest If true then the algebraically largest eigenvalues are found. Otherwise the smallest.
+     * @return EVD for symmetric matrices which computes a subset of the eigenpairs
+     */
+    public static EigenDecomposition_F64<DMatrixRMaj> eigPartial( int numEigen, boolean largest ) {
+        return new SymmetricLanczosDecomposition_MT_DDRM(numEigen, largest);
+    }
+
     /**
      * Checks to see if the passed in tridiagonal decomposition is of the appropriate type
      * for the matrix of the provided size. Returns the same instance or a new instance.
@@ -0,0 +1,367 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.misc;
+
+import org.ejml.EjmlParameters;
+import org.ejml.EjmlProfile;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.CommonOps_MT_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.decomposition.chol.CholeskyDecompositionBlock_DDRM;
+import org.ejml.dense.row.decomposition.chol.CholeskyDecompositionInner_DDRM;
+import org.ejml.dense.row.decomposition.chol.CholeskyDecomposition_DDRB_to_DDRM;
+import org.ejml.dense.row.decomposition.eig.SymmetricDivideConquerDecomposition_DDRM;
+import org.ejml.dense.row.decomposition.eig.SymmetricQRAlgorithmDecomposition_DDRM;
+import org.ejml.dense.row.decomposition.lu.LUDecompositionAlt_DDRM;
+import org.ejml.dense.row.decomposition.lu.LUDecomposition_DDRB_to_DDRM;
+import org.ejml.dense.row.decomposition.qr.QRDecompositionHouseholderColumn_DDRM;
+import org.ejml.dense.row.decomposition.qr.QRDecomposition_DDRB_to_DDRM;
+import org.ejml.dense.row.mult.MatrixMatrixMult_DDRM;
+import org.ejml.dense.row.mult.MatrixMultBlocked_DDRM;
+import org.ejml.dense.row.mult.MatrixMultProduct_DDRM;
+import org.ejml.interfaces.decomposition.DecompositionInterface;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * <p>Selects the values of the switch thresholds in {@link EjmlParameters} and {@link EjmlConcurrency} for the
+ * current machine. For each threshold the two competing algorithms are timed across a range of matrix sizes and the
+ * crossover point is found. The results can then be saved to a profile, which will be loaded the next time EJML
+ * is started, see {@link EjmlProfile}.</p>
+ *
+ * <p>Timing is done using short micro-benchmarks. Each algorithm is run repeatedly until {@link #minimumTimeNano}
+ * has elapsed and the fastest average out of {@link #trials} is used. The crossover is the smallest size at which
+ * the alternative algorithm is faster for that size and every larger size tested. This makes it less sensitive
+ * to noise in the measurements.</p>
+ *
+ * <p>Running {@link #main} will tune all the parameters and save the results to the default location.</p>
+ *
+ * @author Peter Abeles
+ */
+public class AutoTuneParameters_DDRM {
+    /** Minimum amount of time an algorithm is run for in a single trial */
+    public long minimumTimeNano = 20_000_000L;
+    /** Number of times each algorithm is timed. The fastest trial is used. */
+    public int trials = 3;
+
+    // Matrix sizes which are considered for each parameter
+    public int[] multSizes = {2, 4, 6, 8, 10, 12, 15, 20, 25, 30, 40, 50, 60, 80, 100, 150};
+    public int[] multBlockedSizes = {8, 16, 24, 32, 48, 64, 96, 128, 192, 256};
+    public int[] transposeSizes = {100, 200, 300, 400, 500, 700, 1000, 1500};
+    public int[] choleskySizes = {200, 400, 600, 800, 1000, 1200, 1600};
+    public int[] qrSizes = {200, 400, 600, 800, 1000, 1500, 2000};
+    public int[] luSizes = {200, 400, 600, 800, 1000, 1500};
+    public int[] eigSizes = {100, 200, 300, 400, 600, 800, 1000};
+    public int[] concurrentSizes = {10, 20, 40, 60, 80, 100, 150, 200, 300, 400};
+
+    // Candidate block widths and the size of the matrix they are evaluated with
+    public int[] blockWidths = {16, 24, 32, 48, 60, 64, 96, 128};
+    public int[] cholBlockWidths = {8, 12, 16, 20, 24, 32, 48};
+    public int blockWidthMatrixSize = 800;
+
+    /** If not null then progress will be printed to this stream */
+    public @Nullable PrintStream verbose;
+
+    protected Random rand = new Random(0xBEEF);
+
+    /**
+     * Tunes all the parameters and modifies their values
+     */
+    public void tuneAll() {
+        // block widths are tuned first since the crossover for block algorithms depends on them
+        EjmlParameters.BLOCK_WIDTH = tuneBlockWidth();
+        EjmlParameters.BLOCK_WIDTH_CHOL = tuneBlockWidthChol();
+        EjmlParameters.MULT_COLUMN_SWITCH = tuneMultColumnSwitch();
+        EjmlParameters.MULT_TRANAB_COLUMN_SWITCH = tuneMultTransABColumnSwitch();
+        EjmlParameters.MULT_INNER_SWITCH = tuneMultInnerSwitch();
+        EjmlParameters.MULT_BLOCKED_SWITCH = tuneMultBlockedSwitch();
+        EjmlParameters.TRANSPOSE_SWITCH = tuneTransposeSwitch();
+        EjmlParameters.SWITCH_BLOCK64_CHOLESKY = tuneCholeskySwitch();
+        EjmlParameters.SWITCH_BLOCK64_QR = tuneQrSwitch();
+        EjmlParameters.SWITCH_BLOCK64_LU = tuneLuSwitch();
+        EjmlParameters.SWITCH_EIG_DIVIDE_CONQUER = tuneEigSwitch();
+        EjmlConcurrency.ELEMENT_THRESHOLD = tuneConcurrentThreshold();
+    }
+
+    /**
+     * Number of columns in B at which {@link MatrixMatrixMult_DDRM#mult_reorder} becomes faster than
+     * {@link MatrixMatrixMult_DDRM#mult_small}
+     */
+    public int tuneMultColumnSwitch() {
+        return log("MULT_COLUMN_SWITCH", crossover(multSizes, N -> {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(N, N, rand);
+            DMatrixRMaj B = RandomMatrices_DDRM.rectangle(N, N, rand);
+            DMatrixRMaj C = new DMatrixRMaj(N, N);
+            return new Runnable[]{
+                    () -> MatrixMatrixMult_DDRM.mult_small(A, B, C),
+                    () -> MatrixMatrixMult_DDRM.mult_reorder(A, B, C)};
+        }, multSizes[multSizes.length - 1] + 1));
+    }
+
+    /**
+     * Number of columns in A at which {@link MatrixMatrixMult_DDRM#multTransAB_aux} becomes faster than
+     * {@link MatrixMatrixMult_DDRM#multTransAB}
+     */
+    public int tuneMultTransABColumnSwitch() {
+        return log("MULT_TRANAB_COLUMN_SWITCH", crossover(multSizes, N -> {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(N, N, rand);
+            DMatrixRMaj B = RandomMatrices_DDRM.rectangle(N, N, rand);
+            DMatrixRMaj C = new DMatrixRMaj(N, N);
+            double[] aux = new double[N];
+            return new Runnable[]{
+                    () -> MatrixMatrixMult_DDRM.multTransAB(A, B, C),
+                    () -> MatrixMatrixMult_DDRM.multTransAB_aux(A, B, C, aux)};
+        }, multSizes[multSizes.length - 1] + 1));
+    }
+
+    /**
+     * Number of columns in A at which {@link MatrixMultProduct_DDRM#inner_small} becomes faster than
+     * {@link MatrixMultProduct_DDRM#inner_reorder}
+     */
+    public int tuneMultInnerSwitch() {
+        return log("MULT_INNER_SWITCH", crossover(multSizes, N -> {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(N, N, rand);
+            DMatrixRMaj C = new DMatrixRMaj(N, N);
+            return new Runnable[]{
+                    () -> MatrixMultProduct_DDRM.inner_reorder(A, C),
+                    () -> MatrixMultProduct_DDRM.inner_small(A, C)};
+        }, multSizes[multSizes.length - 1] + 1));
+    }
+
+    /**
+     * Size of a square matrix at which {@link MatrixMultBlocked_DDRM} becomes faster than
+     * {@link MatrixMatrixMult_DDRM#mult_reorder}
+     */
+    public int tuneMultBlockedSwitch() {
+        return log("MULT_BLOCKED_SWITCH", crossover(multBlockedSizes, N -> {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(N, N, rand);
+            DMatrixRMaj B = RandomMatrices_DDRM.rectangle(N, N, rand);
+            DMatrixRMaj C = new DMatrixRMaj(N, N);
+            return new Runnable[]{
+                    () -> MatrixMatrixMult_DDRM.mult_reorder(A, B, C),
+                    () -> MatrixMultBlocked_DDRM.mult(1.0, A, B, C)};
+        }, multBlockedSizes[multBlockedSizes.length - 1] + 1));
+    }
+
+    /**
+     * Size of a square matrix above which {@link TransposeAlgs_DDRM#block} becomes faster than
+     * {@link TransposeAlgs_DDRM#standard}
+     */
+    public int tuneTransposeSwitch() {
+        int blockWidth = EjmlParameters.BLOCK_WIDTH;
+        // The switch is exclusive so the threshold is one less than the crossover
+        return log("TRANSPOSE_SWITCH", crossover(transposeSizes, N -> {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(N, N, rand);
+            DMatrixRMaj A_tran = new DMatrixRMaj(N, N);
+            return new Runnable[]{
+                    () -> TransposeAlgs_DDRM.standard(A, A_tran),
+                    () -> TransposeAlgs_DDRM.block(A, A_tran, blockWidth)};
+        }, transposeSizes[transposeSizes.length - 1] + 1) - 1);
+    }
+
+    /**
+     * Size of a matrix at which the block Cholesky decomposition becomes faster than the row major inner product
+     * implementation
+     */
+    public int tuneCholeskySwitch() {
+        return log("SWITCH_BLOCK64_CHOLESKY", crossover(choleskySizes, N -> {
+            DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(N, rand);
+            return new Runnable[]{
+                    decompose(new CholeskyDecompositionInner_DDRM(true), A),
+                    decompose(new CholeskyDecomposition_DDRB_to_DDRM(true), A)};
+        }, choleskySizes[choleskySizes.length - 1] + 1));
+    }
+
+    /**
+     * Number of columns at which the block QR decomposition becomes faster than the row major Householder
+     * column implementation
+     */
+    public int tuneQrSwitch() {
+        return log("SWITCH_BLOCK64_QR", crossover(qrSizes, N -> {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(N, N, rand);
+            return new Runnable[]{
+                    decompose(new QRDecompositionHouseholderColumn_DDRM(), A),
+                    decompose(new QRDecomposition_DDRB_to_DDRM(), A)};
+        }, qrSizes[qrSizes.length - 1] + 1));
+    }
+
+    /**
+     * Size of a matrix at which the block LU decomposition becomes faster than the row major implementation
+     */
+    public int tuneLuSwitch() {
+        return log("SWITCH_BLOCK64_LU", crossover(luSizes, N -> {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(N, N, rand);
+            return new Runnable[]{
+                    decompose(new LUDecompositionAlt_DDRM(), A),
+                    decompose(new LUDecomposition_DDRB_to_DDRM(), A)};
+        }, luSizes[luSizes.length - 1] + 1));
+    }
+
+    /**
+     * Size of a symmetric matrix at which the divide and conquer eigen decomposition becomes faster than the
+     * QR algorithm when eigenvectors are computed
+     */
+    public int tuneEigSwitch() {
+        return log("SWITCH_EIG_DIVIDE_CONQUER", crossover(eigSizes, N -> {
+            DMatrixRMaj A = RandomMatrices_DDRM.symmetric(N, -1, 1, rand);
+            return new Runnable[]{
+                    decompose(new SymmetricQRAlgorithmDecomposition_DDRM(true), A),
+                    decompose(new SymmetricDivideConquerDecomposition_DDRM(), A)};
+        }, eigSizes[eigSizes.length - 1] + 1));
+    }
+
+    /**
+     * Number of elements in a matrix above which a concurrent matrix multiplication is faster. If the concurrent
+     * implementation is never faster, e.g. only one core is available, then concurrency is effectively disabled.
+     */
+    public int tuneConcurrentThreshold() {
+        int N = crossover(concurrentSizes, n -> {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(n, n, rand);
+            DMatrixRMaj B = RandomMatrices_DDRM.rectangle(n, n, rand);
+            DMatrixRMaj C = new DMatrixRMaj(n, n);
+            return new Runnable[]{
+                    () -> CommonOps_DDRM.mult(A, B, C),
+                    () -> CommonOps_MT_DDRM.mult(A, B, C)};
+        }, -1);
+        // The switch is exclusive so the threshold is one less than the crossover
+        return log("ELEMENT_THRESHOLD", N < 0 ? Integer.MAX_VALUE : N*N - 1);
+    }
+
+    /**
+     * Selects the block width which minimizes the time to compute a block Cholesky decomposition. This is the
+     * block width used by all the algorithms which work on {@link org.ejml.data.DMatrixRBlock}.
+     */
+    public int tuneBlockWidth() {
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(blockWidthMatrixSize, rand);
+        int original = EjmlParameters.BLOCK_WIDTH;
+        try {
+            return log("BLOCK_WIDTH", fastest(blockWidths, width -> {
+                // The block width is read when the decomposition is constructed
+                EjmlParameters.BLOCK_WIDTH = width;
+                return decompose(new CholeskyDecomposition_DDRB_to_DDRM(true), A);
+            }));
+        } finally {
+            EjmlParameters.BLOCK_WIDTH = original;
+        }
+    }
+
+    /**
+     * Selects the block width which minimizes the time to compute {@link CholeskyDecompositionBlock_DDRM}
+     */
+    public int tuneBlockWidthChol() {
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetricPosDef(blockWidthMatrixSize, rand);
+        return log("BLOCK_WIDTH_CHOL", fastest(cholBlockWidths, width ->
+                decompose(new CholeskyDecompositionBlock_DDRM(width), A)));
+    }
+
+    /**
+     * Finds the smallest size where the alternative algorithm is faster than the baseline for it and every
+     * larger size.
+     *
+     * @param sizes Sizes which are considered. Must be in increasing order.
+     * @param create Creates the baseline and alternative algorithm, in that order, for a size
+     * @param notFound Value returned if the alternative isn't faster at the largest size
+     */
+    protected int crossover( int[] sizes, IntFunction<Runnable[]> create, int notFound ) {
+        int found = notFound;
+        for (int i = sizes.length - 1; i >= 0; i--) {
+            Runnable[] algs = create.apply(sizes[i]);
+            double timeBaseline = time(algs[0]);
+            double timeAlternative = time(algs[1]);
+            if (timeAlternative >= timeBaseline)
+                break;
+            found = sizes[i];
+        }
+        return found;
+    }
+
+    /**
+     * Returns the value which results in the fastest algorithm
+     */
+    protected int fastest( int[] values, IntFunction<Runnable> create ) {
+        int best = values[0];
+        double bestTime = Double.MAX_VALUE;
+        for (int value : values) {
+            double time = time(create.apply(value));
+            if (time < bestTime) {
+                bestTime = time;
+                best = value;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Average time in nano seconds it takes to run the algorithm. Fastest out of all the trials.
+     */
+    protected double time( Runnable alg ) {
+        double best = Double.MAX_VALUE;
+        for (int trial = 0; trial < trials; trial++) {
+            long before = System.nanoTime();
+            long elapsed;
+            int count = 0;
+            do {
+                alg.run();
+                count++;
+                elapsed = System.nanoTime() - before;
+            } while (elapsed < minimumTimeNano);
+            best = Math.min(best, elapsed/(double)count);
+        }
+        return best;
+    }
+
+    /**
+     * Creates a task which decomposes a copy of A, since decompositions can modify their input
+     */
+    private static Runnable decompose( DecompositionInterface<DMatrixRMaj> alg, DMatrixRMaj A ) {
+        DMatrixRMaj copy = A.createLike();
+        return () -> {
+            copy.setTo(A);
+            if (!alg.decompose(copy))
+                throw new RuntimeException("Decomposition failed");
+        };
+    }
+
+    private int log( String name, int value ) {
+        if (verbose != null)
+            verbose.println(name + " = " + value);
+        return value;
+    }
+
+    /**
+     * Tunes all the parameters and saves them to a profile. If an argument is provided then that's where the profile
+     * is saved, otherwise it's saved to the default location.
+     */
+    public static void main( String[] args ) throws IOException {
+        File file = args.length > 0 ? new File(args[0]) : EjmlProfile.defaultLocation();
+
+        AutoTuneParameters_DDRM tuner = new AutoTuneParameters_DDRM();
+        tuner.verbose = System.out;
+        tuner.tuneAll();
+        EjmlProfile.save(file);
+        System.out.println("Saved profile to " + file.getPath());
+    }
+}
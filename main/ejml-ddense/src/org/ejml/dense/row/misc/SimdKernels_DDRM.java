@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.misc;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ServiceLoader;
+
+/**
+ * <p>
+ * Low level kernels which are inner loops of dense row-major operations and can be accelerated with SIMD
+ * instructions. Implementations are provided by the optional ejml-simd module, which requires a newer JDK,
+ * and are discovered at runtime with a {@link ServiceLoader}. {@link org.ejml.dense.row.CommonOps_DDRM} will
+ * use them automatically when they are available.
+ * </p>
+ *
+ * <p>
+ * All the functions operate on raw arrays. Output arrays can be the same as input arrays.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public interface SimdKernels_DDRM {
+    /**
+     * Returns true if the kernels can be used on this JVM and hardware
+     */
+    boolean isSupported();
+
+    /**
+     * Inner product of two vectors
+     *
+     * @return &sum;<sub>i</sub> a[offsetA+i]*b[offsetB+i]
+     */
+    double dot( double[] a, int offsetA, double[] b, int offsetB, int length );
+
+    /**
+     * y[offsetY+i] = y[offsetY+i] + &alpha;*x[offsetX+i]
+     */
+    void axpy( double alpha, double[] x, int offsetX, double[] y, int offsetY, int length );
+
+    /**
+     * c[i] = a[i] + b[i]
+     */
+    void add( double[] a, double[] b, double[] c, int length );
+
+    /**
+     * c[i] = &alpha;*a[i] + &beta;*b[i]
+     */
+    void add( double alpha, double[] a, double beta, double[] b, double[] c, int length );
+
+    /**
+     * c[i] = a[i] - b[i]
+     */
+    void subtract( double[] a, double[] b, double[] c, int length );
+
+    /**
+     * c[i] = a[i]*b[i]
+     */
+    void elementMult( double[] a, double[] b, double[] c, int length );
+
+    /**
+     * c[i] = a[i]/b[i]
+     */
+    void elementDiv( double[] a, double[] b, double[] c, int length );
+
+    /**
+     * b[i] = &alpha;*a[i]
+     */
+    void scale( double alpha, double[] a, double[] b, int length );
+
+    /**
+     * Searches the class path for an implementation which is supported by the JVM.
+     *
+     * @return The kernels or null if none are available
+     */
+    static @Nullable SimdKernels_DDRM load() {
+        try {
+            for (SimdKernels_DDRM kernels : ServiceLoader.load(SimdKernels_DDRM.class)) {
+                if (kernels.isSupported())
+                    return kernels;
+            }
+            return null;
+        } catch (Throwable e) {
+            // The module can be on the class path while the JVM is missing jdk.incubator.vector. Fall back
+            // to the standard implementation instead of failing to load CommonOps.
+            return null;
+        }
+    }
+}
@@ -0,0 +1,355 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.mult;
+
+import org.ejml.EjmlParameters;
+import org.ejml.UtilEjml;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrix1Row;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Cache blocked matrix multiplication for large matrices. The algorithm follows the same structure as GotoBLAS.
+ * The inner dimension is split into panels of {@link EjmlParameters#MULT_BLOCK_K} and the columns of the output
+ * into panels of {@link EjmlParameters#MULT_BLOCK_N}. A panel of B is copied (packed) into a contiguous array such
+ * that each group of {@link #NR} columns can be read sequentially. Then blocks of {@link EjmlParameters#MULT_BLOCK_M}
+ * rows in A are packed in groups of {@link #MR} rows. A micro-kernel computes an MR by NR block of the output by accumulating the products in local variables,
+ * which the JIT can keep in registers.
+ * </p>
+ *
+ * <p>
+ * Packing handles transposed inputs, so the same micro-kernel is used by all the variants. The packing overhead
+ * is O(N<sup>2</sup>) and it's only faster than the simpler algorithms in {@link MatrixMatrixMult_DDRM} when
+ * all the dimensions are large.
+ * </p>
+ *
+ * <p>
+ * The packed blocks are stored in a {@link Workspace}. Pass in the same workspace to avoid declaring new memory
+ * every time a matrix is multiplied. If one isn't provided then a temporary workspace is declared.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MatrixMultBlocked_DDRM {
+    /** Number of rows in the block computed by the micro-kernel */
+    public static final int MR = 4;
+    /** Number of columns in the block computed by the micro-kernel */
+    public static final int NR = 8;
+
+    /**
+     * @see CommonOps_DDRM#mult(double, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void mult( double alpha, DMatrix1Row A, DMatrix1Row B, DMatrix1Row C ) {
+        mult(alpha, A, B, C, null);
+    }
+
+    /**
+     * Same as {@link #mult(double, DMatrix1Row, DMatrix1Row, DMatrix1Row)} but with a workspace.
+     *
+     * @param work (Optional) Storage for packed blocks. If null then it will be declared internally.
+     */
+    public static void mult( double alpha, DMatrix1Row A, DMatrix1Row B, DMatrix1Row C,
+                             @Nullable Workspace work ) {
+        UtilEjml.assertShape(A.numCols, B.numRows, "The 'A' and 'B' matrices do not have compatible dimensions");
+        C.reshape(A.numRows, B.numCols);
+        gemm(alpha, A, false, B, false, false, C, work);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multTransA(double, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multTransA( double alpha, DMatrix1Row A, DMatrix1Row B, DMatrix1Row C ) {
+        multTransA(alpha, A, B, C, null);
+    }
+
+    /**
+     * Same as {@link #multTransA(double, DMatrix1Row, DMatrix1Row, DMatrix1Row)} but with a workspace.
+     *
+     * @param work (Optional) Storage for packed blocks. If null then it will be declared internally.
+     */
+    public static void multTransA( double alpha, DMatrix1Row A, DMatrix1Row B, DMatrix1Row C,
+                                   @Nullable Workspace work ) {
+        UtilEjml.assertShape(A.numRows, B.numRows, "The 'A' and 'B' matrices do not have compatible dimensions");
+        C.reshape(A.numCols, B.numCols);
+        gemm(alpha, A, true, B, false, false, C, work);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multTransB(double, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multTransB( double alpha, DMatrix1Row A, DMatrix1Row B, DMatrix1Row C ) {
+        multTransB(alpha, A, B, C, null);
+    }
+
+    /**
+     * Same as {@link #multTransB(double, DMatrix1Row, DMatrix1Row, DMatrix1Row)} but with a workspace.
+     *
+     * @param work (Optional) Storage for packed blocks. If null then it will be declared internally.
+     */
+    public static void multTransB( double alpha, DMatrix1Row A, DMatrix1Row B, DMatrix1Row C,
+                                   @Nullable Workspace work ) {
+        UtilEjml.assertShape(A.numCols, B.numCols, "The 'A' and 'B' matrices do not have compatible dimensions");
+        C.reshape(A.numRows, B.numRows);
+        gemm(alpha, A, false, B, true, false, C, work);
+    }
+
+    /**
+     * @see CommonOps_DDRM#multAdd(double, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row, org.ejml.data.DMatrix1Row)
+     */
+    public static void multAdd( double alpha, DMatrix1Row A, DMatrix1Row B, DMatrix1Row C ) {
+        multAdd(alpha, A, B, C, null);
+    }
+
+    /**
+     * Same as {@link #multAdd(double, DMatrix1Row, DMatrix1Row, DMatrix1Row)} but with a workspace.
+     *
+     * @param work (Optional) Storage for packed blocks. If null then it will be declared internally.
+     */
+    public static void multAdd( double alpha, DMatrix1Row A, DMatrix1Row B, DMatrix1Row C,
+                                @Nullable Workspace work ) {
+        UtilEjml.assertShape(A.numCols, B.numRows, "The 'A' and 'B' matrices do not have compatible dimensions");
+        UtilEjml.assertShape(A.numRows == C.numRows && B.numCols == C.numCols,
+                "C is not compatible with A and B");
+        gemm(alpha, A, false, B, false, true, C, work);
+    }
+
+    /**
+     * Computes C = &alpha;*op(A)*op(B) or C = C + &alpha;*op(A)*op(B), where op() is an optional transpose.
+     * C must already have the correct shape.
+     *
+     * @param alpha Scale factor
+     * @param A Left matrix. Not modified.
+     * @param transA If true then A is transposed
+     * @param B Right matrix. Not modified.
+     * @param transB If true then B is transposed
+     * @param add If true then the product is added to C, otherwise C is overwritten
+     * @param C Output matrix. Modified.
+     * @param work (Optional) Storage for packed blocks. If null then it will be declared internally.
+     */
+    public static void gemm( double alpha, DMatrix1Row A, boolean transA, DMatrix1Row B, boolean transB,
+                             boolean add, DMatrix1Row C, @Nullable Workspace work ) {
+        UtilEjml.assertTrue(A != C && B != C, "Neither 'A' or 'B' can be the same matrix as 'C'");
+
+        final int M = C.numRows;
+        final int N = C.numCols;
+        final int K = transA ? A.numRows : A.numCols;
+
+        if (!add)
+            Arrays.fill(C.data, 0, M*N, 0.0);
+        if (M == 0 || N == 0 || K == 0)
+            return;
+
+        final int blockK = Math.min(EjmlParameters.MULT_BLOCK_K, K);
+        final int blockM = Math.min(roundUp(EjmlParameters.MULT_BLOCK_M, MR), roundUp(M, MR));
+        final int blockN = Math.min(roundUp(EjmlParameters.MULT_BLOCK_N, NR), roundUp(N, NR));
+
+        if (work == null)
+            work = new Workspace();
+        double[] packedA = work.packedA.reshape(blockM*blockK).data;
+        double[] packedB = work.packedB.reshape(blockK*blockN).data;
+
+        for (int j0 = 0; j0 < N; j0 += blockN) {
+            int nc = Math.min(blockN, N - j0);
+            for (int k0 = 0; k0 < K; k0 += blockK) {
+                int kc = Math.min(blockK, K - k0);
+                packB(B, transB, k0, kc, j0, nc, packedB);
+
+                for (int i0 = 0; i0 < M; i0 += blockM) {
+                    int mc = Math.min(blockM, M - i0);
+                    packA(A, transA, i0, mc, k0, kc, packedA);
+                    macroKernel(alpha, packedA, packedB, mc, nc, kc, C, i0, j0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies a block of op(A) into groups of MR rows. Inside of a group the MR elements in the same column are
+     * next to each other. Rows past the end of the matrix are filled with zeros.
+     */
+    static void packA( DMatrix1Row A, boolean transA, int i0, int mc, int k0, int kc, double[] packed ) {
+        final double[] data = A.data;
+        final int stride = A.numCols;
+
+        for (int row0 = 0; row0 < mc; row0 += MR) {
+            int offset = row0*kc;
+            int rows = Math.min(MR, mc - row0);
+
+            if (transA) {
+                // op(A)(i,k) = A(k,i) so the rows in a group are next to each other in A
+                for (int k = 0; k < kc; k++) {
+                    int src = (k0 + k)*stride + i0 + row0;
+                    int dst = offset + k*MR;
+                    int r = 0;
+                    for (; r < rows; r++) packed[dst + r] = data[src + r];
+                    for (; r < MR; r++) packed[dst + r] = 0.0;
+                }
+            } else {
+                for (int r = 0; r < rows; r++) {
+                    int src = (i0 + row0 + r)*stride + k0;
+                    int dst = offset + r;
+                    for (int k = 0; k < kc; k++, dst += MR) {
+                        packed[dst] = data[src + k];
+                    }
+                }
+                for (int r = rows; r < MR; r++) {
+                    for (int k = 0, dst = offset + r; k < kc; k++, dst += MR) {
+                        packed[dst] = 0.0;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies a panel of op(B) into groups of NR columns. Inside of a group the NR elements in the same row are
+     * next to each other. Columns past the end of the matrix are filled with zeros.
+     */
+    static void packB( DMatrix1Row B, boolean transB, int k0, int kc, int j0, int nc, double[] packed ) {
+        final double[] data = B.data;
+        final int stride = B.numCols;
+
+        for (int col0 = 0; col0 < nc; col0 += NR) {
+            int offset = col0*kc;
+            int cols = Math.min(NR, nc - col0);
+
+            if (transB) {
+                // op(B)(k,j) = B(j,k) so each column in the group is a row in B
+                for (int c = 0; c < cols; c++) {
+                    int src = (j0 + col0 + c)*stride + k0;
+                    int dst = offset + c;
+                    for (int k = 0; k < kc; k++, dst += NR) {
+                        packed[dst] = data[src + k];
+                    }
+                }
+                for (int c = cols; c < NR; c++) {
+                    for (int k = 0, dst = offset + c; k < kc; k++, dst += NR) {
+                        packed[dst] = 0.0;
+                    }
+                }
+            } else {
+                for (int k = 0; k < kc; k++) {
+                    int src = (k0 + k)*stride + j0 + col0;
+                    int dst = offset + k*NR;
+                    int c = 0;
+                    for (; c < cols; c++) packed[dst + c] = data[src + c];
+                    for (; c < NR; c++) packed[dst + c] = 0.0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Multiplies a packed block of A against a packed panel of B and adds the results to C
+     */
+    static void macroKernel( double alpha, double[] packedA, double[] packedB, int mc, int nc, int kc,
+                             DMatrix1Row C, int i0, int j0 ) {
+        for (int col0 = 0; col0 < nc; col0 += NR) {
+            int cols = Math.min(NR, nc - col0);
+            int offsetB = col0*kc;
+            for (int row0 = 0; row0 < mc; row0 += MR) {
+                int rows = Math.min(MR, mc - row0);
+                microKernel(kc, alpha, packedA, row0*kc, packedB, offsetB,
+                        C.data, (i0 + row0)*C.numCols + j0 + col0, C.numCols, rows, cols);
+            }
+        }
+    }
+
+    /**
+     * Computes an MR by NR block of the product using kc rank-1 updates. Only the first 'rows' and 'cols'
+     * elements are written to C.
+     */
+    static void microKernel( int kc, double alpha, double[] a, int indexA, double[] b, int indexB,
+                             double[] c, int indexC, int strideC, int rows, int cols ) {
+        double c00 = 0, c01 = 0, c02 = 0, c03 = 0, c04 = 0, c05 = 0, c06 = 0, c07 = 0;
+        double c10 = 0, c11 = 0, c12 = 0, c13 = 0, c14 = 0, c15 = 0, c16 = 0, c17 = 0;
+        double c20 = 0, c21 = 0, c22 = 0, c23 = 0, c24 = 0, c25 = 0, c26 = 0, c27 = 0;
+        double c30 = 0, c31 = 0, c32 = 0, c33 = 0, c34 = 0, c35 = 0, c36 = 0, c37 = 0;
+
+        for (int k = 0; k < kc; k++, indexA += MR, indexB += NR) {
+            double a0 = a[indexA];
+            double a1 = a[indexA + 1];
+            double a2 = a[indexA + 2];
+            double a3 = a[indexA + 3];
+
+            double b0 = b[indexB];
+            double b1 = b[indexB + 1];
+            double b2 = b[indexB + 2];
+            double b3 = b[indexB + 3];
+            c00 += a0*b0; c01 += a0*b1; c02 += a0*b2; c03 += a0*b3;
+            c10 += a1*b0; c11 += a1*b1; c12 += a1*b2; c13 += a1*b3;
+            c20 += a2*b0; c21 += a2*b1; c22 += a2*b2; c23 += a2*b3;
+            c30 += a3*b0; c31 += a3*b1; c32 += a3*b2; c33 += a3*b3;
+
+            b0 = b[indexB + 4];
+            b1 = b[indexB + 5];
+            b2 = b[indexB + 6];
+            b3 = b[indexB + 7];
+            c04 += a0*b0; c05 += a0*b1; c06 += a0*b2; c07 += a0*b3;
+            c14 += a1*b0; c15 += a1*b1; c16 += a1*b2; c17 += a1*b3;
+            c24 += a2*b0; c25 += a2*b1; c26 += a2*b2; c27 += a2*b3;
+            c34 += a3*b0; c35 += a3*b1; c36 += a3*b2; c37 += a3*b3;
+        }
+
+        if (rows == MR && cols == NR) {
+            int i = indexC;
+            c[i] += alpha*c00; c[i + 1] += alpha*c01; c[i + 2] += alpha*c02; c[i + 3] += alpha*c03;
+            c[i + 4] += alpha*c04; c[i + 5] += alpha*c05; c[i + 6] += alpha*c06; c[i + 7] += alpha*c07;
+            i += strideC;
+            c[i] += alpha*c10; c[i + 1] += alpha*c11; c[i + 2] += alpha*c12; c[i + 3] += alpha*c13;
+            c[i + 4] += alpha*c14; c[i + 5] += alpha*c15; c[i + 6] += alpha*c16; c[i + 7] += alpha*c17;
+            i += strideC;
+            c[i] += alpha*c20; c[i + 1] += alpha*c21; c[i + 2] += alpha*c22; c[i + 3] += alpha*c23;
+            c[i + 4] += alpha*c24; c[i + 5] += alpha*c25; c[i + 6] += alpha*c26; c[i + 7] += alpha*c27;
+            i += strideC;
+            c[i] += alpha*c30; c[i + 1] += alpha*c31; c[i + 2] += alpha*c32; c[i + 3] += alpha*c33;
+            c[i + 4] += alpha*c34; c[i + 5] += alpha*c35; c[i + 6] += alpha*c36; c[i + 7] += alpha*c37;
+        } else {
+            // Edge of the matrix. Copy into an array so that only the valid elements are written
+            double[] block = {
+                    c00, c01, c02, c03, c04, c05, c06, c07,
+                    c10, c11, c12, c13, c14, c15, c16, c17,
+                    c20, c21, c22, c23, c24, c25, c26, c27,
+                    c30, c31, c32, c33, c34, c35, c36, c37};
+            for (int r = 0; r < rows; r++) {
+                int i = indexC + r*strideC;
+                for (int col = 0; col < cols; col++) {
+                    c[i + col] += alpha*block[r*NR + col];
+                }
+            }
+        }
+    }
+
+    private static int roundUp( int value, int multiple ) {
+        return ((value + multiple - 1)/multiple)*multiple;
+    }
+
+    /**
+     * Storage for the packed blocks of A and B. Can be reused between multiplications but not shared
+     * between threads.
+     */
+    public static class Workspace {
+        public final DGrowArray packedA = new DGrowArray();
+        public final DGrowArray packedB = new DGrowArray();
+    }
+}
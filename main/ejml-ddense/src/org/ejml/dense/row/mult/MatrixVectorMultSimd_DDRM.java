@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.mult;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.DMatrix1Row;
+import org.ejml.data.DMatrixD1;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.misc.SimdKernels_DDRM;
+
+/**
+ * Matrix vector multiplication where the inner loops are performed by {@link SimdKernels_DDRM}. Rows in A
+ * are contiguous in memory, so each row is processed by a single call to an inner product or axpy kernel.
+ *
+ * @author Peter Abeles
+ */
+public class MatrixVectorMultSimd_DDRM {
+    /**
+     * Same as {@link MatrixVectorMult_DDRM#mult(DMatrix1Row, DMatrixD1, DMatrixD1)} but each row is processed with a SIMD inner product
+     *
+     * @param simd SIMD kernels
+     * @param A A matrix that is m by n. Not modified.
+     * @param B A vector that has length n. Not modified.
+     * @param C A column vector that has length m. Modified.
+     */
+    public static void mult( SimdKernels_DDRM simd, DMatrix1Row A, DMatrixD1 B, DMatrixD1 C ) {
+        checkVector(A.numCols, B);
+        C.reshape(A.numRows, 1);
+
+        final int cols = A.numCols;
+        for (int i = 0; i < A.numRows; i++) {
+            C.data[i] = simd.dot(A.data, i*cols, B.data, 0, cols);
+        }
+    }
+
+    /**
+     * Same as {@link MatrixVectorMult_DDRM#multAdd(DMatrix1Row, DMatrixD1, DMatrixD1)} but each row is processed with a SIMD inner product
+     *
+     * @param simd SIMD kernels
+     * @param A A matrix that is m by n. Not modified.
+     * @param B A vector that has length n. Not modified.
+     * @param C A column vector that has length m. Modified.
+     */
+    public static void multAdd( SimdKernels_DDRM simd, DMatrix1Row A, DMatrixD1 B, DMatrixD1 C ) {
+        checkVector(A.numCols, B);
+        if (A.numRows != C.getNumElements())
+            throw new MatrixDimensionException("C is not compatible with A");
+
+        final int cols = A.numCols;
+        for (int i = 0; i < A.numRows; i++) {
+            C.data[i] += simd.dot(A.data, i*cols, B.data, 0, cols);
+        }
+    }
+
+    /**
+     * Same as {@link MatrixVectorMult_DDRM#multTransA_reorder(DMatrix1Row, DMatrixD1, DMatrixD1)} but each row in A is added to the
+     * output using a SIMD axpy
+     *
+     * @param simd SIMD kernels
+     * @param A A matrix that is m by n. Not modified.
+     * @param B A vector that has length m. Not modified.
+     * @param C A column vector that has length n. Modified.
+     */
+    public static void multTransA( SimdKernels_DDRM simd, DMatrix1Row A, DMatrixD1 B, DMatrixD1 C ) {
+        checkVector(A.numRows, B);
+        C.reshape(A.numCols, 1);
+        CommonOps_DDRM.fill(C, 0);
+
+        final int cols = A.numCols;
+        for (int i = 0; i < A.numRows; i++) {
+            simd.axpy(B.data[i], A.data, i*cols, C.data, 0, cols);
+        }
+    }
+
+    /**
+     * Same as {@link MatrixVectorMult_DDRM#multAddTransA_reorder(DMatrix1Row, DMatrixD1, DMatrixD1)} but each row in A is added to the
+     * output using a SIMD axpy
+     *
+     * @param simd SIMD kernels
+     * @param A A matrix that is m by n. Not modified.
+     * @param B A vector that has length m. Not modified.
+     * @param C A column vector that has length n. Modified.
+     */
+    public static void multAddTransA( SimdKernels_DDRM simd, DMatrix1Row A, DMatrixD1 B, DMatrixD1 C ) {
+        checkVector(A.numRows, B);
+        if (A.numCols != C.getNumElements())
+            throw new MatrixDimensionException("C is not compatible with A");
+
+        final int cols = A.numCols;
+        for (int i = 0; i < A.numRows; i++) {
+            simd.axpy(B.data[i], A.data, i*cols, C.data, 0, cols);
+        }
+    }
+
+    /**
+     * Makes sure B is a row or column vector with the specified number of elements
+     */
+    private static void checkVector( int length, DMatrixD1 B ) {
+        if (B.numRows != 1 && B.numCols != 1)
+            throw new MatrixDimensionException("B is not a vector");
+        if (B.getNumElements() != length)
+            throw new MatrixDimensionException("A and B are not compatible");
+    }
+}
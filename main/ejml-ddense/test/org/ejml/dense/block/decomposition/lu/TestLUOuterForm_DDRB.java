@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.block.decomposition.lu;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.block.MatrixOps_DDRB;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.decomposition.lu.LUDecompositionAlt_DDRM;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLUOuterForm_DDRB {
+
+    Random rand = new Random(1231);
+
+    // size of a block
+    int bl = 5;
+
+    /**
+     * See if P*A = L*U for square and rectangular matrices which are and are not multiples of the block size
+     */
+    @Test
+    public void decompose() {
+        for (int numRows = 1; numRows <= 17; numRows += 4) {
+            for (int numCols = 1; numCols <= 17; numCols += 4) {
+                DMatrixRMaj A = RandomMatrices_DDRM.rectangle(numRows, numCols, -1, 1, rand);
+
+                LUOuterForm_DDRB alg = new LUOuterForm_DDRB();
+                assertTrue(alg.decompose(MatrixOps_DDRB.convert(A, bl)));
+
+                DMatrixRMaj L = convert(alg.getLower(null));
+                DMatrixRMaj U = convert(alg.getUpper(null));
+                DMatrixRMaj P = convert(alg.getRowPivot(null));
+
+                DMatrixRMaj PA = CommonOps_DDRM.mult(P, A, null);
+                DMatrixRMaj LU = CommonOps_DDRM.mult(L, U, null);
+
+                assertTrue(MatrixFeatures_DDRM.isIdentical(PA, LU, UtilEjml.TEST_F64));
+                assertTrue(MatrixFeatures_DDRM.isLowerTriangle(L, 0, 0.0));
+                assertTrue(MatrixFeatures_DDRM.isUpperTriangle(U, 0, 0.0));
+
+                // partial pivoting ensures the magnitude of elements in L is at most one
+                for (int i = 0; i < L.getNumElements(); i++) {
+                    assertTrue(Math.abs(L.data[i]) <= 1.0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Partial pivoting selects the same rows as the unblocked algorithm so the results should be the same
+     */
+    @Test
+    public void compareToUnblocked() {
+        for (int N : new int[]{4, 5, 13, 26}) {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(N, N, -1, 1, rand);
+
+            LUDecompositionAlt_DDRM expected = new LUDecompositionAlt_DDRM();
+            assertTrue(expected.decompose(A));
+
+            LUOuterForm_DDRB alg = new LUOuterForm_DDRB();
+            assertTrue(alg.decompose(MatrixOps_DDRB.convert(A, bl)));
+
+            assertTrue(MatrixFeatures_DDRM.isIdentical(expected.getLU(), convert(alg.getLU()), UtilEjml.TEST_F64));
+            assertArrayEquals(expected.getRowPivotV(null), alg.getRowPivotV(null));
+            double det = expected.computeDeterminant().real;
+            assertEquals(det, alg.computeDeterminant().real, Math.abs(det)*UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test
+    public void singular() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(12, 12, -1, 1, rand);
+        // make the last column a copy of another column
+        for (int i = 0; i < A.numRows; i++) {
+            A.set(i, 11, A.get(i, 2));
+        }
+
+        LUOuterForm_DDRB alg = new LUOuterForm_DDRB();
+        assertTrue(alg.decompose(MatrixOps_DDRB.convert(A, bl)));
+        assertTrue(alg.isSingular());
+
+        alg.decompose(MatrixOps_DDRB.convert(new DMatrixRMaj(7, 7), bl));
+        assertTrue(alg.isSingular());
+        assertEquals(0.0, alg.computeDeterminant().real);
+    }
+
+    private static DMatrixRMaj convert( DMatrixRBlock A ) {
+        DMatrixRMaj out = new DMatrixRMaj(A.numRows, A.numCols);
+        MatrixOps_DDRB.convert(A, out);
+        return out;
+    }
+}
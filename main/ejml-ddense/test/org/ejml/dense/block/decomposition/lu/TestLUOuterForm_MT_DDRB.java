@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.block.decomposition.lu;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.dense.block.MatrixOps_DDRB;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.generic.GenericMatrixOps_F64;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestLUOuterForm_MT_DDRB {
+	Random rand = new Random(1231);
+
+	// size of a block
+	int bl = 5;
+
+	@Test
+	void compareToSingle() {
+		// test against various different sizes
+		for (int numRows = bl - 2; numRows <= 41; numRows += 6) {
+			for (int numCols = bl - 2; numCols <= 41; numCols += 9) {
+				DMatrixRBlock A = MatrixOps_DDRB.convert(RandomMatrices_DDRM.rectangle(numRows, numCols, -1, 1, rand), bl);
+				DMatrixRBlock B = A.copy();
+
+				var single = new LUOuterForm_DDRB();
+				var concurrent = new LUOuterForm_MT_DDRB();
+
+				assertTrue(single.decompose(A));
+				assertTrue(concurrent.decompose(B));
+
+				assertTrue(GenericMatrixOps_F64.isEquivalent(single.getLU(), concurrent.getLU(), UtilEjml.TEST_F64));
+				assertArrayEquals(single.getRowPivotV(null), concurrent.getRowPivotV(null));
+			}
+		}
+	}
+}
@@ -18,11 +18,13 @@
 
 package org.ejml.dense.row;
 
+import org.ejml.EjmlParameters;
 import org.ejml.EjmlUnitTests;
 import org.ejml.UtilEjml;
 import org.ejml.data.*;
 import org.ejml.dense.row.decomposition.lu.LUDecompositionAlt_DDRM;
 import org.ejml.dense.row.linsol.lu.LinearSolverLu_DDRM;
+import org.ejml.dense.row.misc.SimdKernels_DDRM;
 import org.ejml.dense.row.mult.CheckMatrixMultShape_DDRM;
 import org.ejml.dense.row.mult.MatrixMatrixMult_DDRM;
 import org.junit.jupiter.api.Test;
@@ -1896,4 +1898,121 @@ public class TestCommonOps_DDRM {
         checkSameShape(A, B, false);
         assertTrue(Arrays.equals(expectedResult, B.data));
     }
+
+    /**
+     * When SIMD kernels are registered they should be called, otherwise it should fall back to the standard
+     * implementation. Both must produce the same results.
+     */
+    @Test
+    public void simdDispatch() {
+        SimdKernels_DDRM previous = CommonOps_DDRM.getSimdKernels();
+        int previousSwitch = EjmlParameters.SIMD_LENGTH_SWITCH;
+        try {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(6, 40, rand);
+            DMatrixRMaj B = RandomMatrices_DDRM.rectangle(6, 40, rand);
+            DMatrixRMaj x = RandomMatrices_DDRM.rectangle(40, 1, rand);
+            DMatrixRMaj y = RandomMatrices_DDRM.rectangle(6, 1, rand);
+            EjmlParameters.SIMD_LENGTH_SWITCH = 1;
+
+            // standard implementation
+            CommonOps_DDRM.setSimdKernels(null);
+            DMatrixRMaj expectedMult = CommonOps_DDRM.mult(A, x, null);
+            DMatrixRMaj expectedTransA = CommonOps_DDRM.multTransA(A, y, null);
+            DMatrixRMaj expectedAdd = CommonOps_DDRM.add(A, B, null);
+            DMatrixRMaj expectedElement = CommonOps_DDRM.elementMult(A, B, null);
+            double expectedDot = CommonOps_DDRM.dot(x, x);
+
+            // registered kernels should be used
+            var kernels = new CountingKernels();
+            CommonOps_DDRM.setSimdKernels(kernels);
+            EjmlUnitTests.assertEquals(expectedMult, CommonOps_DDRM.mult(A, x, null), tol);
+            EjmlUnitTests.assertEquals(expectedTransA, CommonOps_DDRM.multTransA(A, y, null), tol);
+            assertTrue(kernels.calls > 0);
+            int calls = kernels.calls;
+            EjmlUnitTests.assertEquals(expectedAdd, CommonOps_DDRM.add(A, B, null), tol);
+            assertEquals(calls + 1, kernels.calls);
+            EjmlUnitTests.assertEquals(expectedElement, CommonOps_DDRM.elementMult(A, B, null), tol);
+            assertEquals(calls + 2, kernels.calls);
+            assertEquals(expectedDot, CommonOps_DDRM.dot(x, x), tol);
+            assertEquals(calls + 3, kernels.calls);
+
+            // vectors shorter than the switch should use the standard implementation
+            calls = kernels.calls;
+            EjmlParameters.SIMD_LENGTH_SWITCH = 1000;
+            EjmlUnitTests.assertEquals(expectedMult, CommonOps_DDRM.mult(A, x, null), tol);
+            EjmlUnitTests.assertEquals(expectedAdd, CommonOps_DDRM.add(A, B, null), tol);
+            assertEquals(expectedDot, CommonOps_DDRM.dot(x, x), tol);
+            assertEquals(calls, kernels.calls);
+        } finally {
+            CommonOps_DDRM.setSimdKernels(previous);
+            EjmlParameters.SIMD_LENGTH_SWITCH = previousSwitch;
+        }
+    }
+
+    /**
+     * Plain Java kernels which keep track of how often they have been called
+     */
+    private static class CountingKernels implements SimdKernels_DDRM {
+        int calls = 0;
+
+        @Override public boolean isSupported() {return true;}
+
+        @Override public double dot( double[] a, int offsetA, double[] b, int offsetB, int length ) {
+            calls++;
+            double sum = 0;
+            for (int i = 0; i < length; i++) {
+                sum += a[offsetA + i]*b[offsetB + i];
+            }
+            return sum;
+        }
+
+        @Override public void axpy( double alpha, double[] x, int offsetX, double[] y, int offsetY, int length ) {
+            calls++;
+            for (int i = 0; i < length; i++) {
+                y[offsetY + i] += alpha*x[offsetX + i];
+            }
+        }
+
+        @Override public void add( double[] a, double[] b, double[] c, int length ) {
+            calls++;
+            for (int i = 0; i < length; i++) {
+                c[i] = a[i] + b[i];
+            }
+        }
+
+        @Override public void add( double alpha, double[] a, double beta, double[] b, double[] c, int length ) {
+            calls++;
+            for (int i = 0; i < length; i++) {
+                c[i] = alpha*a[i] + beta*b[i];
+            }
+        }
+
+        @Override public void subtract( double[] a, double[] b, double[] c, int length ) {
+            calls++;
+            for (int i = 0; i < length; i++) {
+                c[i] = a[i] - b[i];
+            }
+        }
+
+        @Override public void elementMult( double[] a, double[] b, double[] c, int length ) {
+            calls++;
+            for (int i = 0; i < length; i++) {
+                c[i] = a[i]*b[i];
+            }
+        }
+
+        @Override public void elementDiv( double[] a, double[] b, double[] c, int length ) {
+            calls++;
+            for (int i = 0; i < length; i++) {
+                c[i] = a[i]/b[i];
+            }
+        }
+
+        @Override public void scale( double alpha, double[] a, double[] b, int length ) {
+            calls++;
+            for (int i = 0; i < length; i++) {
+                b[i] = alpha*a[i];
+            }
+        }
+    }
 }
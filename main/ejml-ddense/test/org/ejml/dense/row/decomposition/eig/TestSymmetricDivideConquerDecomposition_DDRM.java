@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.eig;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.EigenOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.decomposition.eig.symm.SymmetricDivideConquer_DDRM;
+import org.ejml.dense.row.decomposition.hessenberg.TridiagonalDecompositionHouseholder_DDRM;
+import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSymmetricDivideConquerDecomposition_DDRM extends GeneralEigenDecompositionCheck_DDRM {
+    int leafSize;
+
+    @Override
+    public EigenDecomposition_F64 createDecomposition() {
+        SymmetricDivideConquer_DDRM alg = new SymmetricDivideConquer_DDRM();
+        alg.setLeafSize(leafSize);
+        return new SymmetricDivideConquerDecomposition_DDRM(new TridiagonalDecompositionHouseholder_DDRM(), alg);
+    }
+
+    @Test
+    public void justSymmetricTests() {
+        // small leaves will force it to merge even small matrices
+        for (int leafSize : new int[]{1, 2, 25}) {
+            this.leafSize = leafSize;
+            computeVectors = true;
+
+            checkSizeZero();
+            checkRandomSymmetric();
+            checkIdentity();
+            checkAllZeros();
+            checkWithSomeRepeatedValuesSymm();
+            checkWithSingularSymm();
+            checkSmallValue(true);
+            checkLargeValue(true);
+            checkKnownSymmetric_JustValue();
+        }
+    }
+
+    /**
+     * Compare against the QR algorithm for a larger matrix
+     */
+    @Test
+    public void compareToQR() {
+        leafSize = 8;
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetric(120, -1, 1, rand);
+
+        EigenDecomposition_F64<DMatrixRMaj> alg = createDecomposition();
+        EigenDecomposition_F64<DMatrixRMaj> qr = new SymmetricQRAlgorithmDecomposition_DDRM(true);
+        assertTrue(alg.decompose(A.copy()));
+        assertTrue(qr.decompose(A.copy()));
+
+        double[] expected = new double[A.numRows];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = qr.getEigenvalue(i).real;
+        }
+        Arrays.sort(expected);
+
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], alg.getEigenvalue(i).real, UtilEjml.TEST_F64);
+        }
+
+        // A*V = V*D and V is orthogonal
+        DMatrixRMaj V = EigenOps_DDRM.createMatrixV(alg);
+        DMatrixRMaj D = EigenOps_DDRM.createMatrixD(alg);
+        DMatrixRMaj AV = CommonOps_DDRM.mult(A, V, null);
+        DMatrixRMaj VD = CommonOps_DDRM.mult(V, D, null);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(AV, VD, UtilEjml.TEST_F64));
+        assertTrue(MatrixFeatures_DDRM.isOrthogonal(V, UtilEjml.TEST_F64));
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.eig;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSymmetricLanczosDecomposition_DDRM {
+    Random rand = new Random(234);
+
+    protected EigenDecomposition_F64<DMatrixRMaj> createDecomposition( int numEigen, boolean largest ) {
+        return new SymmetricLanczosDecomposition_DDRM(numEigen, largest);
+    }
+
+    @Test
+    public void compareToFull() {
+        for (boolean largest : new boolean[]{true, false}) {
+            int N = 150;
+            DMatrixRMaj A = RandomMatrices_DDRM.symmetric(N, -1, 1, rand);
+            DMatrixRMaj A_orig = A.copy();
+
+            EigenDecomposition_F64<DMatrixRMaj> alg = createDecomposition(5, largest);
+            assertTrue(alg.decompose(A));
+            assertFalse(alg.inputModified());
+            assertTrue(MatrixFeatures_DDRM.isIdentical(A_orig, A, 0));
+            assertEquals(5, alg.getNumberOfEigenvalues());
+
+            var full = new SymmetricQRAlgorithmDecomposition_DDRM(false);
+            assertTrue(full.decompose(A.copy()));
+            double[] expected = new double[N];
+            for (int i = 0; i < N; i++) {
+                expected[i] = full.getEigenvalue(i).real;
+            }
+            Arrays.sort(expected);
+
+            for (int i = 0; i < 5; i++) {
+                double value = alg.getEigenvalue(i).real;
+                assertEquals(largest ? expected[N - 1 - i] : expected[i], value, UtilEjml.TEST_F64);
+                assertEquals(0.0, alg.getEigenvalue(i).imaginary);
+
+                DMatrixRMaj v = alg.getEigenVector(i);
+                assertEquals(N, v.numRows);
+                assertEquals(1, v.numCols);
+                DMatrixRMaj Av = CommonOps_DDRM.mult(A, v, null);
+                CommonOps_DDRM.scale(value, v);
+                assertTrue(MatrixFeatures_DDRM.isIdentical(Av, v, 1e-8));
+            }
+        }
+    }
+}
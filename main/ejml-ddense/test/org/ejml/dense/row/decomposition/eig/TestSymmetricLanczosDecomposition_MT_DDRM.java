@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.eig;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.interfaces.decomposition.EigenDecomposition_F64;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSymmetricLanczosDecomposition_MT_DDRM extends TestSymmetricLanczosDecomposition_DDRM {
+    int threshold;
+
+    @BeforeEach
+    void before() {
+        // make sure the concurrent code is used
+        threshold = EjmlConcurrency.ELEMENT_THRESHOLD;
+        EjmlConcurrency.ELEMENT_THRESHOLD = 0;
+    }
+
+    @AfterEach
+    void after() {
+        EjmlConcurrency.ELEMENT_THRESHOLD = threshold;
+    }
+
+    @Override
+    protected EigenDecomposition_F64<DMatrixRMaj> createDecomposition( int numEigen, boolean largest ) {
+        return new SymmetricLanczosDecomposition_MT_DDRM(numEigen, largest);
+    }
+}
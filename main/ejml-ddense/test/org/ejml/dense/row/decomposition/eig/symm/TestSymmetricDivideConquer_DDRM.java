@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.eig.symm;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSymmetricDivideConquer_DDRM {
+    Random rand = new Random(234);
+
+    protected SymmetricDivideConquer_DDRM createAlg() {
+        return new SymmetricDivideConquer_DDRM();
+    }
+
+    /**
+     * Random tridiagonal matrices of different sizes with leaves of different sizes
+     */
+    @Test
+    public void random() {
+        for (int leafSize : new int[]{1, 3, 25}) {
+            for (int N = 1; N <= 70; N += 3) {
+                double[] diag = new double[N];
+                double[] off = new double[N];
+                for (int i = 0; i < N; i++) {
+                    diag[i] = (double)rand.nextGaussian();
+                    off[i] = (double)rand.nextGaussian();
+                }
+                check(diag, off, N, leafSize);
+            }
+        }
+    }
+
+    /**
+     * Matrices where most of the secular equation will be deflated
+     */
+    @Test
+    public void deflation() {
+        int N = 40;
+        double[] diag = new double[N];
+        double[] off = new double[N];
+
+        // repeated eigenvalues
+        for (int i = 0; i < N; i++) {
+            diag[i] = i%3;
+            off[i] = 0.5;
+        }
+        check(diag, off, N, 2);
+
+        // off diagonal elements are zero, so it's already decomposed
+        Arrays.fill(diag, 2.0);
+        Arrays.fill(off, 0.0);
+        check(diag, off, N, 2);
+
+        // some off diagonal elements are tiny
+        for (int i = 0; i < N; i++) {
+            diag[i] = (double)rand.nextGaussian();
+            off[i] = i%4 == 0 ? 1e-20 : (double)rand.nextGaussian();
+        }
+        check(diag, off, N, 2);
+
+        // Wilkinson matrix which has pairs of nearly identical eigenvalues
+        for (int i = 0; i < N; i++) {
+            diag[i] = Math.abs(N/2 - i);
+            off[i] = 1.0;
+        }
+        check(diag, off, N, 2);
+
+        // values which are very different in magnitude
+        for (int i = 0; i < N; i++) {
+            diag[i] = Math.pow(10, i%10 - 5);
+            off[i] = Math.pow(10, -(i%7));
+        }
+        check(diag, off, N, 2);
+    }
+
+    /**
+     * When a transform is provided the eigenvectors should be multiplied by it
+     */
+    @Test
+    public void transform() {
+        int N = 30;
+        double[] diag = new double[N];
+        double[] off = new double[N];
+        for (int i = 0; i < N; i++) {
+            diag[i] = (double)rand.nextGaussian();
+            off[i] = (double)rand.nextGaussian();
+        }
+        DMatrixRMaj Q = RandomMatrices_DDRM.orthogonal(N, N, rand);
+
+        SymmetricDivideConquer_DDRM alg = createAlg();
+        alg.setLeafSize(4);
+        assertTrue(alg.process(diag.clone(), off.clone(), N, null));
+        DMatrixRMaj expected = CommonOps_DDRM.mult(Q, alg.getEigenvectors(), null);
+
+        assertTrue(alg.process(diag.clone(), off.clone(), N, Q.copy()));
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected, alg.getEigenvectors(), UtilEjml.TEST_F64));
+    }
+
+    /**
+     * Makes sure the eigenvalues are sorted and that the eigen decomposition is correct
+     */
+    void check( double[] diag, double[] off, int N, int leafSize ) {
+        DMatrixRMaj T = new DMatrixRMaj(N, N);
+        for (int i = 0; i < N; i++) {
+            T.set(i, i, diag[i]);
+            if (i + 1 < N) {
+                T.set(i, i + 1, off[i]);
+                T.set(i + 1, i, off[i]);
+            }
+        }
+
+        SymmetricDivideConquer_DDRM alg = createAlg();
+        alg.setLeafSize(leafSize);
+        assertTrue(alg.process(diag.clone(), off.clone(), N, null));
+
+        double[] values = alg.getEigenvalues();
+        DMatrixRMaj V = alg.getEigenvectors();
+        assertEquals(N, V.numRows);
+        assertEquals(N, V.numCols);
+
+        for (int i = 1; i < N; i++) {
+            assertTrue(values[i - 1] <= values[i]);
+        }
+
+        double scale = CommonOps_DDRM.elementMaxAbs(T);
+        DMatrixRMaj D = CommonOps_DDRM.diag(Arrays.copyOf(values, N));
+        DMatrixRMaj TV = CommonOps_DDRM.mult(T, V, null);
+        DMatrixRMaj VD = CommonOps_DDRM.mult(V, D, null);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(TV, VD, UtilEjml.TEST_F64*Math.max(1, scale)));
+        assertTrue(MatrixFeatures_DDRM.isOrthogonal(V, UtilEjml.TEST_F64));
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.eig.symm;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSymmetricDivideConquer_MT_DDRM extends TestSymmetricDivideConquer_DDRM {
+    @Override
+    protected SymmetricDivideConquer_DDRM createAlg() {
+        var alg = new SymmetricDivideConquer_MT_DDRM();
+        // force it to be concurrent for every merge
+        alg.minConcurrent = 1;
+        return alg;
+    }
+
+    @Test
+    void compareToSingle() {
+        int N = 150;
+        double[] diag = new double[N];
+        double[] off = new double[N];
+        for (int i = 0; i < N; i++) {
+            diag[i] = (double)rand.nextGaussian();
+            off[i] = (double)rand.nextGaussian();
+        }
+
+        SymmetricDivideConquer_DDRM single = new SymmetricDivideConquer_DDRM();
+        SymmetricDivideConquer_DDRM concurrent = createAlg();
+
+        assertTrue(single.process(diag.clone(), off.clone(), N, null));
+        assertTrue(concurrent.process(diag.clone(), off.clone(), N, null));
+
+        for (int i = 0; i < N; i++) {
+            assertEquals(single.getEigenvalues()[i], concurrent.getEigenvalues()[i], UtilEjml.TEST_F64);
+        }
+        DMatrixRMaj expected = single.getEigenvectors();
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected, concurrent.getEigenvectors(), UtilEjml.TEST_F64));
+    }
+}
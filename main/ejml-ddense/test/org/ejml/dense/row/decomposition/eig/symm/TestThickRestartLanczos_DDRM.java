@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.eig.symm;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.decomposition.eig.SymmetricQRAlgorithmDecomposition_DDRM;
+import org.ejml.interfaces.LinearOperator_F64;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestThickRestartLanczos_DDRM {
+    Random rand = new Random(234);
+
+    /**
+     * Compare against a full decomposition. The subspace is small so that it's forced to restart.
+     */
+    @Test
+    public void compareToFull() {
+        for (boolean largest : new boolean[]{true, false}) {
+            DMatrixRMaj A = RandomMatrices_DDRM.symmetric(60, -1, 1, rand);
+
+            var alg = new ThickRestartLanczos_DDRM(4, largest);
+            alg.setMaxSubspace(12);
+            assertTrue(alg.process(dense(A)));
+            assertTrue(alg.getRestarts() > 0);
+
+            checkEigenvalues(A, alg, largest);
+            checkEigenvectors(A, alg);
+        }
+    }
+
+    /**
+     * The operator is never explicitly formed
+     */
+    @Test
+    public void matrixFree() {
+        int N = 500;
+        LinearOperator_F64 diagonal = new LinearOperator_F64() {
+            @Override public int getNumRows() {return N;}
+
+            @Override public int getNumCols() {return N;}
+
+            @Override public void mult( double[] x, double[] y ) {
+                for (int i = 0; i < N; i++) {
+                    y[i] = (i + 1)*x[i];
+                }
+            }
+        };
+
+        var alg = new ThickRestartLanczos_DDRM(3, true);
+        assertTrue(alg.process(diagonal));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(N - i, alg.getEigenvalues()[i], UtilEjml.TEST_F64*N);
+            // eigenvectors are the standard basis
+            assertEquals(1.0, Math.abs(alg.getEigenvectors().get(i, N - 1 - i)), UtilEjml.TEST_F64);
+        }
+    }
+
+    /**
+     * A Krylov subspace can't contain more than one eigenvector for each distinct eigenvalue. Repeated
+     * eigenvalues can only be found after a new starting vector is selected.
+     */
+    @Test
+    public void repeatedEigenvalues() {
+        int N = 30;
+        DMatrixRMaj D = new DMatrixRMaj(N, N);
+        for (int i = 0; i < N; i++) {
+            D.set(i, i, i < 3 ? 5.0 : (i%2) + 1.0);
+        }
+        DMatrixRMaj Q = RandomMatrices_DDRM.orthogonal(N, N, rand);
+        DMatrixRMaj A = new DMatrixRMaj(N, N);
+        CommonOps_DDRM.multTransB(CommonOps_DDRM.mult(Q, D, null), Q, A);
+
+        var alg = new ThickRestartLanczos_DDRM(4, true);
+        alg.setMaxSubspace(10);
+        assertTrue(alg.process(dense(A)));
+        checkEigenvalues(A, alg, true);
+        checkEigenvectors(A, alg);
+    }
+
+    /**
+     * Every copy of a repeated eigenvalue needs to be found, even when the other eigenvalues are close by
+     */
+    @Test
+    public void repeatedEigenvalues_locking() {
+        int N = 30;
+
+        // Many repeated values with the smallest repeated more often than requested
+        double[] values = new double[N];
+        for (int i = 0; i < N; i++) {
+            values[i] = 1 + (i%8);
+        }
+        checkRepeated(values, false, 0);
+        checkRepeated(values, false, 12);
+
+        // A repeated eigenvalue above a continuous spectrum
+        for (int i = 0; i < N; i++) {
+            values[i] = i < 4 ? 10.0 : 9.0*rand.nextDouble();
+        }
+        checkRepeated(values, true, 0);
+        checkRepeated(values, true, 12);
+    }
+
+    private void checkRepeated( double[] values, boolean largest, int maxSubspace ) {
+        int N = values.length;
+        DMatrixRMaj Q = RandomMatrices_DDRM.orthogonal(N, N, rand);
+        DMatrixRMaj A = new DMatrixRMaj(N, N);
+        CommonOps_DDRM.multTransB(CommonOps_DDRM.mult(Q, CommonOps_DDRM.diag(values), null), Q, A);
+
+        var alg = new ThickRestartLanczos_DDRM(4, largest);
+        alg.setMaxSubspace(maxSubspace);
+        assertTrue(alg.process(dense(A)));
+        for (int i = 0; i < 4; i++) {
+            assertEquals(largest ? 10.0 : 1.0, alg.getEigenvalues()[i], UtilEjml.TEST_F64);
+        }
+        checkEigenvectors(A, alg);
+    }
+
+    /**
+     * All of the eigenvalues are requested and the subspace is the entire space
+     */
+    @Test
+    public void allEigenvalues() {
+        DMatrixRMaj A = RandomMatrices_DDRM.symmetric(8, -1, 1, rand);
+        var alg = new ThickRestartLanczos_DDRM(8, false);
+        assertTrue(alg.process(dense(A)));
+        checkEigenvalues(A, alg, false);
+        checkEigenvectors(A, alg);
+    }
+
+    /**
+     * Workspace is reused between calls and must not affect the results
+     */
+    @Test
+    public void multipleCalls() {
+        var alg = new ThickRestartLanczos_DDRM(3, true);
+        alg.setMaxSubspace(10);
+        for (int N : new int[]{40, 40, 15, 50}) {
+            DMatrixRMaj A = RandomMatrices_DDRM.symmetric(N, -1, 1, rand);
+            assertTrue(alg.process(dense(A)));
+            checkEigenvalues(A, alg, true);
+            checkEigenvectors(A, alg);
+        }
+    }
+
+    private void checkEigenvalues( DMatrixRMaj A, ThickRestartLanczos_DDRM alg, boolean largest ) {
+        int N = A.numRows;
+        var full = new SymmetricQRAlgorithmDecomposition_DDRM(false);
+        assertTrue(full.decompose(A.copy()));
+        double[] expected = new double[N];
+        for (int i = 0; i < N; i++) {
+            expected[i] = full.getEigenvalue(i).real;
+        }
+        Arrays.sort(expected);
+
+        for (int i = 0; i < alg.getNumEigen(); i++) {
+            double e = largest ? expected[N - 1 - i] : expected[i];
+            assertEquals(e, alg.getEigenvalues()[i], UtilEjml.TEST_F64);
+        }
+    }
+
+    private void checkEigenvectors( DMatrixRMaj A, ThickRestartLanczos_DDRM alg ) {
+        DMatrixRMaj V = alg.getEigenvectors();
+        assertEquals(alg.getNumEigen(), V.numRows);
+
+        // A*V' = V'*D and the vectors are orthonormal
+        DMatrixRMaj AV = CommonOps_DDRM.multTransB(A, V, null);
+        DMatrixRMaj D = CommonOps_DDRM.diag(Arrays.copyOf(alg.getEigenvalues(), V.numRows));
+        DMatrixRMaj VD = CommonOps_DDRM.multTransA(V, D, null);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(AV, VD, 1e-8));
+
+        DMatrixRMaj VV = CommonOps_DDRM.multTransB(V, V, null);
+        assertTrue(MatrixFeatures_DDRM.isIdentity(VV, UtilEjml.TEST_F64));
+    }
+
+    private static LinearOperator_F64 dense( DMatrixRMaj A ) {
+        return new LinearOperator_F64() {
+            @Override public int getNumRows() {return A.numRows;}
+
+            @Override public int getNumCols() {return A.numCols;}
+
+            @Override public void mult( double[] x, double[] y ) {
+                CommonOps_DDRM.mult(A, DMatrixRMaj.wrap(A.numCols, 1, x), DMatrixRMaj.wrap(A.numRows, 1, y));
+            }
+        };
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.lu;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.block.decomposition.lu.LUOuterForm_DDRB;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.linsol.lu.LinearSolverLu_DDRM;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLUDecomposition_DDRB_to_DDRM extends GeneralLuDecompositionChecks_DDRM {
+    Random rand = new Random(234);
+
+    @Override
+    public LUDecompositionBase_DDRM create( int numRows, int numCols ) {
+        // small block size so that the blocked code is exercised
+        return new LUDecomposition_DDRB_to_DDRM(new LUOuterForm_DDRB(), 2);
+    }
+
+    /**
+     * The row major matrix and the pivots must be the same as the unblocked algorithm, which allows the solvers
+     * to be used without modification
+     */
+    @Test
+    public void compareToAlt() {
+        for (int N : new int[]{1, 6, 17, 40}) {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(N, N, -1, 1, rand);
+            DMatrixRMaj B = RandomMatrices_DDRM.rectangle(N, 3, -1, 1, rand);
+
+            LUDecompositionAlt_DDRM expected = new LUDecompositionAlt_DDRM();
+            LUDecomposition_DDRB_to_DDRM alg = new LUDecomposition_DDRB_to_DDRM(new LUOuterForm_DDRB(), 7);
+
+            assertTrue(expected.decompose(A));
+            assertTrue(alg.decompose(A));
+
+            assertTrue(MatrixFeatures_DDRM.isIdentical(expected.getLU(), alg.getLU(), UtilEjml.TEST_F64));
+            assertArrayEquals(expected.getPivot(), alg.getPivot());
+            double det = expected.computeDeterminant().real;
+            assertEquals(det, alg.computeDeterminant().real, Math.abs(det)*UtilEjml.TEST_F64);
+
+            DMatrixRMaj X_expected = new DMatrixRMaj(N, 3);
+            DMatrixRMaj X_found = new DMatrixRMaj(N, 3);
+            LinearSolverLu_DDRM solverExpected = new LinearSolverLu_DDRM(expected);
+            LinearSolverLu_DDRM solverFound = new LinearSolverLu_DDRM(alg);
+            assertTrue(solverExpected.setA(A));
+            assertTrue(solverFound.setA(A));
+            solverExpected.solve(B, X_expected);
+            solverFound.solve(B, X_found);
+
+            assertTrue(MatrixFeatures_DDRM.isIdentical(X_expected, X_found, UtilEjml.TEST_F64));
+        }
+    }
+}
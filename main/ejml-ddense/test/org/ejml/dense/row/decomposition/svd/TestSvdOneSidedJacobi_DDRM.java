@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.svd;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSvdOneSidedJacobi_DDRM extends StandardSvdChecks_DDRM {
+
+    boolean compact;
+
+    public SvdOneSidedJacobi_DDRM createSvd( boolean compact, boolean needU, boolean needV ) {
+        return new SvdOneSidedJacobi_DDRM(compact, needU, needV);
+    }
+
+    @Override
+    public SingularValueDecomposition_F64<DMatrixRMaj> createSvd() {
+        return createSvd(compact, true, true);
+    }
+
+    @Test
+    public void checkCompact() {
+        compact = true;
+        allTests();
+    }
+
+    @Test
+    public void checkNotCompact() {
+        compact = false;
+        allTests();
+    }
+
+    /**
+     * Singular values should match the implicit QR algorithm and the vectors should be orthogonal, even when
+     * the matrix is singular
+     */
+    @Test
+    public void compareToImplicitQr() {
+        for (int[] shape : new int[][]{{7, 7}, {20, 7}, {7, 20}, {9, 8}}) {
+            for (boolean singular : new boolean[]{false, true}) {
+                DMatrixRMaj A;
+                if (singular) {
+                    A = RandomMatrices_DDRM.singular(shape[0], shape[1], rand, 3, 2, 1);
+                } else {
+                    A = RandomMatrices_DDRM.rectangle(shape[0], shape[1], -1, 1, rand);
+                }
+
+                var expected = new SvdImplicitQrDecompose_DDRM(true, false, false, false);
+                assertTrue(expected.decompose(A.copy()));
+
+                for (boolean compact : new boolean[]{true, false}) {
+                    SvdOneSidedJacobi_DDRM alg = createSvd(compact, true, true);
+                    assertTrue(alg.decompose(A));
+
+                    double[] found = Arrays.copyOf(alg.getSingularValues(), alg.numberOfSingularValues());
+                    double[] truth = Arrays.copyOf(expected.getSingularValues(), expected.numberOfSingularValues());
+                    Arrays.sort(found);
+                    Arrays.sort(truth);
+                    for (int i = 0; i < found.length; i++) {
+                        assertEquals(truth[i], found[i], UtilEjml.TEST_F64);
+                    }
+
+                    DMatrixRMaj U = alg.getU(null, false);
+                    DMatrixRMaj V = alg.getV(null, false);
+                    assertTrue(MatrixFeatures_DDRM.isIdentity(CommonOps_DDRM.multTransA(U, U, null), UtilEjml.TEST_F64));
+                    assertTrue(MatrixFeatures_DDRM.isIdentity(CommonOps_DDRM.multTransA(V, V, null), UtilEjml.TEST_F64));
+                }
+            }
+        }
+    }
+
+    /**
+     * Only U or V is requested. Results should be the same as when both are computed.
+     */
+    @Test
+    public void computeSubset() {
+        for (int[] shape : new int[][]{{12, 5}, {5, 12}}) {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(shape[0], shape[1], -1, 1, rand);
+
+            SvdOneSidedJacobi_DDRM all = createSvd(true, true, true);
+            assertTrue(all.decompose(A));
+
+            SvdOneSidedJacobi_DDRM onlyU = createSvd(true, true, false);
+            assertTrue(onlyU.decompose(A));
+            assertTrue(MatrixFeatures_DDRM.isIdentical(all.getU(null, false), onlyU.getU(null, false), UtilEjml.TEST_F64));
+
+            SvdOneSidedJacobi_DDRM onlyV = createSvd(true, false, true);
+            assertTrue(onlyV.decompose(A));
+            assertTrue(MatrixFeatures_DDRM.isIdentical(all.getV(null, false), onlyV.getV(null, false), UtilEjml.TEST_F64));
+
+            SvdOneSidedJacobi_DDRM none = createSvd(true, false, false);
+            assertTrue(none.decompose(A));
+            for (int i = 0; i < all.numberOfSingularValues(); i++) {
+                assertEquals(all.getSingularValues()[i], none.getSingularValues()[i], UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    /**
+     * Columns are scaled over many orders of magnitude. The small singular values should still be found
+     * with high relative accuracy.
+     */
+    @Test
+    public void relativeAccuracy() {
+        for (int[] shape : new int[][]{{10, 10}, {25, 10}, {10, 25}}) {
+            int N = Math.min(shape[0], shape[1]);
+            double[] expected = new double[N];
+            for (int i = 0; i < N; i++) {
+                expected[i] = Math.pow(10, -2*i);
+            }
+
+            // the columns (or rows) are orthogonal and have the expected norms
+            DMatrixRMaj A = RandomMatrices_DDRM.orthogonal(Math.max(shape[0], shape[1]), N, rand);
+            for (int row = 0; row < A.numRows; row++) {
+                for (int col = 0; col < N; col++) {
+                    A.data[row*N + col] *= expected[col];
+                }
+            }
+            if (shape[0] < shape[1])
+                CommonOps_DDRM.transpose(A);
+
+            SvdOneSidedJacobi_DDRM alg = createSvd(true, false, false);
+            assertTrue(alg.decompose(A));
+
+            double[] found = Arrays.copyOf(alg.getSingularValues(), N);
+            Arrays.sort(found);
+            for (int i = 0; i < N; i++) {
+                double truth = expected[N - 1 - i];
+                assertEquals(truth, found[i], truth*1e-12);
+            }
+        }
+    }
+}
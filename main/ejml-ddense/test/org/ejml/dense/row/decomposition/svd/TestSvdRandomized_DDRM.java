@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.decomposition.svd;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.SingularOps_DDRM;
+import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSvdRandomized_DDRM extends StandardSvdChecks_DDRM {
+
+    // Number of singular values requested by the standard checks
+    int rank = 1000;
+
+    public SvdRandomized_DDRM createSvd( int rank, boolean needU, boolean needV ) {
+        return new SvdRandomized_DDRM(rank, needU, needV);
+    }
+
+    @Override
+    public SingularValueDecomposition_F64<DMatrixRMaj> createSvd() {
+        return createSvd(rank, true, true);
+    }
+
+    /**
+     * When the rank is larger than the matrix the decomposition is exact
+     */
+    @Test
+    public void standardTests() {
+        allTests();
+    }
+
+    /**
+     * Matrix has the same rank as what's requested so it should be recovered exactly
+     */
+    @Test
+    public void exactLowRank() {
+        for (int[] shape : new int[][]{{60, 40}, {40, 60}}) {
+            DMatrixRMaj A = RandomMatrices_DDRM.singular(shape[0], shape[1], rand, 10, 7, 5, 2, 0.5);
+
+            SvdRandomized_DDRM alg = createSvd(5, true, true);
+            alg.setPowerIterations(0);
+            assertTrue(alg.decompose(A.copy()));
+
+            assertEquals(5, alg.numberOfSingularValues());
+            double[] sv = alg.getSingularValues();
+            assertEquals(10, sv[0], UtilEjml.TEST_F64);
+            assertEquals(7, sv[1], UtilEjml.TEST_F64);
+            assertEquals(5, sv[2], UtilEjml.TEST_F64);
+            assertEquals(2, sv[3], UtilEjml.TEST_F64);
+            assertEquals(0.5, sv[4], UtilEjml.TEST_F64);
+
+            checkOrthogonal(alg);
+            assertTrue(MatrixFeatures_DDRM.isIdentical(A, reconstruct(alg), UtilEjml.TEST_F64));
+        }
+    }
+
+    /**
+     * The largest singular values and vectors should match the full SVD when the spectrum decays
+     */
+    @Test
+    public void compareToFull() {
+        int k = 6;
+        double[] values = new double[40];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.pow(0.5, i);
+        }
+        DMatrixRMaj A = RandomMatrices_DDRM.singular(80, 40, rand, values);
+
+        SvdImplicitQrDecompose_DDRM full = new SvdImplicitQrDecompose_DDRM(true, true, true, false);
+        assertTrue(full.decompose(A.copy()));
+        DMatrixRMaj U = full.getU(null, false);
+        DMatrixRMaj V = full.getV(null, false);
+        double[] expected = full.getSingularValues().clone();
+        SingularOps_DDRM.descendingOrder(U, false, expected, expected.length, V, false);
+
+        SvdRandomized_DDRM alg = createSvd(k, true, true);
+        alg.setOversampling(4);
+        assertTrue(alg.decompose(A));
+        DMatrixRMaj foundU = alg.getU(null, false);
+        DMatrixRMaj foundV = alg.getV(null, false);
+
+        for (int i = 0; i < k; i++) {
+            assertEquals(expected[i], alg.getSingularValues()[i], expected[i]*UtilEjml.TEST_F64_SQ);
+
+            // singular vectors are only unique up to a sign
+            double dotU = 0, dotV = 0;
+            for (int row = 0; row < A.numRows; row++) {
+                dotU += U.get(row, i)*foundU.get(row, i);
+            }
+            for (int row = 0; row < A.numCols; row++) {
+                dotV += V.get(row, i)*foundV.get(row, i);
+            }
+            assertEquals(1.0, Math.abs(dotU), UtilEjml.TEST_F64_SQ);
+            assertEquals(1.0, Math.abs(dotV), UtilEjml.TEST_F64_SQ);
+        }
+
+        // the error should be close to the first discarded singular value
+        DMatrixRMaj E = reconstruct(alg);
+        CommonOps_DDRM.subtractEquals(E, A);
+        assertEquals(expected[k], Arrays.stream(SingularOps_DDRM.singularValues(E)).max().getAsDouble(), expected[k]*1e-4);
+    }
+
+    /**
+     * Power iterations should improve the accuracy when the spectrum decays slowly
+     */
+    @Test
+    public void powerIterations() {
+        double[] values = new double[50];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1.0/(1 + i);
+        }
+        DMatrixRMaj A = RandomMatrices_DDRM.singular(100, 50, rand, values);
+
+        double previous = Double.MAX_VALUE;
+        for (int q = 0; q <= 3; q++) {
+            SvdRandomized_DDRM alg = createSvd(5, true, true);
+            alg.setOversampling(2);
+            alg.setPowerIterations(q);
+            assertTrue(alg.decompose(A));
+            double error = Math.abs(alg.getSingularValues()[4] - values[4]);
+            assertTrue(error < previous);
+            previous = error;
+        }
+        assertTrue(previous < 1e-3);
+    }
+
+    /**
+     * Only U or V is requested
+     */
+    @Test
+    public void computeSubset() {
+        DMatrixRMaj A = RandomMatrices_DDRM.singular(30, 20, rand, 9, 4, 3);
+
+        SvdRandomized_DDRM alg = createSvd(3, true, false);
+        assertTrue(alg.decompose(A));
+        assertEquals(30, alg.getU(null, false).numRows);
+        assertThrows(IllegalArgumentException.class, () -> alg.getV(null, false));
+
+        SvdRandomized_DDRM algV = createSvd(3, false, true);
+        assertTrue(algV.decompose(A));
+        assertEquals(20, algV.getV(null, false).numRows);
+        assertThrows(IllegalArgumentException.class, () -> algV.getU(null, false));
+        assertEquals(4, algV.getSingularValues()[1], UtilEjml.TEST_F64);
+    }
+
+    private static void checkOrthogonal( SvdRandomized_DDRM alg ) {
+        assertTrue(MatrixFeatures_DDRM.isOrthogonal(alg.getU(null, false), UtilEjml.TEST_F64));
+        assertTrue(MatrixFeatures_DDRM.isOrthogonal(alg.getV(null, false), UtilEjml.TEST_F64));
+    }
+
+    private static DMatrixRMaj reconstruct( SvdRandomized_DDRM alg ) {
+        DMatrixRMaj UW = new DMatrixRMaj(1, 1);
+        DMatrixRMaj found = new DMatrixRMaj(1, 1);
+        CommonOps_DDRM.mult(alg.getU(null, false), alg.getW(null), UW);
+        CommonOps_DDRM.multTransB(UW, alg.getV(null, false), found);
+        return found;
+    }
+}
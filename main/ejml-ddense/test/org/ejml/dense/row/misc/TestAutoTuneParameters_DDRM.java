@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.misc;
+
+import org.ejml.EjmlParameters;
+import org.ejml.EjmlProfile;
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestAutoTuneParameters_DDRM {
+
+    /**
+     * Feed in known timing results and see if the crossover is correctly found
+     */
+    @Test
+    void crossover() {
+        AutoTuneParameters_DDRM alg = new KnownTimes();
+        int[] sizes = {1, 2, 3, 4, 5};
+
+        // alternative is faster starting at 3
+        assertEquals(3, alg.crossover(sizes, N -> algs(10, N < 3 ? 20 : 5), -1));
+        // noise at a small size should be ignored
+        assertEquals(4, alg.crossover(sizes, N -> algs(10, N == 1 || N >= 4 ? 5 : 20), -1));
+        // never faster
+        assertEquals(-1, alg.crossover(sizes, N -> algs(10, 20), -1));
+        // always faster
+        assertEquals(1, alg.crossover(sizes, N -> algs(10, 5), -1));
+    }
+
+    @Test
+    void fastest() {
+        AutoTuneParameters_DDRM alg = new KnownTimes();
+        assertEquals(30, alg.fastest(new int[]{10, 20, 30, 40}, v -> new Cost(Math.abs(v - 30))));
+    }
+
+    /**
+     * Run all the actual benchmarks using small matrices and very short timing. Makes sure nothing crashes,
+     * the values are reasonable, and parameters are left in the same state as they were found.
+     */
+    @Test
+    void tuneAll_small() {
+        Properties original = EjmlProfile.capture();
+        try {
+            AutoTuneParameters_DDRM alg = new AutoTuneParameters_DDRM();
+            alg.minimumTimeNano = 0;
+            alg.trials = 1;
+            alg.multSizes = new int[]{2, 5, 10};
+            alg.multBlockedSizes = new int[]{2, 5, 10};
+            alg.transposeSizes = new int[]{10, 20};
+            alg.choleskySizes = new int[]{10, 20};
+            alg.qrSizes = new int[]{10, 20};
+            alg.luSizes = new int[]{10, 20};
+            alg.eigSizes = new int[]{10, 20};
+            alg.concurrentSizes = new int[]{10, 20};
+            alg.blockWidths = new int[]{4, 8};
+            alg.cholBlockWidths = new int[]{4, 8};
+            alg.blockWidthMatrixSize = 30;
+
+            int blockWidth = EjmlParameters.BLOCK_WIDTH;
+            int found = alg.tuneBlockWidth();
+            assertTrue(found == 4 || found == 8);
+            assertEquals(blockWidth, EjmlParameters.BLOCK_WIDTH);
+
+            alg.tuneAll();
+            assertTrue(EjmlParameters.MULT_COLUMN_SWITCH >= 2 && EjmlParameters.MULT_COLUMN_SWITCH <= 11);
+            assertTrue(EjmlParameters.TRANSPOSE_SWITCH >= 9 && EjmlParameters.TRANSPOSE_SWITCH <= 20);
+            assertTrue(EjmlParameters.SWITCH_BLOCK64_CHOLESKY >= 10 && EjmlParameters.SWITCH_BLOCK64_CHOLESKY <= 21);
+            assertTrue(EjmlParameters.SWITCH_BLOCK64_QR >= 10 && EjmlParameters.SWITCH_BLOCK64_QR <= 21);
+            assertTrue(EjmlParameters.SWITCH_BLOCK64_LU >= 10 && EjmlParameters.SWITCH_BLOCK64_LU <= 21);
+            assertTrue(EjmlParameters.SWITCH_EIG_DIVIDE_CONQUER >= 10 && EjmlParameters.SWITCH_EIG_DIVIDE_CONQUER <= 21);
+        } finally {
+            EjmlProfile.apply(original);
+        }
+    }
+
+    private static Runnable[] algs( double baseline, double alternative ) {
+        return new Runnable[]{new Cost(baseline), new Cost(alternative)};
+    }
+
+    private static class Cost implements Runnable {
+        double cost;
+
+        Cost( double cost ) {this.cost = cost;}
+
+        @Override public void run() {}
+    }
+
+    /**
+     * Instead of timing the algorithm it returns a known cost
+     */
+    private static class KnownTimes extends AutoTuneParameters_DDRM {
+        @Override protected double time( Runnable alg ) {
+            return ((Cost)alg).cost;
+        }
+    }
+}
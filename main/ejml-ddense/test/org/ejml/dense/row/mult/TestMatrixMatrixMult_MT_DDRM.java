@@ -15,10 +15,15 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package org.ejml.dense.row.mult;
 
 import org.ejml.CheckMultiThreadAgainstSingleThread;
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.jupiter.api.Test;
 
 /**
  * @author Peter Abeles
@@ -28,4 +33,54 @@ public class TestMatrixMatrixMult_MT_DDRM extends CheckMultiThreadAgainstSingleT
     public TestMatrixMatrixMult_MT_DDRM() {
         super(MatrixMatrixMult_DDRM.class, MatrixMatrixMult_MT_DDRM.class, 24);
     }
+
+    /**
+     * The generic check only uses square matrices. When A is transposed the work is split across its columns,
+     * so see if tall and wide matrices are handled correctly.
+     */
+    @Test
+    void multTransA_tallAndWide() {
+        int previousThreads = EjmlConcurrency.getMaxThreads();
+        boolean previousConcurrent = EjmlConcurrency.USE_CONCURRENT;
+        try {
+            EjmlConcurrency.setMaxThreads(3);
+            for (int[] shape : new int[][]{{30, 20}, {20, 30}}) {
+                DMatrixRMaj A = RandomMatrices_DDRM.rectangle(shape[0], shape[1], rand);
+                DMatrixRMaj B = RandomMatrices_DDRM.rectangle(shape[0], 25, rand);
+                DMatrixRMaj Bt = RandomMatrices_DDRM.rectangle(25, shape[0], rand);
+                DMatrixRMaj C = RandomMatrices_DDRM.rectangle(shape[1], 25, rand);
+
+                DMatrixRMaj expected = C.copy();
+                DMatrixRMaj found = C.copy();
+                MatrixMatrixMult_DDRM.multTransA_reorder(A, B, expected);
+                MatrixMatrixMult_MT_DDRM.multTransA_reorder(A, B, found);
+                EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+
+                MatrixMatrixMult_DDRM.multTransA_small(1.5, A, B, expected);
+                MatrixMatrixMult_MT_DDRM.multTransA_small(1.5, A, B, found);
+                EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+
+                MatrixMatrixMult_DDRM.multTransAB(A, Bt, expected);
+                MatrixMatrixMult_MT_DDRM.multTransAB(A, Bt, found);
+                EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+
+                expected.setTo(C);
+                found.setTo(C);
+                MatrixMatrixMult_DDRM.multAddTransA_reorder(1.5, A, B, expected);
+                MatrixMatrixMult_MT_DDRM.multAddTransA_reorder(1.5, A, B, found);
+                EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+
+                MatrixMatrixMult_DDRM.multAddTransA_small(A, B, expected);
+                MatrixMatrixMult_MT_DDRM.multAddTransA_small(A, B, found);
+                EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+
+                MatrixMatrixMult_DDRM.multAddTransAB(A, Bt, expected);
+                MatrixMatrixMult_MT_DDRM.multAddTransAB(A, Bt, found);
+                EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+            }
+        } finally {
+            EjmlConcurrency.setMaxThreads(previousThreads);
+            EjmlConcurrency.USE_CONCURRENT = previousConcurrent;
+        }
+    }
 }
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.dense.row.mult;
+
+import org.ejml.EjmlParameters;
+import org.ejml.EjmlUnitTests;
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMatrixMultBlocked_DDRM {
+    Random rand = new Random(234);
+
+    int blockM, blockK, blockN;
+
+    /**
+     * Use small blocks so that matrices which are quick to process will span several blocks
+     */
+    @BeforeEach
+    void before() {
+        blockM = EjmlParameters.MULT_BLOCK_M;
+        blockK = EjmlParameters.MULT_BLOCK_K;
+        blockN = EjmlParameters.MULT_BLOCK_N;
+        EjmlParameters.MULT_BLOCK_M = 8;
+        EjmlParameters.MULT_BLOCK_K = 5;
+        EjmlParameters.MULT_BLOCK_N = 16;
+    }
+
+    @AfterEach
+    void after() {
+        EjmlParameters.MULT_BLOCK_M = blockM;
+        EjmlParameters.MULT_BLOCK_K = blockK;
+        EjmlParameters.MULT_BLOCK_N = blockN;
+    }
+
+    /**
+     * Compare against a simple implementation across shapes which are and are not multiples of the blocks
+     */
+    @Test
+    void compareToSimple() {
+        int[] sizes = {0, 1, 3, 4, 7, 8, 9, 17, 33};
+        for (int rows : sizes) {
+            for (int inner : sizes) {
+                for (int cols : sizes) {
+                    checkAll(rows, inner, cols);
+                }
+            }
+        }
+    }
+
+    /**
+     * Default block sizes with matrices large enough to span several blocks
+     */
+    @Test
+    void defaultBlocks() {
+        after();
+        checkAll(150, 300, 2100);
+        checkAll(300, 40, 70);
+    }
+
+    @Test
+    void multAdd_badShape() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(4, 5, rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(5, 6, rand);
+        DMatrixRMaj C = new DMatrixRMaj(4, 5);
+        assertThrows(MatrixDimensionException.class, () -> MatrixMultBlocked_DDRM.multAdd(1.0, A, B, C));
+    }
+
+    @Test
+    void sameInstance() {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(4, 4, rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(4, 4, rand);
+        assertThrows(IllegalArgumentException.class, () -> MatrixMultBlocked_DDRM.mult(1.0, A, B, A));
+    }
+
+    /**
+     * A workspace provided by the caller should be used and its arrays recycled across calls
+     */
+    @Test
+    void providedWorkspace() {
+        var work = new MatrixMultBlocked_DDRM.Workspace();
+
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(20, 30, rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(30, 25, rand);
+        DMatrixRMaj expected = new DMatrixRMaj(20, 25);
+        MatrixMatrixMult_DDRM.mult_small(1.5, A, B, expected);
+
+        DMatrixRMaj found = new DMatrixRMaj(1, 1);
+        MatrixMultBlocked_DDRM.mult(1.5, A, B, found, work);
+        EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+
+        double[] packedA = work.packedA.data;
+        double[] packedB = work.packedB.data;
+        assertTrue(packedA.length >= 8*5);
+        assertTrue(packedB.length >= 5*16);
+
+        // Same size so there should be no new arrays
+        found.zero();
+        MatrixMultBlocked_DDRM.mult(1.5, A, B, found, work);
+        EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+        assertSame(packedA, work.packedA.data);
+        assertSame(packedB, work.packedB.data);
+    }
+
+    /**
+     * Force CommonOps to use the blocked algorithm and see if the results are the same
+     */
+    @Test
+    void commonOpsDispatch() {
+        int previous = EjmlParameters.MULT_BLOCKED_SWITCH;
+        try {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(20, 30, rand);
+            DMatrixRMaj B = RandomMatrices_DDRM.rectangle(30, 25, rand);
+            DMatrixRMaj C = RandomMatrices_DDRM.rectangle(20, 25, rand);
+
+            EjmlParameters.MULT_BLOCKED_SWITCH = Integer.MAX_VALUE;
+            DMatrixRMaj expected = CommonOps_DDRM.mult(A, B, null);
+            DMatrixRMaj expectedTA = CommonOps_DDRM.multTransA(1.5, CommonOps_DDRM.transpose(A, null), B, null);
+            DMatrixRMaj expectedTB = CommonOps_DDRM.multTransB(A, CommonOps_DDRM.transpose(B, null), null);
+            DMatrixRMaj expectedAdd = C.copy();
+            CommonOps_DDRM.multAdd(-2, A, B, expectedAdd);
+
+            EjmlParameters.MULT_BLOCKED_SWITCH = 1;
+            EjmlUnitTests.assertEquals(expected, CommonOps_DDRM.mult(A, B, null), UtilEjml.TEST_F64);
+            EjmlUnitTests.assertEquals(expectedTA, CommonOps_DDRM.multTransA(1.5, CommonOps_DDRM.transpose(A, null), B, null), UtilEjml.TEST_F64);
+            EjmlUnitTests.assertEquals(expectedTB, CommonOps_DDRM.multTransB(A, CommonOps_DDRM.transpose(B, null), null), UtilEjml.TEST_F64);
+            DMatrixRMaj foundAdd = C.copy();
+            CommonOps_DDRM.multAdd(-2, A, B, foundAdd);
+            EjmlUnitTests.assertEquals(expectedAdd, foundAdd, UtilEjml.TEST_F64);
+        } finally {
+            EjmlParameters.MULT_BLOCKED_SWITCH = previous;
+        }
+    }
+
+    private void checkAll( int rows, int inner, int cols ) {
+        DMatrixRMaj A = RandomMatrices_DDRM.rectangle(rows, inner, rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(inner, cols, rand);
+        DMatrixRMaj At = CommonOps_DDRM.transpose(A, null);
+        DMatrixRMaj Bt = CommonOps_DDRM.transpose(B, null);
+        double alpha = 1.5;
+
+        DMatrixRMaj expected = new DMatrixRMaj(rows, cols);
+        MatrixMatrixMult_DDRM.mult_small(alpha, A, B, expected);
+
+        // Output has the wrong shape and garbage in it
+        DMatrixRMaj found = RandomMatrices_DDRM.rectangle(2, 3, rand);
+        MatrixMultBlocked_DDRM.mult(alpha, A, B, found);
+        EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+
+        found = RandomMatrices_DDRM.rectangle(2, 3, rand);
+        MatrixMultBlocked_DDRM.multTransA(alpha, At, B, found);
+        EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+
+        found = RandomMatrices_DDRM.rectangle(2, 3, rand);
+        MatrixMultBlocked_DDRM.multTransB(alpha, A, Bt, found);
+        EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+
+        found = new DMatrixRMaj(rows, cols);
+        MatrixMultBlocked_DDRM.gemm(alpha, At, true, Bt, true, false, found, null);
+        EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+
+        DMatrixRMaj C = RandomMatrices_DDRM.rectangle(rows, cols, rand);
+        DMatrixRMaj expectedAdd = C.copy();
+        MatrixMatrixMult_DDRM.multAdd_small(alpha, A, B, expectedAdd);
+        MatrixMultBlocked_DDRM.multAdd(alpha, A, B, C);
+        EjmlUnitTests.assertEquals(expectedAdd, C, UtilEjml.TEST_F64);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc;
+
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+import org.ejml.ops.DSemiRing;
+import org.ejml.ops.DSemiRings;
+import org.ejml.sparse.csc.mult.MatrixVectorMultWithSemiRing_DSCC;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the specialized kernels for built in semirings against the generic lambda code. The generic code
+ * is invoked using a copy of the semiring, which can't be looked up by identity. Several semirings are used
+ * during setup so that the operator call sites are megamorphic, as they would be in an application.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 2)
+public class BenchmarkSemiRingKernels_DSCC {
+    @Param({"PLUS_TIMES", "MIN_PLUS", "OR_AND"})
+    private String semiRingName;
+
+    @Param({"10000"})
+    private int dimension;
+
+    @Param({"20"})
+    private int countPerColumn;
+
+    DMatrixSparseCSC A, B, C;
+    double[] x, y;
+    DSemiRing specialized, generic;
+
+    IGrowArray gw = new IGrowArray();
+    DGrowArray gx = new DGrowArray();
+
+    @Setup
+    public void setup() throws Exception {
+        Random rand = new Random(345);
+        A = RandomMatrices_DSCC.generateUniform(dimension, dimension, countPerColumn, -1, 1, rand);
+        B = RandomMatrices_DSCC.generateUniform(dimension, dimension, countPerColumn, -1, 1, rand);
+        C = new DMatrixSparseCSC(1, 1);
+        x = new double[dimension];
+        y = new double[dimension];
+        for (int i = 0; i < dimension; i++) {
+            x[i] = rand.nextDouble();
+        }
+
+        specialized = (DSemiRing)DSemiRings.class.getField(semiRingName).get(null);
+        generic = new DSemiRing(specialized.add, specialized.mult);
+
+        // pollute the type profile of the generic code
+        for (DSemiRing s : new DSemiRing[]{DSemiRings.PLUS_TIMES, DSemiRings.MIN_PLUS, DSemiRings.OR_AND, DSemiRings.MAX_MIN}) {
+            DSemiRing copy = new DSemiRing(s.add, s.mult);
+            for (int i = 0; i < 20; i++) {
+                CommonOpsWithSemiRing_DSCC.mult(A, B, C, copy, null, gw, gx);
+                MatrixVectorMultWithSemiRing_DSCC.mult(A, x, y, copy, null);
+            }
+        }
+    }
+
+    // @formatter:off
+    @Benchmark public void mult_generic() { CommonOpsWithSemiRing_DSCC.mult(A, B, C, generic, null, gw, gx); }
+    @Benchmark public void mult_specialized() { CommonOpsWithSemiRing_DSCC.mult(A, B, C, specialized, null, gw, gx); }
+    @Benchmark public void multVector_generic() { MatrixVectorMultWithSemiRing_DSCC.mult(A, x, y, generic, null); }
+    @Benchmark public void multVector_specialized() { MatrixVectorMultWithSemiRing_DSCC.mult(A, x, y, specialized, null); }
+    // @formatter:on
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkSemiRingKernels_DSCC.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc;
+
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+import org.ejml.sparse.csc.misc.AdditionPlan_DSCC;
+import org.ejml.sparse.csc.mult.MultiplicationPlan_DSCC;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of recomputing the structure every iteration against only performing the numeric step
+ * of a symbolic plan.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 2)
+public class BenchmarkSparsePlans_DSCC {
+    @Param({"10000"})
+    private int dimension;
+
+    @Param({"20"})
+    private int countPerColumn;
+
+    DMatrixSparseCSC A, B, C;
+
+    IGrowArray gw = new IGrowArray();
+    DGrowArray gx = new DGrowArray();
+
+    MultiplicationPlan_DSCC planMult = new MultiplicationPlan_DSCC();
+    MultiplicationPlan_DSCC planMultTransA = new MultiplicationPlan_DSCC();
+    AdditionPlan_DSCC planAdd = new AdditionPlan_DSCC();
+    DMatrixSparseCSC C_mult = new DMatrixSparseCSC(1, 1);
+    DMatrixSparseCSC C_multTransA = new DMatrixSparseCSC(1, 1);
+    DMatrixSparseCSC C_add = new DMatrixSparseCSC(1, 1);
+    DMatrixSparseCSC At = new DMatrixSparseCSC(1, 1);
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(345);
+        A = RandomMatrices_DSCC.generateUniform(dimension, dimension, countPerColumn, -1, 1, rand);
+        B = RandomMatrices_DSCC.generateUniform(dimension, dimension, countPerColumn, -1, 1, rand);
+        C = new DMatrixSparseCSC(1, 1);
+
+        planMult.symbolicMult(A, B, C_mult);
+        planMultTransA.symbolicMultTransA(A, B, C_multTransA);
+        planAdd.symbolic(A, B, C_add);
+    }
+
+    // @formatter:off
+    @Benchmark public void mult() { CommonOps_DSCC.mult(A, B, C, gw, gx); }
+    @Benchmark public void mult_plan() { planMult.numeric(A, B, C_mult); }
+    @Benchmark public void multTransA() { CommonOps_DSCC.transpose(A, At, gw); CommonOps_DSCC.mult(At, B, C, gw, gx); }
+    @Benchmark public void multTransA_plan() { planMultTransA.numeric(A, B, C_multTransA); }
+    @Benchmark public void add() { CommonOps_DSCC.add(1.0, A, 2.0, B, C, gw, gx); }
+    @Benchmark public void add_plan() { planAdd.numeric(1.0, A, 2.0, B, C_add); }
+    // @formatter:on
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkSparsePlans_DSCC.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
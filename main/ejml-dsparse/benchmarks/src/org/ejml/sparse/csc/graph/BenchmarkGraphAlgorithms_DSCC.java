@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.sparse.csc.graph;
+
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DMatrixSparseTriplet;
+import org.ejml.ops.DConvertMatrixStruct;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the graph algorithms on undirected RMAT graphs, which have the skewed degree distribution found in
+ * social and web graphs. Graphs are generated locally from a fixed seed. All the workspace is declared during
+ * setup, so only the algorithms themselves are measured.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 2)
+public class BenchmarkGraphAlgorithms_DSCC {
+    /** The graph has 2^scale nodes */
+    @Param({"14"})
+    private int scale;
+
+    /** Number of edges generated for each node */
+    @Param({"16"})
+    private int edgeFactor;
+
+    DMatrixSparseCSC A;
+    int source;
+
+    BreadthFirstSearch_DSCC bfs = new BreadthFirstSearch_DSCC();
+    ShortestPath_DSCC bellmanFord = new ShortestPath_DSCC();
+    ShortestPath_DSCC deltaStepping = new ShortestPath_DSCC(0.1);
+    PageRank_DSCC pageRank = new PageRank_DSCC();
+    ConnectedComponents_DSCC components = new ConnectedComponents_DSCC();
+    TriangleCount_DSCC triangles = new TriangleCount_DSCC();
+
+    @Setup
+    public void setup() {
+        A = rmat(scale, edgeFactor, 0.57, 0.19, 0.19, new Random(345));
+
+        // start from the node with the most edges so that most of the graph is reached
+        for (int col = 0; col < A.numCols; col++) {
+            if (A.col_idx[col + 1] - A.col_idx[col] > A.col_idx[source + 1] - A.col_idx[source])
+                source = col;
+        }
+
+        bfs.setGraph(A);
+        bellmanFord.setGraph(A);
+        deltaStepping.setGraph(A);
+        pageRank.setGraph(A);
+        components.setGraph(A, true);
+    }
+
+    // @formatter:off
+    @Benchmark public int breadthFirstSearch() { return bfs.process(source); }
+    @Benchmark public boolean shortestPath_bellmanFord() { return bellmanFord.process(source); }
+    @Benchmark public boolean shortestPath_deltaStepping() { return deltaStepping.process(source); }
+    @Benchmark public boolean pageRank() { return pageRank.process(); }
+    @Benchmark public int connectedComponents() { return components.process(); }
+    @Benchmark public long triangleCount() { return triangles.process(A); }
+    // @formatter:on
+
+    /**
+     * Creates a symmetric RMAT graph without self loops. Each edge is placed by recursively selecting one of the
+     * four quadrants of the adjacency matrix with probabilities a, b, c and 1-a-b-c. Edges have a random weight
+     * from 0 to 1 and duplicate edges are merged by adding their weights.
+     */
+    public static DMatrixSparseCSC rmat( int scale, int edgeFactor, double a, double b, double c, Random rand ) {
+        int N = 1 << scale;
+        int numEdges = N*edgeFactor;
+
+        DMatrixSparseTriplet triplet = new DMatrixSparseTriplet(N, N, numEdges*2);
+        for (int edge = 0; edge < numEdges; edge++) {
+            int row = 0, col = 0;
+            for (int level = 0; level < scale; level++) {
+                double p = rand.nextDouble();
+                int bit = 1 << level;
+                if (p < a) {
+                    continue;
+                } else if (p < a + b) {
+                    col |= bit;
+                } else if (p < a + b + c) {
+                    row |= bit;
+                } else {
+                    row |= bit;
+                    col |= bit;
+                }
+            }
+            if (row == col)
+                continue;
+            double weight = rand.nextDouble();
+            triplet.addItem(row, col, weight);
+            triplet.addItem(col, row, weight);
+        }
+
+        DMatrixSparseCSC A = DConvertMatrixStruct.convert(triplet, (DMatrixSparseCSC)null);
+        CommonOps_DSCC.duplicatesAdd(A, null);
+        return A;
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkGraphAlgorithms_DSCC.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.linsol;
+
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.decomposition.chol.CholeskySupernodal_DSCC;
+import org.ejml.sparse.csc.decomposition.chol.CholeskyUpLooking_DSCC;
+import org.ejml.sparse.csc.misc.ApproximateMinimumDegree_DSCC;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the up looking and supernodal Cholesky decompositions on a 3D mesh Laplacian which has been
+ * ordered using AMD.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 2)
+public class BenchmarkCholeskySupernodal_DSCC {
+
+    @Param({"20"})
+    private int meshWidth;
+
+    DMatrixSparseCSC A;
+
+    CholeskyUpLooking_DSCC upLooking = new CholeskyUpLooking_DSCC();
+    CholeskySupernodal_DSCC supernodal = new CholeskySupernodal_DSCC();
+
+    @Setup
+    public void setup() {
+        A = createOrderedMesh(meshWidth);
+    }
+
+    @Benchmark public void upLooking() {
+        if (!upLooking.decompose(A))
+            throw new RuntimeException("Failed");
+    }
+
+    @Benchmark public void supernodal() {
+        if (!supernodal.decompose(A))
+            throw new RuntimeException("Failed");
+    }
+
+    /**
+     * Creates the Laplacian of a 3D grid, using a 7-point stencil, and applies an AMD ordering to it
+     */
+    static DMatrixSparseCSC createOrderedMesh( int width ) {
+        int N = width*width*width;
+        DMatrixSparseCSC L = new DMatrixSparseCSC(N, N, 7*N);
+        for (int z = 0; z < width; z++) {
+            for (int y = 0; y < width; y++) {
+                for (int x = 0; x < width; x++) {
+                    int i = (z*width + y)*width + x;
+                    L.set(i, i, 6.5);
+                    if (x + 1 < width) {
+                        L.set(i, i + 1, -1);
+                        L.set(i + 1, i, -1);
+                    }
+                    if (y + 1 < width) {
+                        L.set(i, i + width, -1);
+                        L.set(i + width, i, -1);
+                    }
+                    if (z + 1 < width) {
+                        L.set(i, i + width*width, -1);
+                        L.set(i + width*width, i, -1);
+                    }
+                }
+            }
+        }
+
+        IGrowArray perm = new IGrowArray();
+        new ApproximateMinimumDegree_DSCC().process(L, perm);
+        DMatrixSparseCSC C = new DMatrixSparseCSC(1, 1, 0);
+        CommonOps_DSCC.permuteSymmetric(L, CommonOps_DSCC.permutationInverse(perm.data, N), C, null);
+        return C;
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkCholeskySupernodal_DSCC.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.sparse.csc.linsol;
+
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DMatrixSparseTriplet;
+import org.ejml.ops.DConvertMatrixStruct;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.decomposition.chol.CholeskyUpLooking_DSCC;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares removing and adding back measurements from a least-squares problem using a rank-k downdate and update
+ * against decomposing the normal matrix from scratch. Each measurement depends on a few nearby variables,
+ * like in a sliding window estimator.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 1)
+public class BenchmarkCholeskyUpdate_DSCC {
+
+    @Param({"2000"})
+    private int variables;
+
+    // Number of variables each measurement depends on
+    @Param({"4", "30"})
+    private int width;
+
+    // Number of measurements which are removed and added back
+    @Param({"1", "10"})
+    private int rank;
+
+    DMatrixSparseCSC A;
+    DMatrixSparseCSC C;
+
+    CholeskyUpLooking_DSCC refactor = new CholeskyUpLooking_DSCC();
+    CholeskyUpLooking_DSCC modify = new CholeskyUpLooking_DSCC();
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(345);
+        int measurements = variables*3;
+        var Jt = new DMatrixSparseTriplet(variables, measurements, measurements*width);
+        for (int i = 0; i < measurements; i++) {
+            int first = Math.min(variables - width, i/3);
+            for (int j = 0; j < width; j++) {
+                Jt.addItem(first + j, i, rand.nextGaussian());
+            }
+        }
+        DMatrixSparseCSC Jt_csc = DConvertMatrixStruct.convert(Jt, (DMatrixSparseCSC)null);
+        DMatrixSparseCSC J = CommonOps_DSCC.transpose(Jt_csc, null, null);
+        A = CommonOps_DSCC.add(1.0, CommonOps_DSCC.mult(Jt_csc, J, null), 1.0,
+                CommonOps_DSCC.identity(variables), null, null, null);
+
+        // remove measurements from the middle of the window
+        C = new DMatrixSparseCSC(variables, rank);
+        CommonOps_DSCC.extract(Jt_csc, 0, variables, measurements/2, measurements/2 + rank, C, 0, 0);
+
+        refactor.setStructureLocked(true);
+        if (!refactor.decompose(A) || !modify.decompose(A))
+            throw new RuntimeException("Decomposition failed");
+    }
+
+    @Benchmark public void decompose() {
+        if (!refactor.decompose(A))
+            throw new RuntimeException("Failed");
+    }
+
+    @Benchmark public void downdateUpdate() {
+        if (!modify.downdate(C) || !modify.update(C))
+            throw new RuntimeException("Failed");
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkCholeskyUpdate_DSCC.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
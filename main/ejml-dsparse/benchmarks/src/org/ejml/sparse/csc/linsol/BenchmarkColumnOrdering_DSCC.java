@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.linsol;
+
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.sparse.FillReducing;
+import org.ejml.sparse.csc.decomposition.qr.QrLeftLookingDecomposition_DSCC;
+import org.ejml.sparse.csc.factory.FillReductionFactory_DSCC;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the time to order and compute a sparse QR decomposition with and without a fill reducing column
+ * ordering. The matrix is a tall Jacobian from a least-squares problem on a 2D grid, where each row is a relative
+ * measurement between two neighboring nodes and the nodes are in a random order. Run main() to also see
+ * the number of non-zero elements in R for each ordering.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 2)
+public class BenchmarkColumnOrdering_DSCC {
+
+    @Param({"30"})
+    private int gridWidth;
+
+    @Param({"NONE", "COLAMD"})
+    private FillReducing ordering;
+
+    DMatrixSparseCSC A;
+
+    QrLeftLookingDecomposition_DSCC qr;
+
+    @Setup
+    public void setup() {
+        A = createGridJacobian(gridWidth, new Random(345));
+        qr = new QrLeftLookingDecomposition_DSCC(FillReductionFactory_DSCC.create(ordering));
+    }
+
+    @Benchmark public void qr() {
+        if (!qr.decompose(A))
+            throw new RuntimeException("Failed");
+    }
+
+    /**
+     * Creates a tall Jacobian with one row for every node and one row for every edge between neighbors in a 2D grid
+     */
+    static DMatrixSparseCSC createGridJacobian( int width, Random rand ) {
+        int N = width*width;
+        int[] order = new int[N];
+        for (int i = 0; i < N; i++) {
+            order[i] = i;
+        }
+        for (int i = N - 1; i > 0; i--) {
+            int j = rand.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+
+        int numEdges = 2*width*(width - 1);
+        DMatrixSparseCSC A = new DMatrixSparseCSC(N + numEdges, N, N + 2*numEdges);
+        int row = 0;
+        for (int y = 0; y < width; y++) {
+            for (int x = 0; x < width; x++) {
+                int i = order[y*width + x];
+                A.set(row++, i, 1.0 + rand.nextDouble());
+                if (x + 1 < width) {
+                    A.set(row, i, -1.0 - rand.nextDouble());
+                    A.set(row++, order[y*width + x + 1], 1.0 + rand.nextDouble());
+                }
+                if (y + 1 < width) {
+                    A.set(row, i, -1.0 - rand.nextDouble());
+                    A.set(row++, order[(y + 1)*width + x], 1.0 + rand.nextDouble());
+                }
+            }
+        }
+        return A;
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        DMatrixSparseCSC A = createGridJacobian(30, new Random(345));
+        for (FillReducing ordering : new FillReducing[]{FillReducing.NONE, FillReducing.COLAMD}) {
+            var qr = new QrLeftLookingDecomposition_DSCC(FillReductionFactory_DSCC.create(ordering));
+            if (!qr.decompose(A))
+                throw new RuntimeException("Failed");
+            System.out.printf("%-6s nz(A) = %d nz(R) = %d%n", ordering, A.nz_length, qr.getR().nz_length);
+        }
+
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkColumnOrdering_DSCC.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
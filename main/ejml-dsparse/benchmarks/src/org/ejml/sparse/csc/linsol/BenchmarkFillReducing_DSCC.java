@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.linsol;
+
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.sparse.FillReducing;
+import org.ejml.sparse.csc.decomposition.chol.CholeskyUpLooking_DSCC;
+import org.ejml.sparse.csc.factory.FillReductionFactory_DSCC;
+import org.ejml.sparse.csc.linsol.chol.LinearSolverCholesky_DSCC;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the time to order and factor a matrix with and without a fill reducing permutation. The matrix is
+ * a 2D grid Laplacian with its nodes shuffled, which is typical of matrices from meshes. Run main() to also see
+ * the number of non-zero elements in L for each ordering.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 2)
+public class BenchmarkFillReducing_DSCC {
+
+    @Param({"40"})
+    private int gridWidth;
+
+    @Param({"NONE", "AMD"})
+    private FillReducing ordering;
+
+    DMatrixSparseCSC A;
+
+    LinearSolverCholesky_DSCC solver;
+
+    @Setup
+    public void setup() {
+        A = createShuffledGrid(gridWidth, new Random(345));
+        solver = createSolver(ordering);
+    }
+
+    @Benchmark public void cholesky() {
+        if (!solver.setA(A))
+            throw new RuntimeException("Failed");
+    }
+
+    static LinearSolverCholesky_DSCC createSolver( FillReducing ordering ) {
+        return new LinearSolverCholesky_DSCC(new CholeskyUpLooking_DSCC(), FillReductionFactory_DSCC.create(ordering));
+    }
+
+    /**
+     * Creates a SPD matrix from a 2D grid graph with the order of the nodes randomized
+     */
+    static DMatrixSparseCSC createShuffledGrid( int width, Random rand ) {
+        int N = width*width;
+        int[] order = new int[N];
+        for (int i = 0; i < N; i++) {
+            order[i] = i;
+        }
+        for (int i = N - 1; i > 0; i--) {
+            int j = rand.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+
+        DMatrixSparseCSC A = new DMatrixSparseCSC(N, N, 5*N);
+        for (int y = 0; y < width; y++) {
+            for (int x = 0; x < width; x++) {
+                int i = order[y*width + x];
+                A.set(i, i, 4.5);
+                if (x + 1 < width) {
+                    int j = order[y*width + x + 1];
+                    A.set(i, j, -1);
+                    A.set(j, i, -1);
+                }
+                if (y + 1 < width) {
+                    int j = order[(y + 1)*width + x];
+                    A.set(i, j, -1);
+                    A.set(j, i, -1);
+                }
+            }
+        }
+        return A;
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        DMatrixSparseCSC A = createShuffledGrid(40, new Random(345));
+        for (FillReducing ordering : new FillReducing[]{FillReducing.NONE, FillReducing.AMD}) {
+            LinearSolverCholesky_DSCC solver = createSolver(ordering);
+            if (!solver.setA(A))
+                throw new RuntimeException("Failed");
+            CholeskyUpLooking_DSCC chol = solver.getDecomposition();
+            System.out.printf("%-5s nz(A) = %d nz(L) = %d%n", ordering, A.nz_length, chol.getL().nz_length);
+        }
+
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkFillReducing_DSCC.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
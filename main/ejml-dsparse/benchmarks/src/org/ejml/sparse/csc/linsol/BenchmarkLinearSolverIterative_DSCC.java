@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.linsol;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.sparse.Preconditioning;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.ejml.sparse.csc.decomposition.lu.LuUpLooking_DSCC;
+import org.ejml.sparse.csc.factory.LinearSolverFactory_DSCC;
+import org.ejml.sparse.csc.linsol.iterative.LinearSolverIterative_DSCC;
+import org.ejml.sparse.csc.linsol.lu.LinearSolverLu_DSCC;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares iterative solvers for non-symmetric systems against a direct sparse LU solver
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 2)
+public class BenchmarkLinearSolverIterative_DSCC {
+
+    @Param({"1000", "10000"})
+    private int dimension;
+
+    @Param({"10"})
+    private int elementsPerColumn;
+
+    DMatrixSparseCSC A;
+    DMatrixRMaj B;
+    DMatrixRMaj X;
+
+    LinearSolverLu_DSCC lu = new LinearSolverLu_DSCC(new LuUpLooking_DSCC(null));
+    LinearSolverIterative_DSCC gmres = LinearSolverFactory_DSCC.gmres(Preconditioning.INCOMPLETE_LU, 30);
+    LinearSolverIterative_DSCC biCGStab = LinearSolverFactory_DSCC.biCGStab(Preconditioning.INCOMPLETE_LU);
+
+    @Setup
+    public void setup() {
+        Random rand = new Random(345);
+        A = RandomMatrices_DSCC.rectangle(dimension, dimension, dimension*elementsPerColumn, -1, 1, rand);
+
+        // Make it diagonally dominant so that the iterative solvers will converge
+        double[] rowSum = new double[dimension];
+        for (int i = 0; i < A.nz_length; i++) {
+            rowSum[A.nz_rows[i]] += Math.abs(A.nz_values[i]);
+        }
+        for (int i = 0; i < dimension; i++) {
+            A.set(i, i, rowSum[i] + 1.0);
+        }
+
+        B = RandomMatrices_DDRM.rectangle(dimension, 1, rand);
+        X = new DMatrixRMaj(1, 1);
+    }
+
+    @Benchmark public void lu() {
+        if (!lu.setA(A))
+            throw new RuntimeException("Failed");
+        lu.solve(B, X);
+    }
+
+    @Benchmark public void gmres_ilu() {
+        if (!gmres.setA(A))
+            throw new RuntimeException("Failed");
+        gmres.solve(B, X);
+    }
+
+    @Benchmark public void biCGStab_ilu() {
+        if (!biCGStab.setA(A))
+            throw new RuntimeException("Failed");
+        biCGStab.solve(B, X);
+    }
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkLinearSolverIterative_DSCC.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.mult;
+
+import org.ejml.CodeGeneratorBase;
+
+import java.io.FileNotFoundException;
+
+/**
+ * Generates kernels for the semirings in DSemiRings where the add and multiply operators have been inlined.
+ * Going through the lambdas in DMonoid is a megamorphic call once several semirings have been used, which
+ * the JIT can't inline.
+ *
+ * @author Peter Abeles
+ */
+public class GenerateSemiRingKernels_DSCC extends CodeGeneratorBase {
+
+    // Name of the monoid and its operation. %1$s and %2$s are the two operands, which must not have side effects
+    static final String[][] monoids = {
+            {"PLUS", "%1$s + %2$s"},
+            {"TIMES", "%1$s*%2$s"},
+            {"MIN", "(%1$s <= %2$s) ? %1$s : %2$s"},
+            {"MAX", "(%1$s >= %2$s) ? %1$s : %2$s"},
+            {"AND", "(%1$s == 0 || %2$s == 0) ? 0 : 1"},
+            {"OR", "(%1$s != 0 || %2$s != 0) ? 1 : 0"},
+            {"XOR", "((%1$s == 0 && %2$s == 0) || (%1$s != 0 && %2$s != 0)) ? 0 : 1"},
+            {"XNOR", "((%1$s == 0 && %2$s == 0) || (%1$s != 0 && %2$s != 0)) ? 1 : 0"},
+            {"FIRST", "%1$s"},
+            {"SECOND", "%2$s"},
+    };
+
+    // Every semiring in DSemiRings as {add, mult}
+    static final String[][] semiRings = {
+            {"PLUS", "TIMES"},
+            {"MIN", "PLUS"},
+            {"MAX", "PLUS"},
+            {"MIN", "TIMES"},
+            {"MIN", "MAX"},
+            {"MAX", "MIN"},
+            {"MAX", "TIMES"},
+            {"PLUS", "MIN"},
+            {"OR", "AND"},
+            {"AND", "OR"},
+            {"XOR", "AND"},
+            {"XNOR", "OR"},
+            {"MIN", "FIRST"},
+            {"MIN", "SECOND"},
+            {"MAX", "FIRST"},
+            {"MAX", "SECOND"},
+    };
+
+    @Override
+    public void generate() throws FileNotFoundException {
+        setOutputFile("SemiRingKernels_DSCC");
+
+        printTop();
+        printLookup();
+        printDispatchMultAddColA();
+        printDispatchMultAdd();
+        printDispatchMult();
+
+        for (String[] semiRing : semiRings) {
+            printMultAddColA(semiRing);
+            printMultAdd(semiRing);
+            printMult(semiRing);
+        }
+
+        out.print("}\n");
+    }
+
+    private void printTop() {
+        out.print(
+                "import org.ejml.data.DMatrixSparseCSC;\n" +
+                "import org.ejml.masks.Mask;\n" +
+                "import org.ejml.ops.DSemiRing;\n" +
+                "import org.ejml.ops.DSemiRings;\n" +
+                "import org.jetbrains.annotations.Nullable;\n" +
+                "\n" +
+                "/**\n" +
+                " * Kernels for the semirings in {@link DSemiRings} with the add and multiply operators inlined. Semirings\n" +
+                " * are looked up by identity and if there is no specialized kernel the caller uses the generic code.\n" +
+                standardClassDocClosing("Peter Abeles") +
+                "public class " + className + " {\n" +
+                "    /** Returned by {@link #lookup(DSemiRing)} when there is no specialized kernel */\n" +
+                "    public static final int GENERIC = -1;\n\n");
+    }
+
+    private void printLookup() {
+        out.print(
+                "    /**\n" +
+                "     * Returns the ID of the kernel for the semiring or {@link #GENERIC} if there is none.\n" +
+                "     */\n" +
+                "    public static int lookup( DSemiRing semiRing ) {\n");
+        for (int i = 0; i < semiRings.length; i++) {
+            out.print("        if (semiRing == DSemiRings." + name(semiRings[i]) + ") return " + i + ";\n");
+        }
+        out.print(
+                "        return GENERIC;\n" +
+                "    }\n\n");
+    }
+
+    private void printDispatchMultAddColA() {
+        out.print(
+                "    /**\n" +
+                "     * Specialized version of {@link ImplMultiplicationWithSemiRing_DSCC#multAddColA}.\n" +
+                "     *\n" +
+                "     * @param kernel ID from {@link #lookup(DSemiRing)}\n" +
+                "     * @return true if there was a specialized kernel and the operation was performed\n" +
+                "     */\n" +
+                "    public static boolean multAddColA( int kernel, DMatrixSparseCSC A, int colA, double alpha,\n" +
+                "                                       DMatrixSparseCSC C, int mark, int maskCol,\n" +
+                "                                       @Nullable Mask mask, double[] x, int[] w ) {\n" +
+                "        switch (kernel) {\n");
+        for (int i = 0; i < semiRings.length; i++) {
+            out.print("            case " + i + ": multAddColA_" + name(semiRings[i]) +
+                    "(A, colA, alpha, C, mark, maskCol, mask, x, w); return true;\n");
+        }
+        out.print(
+                "            default: return false;\n" +
+                "        }\n" +
+                "    }\n\n");
+    }
+
+    private void printDispatchMultAdd() {
+        out.print(
+                "    /**\n" +
+                "     * Specialized inner loop of {@link MatrixVectorMultWithSemiRing_DSCC#multAdd}. c = c + A*b\n" +
+                "     *\n" +
+                "     * @return true if there was a specialized kernel and the operation was performed\n" +
+                "     */\n" +
+                "    public static boolean multAdd( DSemiRing semiRing, DMatrixSparseCSC A,\n" +
+                "                                   double[] b, int offsetB, double[] c, int offsetC ) {\n" +
+                "        switch (lookup(semiRing)) {\n");
+        for (int i = 0; i < semiRings.length; i++) {
+            out.print("            case " + i + ": multAdd_" + name(semiRings[i]) +
+                    "(A, b, offsetB, c, offsetC); return true;\n");
+        }
+        out.print(
+                "            default: return false;\n" +
+                "        }\n" +
+                "    }\n\n");
+    }
+
+    private void printDispatchMult() {
+        out.print(
+                "    /**\n" +
+                "     * Specialized version of {@link MatrixVectorMultWithSemiRing_DSCC#mult(double[], int, DMatrixSparseCSC, double[], int, DSemiRing, Mask)}.\n" +
+                "     * c = a<sup>T</sup>*B\n" +
+                "     *\n" +
+                "     * @return true if there was a specialized kernel and the operation was performed\n" +
+                "     */\n" +
+                "    public static boolean mult( DSemiRing semiRing, double[] a, int offsetA, DMatrixSparseCSC B,\n" +
+                "                                double[] c, int offsetC, @Nullable Mask mask ) {\n" +
+                "        switch (lookup(semiRing)) {\n");
+        for (int i = 0; i < semiRings.length; i++) {
+            out.print("            case " + i + ": mult_" + name(semiRings[i]) +
+                    "(a, offsetA, B, c, offsetC, mask); return true;\n");
+        }
+        out.print(
+                "            default: return false;\n" +
+                "        }\n" +
+                "    }\n\n");
+    }
+
+    private void printMultAddColA( String[] semiRing ) {
+        out.print(
+                "    public static void multAddColA_" + name(semiRing) + "( DMatrixSparseCSC A, int colA, double alpha,\n" +
+                "                                        DMatrixSparseCSC C, int mark, int maskCol,\n" +
+                "                                        @Nullable Mask mask, double[] x, int[] w ) {\n" +
+                "        int idxA0 = A.col_idx[colA];\n" +
+                "        int idxA1 = A.col_idx[colA + 1];\n" +
+                "\n" +
+                "        for (int j = idxA0; j < idxA1; j++) {\n" +
+                "            int row = A.nz_rows[j];\n" +
+                "\n" +
+                "            if (mask == null || mask.isSet(row, maskCol)) {\n" +
+                "                double valA = A.nz_values[j];\n" +
+                "                double prod = " + op(semiRing[1], "valA", "alpha") + ";\n" +
+                "                if (w[row] < mark) {\n" +
+                "                    if (C.nz_length >= C.nz_rows.length) {\n" +
+                "                        int growToLength = C.nz_length*2 + 1;\n" +
+                "                        if (mask != null) {\n" +
+                "                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());\n" +
+                "                        }\n" +
+                "                        C.growMaxLength(growToLength, true);\n" +
+                "                    }\n" +
+                "\n" +
+                "                    w[row] = mark;\n" +
+                "                    C.nz_rows[C.nz_length] = row;\n" +
+                "                    C.col_idx[mark] = ++C.nz_length;\n" +
+                "                    x[row] = prod;\n" +
+                "                } else {\n" +
+                "                    double valX = x[row];\n" +
+                "                    x[row] = " + op(semiRing[0], "valX", "prod") + ";\n" +
+                "                }\n" +
+                "            }\n" +
+                "        }\n" +
+                "    }\n\n");
+    }
+
+    private void printMultAdd( String[] semiRing ) {
+        out.print(
+                "    public static void multAdd_" + name(semiRing) + "( DMatrixSparseCSC A,\n" +
+                "                                    double[] b, int offsetB, double[] c, int offsetC ) {\n" +
+                "        for (int k = 0; k < A.numCols; k++) {\n" +
+                "            int idx0 = A.col_idx[k];\n" +
+                "            int idx1 = A.col_idx[k + 1];\n" +
+                "            double valB = b[offsetB + k];\n" +
+                "\n" +
+                "            for (int indexA = idx0; indexA < idx1; indexA++) {\n" +
+                "                int indexC = offsetC + A.nz_rows[indexA];\n" +
+                "                double valA = A.nz_values[indexA];\n" +
+                "                double prod = " + op(semiRing[1], "valA", "valB") + ";\n" +
+                "                double valC = c[indexC];\n" +
+                "                c[indexC] = " + op(semiRing[0], "valC", "prod") + ";\n" +
+                "            }\n" +
+                "        }\n" +
+                "    }\n\n");
+    }
+
+    private void printMult( String[] semiRing ) {
+        out.print(
+                "    public static void mult_" + name(semiRing) + "( double[] a, int offsetA, DMatrixSparseCSC B,\n" +
+                "                                 double[] c, int offsetC, @Nullable Mask mask ) {\n" +
+                "        final double id = DSemiRings." + name(semiRing) + ".add.id;\n" +
+                "        for (int k = 0; k < B.numCols; k++) {\n" +
+                "            if (mask == null || mask.isSet(k)) {\n" +
+                "                int idx0 = B.col_idx[k];\n" +
+                "                int idx1 = B.col_idx[k + 1];\n" +
+                "\n" +
+                "                double sum = id;\n" +
+                "                for (int indexB = idx0; indexB < idx1; indexB++) {\n" +
+                "                    double valA = a[offsetA + B.nz_rows[indexB]];\n" +
+                "                    double valB = B.nz_values[indexB];\n" +
+                "                    double prod = " + op(semiRing[1], "valA", "valB") + ";\n" +
+                "                    sum = " + op(semiRing[0], "sum", "prod") + ";\n" +
+                "                }\n" +
+                "                c[offsetC + k] = sum;\n" +
+                "            }\n" +
+                "        }\n" +
+                "    }\n\n");
+    }
+
+    private static String name( String[] semiRing ) {
+        return semiRing[0] + "_" + semiRing[1];
+    }
+
+    private static String op( String monoid, String a, String b ) {
+        for (String[] m : monoids) {
+            if (m[0].equals(monoid))
+                return String.format(m[1], a, b);
+        }
+        throw new IllegalArgumentException("Unknown monoid " + monoid);
+    }
+
+    public static void main( String[] args ) throws FileNotFoundException {
+        GenerateSemiRingKernels_DSCC gen = new GenerateSemiRingKernels_DSCC();
+
+        gen.generate();
+    }
+}
@@ -21,11 +21,13 @@ import org.ejml.MatrixDimensionException;
 import org.ejml.data.DGrowArray;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DVectorSparse;
 import org.ejml.data.IGrowArray;
 import org.ejml.masks.Mask;
 import org.ejml.ops.DSemiRing;
 import org.ejml.sparse.csc.misc.ImplCommonOpsWithSemiRing_DSCC;
 import org.ejml.sparse.csc.mult.ImplMultiplicationWithSemiRing_DSCC;
+import org.ejml.sparse.csc.mult.MatrixSparseVectorMultWithSemiRing_DSCC;
 import org.jetbrains.annotations.Nullable;
 
 import static org.ejml.UtilEjml.reshapeOrDeclare;
@@ -60,6 +62,30 @@ public class CommonOpsWithSemiRing_DSCC {
         return output;
     }
 
+    /**
+     * Performs sparse matrix times sparse vector.  output = A*x
+     *
+     * <p>This only scatters the columns of A. See {@link MatrixSparseVectorMultWithSemiRing_DSCC} for an
+     * implementation which switches to dot products when x is dense.</p>
+     *
+     * @param A        (Input) Matrix. Not modified.
+     * @param x        (Input) Sparse vector. Not modified.
+     * @param output   (Output) Sparse vector. Modified.
+     * @param semiRing Semi-Ring to define + and *
+     * @param mask     (Optional) Mask for specifying which entries should be overwritten
+     * @param gw       (Optional) Storage for internal workspace.  Can be null.
+     * @param gx       (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static DVectorSparse mult(DMatrixSparseCSC A, DVectorSparse x, @Nullable DVectorSparse output, DSemiRing semiRing,
+                                     @Nullable Mask mask, @Nullable IGrowArray gw, @Nullable DGrowArray gx) {
+        if (output == null)
+            output = new DVectorSparse(A.numRows);
+
+        MatrixSparseVectorMultWithSemiRing_DSCC.multPush(A, x, output, semiRing, mask, gw, gx);
+
+        return output;
+    }
+
     /**
      * Performs matrix multiplication.  output = A*B
      *
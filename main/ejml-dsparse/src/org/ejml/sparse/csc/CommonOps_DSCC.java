@@ -140,6 +140,7 @@ public class CommonOps_DSCC {
      * @param outputC (Output) Storage for results.  Data length is increased if insufficient.
      * @param gw (Optional) Storage for internal workspace.  Can be null.
      * @param gx (Optional) Storage for internal workspace.  Can be null.
+     * @see org.ejml.sparse.csc.mult.MultiplicationPlan_DSCC
      */
     public static DMatrixSparseCSC mult( DMatrixSparseCSC A, DMatrixSparseCSC B,
                                          @Nullable DMatrixSparseCSC outputC,
@@ -309,6 +310,7 @@ public class CommonOps_DSCC {
      * @param outputC Output matrix.
      * @param gw (Optional) Storage for internal workspace.  Can be null.
      * @param gx (Optional) Storage for internal workspace.  Can be null.
+     * @see org.ejml.sparse.csc.misc.AdditionPlan_DSCC
      */
     public static DMatrixSparseCSC add( double alpha, DMatrixSparseCSC A, double beta, DMatrixSparseCSC B,
                                         @Nullable DMatrixSparseCSC outputC,
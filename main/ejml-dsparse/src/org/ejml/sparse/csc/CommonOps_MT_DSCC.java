@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2020, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
  *
  * This file is part of Efficient Java Matrix Library (EJML).
  *
@@ -24,6 +24,7 @@ import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.DMatrixSparseCSC;
 import org.ejml.sparse.csc.misc.ImplCommonOps_MT_DSCC;
 import org.ejml.sparse.csc.mult.ImplMultiplication_MT_DSCC;
+import org.ejml.sparse.csc.mult.MatrixVectorMult_MT_DSCC;
 import org.ejml.sparse.csc.mult.Workspace_MT_DSCC;
 import org.jetbrains.annotations.Nullable;
 import pabeles.concurrency.GrowArray;
@@ -92,7 +93,7 @@ public class CommonOps_MT_DSCC {
     }
 
     /**
-     * Performs matrix multiplication.  C = A<sup>T</sup>*B
+     * Performs matrix multiplication.  C = A*B
      *
      * @param A Matrix
      * @param B Dense Matrix
@@ -106,7 +107,12 @@ public class CommonOps_MT_DSCC {
         if (workArrays == null)
             workArrays = new GrowArray<>(DGrowArray::new);
 
-        ImplMultiplication_MT_DSCC.mult(A, B, outputC, workArrays);
+        if (B.numCols == 1) {
+            // Splitting up by columns in B would only use a single thread
+            MatrixVectorMult_MT_DSCC.mult(A, B.data, 0, outputC.data, 0, workArrays);
+        } else {
+            ImplMultiplication_MT_DSCC.mult(A, B, outputC, workArrays);
+        }
 
         return outputC;
     }
@@ -141,6 +147,12 @@ public class CommonOps_MT_DSCC {
 
         outputC = reshapeOrDeclare(outputC, A.numCols, B.numCols);
 
+        if (B.numCols == 1) {
+            // Splitting up by columns in B would only use a single thread
+            MatrixVectorMult_MT_DSCC.mult(B.data, 0, A, outputC.data, 0);
+            return outputC;
+        }
+
         if (workArray == null)
             workArray = new GrowArray<>(DGrowArray::new);
 
@@ -0,0 +1,382 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.chol;
+
+import org.ejml.EjmlParameters;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRBlock;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DSubmatrixD1;
+import org.ejml.data.IGrowArray;
+import org.ejml.dense.block.InnerRankUpdate_DDRB;
+import org.ejml.dense.block.TriangularSolver_DDRB;
+import org.ejml.dense.block.decomposition.chol.InnerCholesky_DDRB;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.misc.TriangularSolver_DSCC;
+
+import java.util.Arrays;
+
+import static org.ejml.UtilEjml.adjust;
+
+/**
+ * <p>Supernodal Cholesky decomposition of a {@link DMatrixSparseCSC}. Consecutive columns in L which share the
+ * same pattern below the diagonal are grouped into supernodes. Each supernode is factored as a dense frontal
+ * matrix using the block kernels {@link InnerCholesky_DDRB}, {@link TriangularSolver_DDRB}, and
+ * {@link InnerRankUpdate_DDRB}. Its update to the remaining matrix is then scattered into the columns of L
+ * which it modifies. This is faster than {@link CholeskyUpLooking_DSCC} on matrices which have large
+ * dense fronts, e.g. 3D meshes, after a fill reducing permutation has been applied.</p>
+ *
+ * <p>The symbolic analysis, output format and accessors are the same as {@link CholeskyUpLooking_DSCC} so it can be
+ * used anywhere that is, e.g. in {@link org.ejml.sparse.csc.linsol.chol.LinearSolverCholesky_DSCC}.</p>
+ *
+ * @author Peter Abeles
+ */
+public class CholeskySupernodal_DSCC extends CholeskyUpLooking_DSCC {
+
+    // Supernodes with fewer columns than this are not factored using the dense block kernels
+    private int minFrontWidth = 8;
+
+    // Maximum block length used in the dense frontal matrix
+    private final int maxBlockLength;
+
+    // Supernode 's' contains columns superStart[s] to superStart[s+1]-1
+    int numSuper;
+    int[] superStart = new int[1];
+    // Which supernode a column belongs to
+    int[] colToSuper = new int[1];
+
+    // Maps a row in the original matrix to its location inside a supernode
+    IGrowArray gmap = new IGrowArray();
+    // The supernode which the map currently references
+    int mappedSuper;
+    // Storage for the update to a single column
+    DGrowArray gupdate = new DGrowArray();
+
+    // Transpose of the input matrix. Used to look up the lower triangular portion of each column
+    DMatrixSparseCSC At = new DMatrixSparseCSC(1, 1, 0);
+
+    // Dense frontal matrix for the supernode being processed
+    DMatrixRBlock front = new DMatrixRBlock(1, 1, 1);
+    DSubmatrixD1 subA = new DSubmatrixD1();
+    DSubmatrixD1 subB = new DSubmatrixD1();
+    DSubmatrixD1 subC = new DSubmatrixD1();
+    // Index of the first element in each row and offset of each column inside the frontal matrix
+    IGrowArray growIdx = new IGrowArray();
+    IGrowArray gcolIdx = new IGrowArray();
+
+    /**
+     * @param maxBlockLength Maximum size of an inner block in the dense frontal matrices
+     */
+    public CholeskySupernodal_DSCC( int maxBlockLength ) {
+        if (maxBlockLength <= 0)
+            throw new IllegalArgumentException("Block length must be a positive number");
+        this.maxBlockLength = maxBlockLength;
+    }
+
+    public CholeskySupernodal_DSCC() {
+        this(EjmlParameters.BLOCK_WIDTH);
+    }
+
+    /**
+     * Supernodes with fewer columns than this are factored one column at a time instead of with the dense
+     * block kernels, which have too much overhead on narrow fronts.
+     */
+    public int getMinFrontWidth() {
+        return minFrontWidth;
+    }
+
+    public void setMinFrontWidth( int minFrontWidth ) {
+        this.minFrontWidth = minFrontWidth;
+    }
+
+    @Override
+    public void performSymbolic( DMatrixSparseCSC A ) {
+        super.performSymbolic(A);
+        int N = A.numCols;
+
+        // The numerical values are computed in place, so the pattern of L must be known in advance
+        int[] c = adjust(gw, N);
+        int[] s = adjust(gs, N);
+        System.arraycopy(L.col_idx, 0, c, 0, N);
+        for (int k = 0; k < N; k++) {
+            int top = TriangularSolver_DSCC.searchNzRowsElim(A, k, parent, s, c);
+            for (; top < N; top++) {
+                L.nz_rows[c[s[top]]++] = k;
+            }
+            L.nz_rows[c[k]++] = k;
+        }
+        L.indicesSorted = true;
+
+        findSupernodes(N);
+    }
+
+    /**
+     * Columns j-1 and j are in the same supernode if j is the parent of j-1 and the only difference in their
+     * patterns is row j-1.
+     */
+    void findSupernodes( int N ) {
+        if (superStart.length < N + 1) {
+            superStart = new int[N + 1];
+            colToSuper = new int[N];
+        }
+
+        numSuper = 0;
+        for (int j = 0; j < N; j++) {
+            if (j == 0 || parent[j - 1] != j || counts[j - 1] != counts[j] + 1) {
+                superStart[numSuper++] = j;
+            }
+            colToSuper[j] = numSuper - 1;
+        }
+        superStart[numSuper] = N;
+    }
+
+    @Override
+    protected boolean performDecomposition( DMatrixSparseCSC A ) {
+        int N = A.numCols;
+        int[] map = adjust(gmap, N);
+
+        CommonOps_DSCC.transpose(A, At, gw);
+
+        // Updates from previous supernodes are accumulated in L
+        Arrays.fill(L.nz_values, 0, L.nz_length, 0.0);
+
+        for (int s = 0; s < numSuper; s++) {
+            int col0 = superStart[s];
+            int width = superStart[s + 1] - col0;
+            int idxRows = L.col_idx[col0];
+            int numRows = L.col_idx[col0 + 1] - idxRows;
+
+            //---------- Add A to the updates from previous supernodes
+            for (int p = 0; p < numRows; p++) {
+                map[L.nz_rows[idxRows + p]] = p;
+            }
+            for (int j = 0; j < width; j++) {
+                int col = col0 + j;
+                // Row 'q' in the supernode's pattern is stored at offset + q in column 'col' of L
+                int offset = L.col_idx[col] - j;
+
+                // Column 'col' in At is row 'col' in A. Elements on or below the diagonal in column 'col' of the
+                // lower triangle are found in the upper triangle of A
+                for (int p = At.col_idx[col]; p < At.col_idx[col + 1]; p++) {
+                    int row = At.nz_rows[p];
+                    if (row < col)
+                        continue;
+                    L.nz_values[offset + map[row]] += At.nz_values[p];
+                }
+            }
+
+            //---------- Factor the supernode and update the columns in L which it modifies
+            mappedSuper = -1;
+            // The dense kernels have too much overhead when the supernode is narrow
+            boolean success = width < minFrontWidth ?
+                    factorNarrow(col0, width, numRows, map) :
+                    factorWide(col0, width, numRows, map);
+            if (!success)
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Factors the supernode in place inside of L and computes the update one column at a time
+     */
+    private boolean factorNarrow( int col0, int width, int numRows, int[] map ) {
+        double[] values = L.nz_values;
+
+        for (int j = 0; j < width; j++) {
+            int idxJ = L.col_idx[col0 + j];
+            int length = numRows - j;
+
+            for (int k = 0; k < j; k++) {
+                int idxK = L.col_idx[col0 + k] + j - k;
+                double ljk = values[idxK];
+                for (int p = 0; p < length; p++) {
+                    values[idxJ + p] -= values[idxK + p]*ljk;
+                }
+            }
+
+            double d = values[idxJ];
+            if (d <= 0)
+                return false;
+            d = Math.sqrt(d);
+            values[idxJ] = d;
+            for (int p = 1; p < length; p++) {
+                values[idxJ + p] /= d;
+            }
+        }
+
+        double[] update = adjust(gupdate, numRows);
+        int idxRows = L.col_idx[col0];
+        for (int q = width; q < numRows; q++) {
+            for (int p = q; p < numRows; p++) {
+                update[p] = 0;
+            }
+            for (int k = 0; k < width; k++) {
+                int idxK = L.col_idx[col0 + k] - k;
+                double lqk = values[idxK + q];
+                for (int p = q; p < numRows; p++) {
+                    update[p] -= values[idxK + p]*lqk;
+                }
+            }
+            addUpdate(idxRows, q, numRows, update, map);
+        }
+
+        return true;
+    }
+
+    /**
+     * Copies the supernode into a dense frontal matrix which is then factored using dense block kernels
+     */
+    private boolean factorWide( int col0, int width, int numRows, int[] map ) {
+        // The number of pivot columns is padded so that it's a multiple of the block length.
+        // Padded columns have a one on the diagonal and have no influence on the other columns.
+        // The remaining rows are padded with zeros so that every inner block is full.
+        int blockLength = Math.min(width, maxBlockLength);
+        int widthPadded = roundUp(width, blockLength);
+        int pad = widthPadded - width;
+        int size = widthPadded + roundUp(numRows - width, blockLength);
+
+        front.reshape(size, size, blockLength, false);
+        Arrays.fill(front.data, 0, size*size, 0.0);
+        int[] rowIdx = adjust(growIdx, size);
+        int[] colIdx = adjust(gcolIdx, size);
+        for (int i = 0; i < size; i++) {
+            int block = i/blockLength;
+            int inner = i - block*blockLength;
+            rowIdx[i] = block*blockLength*size + inner*blockLength;
+            colIdx[i] = block*blockLength*blockLength + inner;
+        }
+
+        for (int j = 0; j < width; j++) {
+            int col = col0 + j;
+            for (int p = L.col_idx[col], q = j; p < L.col_idx[col + 1]; p++, q++) {
+                front.data[rowIdx[local(q, width, pad)] + colIdx[j]] = L.nz_values[p];
+            }
+        }
+        for (int i = width; i < widthPadded; i++) {
+            front.data[rowIdx[i] + colIdx[i]] = 1.0;
+        }
+
+        if (!factorFront(widthPadded, blockLength))
+            return false;
+
+        // Copy the pivot columns into L
+        for (int j = 0; j < width; j++) {
+            int col = col0 + j;
+            for (int p = L.col_idx[col], q = j; p < L.col_idx[col + 1]; p++, q++) {
+                L.nz_values[p] = front.data[rowIdx[local(q, width, pad)] + colIdx[j]];
+            }
+        }
+
+        // The Schur complement in the lower right corner of the front is the update
+        double[] update = adjust(gupdate, numRows);
+        int idxRows = L.col_idx[col0];
+        for (int q = width; q < numRows; q++) {
+            int localCol = colIdx[q + pad];
+            for (int p = q; p < numRows; p++) {
+                update[p] = front.data[rowIdx[p + pad] + localCol];
+            }
+            addUpdate(idxRows, q, numRows, update, map);
+        }
+
+        return true;
+    }
+
+    /**
+     * Adds the update for rows q to numRows-1 to the column in L which row 'q' of the supernode's pattern refers to.
+     * The map is recomputed when the column belongs to a different supernode than the previous call.
+     *
+     * @param idxRows Index in L of the supernode's pattern
+     */
+    private void addUpdate( int idxRows, int q, int numRows, double[] update, int[] map ) {
+        int col = L.nz_rows[idxRows + q];
+        int target = colToSuper[col];
+        if (target != mappedSuper) {
+            // map rows to their location in the target supernode's pattern
+            mappedSuper = target;
+            int idx0 = L.col_idx[superStart[target]];
+            int idx1 = L.col_idx[superStart[target] + 1];
+            for (int p = idx0; p < idx1; p++) {
+                map[L.nz_rows[p]] = p - idx0;
+            }
+        }
+
+        // Location of the first row in the target supernode's pattern inside of this column
+        int offset = L.col_idx[col] - (col - superStart[target]);
+        for (int p = q; p < numRows; p++) {
+            L.nz_values[offset + map[L.nz_rows[idxRows + p]]] += update[p];
+        }
+    }
+
+    /**
+     * Factors the first 'widthPadded' columns in the frontal matrix using a right looking block algorithm. The
+     * Schur complement, the negative of the update, is left in the lower triangle of the remaining rows and columns.
+     */
+    private boolean factorFront( int widthPadded, int blockLength ) {
+        int size = front.numRows;
+        subA.set(front);
+        subB.set(front);
+        subC.set(front);
+
+        for (int i = 0; i < widthPadded; i += blockLength) {
+            int end = i + blockLength;
+
+            //@formatter:off
+            subA.row0 = i;    subA.row1 = end;
+            subA.col0 = i;    subA.col1 = end;
+
+            subB.row0 = end;  subB.row1 = size;
+            subB.col0 = i;    subB.col1 = end;
+
+            subC.row0 = end;  subC.row1 = size;
+            subC.col0 = end;  subC.col1 = size;
+            //@formatter:on
+
+            if (!InnerCholesky_DDRB.lower(subA))
+                return false;
+
+            if (end == size)
+                break;
+
+            // B = B*L^-T
+            TriangularSolver_DDRB.solveBlock(blockLength, false, subA, subB, false, true);
+
+            // C = C - B*B^T
+            InnerRankUpdate_DDRB.symmRankNMinus_L(blockLength, subC, subB);
+        }
+
+        return true;
+    }
+
+    private static int roundUp( int value, int blockLength ) {
+        return ((value + blockLength - 1)/blockLength)*blockLength;
+    }
+
+    /**
+     * Converts the index of a row inside the supernode's pattern into a row in the frontal matrix
+     */
+    private static int local( int index, int width, int pad ) {
+        return index < width ? index : index + pad;
+    }
+
+    public int getNumSupernodes() {
+        return numSuper;
+    }
+}
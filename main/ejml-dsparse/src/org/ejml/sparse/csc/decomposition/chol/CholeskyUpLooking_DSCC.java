@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2020, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
  *
  * This file is part of Efficient Java Matrix Library (EJML).
  *
@@ -27,6 +27,8 @@ import org.ejml.sparse.csc.misc.ColumnCounts_DSCC;
 import org.ejml.sparse.csc.misc.TriangularSolver_DSCC;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
+
 import static org.ejml.UtilEjml.adjust;
 
 /**
@@ -93,7 +95,7 @@ public class CholeskyUpLooking_DSCC implements
         }
     }
 
-    private boolean performDecomposition( DMatrixSparseCSC A ) {
+    protected boolean performDecomposition( DMatrixSparseCSC A ) {
         int[] c = adjust(gw, N);
         int[] s = adjust(gs, N);
         double[] x = adjust(gx, N);
@@ -101,50 +103,189 @@ public class CholeskyUpLooking_DSCC implements
         System.arraycopy(L.col_idx, 0, c, 0, N);
 
         for (int k = 0; k < N; k++) {
-            //----  Nonzero pattern of L(k,:)
-            int top = TriangularSolver_DSCC.searchNzRowsElim(A, k, parent, s, c);
+            if (!computeRow(A, k, c, s, x))
+                return false;
+        }
+
+        return true;
+    }
 
-            // x(0:k) is now zero
-            x[k] = 0;
-            int idx0 = A.col_idx[k];
-            int idx1 = A.col_idx[k + 1];
+    /**
+     * Computes row 'k' in L. Only columns in the subtree of the elimination tree rooted at 'k' are read or modified.
+     *
+     * @param c Index of the next element in each column of L. Also used to mark nodes.
+     * @param s (Workspace) stack
+     * @param x (Workspace) dense vector which is zero at the start and the end
+     * @return true if successful or false if the matrix is not positive definite
+     */
+    protected boolean computeRow( DMatrixSparseCSC A, int k, int[] c, int[] s, double[] x ) {
+        //----  Nonzero pattern of L(k,:)
+        int top = TriangularSolver_DSCC.searchNzRowsElim(A, k, parent, s, c);
 
-            // x = full(triu(C(:,k)))
-            for (int p = idx0; p < idx1; p++) {
-                if (A.nz_rows[p] <= k) {
-                    x[A.nz_rows[p]] = A.nz_values[p];
-                }
+        // x(0:k) is now zero
+        x[k] = 0;
+        int idx0 = A.col_idx[k];
+        int idx1 = A.col_idx[k + 1];
+
+        // x = full(triu(C(:,k)))
+        for (int p = idx0; p < idx1; p++) {
+            if (A.nz_rows[p] <= k) {
+                x[A.nz_rows[p]] = A.nz_values[p];
+            }
+        }
+        double d = x[k]; // d = C(k,k)
+        x[k] = 0; // clear x for k+1 iteration
+
+        //---- Triangular Solve
+        for (; top < N; top++) {
+            int i = s[top];
+            double lki = x[i]/L.nz_values[L.col_idx[i]]; // L(k,i) = x(i) / L(i,i)
+            x[i] = 0;
+            for (int p = L.col_idx[i] + 1; p < c[i]; p++) {
+                x[L.nz_rows[p]] -= L.nz_values[p]*lki;
+            }
+            d -= lki*lki; // d = d - L(k,i)**L(k,i)
+            int p = c[i]++;
+            L.nz_rows[p] = k;     // store L(k,i) in column i
+            L.nz_values[p] = lki;
+        }
+
+        //----- Compute L(k,k)
+        if (d <= 0) {
+            // it's not positive definite
+            return false;
+        }
+        int p = c[k]++;
+        L.nz_rows[p] = k;
+        L.nz_values[p] = Math.sqrt(d);
+        return true;
+    }
+
+    /**
+     * <p>Modifies the decomposition so that it's the decomposition of A + C*C<sup>T</sup>, where A is the
+     * previously decomposed matrix. Each column in C is a rank-1 update which walks the path in the
+     * elimination tree from the first non-zero row in that column to the root. Only the columns of L along
+     * that path are modified, making it much faster than decomposing the matrix again.</p>
+     *
+     * <p>The structure of L isn't changed. The non-zero pattern of each column in C must be a subset of the
+     * pattern in the column of L which corresponds to its first non-zero row. This is true if the pattern of
+     * C*C<sup>T</sup> is a subset of the pattern of A, e.g. removing or adding back rows from a least-squares
+     * Jacobian which was part of the original system. If a fill reducing permutation was applied to A then it
+     * must be applied to the rows of C too.</p>
+     *
+     * <p>See page 63 in "Direct Methods for Sparse Linear Systems" by Tomothy A. Davis</p>
+     *
+     * @param C (Input) Matrix with the same number of rows as A. Each column is a rank-1 update. Not modified.
+     * @return true if successful.
+     * @throws IllegalArgumentException If the pattern of C isn't a subset of the pattern of L
+     */
+    public boolean update( DMatrixSparseCSC C ) {
+        return modify(true, C);
+    }
+
+    /**
+     * Modifies the decomposition so that it's the decomposition of A - C*C<sup>T</sup>, where A is the
+     * previously decomposed matrix. See {@link #update} for the requirements on C. If the resulting matrix
+     * isn't positive definite then false is returned and the matrix needs to be decomposed again.
+     *
+     * @param C (Input) Matrix with the same number of rows as A. Each column is a rank-1 downdate. Not modified.
+     * @return true if successful or false if the resulting matrix isn't positive definite
+     * @throws IllegalArgumentException If the pattern of C isn't a subset of the pattern of L
+     */
+    public boolean downdate( DMatrixSparseCSC C ) {
+        return modify(false, C);
+    }
+
+    /**
+     * Applies a rank-1 update or downdate for each column in C.
+     */
+    protected boolean modify( boolean update, DMatrixSparseCSC C ) {
+        if (!decomposed)
+            throw new IllegalArgumentException("Must successfully decompose a matrix first");
+        if (C.numRows != N)
+            throw new IllegalArgumentException("C must have the same number of rows as the decomposed matrix");
+
+        int[] marker = adjust(gs, N);
+
+        // Make sure none of the columns will change the structure before any of them modify L
+        Arrays.fill(marker, 0, N, -1);
+        for (int col = 0; col < C.numCols; col++) {
+            int idx0 = C.col_idx[col];
+            int idx1 = C.col_idx[col + 1];
+            if (idx0 == idx1)
+                continue;
+            int f = firstRow(C, idx0, idx1);
+            for (int p = L.col_idx[f]; p < L.col_idx[f + 1]; p++) {
+                marker[L.nz_rows[p]] = col;
             }
-            double d = x[k]; // d = C(k,k)
-            x[k] = 0; // clear x for k+1 iteration
-
-            //---- Triangular Solve
-            for (; top < N; top++) {
-                int i = s[top];
-                double lki = x[i]/L.nz_values[L.col_idx[i]]; // L(k,i) = x(i) / L(i,i)
-                x[i] = 0;
-                for (int p = L.col_idx[i] + 1; p < c[i]; p++) {
-                    x[L.nz_rows[p]] -= L.nz_values[p]*lki;
-                }
-                d -= lki*lki; // d = d - L(k,i)**L(k,i)
-                int p = c[i]++;
-                L.nz_rows[p] = k;     // store L(k,i) in column i
-                L.nz_values[p] = lki;
+            for (int p = idx0; p < idx1; p++) {
+                if (marker[C.nz_rows[p]] != col)
+                    throw new IllegalArgumentException("Pattern of C isn't contained in L. Decompose again.");
             }
+        }
 
-            //----- Compute L(k,k)
-            if (d <= 0) {
-                // it's not positive definite
+        double[] w = adjust(gx, N);
+        for (int col = 0; col < C.numCols; col++) {
+            int idx0 = C.col_idx[col];
+            int idx1 = C.col_idx[col + 1];
+            if (idx0 == idx1)
+                continue;
+            if (!modifyRank1(update, C, idx0, idx1, w)) {
+                decomposed = false;
                 return false;
             }
-            int p = c[k]++;
-            L.nz_rows[p] = k;
-            L.nz_values[p] = Math.sqrt(d);
         }
+        return true;
+    }
 
+    /**
+     * Rank-1 update or downdate using the column in C which is stored in idx0 to idx1.
+     *
+     * @param w (Workspace) Dense vector. Only elements along the path are read or modified.
+     * @return true if successful or false if the matrix is no longer positive definite
+     */
+    private boolean modifyRank1( boolean update, DMatrixSparseCSC C, int idx0, int idx1, double[] w ) {
+        int f = firstRow(C, idx0, idx1);
+        for (int j = f; j != -1; j = parent[j]) {
+            w[j] = 0;
+        }
+        for (int p = idx0; p < idx1; p++) {
+            w[C.nz_rows[p]] = C.nz_values[p];
+        }
+
+        double sigma = update ? 1.0 : -1.0;
+        double beta = 1;
+        for (int j = f; j != -1; j = parent[j]) {
+            int p = L.col_idx[j];
+            double alpha = w[j]/L.nz_values[p]; // alpha = w(j) / L(j,j)
+            double beta2 = beta*beta + sigma*alpha*alpha;
+            if (beta2 <= 0)
+                return false;
+            beta2 = Math.sqrt(beta2);
+            double delta = update ? beta/beta2 : beta2/beta;
+            double gamma = sigma*alpha/(beta2*beta);
+            L.nz_values[p] = delta*L.nz_values[p] + (update ? gamma*w[j] : 0);
+            beta = beta2;
+            int end = L.col_idx[j + 1];
+            for (p++; p < end; p++) {
+                int row = L.nz_rows[p];
+                double w1 = w[row];
+                double w2 = w1 - alpha*L.nz_values[p];
+                w[row] = w2;
+                L.nz_values[p] = delta*L.nz_values[p] + gamma*(update ? w1 : w2);
+            }
+        }
         return true;
     }
 
+    private static int firstRow( DMatrixSparseCSC C, int idx0, int idx1 ) {
+        int f = C.nz_rows[idx0];
+        for (int p = idx0 + 1; p < idx1; p++) {
+            f = Math.min(f, C.nz_rows[p]);
+        }
+        return f;
+    }
+
     @Override
     public boolean inputModified() {
         return false;
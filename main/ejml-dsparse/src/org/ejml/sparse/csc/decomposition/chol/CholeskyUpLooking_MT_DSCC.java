@@ -0,0 +1,452 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.chol;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+import org.ejml.sparse.csc.misc.TriangularSolver_DSCC;
+import org.ejml.sparse.csc.mult.Workspace_MT_DSCC;
+import pabeles.concurrency.GrowArray;
+
+import java.util.Arrays;
+
+import static org.ejml.UtilEjml.adjust;
+
+/**
+ * <p>Concurrent implementation of {@link CholeskyUpLooking_DSCC}. Row k of L only depends on rows in the subtree
+ * of the elimination tree which is rooted at k and only modifies columns inside that subtree. The tree is split
+ * into disjoint subtrees, which are assigned to tasks, and a set of top nodes that contains all of their
+ * ancestors. Each task is processed by its own thread with its own workspace. It computes the rows in its subtrees
+ * followed by the elements in each top row which are in its columns. The contributions of those elements to
+ * the remainder of the top rows are saved and summed up when the top rows are finished by a single thread.</p>
+ *
+ * <p>Subtrees are selected by repeatedly splitting the most expensive subtree, similar to "Task scheduling for
+ * parallel sparse Cholesky factorization" by Geist and Ng. The split which minimizes the estimated time, the cost
+ * of the top columns plus the cost of the most heavily loaded task, is used. The speed up is limited by
+ * the dense separators at the top of the tree, which can be a large fraction of the work for matrices from 3D
+ * meshes. If {@link EjmlConcurrency#useConcurrent} returns false for the input matrix then it is processed by
+ * a single thread.</p>
+ *
+ * @author Peter Abeles
+ */
+public class CholeskyUpLooking_MT_DSCC extends CholeskyUpLooking_DSCC {
+
+    // Maximum number of subtrees per thread which are considered when balancing the work
+    private static final int MAX_SUBTREES_PER_THREAD = 16;
+
+    // Number of parallel tasks. One for each thread.
+    int numTasks;
+    // Nodes processed by each task, in ascending order. Task 't' has nodes taskNodes[taskStart[t]:taskStart[t+1]]
+    int[] taskStart = new int[1];
+    int[] taskNodes = new int[1];
+    // Nodes which are processed by a single thread after all the tasks are done, in ascending order
+    int numTop;
+    int[] topNodes = new int[1];
+
+    // Estimated cost of factoring the subtree rooted at each node
+    double[] weights = new double[1];
+    // Which task a node belongs to or -1 if it is a top node
+    int[] owner = new int[1];
+    // Linked list of children in the elimination tree
+    int[] head = new int[1];
+    int[] next = new int[1];
+
+    // Roots of the subtrees which will be processed in parallel
+    IGrowArray subtrees = new IGrowArray();
+
+    // Estimated cost of each task
+    double[] load = new double[1];
+
+    // Pattern of each top row in the top columns. Row topNodes[i] is topReach[topReachStart[i]:topReachStart[i+1]]
+    int[] topReachStart = new int[1];
+    IGrowArray topReach = new IGrowArray();
+
+    // Contributions from each task to the top rows
+    DGrowArray[] partials = new DGrowArray[0];
+
+    // if a task fails because the matrix isn't positive definite it's marked here
+    boolean[] taskFailed = new boolean[1];
+
+    // Workspace for each thread
+    GrowArray<Workspace_MT_DSCC> workspace = new GrowArray<>(Workspace_MT_DSCC::new);
+
+    @Override
+    public void performSymbolic( DMatrixSparseCSC A ) {
+        super.performSymbolic(A);
+        schedule(A, EjmlConcurrency.getMaxThreads());
+    }
+
+    /**
+     * Splits the elimination tree into independent subtrees and assigns them to tasks
+     *
+     * @param A The matrix being decomposed
+     * @param numThreads Number of threads that the work is split between
+     */
+    void schedule( DMatrixSparseCSC A, int numThreads ) {
+        int N = A.numCols;
+        if (weights.length < N) {
+            weights = new double[N];
+            owner = new int[N];
+            head = new int[N];
+            next = new int[N];
+            taskNodes = new int[N];
+            topNodes = new int[N];
+        }
+        if (taskStart.length < numThreads + 1) {
+            taskStart = new int[numThreads + 1];
+            taskFailed = new boolean[numThreads];
+            load = new double[numThreads];
+        }
+        numTasks = numThreads;
+
+        // The cost of computing L(k,j) is proportional to the number of elements in column j above row k.
+        // 'w' is the number of elements in each column so far and is also used to mark nodes
+        int[] w = adjust(gw, N, N);
+        int[] s = adjust(gs, N);
+        for (int k = 0; k < N; k++) {
+            weights[k] = 1;
+            head[k] = -1;
+        }
+        for (int k = 0; k < N; k++) {
+            int top = TriangularSolver_DSCC.searchNzRowsElim(A, k, parent, s, w);
+            for (; top < N; top++) {
+                int j = s[top];
+                weights[j] += 1 + w[j]++;
+            }
+        }
+
+        // Link each node to its children and sum up the cost of each subtree
+        for (int j = N - 1; j >= 0; j--) {
+            if (parent[j] != -1) {
+                next[j] = head[parent[j]];
+                head[parent[j]] = j;
+            }
+        }
+        for (int j = 0; j < N; j++) {
+            if (parent[j] != -1)
+                weights[parent[j]] += weights[j];
+        }
+
+        // Find the number of splits which minimizes the estimated time, then redo those splits
+        int bestSplits = splitTree(N, numThreads, Integer.MAX_VALUE);
+        splitTree(N, numThreads, bestSplits);
+        assignTasks(numThreads);
+
+        // Tasks were saved in the owner array of each root. Propagate them down the tree
+        for (int j = N - 1; j >= 0; j--) {
+            if (owner[j] == -1)
+                continue;
+            if (parent[j] != -1 && owner[parent[j]] != -1) {
+                owner[j] = owner[parent[j]];
+            }
+        }
+
+        // Create a list of nodes for each task in ascending order
+        for (int t = 0; t <= numTasks; t++) {
+            taskStart[t] = 0;
+        }
+        numTop = 0;
+        for (int j = 0; j < N; j++) {
+            if (owner[j] == -1)
+                topNodes[numTop++] = j;
+            else
+                taskStart[owner[j] + 1]++;
+        }
+        for (int t = 0; t < numTasks; t++) {
+            taskStart[t + 1] += taskStart[t];
+        }
+        int[] location = adjust(gs, numTasks);
+        System.arraycopy(taskStart, 0, location, 0, numTasks);
+        for (int j = 0; j < N; j++) {
+            if (owner[j] != -1)
+                taskNodes[location[owner[j]]++] = j;
+        }
+
+        // Pattern of each top row in the top columns, in topological order
+        if (topReachStart.length < numTop + 1)
+            topReachStart = new int[numTop + 1];
+        topReach.clear();
+        w = adjust(gw, N, N);
+        for (int i = 0; i < numTop; i++) {
+            topReachStart[i] = topReach.length;
+            int top = TriangularSolver_DSCC.searchNzRowsElim(A, topNodes[i], parent, s, w);
+            for (; top < N; top++) {
+                if (owner[s[top]] == -1)
+                    topReach.add(s[top]);
+            }
+        }
+        topReachStart[numTop] = topReach.length;
+    }
+
+    /**
+     * Starting with the full tree, the heaviest subtree is repeatedly split by moving its root to the top nodes.
+     * The estimated time after each split is the cost of the top nodes plus the most heavily loaded task.
+     *
+     * @param maxSplits Maximum number of times the tree is split
+     * @return Number of splits with the lowest estimated time
+     */
+    private int splitTree( int N, int numThreads, int maxSplits ) {
+        subtrees.clear();
+        for (int j = 0; j < N; j++) {
+            owner[j] = 0;
+            if (parent[j] == -1)
+                subtrees.add(j);
+        }
+
+        int maxSubtrees = Math.max(subtrees.length, numThreads*MAX_SUBTREES_PER_THREAD);
+        double topCost = 0;
+        double bestTime = Double.MAX_VALUE;
+        int bestSplits = 0;
+        for (int splits = 0; splits < maxSplits && subtrees.length > 0 && subtrees.length <= maxSubtrees; splits++) {
+            double time = topCost + assignTasks(numThreads);
+            if (time < bestTime) {
+                bestTime = time;
+                bestSplits = splits;
+            }
+
+            // the heaviest subtree is at the start after assigning tasks
+            int root = subtrees.data[0];
+            owner[root] = -1;
+            subtrees.data[0] = subtrees.data[--subtrees.length];
+            double childCost = 0;
+            for (int child = head[root]; child != -1; child = next[child]) {
+                subtrees.add(child);
+                childCost += weights[child];
+            }
+            topCost += weights[root] - childCost;
+        }
+        return bestSplits;
+    }
+
+    /**
+     * Greedily assigns the subtrees to the tasks, heaviest first, and saves the task in the owner of the root.
+     *
+     * @return Cost of the most heavily loaded task
+     */
+    private double assignTasks( int numThreads ) {
+        int[] roots = subtrees.data;
+        int length = subtrees.length;
+
+        // sort by weight, heaviest first. Insertion sort since the list is small and mostly sorted
+        for (int i = 1; i < length; i++) {
+            int root = roots[i];
+            int j = i - 1;
+            for (; j >= 0 && weights[roots[j]] < weights[root]; j--) {
+                roots[j + 1] = roots[j];
+            }
+            roots[j + 1] = root;
+        }
+
+        Arrays.fill(load, 0, numThreads, 0.0);
+        for (int i = 0; i < length; i++) {
+            int best = 0;
+            for (int t = 1; t < numThreads; t++) {
+                if (load[t] < load[best])
+                    best = t;
+            }
+            load[best] += weights[roots[i]];
+            owner[roots[i]] = best;
+        }
+
+        double max = 0;
+        for (int t = 0; t < numThreads; t++) {
+            max = Math.max(max, load[t]);
+        }
+        return max;
+    }
+
+    @Override
+    protected boolean performDecomposition( DMatrixSparseCSC A ) {
+        if (!EjmlConcurrency.useConcurrent(A))
+            return super.performDecomposition(A);
+
+        int N = A.numCols;
+        int[] c = adjust(gw, N);
+        System.arraycopy(L.col_idx, 0, c, 0, N);
+
+        if (partials.length < numTasks) {
+            partials = new DGrowArray[numTasks];
+            for (int task = 0; task < numTasks; task++) {
+                partials[task] = new DGrowArray();
+            }
+        }
+
+        // Each task modifies a different set of columns in L and nodes in 'c'
+        EjmlConcurrency.loopFor(0, numTasks, 1, workspace, ( work, task ) -> {
+            int[] s = adjust(work.gw, N);
+            double[] x = adjust(work.gx, N);
+
+            taskFailed[task] = false;
+            for (int i = taskStart[task]; i < taskStart[task + 1]; i++) {
+                if (!computeRow(A, taskNodes[i], c, s, x)) {
+                    taskFailed[task] = true;
+                    return;
+                }
+            }
+
+            double[] partial = adjust(partials[task], topReachStart[numTop] + numTop);
+            for (int i = 0; i < numTop; i++) {
+                computeSubtreeRow(A, i, task, c, s, x, partial);
+            }
+        });
+
+        for (int task = 0; task < numTasks; task++) {
+            if (taskFailed[task])
+                return false;
+        }
+
+        // Nodes at the top of the tree depend on all the nodes below them
+        double[] x = adjust(gx, N);
+        for (int i = 0; i < numTop; i++) {
+            if (!computeTopRow(A, i, c, x))
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Computes the elements in a top row of L which are in columns owned by the task. Contributions to elements
+     * in the top columns are saved in 'partial' and are added in later on by {@link #computeTopRow}.
+     *
+     * @param indexTop Index of the top node
+     * @param partial Contributions to x for each node in the top row's reach followed by the contribution to the
+     * diagonal element for each top node
+     */
+    private void computeSubtreeRow( DMatrixSparseCSC A, int indexTop, int task,
+                                    int[] c, int[] s, double[] x, double[] partial ) {
+        int N = A.numCols;
+        int k = topNodes[indexTop];
+
+        // Find the nonzero pattern of L(k,:) in the subtrees. Move up the tree until leaving the task's subtree
+        int top = N;
+        for (int p = A.col_idx[k]; p < A.col_idx[k + 1]; p++) {
+            int i = A.nz_rows[p];
+            if (i > k || owner[i] != task)
+                continue;
+            x[i] = A.nz_values[p];
+
+            int len = 0;
+            for (; owner[i] == task && c[i] >= 0; i = parent[i]) {
+                s[len++] = i;
+                c[i] = -c[i] - 2;
+            }
+            while (len > 0) {
+                s[--top] = s[--len];
+            }
+        }
+        for (int p = top; p < N; p++) {
+            c[s[p]] = -c[s[p]] - 2;
+        }
+
+        int idx0 = topReachStart[indexTop], idx1 = topReachStart[indexTop + 1];
+        if (top == N) {
+            // None of the columns belong to this task
+            Arrays.fill(partial, idx0, idx1, 0.0);
+            partial[topReachStart[numTop] + indexTop] = 0.0;
+            return;
+        }
+
+        // Triangular solve. Rows in the top nodes are partial sums
+        double d = 0;
+        for (; top < N; top++) {
+            int i = s[top];
+            double lki = x[i]/L.nz_values[L.col_idx[i]];
+            x[i] = 0;
+            for (int p = L.col_idx[i] + 1; p < c[i]; p++) {
+                x[L.nz_rows[p]] -= L.nz_values[p]*lki;
+            }
+            d += lki*lki;
+            int p = c[i]++;
+            L.nz_rows[p] = k;
+            L.nz_values[p] = lki;
+        }
+
+        for (int idx = idx0; idx < idx1; idx++) {
+            int r = topReach.data[idx];
+            partial[idx] = x[r];
+            x[r] = 0;
+        }
+        partial[topReachStart[numTop] + indexTop] = d;
+    }
+
+    /**
+     * Computes the remainder of a top row in L after the subtrees have been processed. Only top nodes are
+     * modified.
+     *
+     * @param indexTop Index of the top node
+     * @return true if successful or false if the matrix is not positive definite
+     */
+    private boolean computeTopRow( DMatrixSparseCSC A, int indexTop, int[] c, double[] x ) {
+        int k = topNodes[indexTop];
+
+        // x = full(triu(C(:,k))) for top nodes
+        x[k] = 0;
+        for (int p = A.col_idx[k]; p < A.col_idx[k + 1]; p++) {
+            int row = A.nz_rows[p];
+            if (row <= k && owner[row] == -1) {
+                x[row] = A.nz_values[p];
+            }
+        }
+        double d = x[k];
+        x[k] = 0;
+
+        // Add the contributions from the subtrees
+        int idx0 = topReachStart[indexTop], idx1 = topReachStart[indexTop + 1];
+        int idxD = topReachStart[numTop] + indexTop;
+        for (int task = 0; task < numTasks; task++) {
+            double[] partial = partials[task].data;
+            for (int idx = idx0; idx < idx1; idx++) {
+                x[topReach.data[idx]] += partial[idx];
+            }
+            d -= partial[idxD];
+        }
+
+        // Triangular solve using the top nodes in topological order
+        for (int idx = idx0; idx < idx1; idx++) {
+            int i = topReach.data[idx];
+            double lki = x[i]/L.nz_values[L.col_idx[i]];
+            x[i] = 0;
+            for (int p = L.col_idx[i] + 1; p < c[i]; p++) {
+                x[L.nz_rows[p]] -= L.nz_values[p]*lki;
+            }
+            d -= lki*lki;
+            int p = c[i]++;
+            L.nz_rows[p] = k;
+            L.nz_values[p] = lki;
+        }
+
+        if (d <= 0) {
+            return false;
+        }
+        int p = c[k]++;
+        L.nz_rows[p] = k;
+        L.nz_values[p] = Math.sqrt(d);
+        return true;
+    }
+
+    /**
+     * Number of nodes which are processed by a single thread after the subtrees have been factored
+     */
+    public int getNumTopNodes() {
+        return numTop;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.eig;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.decomposition.eig.symm.ThickRestartLanczos_DDRM;
+import org.ejml.interfaces.LinearOperator_F64;
+import org.ejml.interfaces.decomposition.DecompositionInterface;
+import org.ejml.sparse.csc.mult.MatrixVectorMult_DSCC;
+import org.ejml.sparse.csc.mult.MatrixVectorMult_MT_DSCC;
+
+/**
+ * <p>
+ * Computes a few of the largest or smallest eigenvalues and eigenvectors of a sparse symmetric matrix using
+ * {@link ThickRestartLanczos_DDRM}. The eigenvectors are dense.
+ * </p>
+ *
+ * <p>
+ * Since A is symmetric, A*x is computed as A<sup>T</sup>*x. With compressed column storage this is a dot product
+ * for each column, which can be computed in parallel without any additional storage. Both the upper and lower
+ * triangles of A need to be filled in. If {@link EjmlConcurrency#useConcurrent} is true for A then the
+ * multiplication will use multiple threads.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("NullAway.Init")
+public class SymmetricLanczosDecomposition_DSCC implements DecompositionInterface<DMatrixSparseCSC> {
+
+    protected final ThickRestartLanczos_DDRM alg;
+
+    // The matrix being decomposed
+    protected DMatrixSparseCSC A;
+    protected boolean concurrent;
+
+    // Provides access to A as an operator
+    protected final LinearOperator_F64 operator = new LinearOperator_F64() {
+        @Override public int getNumRows() {return A.numRows;}
+
+        @Override public int getNumCols() {return A.numCols;}
+
+        @Override public void mult( double[] x, double[] y ) {
+            if (concurrent)
+                MatrixVectorMult_MT_DSCC.mult(x, 0, A, y, 0);
+            else
+                MatrixVectorMult_DSCC.mult(x, 0, A, y, 0);
+        }
+    };
+
+    // the extracted eigenvectors
+    protected DMatrixRMaj[] eigenvectors = new DMatrixRMaj[0];
+
+    public SymmetricLanczosDecomposition_DSCC( ThickRestartLanczos_DDRM alg ) {
+        this.alg = alg;
+    }
+
+    /**
+     * @param numEigen Number of eigenpairs which are to be found
+     * @param largest If true then the algebraically largest eigenvalues are found. Otherwise the smallest.
+     */
+    public SymmetricLanczosDecomposition_DSCC( int numEigen, boolean largest ) {
+        this(new ThickRestartLanczos_DDRM(numEigen, largest));
+    }
+
+    /**
+     * Decomposes the matrix.
+     *
+     * @param A The symmetric matrix which is being decomposed. Not modified.
+     * @return true if all the requested eigenpairs converged
+     */
+    @Override
+    public boolean decompose( DMatrixSparseCSC A ) {
+        if (A.numCols != A.numRows)
+            throw new IllegalArgumentException("Matrix must be square.");
+
+        this.A = A;
+        this.concurrent = EjmlConcurrency.useConcurrent(A);
+        if (!alg.process(operator))
+            return false;
+
+        DMatrixRMaj found = alg.getEigenvectors();
+        if (eigenvectors.length != found.numRows)
+            eigenvectors = new DMatrixRMaj[found.numRows];
+        for (int i = 0; i < found.numRows; i++) {
+            if (eigenvectors[i] == null)
+                eigenvectors[i] = new DMatrixRMaj(found.numCols, 1);
+            else
+                eigenvectors[i].reshape(found.numCols, 1);
+            System.arraycopy(found.data, i*found.numCols, eigenvectors[i].data, 0, found.numCols);
+        }
+        return true;
+    }
+
+    /**
+     * Number of eigenvalues which were requested
+     */
+    public int getNumberOfEigenvalues() {
+        return alg.getNumEigen();
+    }
+
+    /**
+     * Returns an eigenvalue. See {@link ThickRestartLanczos_DDRM#getEigenvalues()} for the order.
+     */
+    public double getEigenvalue( int index ) {
+        return alg.getEigenvalues()[index];
+    }
+
+    /**
+     * Returns the eigenvector, as a column vector, associated with the eigenvalue
+     */
+    public DMatrixRMaj getEigenVector( int index ) {
+        return eigenvectors[index];
+    }
+
+    public ThickRestartLanczos_DDRM getAlgorithm() {
+        return alg;
+    }
+
+    @Override
+    public boolean inputModified() {
+        return false;
+    }
+}
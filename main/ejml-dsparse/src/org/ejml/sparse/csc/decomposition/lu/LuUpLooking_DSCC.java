@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2020, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
  *
  * This file is part of Efficient Java Matrix Library (EJML).
  *
@@ -93,7 +93,6 @@ public class LuUpLooking_DSCC
     private boolean performLU( DMatrixSparseCSC A ) {
         int m = A.numRows;
         int n = A.numCols;
-        int[] q = applyReduce.getArrayP();
 
         int[] w = UtilEjml.adjust(gw, m*2, m);
 
@@ -109,8 +108,7 @@ public class LuUpLooking_DSCC
             if (U.nz_length + n > U.nz_values.length)
                 U.growMaxLength(2*U.nz_values.length + n, true);
 
-            int col = q != null ? q[k] : k;
-            int top = TriangularSolver_DSCC.solveColB(L, true, A, col, x, pinv, gxi, w);
+            int top = TriangularSolver_DSCC.solveColB(L, true, A, k, x, pinv, gxi, w);
             int[] xi = gxi.data;
 
             //--------- Find the Next Pivot. That will be the row with the largest value
@@ -258,8 +256,21 @@ public class LuUpLooking_DSCC
         return ret;
     }
 
+    /**
+     * Fill reducing column permutation which was applied to the input matrix
+     */
     public int[] getReducePermutation() {
-        int[] ret = applyReduce.getArrayP();
+        int[] ret = applyReduce.getArrayQ();
+        if (ret == null)
+            throw new RuntimeException("Check to see if there is any fill reduce ordering to apply first");
+        return ret;
+    }
+
+    /**
+     * Inverse of the fill reducing row permutation which was applied to the input matrix
+     */
+    public int[] getReduceRowPermutationInv() {
+        int[] ret = applyReduce.getArrayPinv();
         if (ret == null)
             throw new RuntimeException("Check to see if there is any fill reduce ordering to apply first");
         return ret;
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2020, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
  *
  * This file is part of Efficient Java Matrix Library (EJML).
  *
@@ -98,7 +98,6 @@ public class QrLeftLookingDecomposition_DSCC implements
 
     private void performDecomposition( DMatrixSparseCSC A ) {
         int[] w = gwork.data;
-        int[] permCol = applyReduce.getArrayQ();
         int[] parent = structure.getParent();
         int[] leftmost = structure.getLeftMost();
         // permutation that was done to ensure all rows have non-zero elements
@@ -120,10 +119,8 @@ public class QrLeftLookingDecomposition_DSCC implements
             w[k] = k;
             V.nz_rows[V.nz_length++] = k;                       // Add V(k,k) to V's pattern
             int top = n;
-            int col = permCol != null ? permCol[k] : k;
-
-            int idx0 = A.col_idx[col];
-            int idx1 = A.col_idx[col + 1];
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
 
             for (int p = idx0; p < idx1; p++) {
                 int i = leftmost[A.nz_rows[p]];
@@ -272,8 +269,21 @@ public class QrLeftLookingDecomposition_DSCC implements
         return beta[index];
     }
 
+    /**
+     * Fill reducing column permutation which was applied to the input matrix
+     */
     public int[] getFillPermutation() {
-        int[] ret = applyReduce.getArrayP();
+        int[] ret = applyReduce.getArrayQ();
+        if (ret == null)
+            throw new RuntimeException("No permutation. Should have called isFillPermuted()");
+        return ret;
+    }
+
+    /**
+     * Inverse of the fill reducing row permutation which was applied to the input matrix
+     */
+    public int[] getFillRowPermutationInv() {
+        int[] ret = applyReduce.getArrayPinv();
         if (ret == null)
             throw new RuntimeException("No permutation. Should have called isFillPermuted()");
         return ret;
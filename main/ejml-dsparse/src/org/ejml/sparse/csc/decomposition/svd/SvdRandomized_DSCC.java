@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.svd;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.CommonOps_MT_DDRM;
+import org.ejml.dense.row.decomposition.qr.QRDecompositionHouseholderColumn_DDRM;
+import org.ejml.dense.row.decomposition.qr.QRDecompositionHouseholderColumn_MT_DDRM;
+import org.ejml.dense.row.decomposition.svd.SvdImplicitQrDecompose_DDRM;
+import org.ejml.dense.row.decomposition.svd.SvdImplicitQrDecompose_MT_DDRM;
+import org.ejml.dense.row.decomposition.svd.SvdRandomizedBase_DDRM;
+import org.ejml.interfaces.decomposition.DecompositionInterface;
+import org.ejml.interfaces.decomposition.QRDecomposition;
+import org.ejml.interfaces.decomposition.SingularValueDecomposition_F64;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.CommonOps_MT_DSCC;
+import pabeles.concurrency.GrowArray;
+
+/**
+ * <p>
+ * Randomized truncated SVD of a sparse matrix. See {@link SvdRandomizedBase_DDRM} for a description of the
+ * algorithm. The singular vectors are dense.
+ * </p>
+ *
+ * <p>
+ * If {@link EjmlConcurrency#useConcurrent} is true for A then the sparse-dense products and the dense
+ * orthogonalization will use multiple threads.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("NullAway.Init")
+public class SvdRandomized_DSCC extends SvdRandomizedBase_DDRM
+        implements DecompositionInterface<DMatrixSparseCSC> {
+
+    // The matrix being decomposed
+    protected DMatrixSparseCSC A;
+    protected boolean concurrent;
+
+    // Single threaded and concurrent dense decompositions
+    protected final QRDecomposition<DMatrixRMaj> qrSingle;
+    protected final QRDecomposition<DMatrixRMaj> qrConcurrent = new QRDecompositionHouseholderColumn_MT_DDRM();
+    protected final SingularValueDecomposition_F64<DMatrixRMaj> svdSingle;
+    protected final SingularValueDecomposition_F64<DMatrixRMaj> svdConcurrent =
+            new SvdImplicitQrDecompose_MT_DDRM(true, true, true, false);
+
+    // Workspace for the sparse multiplications
+    protected final DGrowArray work = new DGrowArray();
+    protected final GrowArray<DGrowArray> workArrays = new GrowArray<>(DGrowArray::new);
+
+    /**
+     * @param rank Number of singular values to compute
+     * @param computeU If true it will compute the U matrix
+     * @param computeV If true it will compute the V matrix
+     */
+    public SvdRandomized_DSCC( int rank, boolean computeU, boolean computeV ) {
+        super(rank, computeU, computeV, new QRDecompositionHouseholderColumn_DDRM(),
+                new SvdImplicitQrDecompose_DDRM(true, true, true, false));
+        this.qrSingle = qr;
+        this.svdSingle = svd;
+    }
+
+    /**
+     * Decomposes the matrix.
+     *
+     * @param A The matrix which is being decomposed. Not modified.
+     * @return true if successful
+     */
+    @Override
+    public boolean decompose( DMatrixSparseCSC A ) {
+        this.A = A;
+        this.concurrent = EjmlConcurrency.useConcurrent(A);
+        this.qr = concurrent ? qrConcurrent : qrSingle;
+        this.svd = concurrent ? svdConcurrent : svdSingle;
+        return process(A.numRows, A.numCols);
+    }
+
+    @Override
+    protected void multA( DMatrixRMaj X, DMatrixRMaj Y ) {
+        if (concurrent)
+            CommonOps_MT_DSCC.mult(A, X, Y, workArrays);
+        else
+            CommonOps_DSCC.mult(A, X, Y);
+    }
+
+    @Override
+    protected void multTransA( DMatrixRMaj X, DMatrixRMaj Y ) {
+        if (concurrent)
+            CommonOps_MT_DSCC.multTransA(A, X, Y, workArrays);
+        else
+            CommonOps_DSCC.multTransA(A, X, Y, work);
+    }
+
+    @Override
+    protected void mult( DMatrixRMaj A, DMatrixRMaj B, DMatrixRMaj C ) {
+        if (concurrent)
+            CommonOps_MT_DDRM.mult(A, B, C);
+        else
+            CommonOps_DDRM.mult(A, B, C);
+    }
+
+    @Override
+    public boolean inputModified() {
+        return false;
+    }
+}
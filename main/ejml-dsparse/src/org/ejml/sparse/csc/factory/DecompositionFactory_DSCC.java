@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
  *
  * This file is part of Efficient Java Matrix Library (EJML).
  *
@@ -18,15 +18,20 @@
 
 package org.ejml.sparse.csc.factory;
 
+import org.ejml.concurrency.EjmlConcurrency;
 import org.ejml.data.DMatrixSparseCSC;
 import org.ejml.interfaces.decomposition.CholeskySparseDecomposition_F64;
 import org.ejml.interfaces.decomposition.LUSparseDecomposition_F64;
 import org.ejml.interfaces.decomposition.QRSparseDecomposition;
 import org.ejml.sparse.ComputePermutation;
 import org.ejml.sparse.FillReducing;
+import org.ejml.sparse.csc.decomposition.chol.CholeskySupernodal_DSCC;
 import org.ejml.sparse.csc.decomposition.chol.CholeskyUpLooking_DSCC;
+import org.ejml.sparse.csc.decomposition.chol.CholeskyUpLooking_MT_DSCC;
+import org.ejml.sparse.csc.decomposition.eig.SymmetricLanczosDecomposition_DSCC;
 import org.ejml.sparse.csc.decomposition.lu.LuUpLooking_DSCC;
 import org.ejml.sparse.csc.decomposition.qr.QrLeftLookingDecomposition_DSCC;
+import org.ejml.sparse.csc.decomposition.svd.SvdRandomized_DSCC;
 
 /**
  * Factory for sparse matrix decompositions
@@ -34,10 +39,24 @@ import org.ejml.sparse.csc.decomposition.qr.QrLeftLookingDecomposition_DSCC;
  * @author Peter Abeles
  */
 public class DecompositionFactory_DSCC {
+    /**
+     * Cholesky decomposition. If concurrency is turned on then {@link CholeskyUpLooking_MT_DSCC} is returned, which
+     * will use multiple threads when {@link EjmlConcurrency#useConcurrent} is true for the decomposed matrix.
+     */
     public static CholeskySparseDecomposition_F64 cholesky() {
+        if (EjmlConcurrency.isUseConcurrent())
+            return new CholeskyUpLooking_MT_DSCC();
         return new CholeskyUpLooking_DSCC();
     }
 
+    /**
+     * Supernodal Cholesky decomposition. Dense blocks of columns in L are processed using dense kernels, making it
+     * faster than {@link #cholesky()} when L has large dense blocks, e.g. matrices from 3D meshes.
+     */
+    public static CholeskySparseDecomposition_F64 choleskySupernodal() {
+        return new CholeskySupernodal_DSCC();
+    }
+
     public static QRSparseDecomposition<DMatrixSparseCSC> qr(FillReducing permutation) {
         ComputePermutation<DMatrixSparseCSC> cp = FillReductionFactory_DSCC.create(permutation);
         return new QrLeftLookingDecomposition_DSCC(cp);
@@ -47,4 +66,27 @@ public class DecompositionFactory_DSCC {
         ComputePermutation<DMatrixSparseCSC> cp = FillReductionFactory_DSCC.create(permutation);
         return new LuUpLooking_DSCC(cp);
     }
+
+    /**
+     * Computes a few of the largest or smallest eigenvalues and their eigenvectors of a symmetric matrix. Both the
+     * upper and lower triangles of the matrix must be filled in.
+     *
+     * @param numEigen Number of eigenpairs which are to be found.
+     * @param largest If true then the algebraically largest eigenvalues are found. Otherwise the smallest.
+     */
+    public static SymmetricLanczosDecomposition_DSCC eigPartial( int numEigen, boolean largest ) {
+        return new SymmetricLanczosDecomposition_DSCC(numEigen, largest);
+    }
+
+    /**
+     * Computes the largest singular values and their singular vectors using a randomized algorithm. The singular
+     * vectors are dense.
+     *
+     * @param rank Number of singular values to compute.
+     * @param needU Should it compute the U matrix. If not sure set to true.
+     * @param needV Should it compute the V matrix. If not sure set to true.
+     */
+    public static SvdRandomized_DSCC svdRandomized( int rank, boolean needU, boolean needV ) {
+        return new SvdRandomized_DSCC(rank, needU, needV);
+    }
 }
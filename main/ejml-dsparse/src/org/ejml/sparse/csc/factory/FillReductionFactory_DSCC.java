@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009-2020, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
  *
  * This file is part of Efficient Java Matrix Library (EJML).
  *
@@ -23,6 +23,7 @@ import org.ejml.data.DMatrixSparseCSC;
 import org.ejml.data.IGrowArray;
 import org.ejml.sparse.ComputePermutation;
 import org.ejml.sparse.FillReducing;
+import org.ejml.sparse.csc.misc.ApproximateMinimumDegree_DSCC;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Random;
@@ -74,6 +75,31 @@ public class FillReductionFactory_DSCC {
                     }
                 };
 
+            case AMD:
+                return new ComputePermutation<>(true, true) {
+                    final ApproximateMinimumDegree_DSCC amd = new ApproximateMinimumDegree_DSCC();
+
+                    @Override
+                    @SuppressWarnings("NullAway") // constructor parameters ensures these are not null
+                    public void process(DMatrixSparseCSC m) {
+                        amd.process(m, prow);
+                        pcol.setTo(prow);
+                    }
+                };
+
+            case COLAMD:
+                return new ComputePermutation<>(true, true) {
+                    final ApproximateMinimumDegree_DSCC amd = new ApproximateMinimumDegree_DSCC();
+
+                    @Override
+                    @SuppressWarnings("NullAway") // constructor parameters ensures these are not null
+                    public void process(DMatrixSparseCSC m) {
+                        prow.reshape(m.numRows);
+                        fillSequence(prow);
+                        amd.processColumns(m, pcol);
+                    }
+                };
+
             default:
                 throw new RuntimeException("Unknown "+type);
         }
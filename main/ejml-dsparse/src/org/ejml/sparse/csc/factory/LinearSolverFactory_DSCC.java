@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
  *
  * This file is part of Efficient Java Matrix Library (EJML).
  *
@@ -23,10 +23,15 @@ import org.ejml.data.DMatrixSparseCSC;
 import org.ejml.interfaces.linsol.LinearSolverSparse;
 import org.ejml.sparse.ComputePermutation;
 import org.ejml.sparse.FillReducing;
+import org.ejml.sparse.Preconditioning;
 import org.ejml.sparse.csc.decomposition.chol.CholeskyUpLooking_DSCC;
 import org.ejml.sparse.csc.decomposition.lu.LuUpLooking_DSCC;
 import org.ejml.sparse.csc.decomposition.qr.QrLeftLookingDecomposition_DSCC;
 import org.ejml.sparse.csc.linsol.chol.LinearSolverCholesky_DSCC;
+import org.ejml.sparse.csc.linsol.iterative.LinearSolverBiCGStab_DSCC;
+import org.ejml.sparse.csc.linsol.iterative.LinearSolverConjugateGradient_DSCC;
+import org.ejml.sparse.csc.linsol.iterative.LinearSolverGmres_DSCC;
+import org.ejml.sparse.csc.linsol.iterative.LinearSolverIterative_DSCC;
 import org.ejml.sparse.csc.linsol.lu.LinearSolverLu_DSCC;
 import org.ejml.sparse.csc.linsol.qr.LinearSolverQrLeftLooking_DSCC;
 
@@ -42,6 +47,16 @@ public class LinearSolverFactory_DSCC {
         return new LinearSolverCholesky_DSCC(chol,cp);
     }
 
+    /**
+     * Cholesky solver which uses {@link DecompositionFactory_DSCC#choleskySupernodal()}. A fill reducing
+     * permutation, e.g. {@link FillReducing#AMD}, is needed for there to be large supernodes.
+     */
+    public static LinearSolverSparse<DMatrixSparseCSC,DMatrixRMaj> choleskySupernodal(FillReducing permutation) {
+        ComputePermutation<DMatrixSparseCSC> cp = FillReductionFactory_DSCC.create(permutation);
+        CholeskyUpLooking_DSCC chol = (CholeskyUpLooking_DSCC)DecompositionFactory_DSCC.choleskySupernodal();
+        return new LinearSolverCholesky_DSCC(chol,cp);
+    }
+
     public static LinearSolverSparse<DMatrixSparseCSC,DMatrixRMaj> qr(FillReducing permutation) {
         ComputePermutation<DMatrixSparseCSC> cp = FillReductionFactory_DSCC.create(permutation);
         QrLeftLookingDecomposition_DSCC qr = new QrLeftLookingDecomposition_DSCC(cp);
@@ -53,4 +68,37 @@ public class LinearSolverFactory_DSCC {
         LuUpLooking_DSCC lu = new LuUpLooking_DSCC(cp);
         return new LinearSolverLu_DSCC(lu);
     }
+
+    /**
+     * Preconditioned Conjugate Gradient solver for symmetric positive definite matrices. Only a few vectors
+     * and the preconditioner need to be stored, which makes it suitable for systems that are too large for a
+     * Cholesky decomposition. The tolerance and maximum number of iterations can be adjusted using the returned
+     * solver.
+     *
+     * @param preconditioning Which preconditioner to use, e.g. {@link Preconditioning#INCOMPLETE_CHOLESKY}
+     */
+    public static LinearSolverIterative_DSCC conjugateGradient(Preconditioning preconditioning) {
+        return new LinearSolverConjugateGradient_DSCC(PreconditionerFactory_DSCC.create(preconditioning));
+    }
+
+    /**
+     * Restarted GMRES solver for general square matrices with right preconditioning. Memory usage grows
+     * linearly with the restart length.
+     *
+     * @param preconditioning Which preconditioner to use, e.g. {@link Preconditioning#INCOMPLETE_LU}
+     * @param restart Number of iterations before it restarts. Typical values are 20 to 50.
+     */
+    public static LinearSolverIterative_DSCC gmres(Preconditioning preconditioning, int restart) {
+        return new LinearSolverGmres_DSCC(PreconditionerFactory_DSCC.create(preconditioning), restart);
+    }
+
+    /**
+     * BiCGSTAB solver for general square matrices with right preconditioning. Uses a fixed amount of memory
+     * independent of the number of iterations.
+     *
+     * @param preconditioning Which preconditioner to use, e.g. {@link Preconditioning#INCOMPLETE_LU}
+     */
+    public static LinearSolverIterative_DSCC biCGStab(Preconditioning preconditioning) {
+        return new LinearSolverBiCGStab_DSCC(PreconditionerFactory_DSCC.create(preconditioning));
+    }
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.factory;
+
+import org.ejml.sparse.Preconditioning;
+import org.ejml.sparse.csc.linsol.iterative.PreconditionerIncompleteCholesky_DSCC;
+import org.ejml.sparse.csc.linsol.iterative.PreconditionerIncompleteLU_DSCC;
+import org.ejml.sparse.csc.linsol.iterative.PreconditionerJacobi_DSCC;
+import org.ejml.sparse.csc.linsol.iterative.Preconditioner_DSCC;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Factory for preconditioners used by iterative linear solvers
+ *
+ * @author Peter Abeles
+ */
+public class PreconditionerFactory_DSCC {
+    /**
+     * Creates a new preconditioner. If null is returned then no preconditioning should be done.
+     *
+     * @param type The preconditioner
+     * @return Preconditioner or null if none should be applied
+     */
+    public static @Nullable Preconditioner_DSCC create( Preconditioning type ) {
+        switch (type) {
+            case NONE:
+                return null;
+
+            case JACOBI:
+                return new PreconditionerJacobi_DSCC();
+
+            case INCOMPLETE_CHOLESKY:
+                return new PreconditionerIncompleteCholesky_DSCC();
+
+            case INCOMPLETE_LU:
+                return new PreconditionerIncompleteLU_DSCC();
+
+            default:
+                throw new RuntimeException("Unknown " + type);
+        }
+    }
+}
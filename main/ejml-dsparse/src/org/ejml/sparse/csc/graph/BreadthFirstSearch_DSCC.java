@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.sparse.csc.graph;
+
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DVectorSparse;
+import org.ejml.data.IGrowArray;
+import org.ejml.masks.DMaskPrimitive;
+import org.ejml.ops.DSemiRings;
+import org.ejml.sparse.csc.mult.MatrixSparseVectorMultWithSemiRing_DSCC;
+
+import java.util.Arrays;
+
+import static org.ejml.UtilEjml.adjust;
+
+/**
+ * <p>
+ * Breadth first search from a single node expressed as repeated sparse vector times sparse matrix products.
+ * The frontier is multiplied by the adjacency matrix using the MIN_FIRST semiring, where the value of each frontier
+ * element is its node index plus one. After the product every newly reached node knows the smallest index of the
+ * node it was reached from, which is its parent. A negated mask of visited nodes ensures that only unvisited
+ * nodes are computed, which lets {@link MatrixSparseVectorMultWithSemiRing_DSCC} switch to pull once the frontier
+ * becomes large.
+ * </p>
+ *
+ * <p>
+ * An edge from node i to node j is specified by a non-zero element at A(i,j). The value of edges is ignored.
+ * The transpose computed for pull is saved when the graph is set, so the same graph can be searched from many
+ * different nodes without additional memory being allocated.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BreadthFirstSearch_DSCC {
+    /** Computes the product of the frontier and the adjacency matrix */
+    final MatrixSparseVectorMultWithSemiRing_DSCC multiplier = new MatrixSparseVectorMultWithSemiRing_DSCC();
+
+    // number of nodes in the graph
+    int numNodes;
+
+    // level of each node. -1 if not reached
+    final IGrowArray levels = new IGrowArray();
+    // parent of each node. -1 if not reached
+    final IGrowArray parents = new IGrowArray();
+    // Non-zero if a node has been visited. Used as a mask
+    double[] visited = new double[0];
+    DMaskPrimitive mask = new DMaskPrimitive(visited, 1, true, 0);
+
+    // workspace
+    DVectorSparse frontier = new DVectorSparse(0);
+    DVectorSparse next = new DVectorSparse(0);
+
+    // number of levels in the most recent search
+    int numLevels;
+
+    /**
+     * Specifies the graph which is to be searched.
+     *
+     * @param A (Input) Adjacency matrix. Reference is saved.
+     */
+    public void setGraph( DMatrixSparseCSC A ) {
+        if (A.numRows != A.numCols)
+            throw new IllegalArgumentException("Adjacency matrix must be square");
+        numNodes = A.numCols;
+        multiplier.setMatrixTransposed(A);
+
+        adjust(levels, numNodes);
+        adjust(parents, numNodes);
+        if (visited.length < numNodes) {
+            visited = new double[numNodes];
+            mask = new DMaskPrimitive(visited, 1, true, 0);
+        }
+    }
+
+    /**
+     * Searches the graph starting from the specified node.
+     *
+     * @param source Index of the node the search starts from
+     * @return Number of nodes which were reached, including the source
+     */
+    public int process( int source ) {
+        if (source < 0 || source >= numNodes)
+            throw new IllegalArgumentException("Source is out of bounds");
+
+        Arrays.fill(levels.data, 0, numNodes, -1);
+        Arrays.fill(parents.data, 0, numNodes, -1);
+        Arrays.fill(visited, 0);
+
+        levels.data[source] = 0;
+        parents.data[source] = source;
+        visited[source] = 1;
+
+        frontier.reshape(numNodes);
+        frontier.append(source, source + 1);
+
+        int totalReached = 1;
+        numLevels = 1;
+        while (true) {
+            multiplier.mult(frontier, next, DSemiRings.MIN_FIRST, mask);
+            if (next.nz_length == 0)
+                break;
+
+            for (int k = 0; k < next.nz_length; k++) {
+                int node = next.nz_indices[k];
+                levels.data[node] = numLevels;
+                parents.data[node] = (int)next.nz_values[k] - 1;
+                visited[node] = 1;
+                next.nz_values[k] = node + 1;
+            }
+            totalReached += next.nz_length;
+            numLevels++;
+
+            DVectorSparse tmp = frontier;
+            frontier = next;
+            next = tmp;
+        }
+
+        return totalReached;
+    }
+
+    /**
+     * Returns the level of each node. The source is at level 0 and nodes which were not reached have a level of -1.
+     * The array can be longer than the number of nodes and is recycled in the next search.
+     */
+    public int[] getLevels() {
+        return levels.data;
+    }
+
+    /**
+     * Returns the parent of each node in the search tree. The parent of the source is itself and nodes
+     * which were not reached have a parent of -1. The array can be longer than the number of nodes and
+     * is recycled in the next search.
+     */
+    public int[] getParents() {
+        return parents.data;
+    }
+
+    /**
+     * Number of levels in the most recent search, which is one more than the largest level
+     */
+    public int getNumLevels() {
+        return numLevels;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.sparse.csc.graph;
+
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DVectorSparse;
+import org.ejml.data.IGrowArray;
+import org.ejml.ops.DSemiRings;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.mult.MatrixSparseVectorMultWithSemiRing_DSCC;
+import org.ejml.sparse.csc.mult.MatrixSparseVectorMultWithSemiRing_DSCC.Direction;
+
+import static org.ejml.UtilEjml.adjust;
+
+/**
+ * <p>
+ * Finds the connected components in an undirected graph using label propagation. Every node starts with its own
+ * index as its label. In each iteration the nodes whose label changed in the previous iteration send it to their
+ * neighbors using the MIN_SECOND semiring and a neighbor keeps it if it's smaller than its current label. When
+ * no label changes, every node is labeled with the smallest node index in its component.
+ * </p>
+ *
+ * <p>
+ * Edges in a directed graph are treated as undirected, which results in the weakly connected components. Unless
+ * the adjacency matrix is specified as being symmetric, the union of A and A<sup>T</sup> is computed and saved
+ * when the graph is set.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ConnectedComponents_DSCC {
+    /** Propagates labels along the edges */
+    final MatrixSparseVectorMultWithSemiRing_DSCC multiplier = new MatrixSparseVectorMultWithSemiRing_DSCC();
+
+    // Storage for the undirected graph
+    final DMatrixSparseCSC undirected = new DMatrixSparseCSC(1, 1);
+    final DMatrixSparseCSC transposed = new DMatrixSparseCSC(1, 1);
+    final IGrowArray gw = new IGrowArray();
+    final DGrowArray gx = new DGrowArray();
+
+    // number of nodes in the graph
+    int numNodes;
+
+    // component label of each node
+    final IGrowArray labels = new IGrowArray();
+    // number of components found in the most recent call
+    int numComponents;
+
+    // workspace
+    DVectorSparse frontier = new DVectorSparse(0);
+    DVectorSparse next = new DVectorSparse(0);
+
+    public ConnectedComponents_DSCC() {
+        // There is no mask so pull would need to go through every edge
+        multiplier.direction = Direction.PUSH;
+    }
+
+    /**
+     * Specifies the graph.
+     *
+     * @param A (Input) Adjacency matrix. Reference might be saved.
+     * @param symmetric If true then A is known to be symmetric and it will be used directly
+     */
+    public void setGraph( DMatrixSparseCSC A, boolean symmetric ) {
+        if (A.numRows != A.numCols)
+            throw new IllegalArgumentException("Adjacency matrix must be square");
+        numNodes = A.numCols;
+
+        if (symmetric) {
+            multiplier.setMatrix(A);
+        } else {
+            CommonOps_DSCC.transpose(A, transposed, gw);
+            CommonOps_DSCC.add(1, A, 1, transposed, undirected, gw, gx);
+            multiplier.setMatrix(undirected);
+        }
+
+        adjust(labels, numNodes);
+    }
+
+    /**
+     * Labels every node with the component it belongs to
+     *
+     * @return Number of connected components
+     */
+    public int process() {
+        int[] labels = this.labels.data;
+
+        frontier.reshape(numNodes);
+        frontier.growMaxLength(numNodes, false);
+        for (int i = 0; i < numNodes; i++) {
+            labels[i] = i;
+            frontier.nz_indices[i] = i;
+            frontier.nz_values[i] = i;
+        }
+        frontier.nz_length = numNodes;
+
+        while (frontier.nz_length > 0) {
+            multiplier.mult(frontier, next, DSemiRings.MIN_SECOND, null);
+
+            // Only nodes whose label was reduced are sent to the neighbors in the next iteration
+            int numKept = 0;
+            for (int k = 0; k < next.nz_length; k++) {
+                int node = next.nz_indices[k];
+                int label = (int)next.nz_values[k];
+                if (label >= labels[node])
+                    continue;
+                labels[node] = label;
+                next.nz_indices[numKept] = node;
+                next.nz_values[numKept++] = label;
+            }
+            next.nz_length = numKept;
+
+            DVectorSparse tmp = frontier;
+            frontier = next;
+            next = tmp;
+        }
+
+        numComponents = 0;
+        for (int i = 0; i < numNodes; i++) {
+            if (labels[i] == i)
+                numComponents++;
+        }
+        return numComponents;
+    }
+
+    /**
+     * Returns the label of each node, which is the smallest node index in its component. The array can be longer
+     * than the number of nodes and is recycled in the next call.
+     */
+    public int[] getLabels() {
+        return labels.data;
+    }
+
+    /**
+     * Number of components found in the most recent call to process
+     */
+    public int getNumComponents() {
+        return numComponents;
+    }
+}
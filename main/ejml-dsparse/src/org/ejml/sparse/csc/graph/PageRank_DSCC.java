@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.sparse.csc.graph;
+
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixSparseCSC;
+
+import java.util.Arrays;
+
+import static org.ejml.UtilEjml.adjust;
+
+/**
+ * <p>
+ * PageRank computed using power iteration. Each iteration computes
+ * r' = (1-d)/N + d*(A<sup>T</sup>*(r./outDegree) + danglingRank/N), where nodes without any outgoing edges
+ * distribute their rank evenly across all the nodes. Iterations stop when the change in rank, measured with the
+ * L1 norm, is less than the tolerance or the maximum number of iterations has been reached.
+ * </p>
+ *
+ * <p>
+ * An edge from node i to node j is specified by a non-zero element at A(i,j) and the value of edges is ignored.
+ * Only the columns of A are traversed and no transpose is needed. The out degree of each node is computed when
+ * the graph is set and all workspace is recycled between calls.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PageRank_DSCC {
+    /** Probability that a random surfer follows an edge instead of jumping to a random node */
+    public double damping = 0.85;
+    /** Iterations stop when the L1 norm of the change in rank is less than this */
+    public double tolerance = 1e-9;
+    /** Maximum number of iterations */
+    public int maxIterations = 100;
+
+    // adjacency matrix
+    DMatrixSparseCSC A = new DMatrixSparseCSC(1, 1);
+
+    // one divided by the out degree of each node. Zero if it has no outgoing edges
+    final DGrowArray invDegree = new DGrowArray();
+
+    // rank in the current and previous iteration
+    DGrowArray rank = new DGrowArray();
+    DGrowArray previous = new DGrowArray();
+    // previous rank divided by the out degree
+    final DGrowArray scaled = new DGrowArray();
+
+    // number of iterations in the most recent call
+    int iterations;
+
+    /**
+     * Specifies the graph.
+     *
+     * @param A (Input) Adjacency matrix. Reference is saved.
+     */
+    public void setGraph( DMatrixSparseCSC A ) {
+        if (A.numRows != A.numCols)
+            throw new IllegalArgumentException("Adjacency matrix must be square");
+        this.A = A;
+        int N = A.numCols;
+
+        double[] invDegree = adjust(this.invDegree, N);
+        Arrays.fill(invDegree, 0, N, 0);
+        for (int i = 0; i < A.nz_length; i++) {
+            invDegree[A.nz_rows[i]]++;
+        }
+        for (int i = 0; i < N; i++) {
+            if (invDegree[i] != 0)
+                invDegree[i] = 1.0/invDegree[i];
+        }
+
+        adjust(rank, N);
+        adjust(previous, N);
+        adjust(scaled, N);
+    }
+
+    /**
+     * Computes the rank of every node
+     *
+     * @return true if it converged before the maximum number of iterations was reached
+     */
+    public boolean process() {
+        final int N = A.numCols;
+        if (N == 0)
+            return true;
+
+        double[] invDegree = this.invDegree.data;
+        double[] s = scaled.data;
+        Arrays.fill(rank.data, 0, N, 1.0/N);
+
+        for (iterations = 1; iterations <= maxIterations; iterations++) {
+            DGrowArray tmp = previous;
+            previous = rank;
+            rank = tmp;
+            double[] r0 = previous.data;
+            double[] r1 = rank.data;
+
+            // rank held by nodes without outgoing edges is spread to every node
+            double dangling = 0;
+            for (int i = 0; i < N; i++) {
+                if (invDegree[i] == 0)
+                    dangling += r0[i];
+                s[i] = r0[i]*invDegree[i];
+            }
+            double base = (1.0 - damping)/N + damping*dangling/N;
+
+            // r1 = A'*s
+            double change = 0;
+            for (int col = 0; col < N; col++) {
+                double sum = 0;
+                int idx1 = A.col_idx[col + 1];
+                for (int idx = A.col_idx[col]; idx < idx1; idx++) {
+                    sum += s[A.nz_rows[idx]];
+                }
+                r1[col] = base + damping*sum;
+                change += Math.abs(r1[col] - r0[col]);
+            }
+
+            if (change < tolerance)
+                return true;
+        }
+        iterations = maxIterations;
+        return false;
+    }
+
+    /**
+     * Returns the rank of each node. The ranks sum to one. The array can be longer than the number of nodes
+     * and is recycled in the next call.
+     */
+    public double[] getRank() {
+        return rank.data;
+    }
+
+    /**
+     * Number of iterations in the most recent call to process
+     */
+    public int getIterations() {
+        return iterations;
+    }
+}
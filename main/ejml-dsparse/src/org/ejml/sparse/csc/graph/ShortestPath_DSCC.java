@@ -0,0 +1,308 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.sparse.csc.graph;
+
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DVectorSparse;
+import org.ejml.data.IGrowArray;
+import org.ejml.ops.DSemiRings;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.mult.MatrixSparseVectorMultWithSemiRing_DSCC;
+import org.ejml.sparse.csc.mult.MatrixSparseVectorMultWithSemiRing_DSCC.Direction;
+
+import java.util.Arrays;
+
+import static org.ejml.UtilEjml.adjust;
+
+/**
+ * <p>
+ * Single source shortest path using the MIN_PLUS semiring. The distance from the source to node j is the
+ * smallest sum of edge weights along any path. An edge from node i to node j with weight w is specified by
+ * A(i,j) = w. Two algorithms are available:
+ * </p>
+ * <ul>
+ *     <li>Bellman-Ford: Only nodes whose distance changed in the previous iteration are relaxed. Negative edge
+ *     weights are allowed and negative cycles are detected.</li>
+ *     <li>Delta-Stepping: Nodes are processed in buckets of width delta in order of their distance. Edges lighter
+ *     than delta are relaxed until the bucket stops changing and then heavy edges are relaxed once. This
+ *     relaxes far fewer edges than Bellman-Ford when the weights vary. Edge weights must not be negative.</li>
+ * </ul>
+ *
+ * <p>
+ * When the graph is set the matrices used by each step are computed and saved. Edges are always pushed from
+ * the frontier since there is no mask to limit the work pull would do. Calls to process with different sources
+ * will not declare new memory.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ShortestPath_DSCC {
+    // width of each bucket. If <= 0 then Bellman-Ford is used
+    final double delta;
+
+    // Used for all edges by Bellman-Ford and for light edges by delta-stepping
+    final MatrixSparseVectorMultWithSemiRing_DSCC light = new MatrixSparseVectorMultWithSemiRing_DSCC();
+    // Used for heavy edges by delta-stepping
+    final MatrixSparseVectorMultWithSemiRing_DSCC heavy = new MatrixSparseVectorMultWithSemiRing_DSCC();
+    // Storage for the light and heavy edges
+    final DMatrixSparseCSC lightEdges = new DMatrixSparseCSC(1, 1);
+    final DMatrixSparseCSC heavyEdges = new DMatrixSparseCSC(1, 1);
+
+    // number of nodes in the graph
+    int numNodes;
+
+    // distance of each node from the source
+    final DGrowArray distances = new DGrowArray();
+
+    // Nodes which have been reached but not settled. Only used by delta-stepping
+    final IGrowArray pending = new IGrowArray();
+    int numPending;
+    // 0 = not reached, 1 = pending, 2 = processed in the current bucket, 3 = settled
+    final IGrowArray state = new IGrowArray();
+    // nodes processed in the current bucket
+    final IGrowArray bucket = new IGrowArray();
+
+    // workspace
+    DVectorSparse frontier = new DVectorSparse(0);
+    DVectorSparse next = new DVectorSparse(0);
+
+    /**
+     * Creates an instance which uses Bellman-Ford
+     */
+    public ShortestPath_DSCC() {
+        this(0);
+    }
+
+    /**
+     * Creates an instance which uses delta-stepping
+     *
+     * @param delta Width of each bucket. If &le; 0 then Bellman-Ford is used instead.
+     */
+    public ShortestPath_DSCC( double delta ) {
+        this.delta = delta;
+        // There is no mask so pull would need to go through every edge
+        light.direction = Direction.PUSH;
+        heavy.direction = Direction.PUSH;
+    }
+
+    /**
+     * Specifies the graph.
+     *
+     * @param A (Input) Weighted adjacency matrix. Reference might be saved.
+     */
+    public void setGraph( DMatrixSparseCSC A ) {
+        if (A.numRows != A.numCols)
+            throw new IllegalArgumentException("Adjacency matrix must be square");
+        numNodes = A.numCols;
+
+        if (isDeltaStepping()) {
+            for (int i = 0; i < A.nz_length; i++) {
+                if (A.nz_values[i] < 0)
+                    throw new IllegalArgumentException("Delta-stepping requires weights which are not negative");
+            }
+            splitEdges(A);
+            light.setMatrixTransposed(lightEdges);
+            heavy.setMatrixTransposed(heavyEdges);
+        } else {
+            light.setMatrixTransposed(A);
+        }
+
+        adjust(distances, numNodes);
+        adjust(pending, numNodes);
+        adjust(state, numNodes);
+        adjust(bucket, numNodes);
+    }
+
+    /**
+     * Splits the edges into those which are at most delta and those which are heavier
+     */
+    void splitEdges( DMatrixSparseCSC A ) {
+        lightEdges.reshape(A.numRows, A.numCols, A.nz_length);
+        heavyEdges.reshape(A.numRows, A.numCols, A.nz_length);
+        lightEdges.nz_length = heavyEdges.nz_length = 0;
+        for (int col = 0; col < A.numCols; col++) {
+            int idx1 = A.col_idx[col + 1];
+            for (int idx = A.col_idx[col]; idx < idx1; idx++) {
+                DMatrixSparseCSC dst = A.nz_values[idx] <= delta ? lightEdges : heavyEdges;
+                dst.nz_rows[dst.nz_length] = A.nz_rows[idx];
+                dst.nz_values[dst.nz_length++] = A.nz_values[idx];
+            }
+            lightEdges.col_idx[col + 1] = lightEdges.nz_length;
+            heavyEdges.col_idx[col + 1] = heavyEdges.nz_length;
+        }
+        lightEdges.indicesSorted = heavyEdges.indicesSorted = A.indicesSorted;
+    }
+
+    /**
+     * Computes the distance of every node from the source.
+     *
+     * @param source Index of the node the paths start from
+     * @return true if successful or false if Bellman-Ford found a negative cycle
+     */
+    public boolean process( int source ) {
+        if (source < 0 || source >= numNodes)
+            throw new IllegalArgumentException("Source is out of bounds");
+
+        Arrays.fill(distances.data, 0, numNodes, Double.POSITIVE_INFINITY);
+        distances.data[source] = 0;
+
+        if (isDeltaStepping()) {
+            deltaStepping(source);
+            return true;
+        }
+        return bellmanFord(source);
+    }
+
+    boolean bellmanFord( int source ) {
+        double[] dist = distances.data;
+        frontier.reshape(numNodes);
+        frontier.append(source, 0);
+
+        // A shortest path visits at most N-1 edges. Anything after that is a negative cycle
+        for (int iteration = 0; iteration < numNodes; iteration++) {
+            light.mult(frontier, next, DSemiRings.MIN_PLUS, null);
+            keepImproved(next, dist, Double.POSITIVE_INFINITY);
+            if (next.nz_length == 0)
+                return true;
+            swapFrontier();
+        }
+        return false;
+    }
+
+    void deltaStepping( int source ) {
+        double[] dist = distances.data;
+        int[] state = this.state.data;
+        Arrays.fill(state, 0, numNodes, 0);
+
+        numPending = 0;
+        addPending(source);
+
+        while (numPending > 0) {
+            // Find the bucket with the closest pending node. Nodes which were pending but had their distance
+            // reduced into an earlier bucket have already been processed and are removed
+            double smallest = Double.POSITIVE_INFINITY;
+            int numKept = 0;
+            for (int i = 0; i < numPending; i++) {
+                int node = pending.data[i];
+                if (state[node] != 1)
+                    continue;
+                pending.data[numKept++] = node;
+                smallest = Math.min(smallest, dist[node]);
+            }
+            numPending = numKept;
+            if (numPending == 0)
+                break;
+            double upper = ((double)Math.floor(smallest/delta) + 1)*delta;
+
+            // move all the pending nodes in the bucket into the frontier
+            frontier.reshape(numNodes);
+            frontier.growMaxLength(numPending, false);
+            numKept = 0;
+            for (int i = 0; i < numPending; i++) {
+                int node = pending.data[i];
+                if (dist[node] < upper) {
+                    frontier.nz_indices[frontier.nz_length++] = node;
+                } else {
+                    pending.data[numKept++] = node;
+                }
+            }
+            numPending = numKept;
+            Arrays.sort(frontier.nz_indices, 0, frontier.nz_length);
+
+            // relax light edges until the bucket doesn't change
+            int bucketSize = 0;
+            while (frontier.nz_length > 0) {
+                for (int k = 0; k < frontier.nz_length; k++) {
+                    int node = frontier.nz_indices[k];
+                    frontier.nz_values[k] = dist[node];
+                    if (state[node] < 2) {
+                        state[node] = 2;
+                        bucket.data[bucketSize++] = node;
+                    }
+                }
+                light.mult(frontier, next, DSemiRings.MIN_PLUS, null);
+                keepImproved(next, dist, upper);
+                swapFrontier();
+            }
+
+            // relax the heavy edges once. These can only update nodes in later buckets
+            frontier.reshape(numNodes);
+            Arrays.sort(bucket.data, 0, bucketSize);
+            for (int i = 0; i < bucketSize; i++) {
+                int node = bucket.data[i];
+                state[node] = 3;
+                frontier.append(node, dist[node]);
+            }
+            heavy.mult(frontier, next, DSemiRings.MIN_PLUS, null);
+            keepImproved(next, dist, upper);
+        }
+    }
+
+    /**
+     * Removes elements which don't improve the distance and saves the ones which do. Delta-stepping
+     * saves improved nodes beyond the current bucket as pending.
+     *
+     * @param upper Nodes at this distance or more are outside the current bucket
+     */
+    private void keepImproved( DVectorSparse v, double[] dist, double upper ) {
+        int numKept = 0;
+        for (int k = 0; k < v.nz_length; k++) {
+            int node = v.nz_indices[k];
+            double value = v.nz_values[k];
+            if (value >= dist[node])
+                continue;
+            dist[node] = value;
+            if (value >= upper) {
+                addPending(node);
+            } else {
+                v.nz_indices[numKept] = node;
+                v.nz_values[numKept++] = value;
+            }
+        }
+        v.nz_length = numKept;
+    }
+
+    private void addPending( int node ) {
+        if (state.data[node] != 0)
+            return;
+        state.data[node] = 1;
+        pending.data[numPending++] = node;
+    }
+
+    private void swapFrontier() {
+        DVectorSparse tmp = frontier;
+        frontier = next;
+        next = tmp;
+    }
+
+    /**
+     * Returns the distance of each node from the source. Nodes which can't be reached have a distance of
+     * infinity. The array can be longer than the number of nodes and is recycled in the next call.
+     */
+    public double[] getDistances() {
+        return distances.data;
+    }
+
+    /**
+     * Returns true if delta-stepping is used and false if Bellman-Ford is used
+     */
+    public boolean isDeltaStepping() {
+        return delta > 0;
+    }
+}
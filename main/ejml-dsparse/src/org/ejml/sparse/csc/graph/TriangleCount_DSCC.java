@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.sparse.csc.graph;
+
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+import org.ejml.masks.DMaskSparseStructural;
+import org.ejml.ops.DSemiRings;
+import org.ejml.sparse.csc.CommonOpsWithSemiRing_DSCC;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+
+/**
+ * <p>
+ * Counts the triangles in an undirected graph using masked matrix multiplication. With L being the strictly
+ * lower triangular part of the adjacency matrix, C&lt;L&gt; = L*L counts the paths i &rarr; k &rarr; j with
+ * i &gt; k &gt; j and the mask only keeps the ones which are closed by the edge (i,j). Each triangle is
+ * therefore found exactly once and only the elements allowed by the mask are computed.
+ * </p>
+ *
+ * <p>
+ * Only the lower triangle of the adjacency matrix is read, so it should be symmetric. The value of edges and
+ * the diagonal are ignored. The lower triangle, the product, the mask and all workspace are recycled between calls.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class TriangleCount_DSCC {
+    // strictly lower triangle of the adjacency matrix with every edge set to one
+    final DMatrixSparseCSC L = new DMatrixSparseCSC(1, 1);
+    // number of triangles closed by each edge in L
+    final DMatrixSparseCSC C = new DMatrixSparseCSC(1, 1);
+    // only compute elements in C which are edges in L
+    final DMaskSparseStructural mask = new DMaskSparseStructural.Builder(L).build();
+
+    // workspace
+    final IGrowArray gw = new IGrowArray();
+    final DGrowArray gx = new DGrowArray();
+
+    /**
+     * Counts the number of triangles in the graph
+     *
+     * @param A (Input) Symmetric adjacency matrix. Not modified.
+     * @return Number of triangles
+     */
+    public long process( DMatrixSparseCSC A ) {
+        if (A.numRows != A.numCols)
+            throw new IllegalArgumentException("Adjacency matrix must be square");
+
+        CommonOps_DSCC.select(A, ( row, col ) -> row > col, L);
+        for (int i = 0; i < L.nz_length; i++) {
+            L.nz_values[i] = 1;
+        }
+
+        mask.reset();
+        CommonOpsWithSemiRing_DSCC.mult(L, L, C, DSemiRings.PLUS_TIMES, mask, gw, gx);
+
+        long total = 0;
+        for (int i = 0; i < C.nz_length; i++) {
+            total += (long)C.nz_values[i];
+        }
+        return total;
+    }
+
+    /**
+     * Returns the matrix with the number of triangles closed by each edge in the lower triangle
+     * from the most recent call. Recycled in the next call.
+     */
+    public DMatrixSparseCSC getEdgeTriangles() {
+        return C;
+    }
+}
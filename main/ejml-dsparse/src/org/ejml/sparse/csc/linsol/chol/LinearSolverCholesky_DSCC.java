@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2020, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
  *
  * This file is part of Efficient Java Matrix Library (EJML).
  *
@@ -19,6 +19,7 @@
 package org.ejml.sparse.csc.linsol.chol;
 
 import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
 import org.ejml.data.DGrowArray;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.DMatrixSparseCSC;
@@ -30,12 +31,14 @@ import org.ejml.sparse.csc.CommonOps_DSCC;
 import org.ejml.sparse.csc.decomposition.chol.CholeskyUpLooking_DSCC;
 import org.ejml.sparse.csc.misc.ApplyFillReductionPermutation_DSCC;
 import org.ejml.sparse.csc.misc.TriangularSolver_DSCC;
+import org.ejml.sparse.csc.misc.TriangularSolver_MT_DSCC;
 import org.jetbrains.annotations.Nullable;
 
 import static org.ejml.UtilEjml.adjust;
 
 /**
- * Linear solver using a sparse Cholesky decomposition.
+ * Linear solver using a sparse Cholesky decomposition. If {@link EjmlConcurrency#useConcurrent} is true for L then
+ * dense systems are solved with {@link TriangularSolver_MT_DSCC}.
  *
  * @author Peter Abeles
  */
@@ -50,10 +53,16 @@ public class LinearSolverCholesky_DSCC implements LinearSolverSparse<DMatrixSpar
     IGrowArray gw = new IGrowArray();
 
     DMatrixSparseCSC tmp = new DMatrixSparseCSC(1, 1, 1);
+    DMatrixSparseCSC Bp = new DMatrixSparseCSC(1, 1, 1);
+    DMatrixSparseCSC Xp = new DMatrixSparseCSC(1, 1, 1);
 
     // Number of rows in A
     int AnumRows, AnumCols;
 
+    // Level scheduled solver for L. Only used when the concurrent code is turned on
+    TriangularSolver_MT_DSCC solverL = new TriangularSolver_MT_DSCC();
+    boolean concurrent;
+
     public LinearSolverCholesky_DSCC( CholeskyUpLooking_DSCC cholesky, @Nullable ComputePermutation<DMatrixSparseCSC> fillReduce ) {
         this.cholesky = cholesky;
         this.reduce = new ApplyFillReductionPermutation_DSCC(fillReduce, true);
@@ -64,7 +73,14 @@ public class LinearSolverCholesky_DSCC implements LinearSolverSparse<DMatrixSpar
         this.AnumRows = A.numRows;
         this.AnumCols = A.numCols;
         DMatrixSparseCSC C = reduce.apply(A);
-        return cholesky.decompose(C);
+        if (!cholesky.decompose(C))
+            return false;
+
+        // the level sets only need to be computed once for all the systems solved with this decomposition
+        concurrent = EjmlConcurrency.useConcurrent(cholesky.getL());
+        if (concurrent)
+            solverL.process(cholesky.getL(), true);
+        return true;
     }
 
     @Override
@@ -82,9 +98,19 @@ public class LinearSolverCholesky_DSCC implements LinearSolverSparse<DMatrixSpar
 
         tmp.reshape(L.numRows, B.numCols, 1);
         int[] Pinv = reduce.getArrayPinv();
-
-        TriangularSolver_DSCC.solve(L, true, B, tmp, Pinv, gx, gw, gw1);
-        TriangularSolver_DSCC.solveTran(L, true, tmp, X, null, gx, gw, gw1);
+        int[] P = reduce.getArrayP();
+
+        if (Pinv != null && P != null) {
+            // Solve (P*A*P')*(P*x) = P*b then undo the permutation on the solution
+            CommonOps_DSCC.permute(Pinv, B, null, Bp);
+            Xp.reshape(AnumCols, B.numCols, 1);
+            TriangularSolver_DSCC.solve(L, true, Bp, tmp, null, gx, gw, gw1);
+            TriangularSolver_DSCC.solveTran(L, true, tmp, Xp, null, gx, gw, gw1);
+            CommonOps_DSCC.permute(P, Xp, null, X);
+        } else {
+            TriangularSolver_DSCC.solve(L, true, B, tmp, null, gx, gw, gw1);
+            TriangularSolver_DSCC.solveTran(L, true, tmp, X, null, gx, gw, gw1);
+        }
     }
 
     @Override
@@ -116,12 +142,10 @@ public class LinearSolverCholesky_DSCC implements LinearSolverSparse<DMatrixSpar
 
             if (Pinv != null) {
                 CommonOps_DSCC.permuteInv(Pinv, b, x, N);
-                TriangularSolver_DSCC.solveL(L, x);
-                TriangularSolver_DSCC.solveTranL(L, x);
+                solveCholesky(L, x);
                 CommonOps_DSCC.permute(Pinv, x, b, N);
             } else {
-                TriangularSolver_DSCC.solveL(L, b);
-                TriangularSolver_DSCC.solveTranL(L, b);
+                solveCholesky(L, b);
             }
 
             index = col;
@@ -129,6 +153,19 @@ public class LinearSolverCholesky_DSCC implements LinearSolverSparse<DMatrixSpar
         }
     }
 
+    /**
+     * Solves L*L<sup>T</sup>*x = b
+     */
+    private void solveCholesky( DMatrixSparseCSC L, double[] x ) {
+        if (concurrent) {
+            solverL.solve(x);
+            solverL.solveTran(x);
+        } else {
+            TriangularSolver_DSCC.solveL(L, x);
+            TriangularSolver_DSCC.solveTranL(L, x);
+        }
+    }
+
     @Override
     public boolean modifiesA() {
         return cholesky.inputModified();
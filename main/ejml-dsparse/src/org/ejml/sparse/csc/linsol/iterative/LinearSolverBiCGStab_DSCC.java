@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.data.DGrowArray;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * <p>Biconjugate Gradient Stabilized (BiCGSTAB) solver for general square matrices. Unlike GMRES the amount of
+ * memory required does not grow with the number of iterations, but convergence can be irregular. Each iteration
+ * requires two matrix-vector multiplications and two applications of the preconditioner.</p>
+ *
+ * <p>Right preconditioning is used so that the residual being checked is the residual of the original system.</p>
+ *
+ * @author Peter Abeles
+ */
+public class LinearSolverBiCGStab_DSCC extends LinearSolverIterative_DSCC {
+
+    // residual, shadow residual, search direction, and intermediate residual
+    DGrowArray gr = new DGrowArray();
+    DGrowArray gr0 = new DGrowArray();
+    DGrowArray gp = new DGrowArray();
+    DGrowArray gs = new DGrowArray();
+    // preconditioned search direction and intermediate residual
+    DGrowArray gph = new DGrowArray();
+    DGrowArray gsh = new DGrowArray();
+    // A times the preconditioned vectors
+    DGrowArray gv = new DGrowArray();
+    DGrowArray gt = new DGrowArray();
+
+    public LinearSolverBiCGStab_DSCC( @Nullable Preconditioner_DSCC preconditioner ) {
+        super(preconditioner);
+    }
+
+    public LinearSolverBiCGStab_DSCC() {
+        this(null);
+    }
+
+    @Override
+    protected void initialize( int N ) {
+        gr.reshape(N);
+        gr0.reshape(N);
+        gp.reshape(N);
+        gs.reshape(N);
+        gph.reshape(N);
+        gsh.reshape(N);
+        gv.reshape(N);
+        gt.reshape(N);
+    }
+
+    @Override
+    protected int solveColumn( double[] b, double[] x ) {
+        final int N = A.numCols;
+        final double[] r = gr.data;
+        final double[] r0 = gr0.data;
+        final double[] p = gp.data;
+        final double[] s = gs.data;
+        final double[] ph = gph.data;
+        final double[] sh = gsh.data;
+        final double[] v = gv.data;
+        final double[] t = gt.data;
+
+        double normB = Math.sqrt(dot(b, b, N));
+        if (normB == 0.0) {
+            // x = 0 is the exact solution
+            return 0;
+        }
+
+        // Initial guess is zero so r = b
+        System.arraycopy(b, 0, r, 0, N);
+        System.arraycopy(b, 0, r0, 0, N);
+        System.arraycopy(b, 0, p, 0, N);
+        double rho = dot(r0, r, N);
+
+        final int maxIterations = getMaxIterations();
+        double relative = 1.0;
+        for (int iteration = 1; iteration <= maxIterations; iteration++) {
+            precondition(p, ph, N);
+            mult(ph, v);
+            double r0v = dot(r0, v, N);
+            if (r0v == 0.0) {
+                // breakdown
+                break;
+            }
+            double alpha = rho/r0v;
+
+            for (int i = 0; i < N; i++) {
+                s[i] = r[i] - alpha*v[i];
+            }
+
+            relative = Math.sqrt(dot(s, s, N))/normB;
+            if (relative <= tolerance) {
+                for (int i = 0; i < N; i++) {
+                    x[i] += alpha*ph[i];
+                }
+                updateResidual(relative);
+                return iteration;
+            }
+
+            precondition(s, sh, N);
+            mult(sh, t);
+            double tt = dot(t, t, N);
+            double omega = tt == 0.0 ? 0.0 : dot(t, s, N)/tt;
+
+            for (int i = 0; i < N; i++) {
+                x[i] += alpha*ph[i] + omega*sh[i];
+                r[i] = s[i] - omega*t[i];
+            }
+
+            relative = Math.sqrt(dot(r, r, N))/normB;
+            if (relative <= tolerance) {
+                updateResidual(relative);
+                return iteration;
+            }
+
+            double rhoNext = dot(r0, r, N);
+            if (rhoNext == 0.0 || omega == 0.0) {
+                // breakdown
+                break;
+            }
+            double beta = (rhoNext/rho)*(alpha/omega);
+            rho = rhoNext;
+
+            for (int i = 0; i < N; i++) {
+                p[i] = r[i] + beta*(p[i] - omega*v[i]);
+            }
+        }
+        updateResidual(relative);
+        return -1;
+    }
+}
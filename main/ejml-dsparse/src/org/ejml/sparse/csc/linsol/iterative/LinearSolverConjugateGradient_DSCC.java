@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.data.DGrowArray;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * <p>Preconditioned Conjugate Gradient (PCG) solver for symmetric positive definite matrices. Memory usage is
+ * a few vectors plus what the preconditioner requires, making it suitable for systems whose Cholesky factor is
+ * too large to store.</p>
+ *
+ * <p>Since A is symmetric, A*p is computed as A<sup>T</sup>*p. With compressed column storage this is a dot product
+ * for each column, which can be computed in parallel without any additional storage. Both the upper and lower
+ * triangles of A need to be filled in.</p>
+ *
+ * @author Peter Abeles
+ */
+public class LinearSolverConjugateGradient_DSCC extends LinearSolverIterative_DSCC {
+
+    // residual, preconditioned residual, search direction, and A times search direction
+    DGrowArray gr = new DGrowArray();
+    DGrowArray gz = new DGrowArray();
+    DGrowArray gp = new DGrowArray();
+    DGrowArray gq = new DGrowArray();
+
+    public LinearSolverConjugateGradient_DSCC( @Nullable Preconditioner_DSCC preconditioner ) {
+        super(preconditioner);
+    }
+
+    public LinearSolverConjugateGradient_DSCC() {
+        this(null);
+    }
+
+    @Override
+    protected void initialize( int N ) {
+        gr.reshape(N);
+        gz.reshape(N);
+        gp.reshape(N);
+        gq.reshape(N);
+    }
+
+    @Override
+    protected int solveColumn( double[] b, double[] x ) {
+        final int N = A.numCols;
+        final double[] r = gr.data;
+        final double[] z = gz.data;
+        final double[] p = gp.data;
+        final double[] q = gq.data;
+
+        double normB = Math.sqrt(dot(b, b, N));
+        if (normB == 0.0) {
+            // x = 0 is the exact solution
+            return 0;
+        }
+
+        // Initial guess is zero so r = b
+        System.arraycopy(b, 0, r, 0, N);
+        precondition(r, z, N);
+        System.arraycopy(z, 0, p, 0, N);
+        double rz = dot(r, z, N);
+
+        final int maxIterations = getMaxIterations();
+        double relative = 1.0;
+        for (int iteration = 1; iteration <= maxIterations; iteration++) {
+            multTransA(p, q);
+            double pq = dot(p, q, N);
+            if (pq <= 0.0) {
+                // A isn't positive definite or the solution has already been found to machine precision
+                break;
+            }
+            double alpha = rz/pq;
+
+            for (int i = 0; i < N; i++) {
+                x[i] += alpha*p[i];
+                r[i] -= alpha*q[i];
+            }
+
+            relative = Math.sqrt(dot(r, r, N))/normB;
+            if (relative <= tolerance) {
+                updateResidual(relative);
+                return iteration;
+            }
+
+            precondition(r, z, N);
+            double rzNext = dot(r, z, N);
+            double beta = rzNext/rz;
+            rz = rzNext;
+
+            for (int i = 0; i < N; i++) {
+                p[i] = z[i] + beta*p[i];
+            }
+        }
+        updateResidual(relative);
+        return -1;
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.data.DGrowArray;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * <p>Restarted Generalized Minimal Residual, GMRES(m), solver for general square matrices. An orthonormal basis
+ * for the Krylov subspace is built using Arnoldi iterations with modified Gram-Schmidt, and the least-squares
+ * problem is updated with Givens rotations so that the residual is known at every iteration. After 'm' iterations
+ * the solution is updated and the process restarts, which bounds memory to (m+1) vectors.</p>
+ *
+ * <p>Right preconditioning is used, A*M<sup>-1</sup>*u = b with x = M<sup>-1</sup>*u, so the residual being
+ * minimized is the residual of the original system.</p>
+ *
+ * @author Peter Abeles
+ */
+public class LinearSolverGmres_DSCC extends LinearSolverIterative_DSCC {
+    // Number of iterations before it restarts
+    int restart;
+
+    // Orthonormal basis. Each vector is stored in a row
+    DGrowArray gV = new DGrowArray();
+    // Hessenberg matrix, (m+1) by m, stored by rows
+    DGrowArray gH = new DGrowArray();
+    // Givens rotations
+    DGrowArray gcs = new DGrowArray();
+    DGrowArray gsn = new DGrowArray();
+    // Right hand side of the least-squares problem and its solution
+    DGrowArray gg = new DGrowArray();
+    DGrowArray gy = new DGrowArray();
+    // Work vectors
+    DGrowArray gr = new DGrowArray();
+    DGrowArray gz = new DGrowArray();
+
+    /**
+     * @param preconditioner (Optional) preconditioner. Can be null.
+     * @param restart Number of iterations before it restarts. Typical values are 20 to 50.
+     */
+    public LinearSolverGmres_DSCC( @Nullable Preconditioner_DSCC preconditioner, int restart ) {
+        super(preconditioner);
+        setRestart(restart);
+    }
+
+    public LinearSolverGmres_DSCC() {
+        this(null, 30);
+    }
+
+    @Override
+    protected void initialize( int N ) {
+        int m = restart;
+        gV.reshape((m + 1)*N);
+        gH.reshape((m + 1)*m);
+        gcs.reshape(m);
+        gsn.reshape(m);
+        gg.reshape(m + 1);
+        gy.reshape(m);
+        gr.reshape(N);
+        gz.reshape(N);
+    }
+
+    @Override
+    protected int solveColumn( double[] b, double[] x ) {
+        final int N = A.numCols;
+        final int m = restart;
+        // restart can be changed after setA() so make sure the workspace is large enough
+        initialize(N);
+        final double[] V = gV.data;
+        final double[] H = gH.data;
+        final double[] cs = gcs.data;
+        final double[] sn = gsn.data;
+        final double[] g = gg.data;
+        final double[] y = gy.data;
+        final double[] r = gr.data;
+        final double[] z = gz.data;
+
+        double normB = Math.sqrt(dot(b, b, N));
+        if (normB == 0.0) {
+            // x = 0 is the exact solution
+            return 0;
+        }
+
+        final int maxIterations = getMaxIterations();
+        int total = 0;
+
+        while (true) {
+            // r = b - A*x
+            mult(x, r);
+            for (int i = 0; i < N; i++) {
+                r[i] = b[i] - r[i];
+            }
+            double beta = Math.sqrt(dot(r, r, N));
+            double relative = beta/normB;
+            if (relative <= tolerance) {
+                updateResidual(relative);
+                return total;
+            }
+            if (total >= maxIterations) {
+                updateResidual(relative);
+                return -1;
+            }
+
+            for (int i = 0; i < N; i++) {
+                V[i] = r[i]/beta;
+            }
+            g[0] = beta;
+
+            int k = 0;
+            while (k < m && total < maxIterations) {
+                total++;
+                int offsetK = k*N;
+                int offsetNext = offsetK + N;
+
+                // w = A*M^-1*v_k is written directly into v_{k+1}
+                System.arraycopy(V, offsetK, r, 0, N);
+                precondition(r, z, N);
+                mult(z, r);
+
+                for (int i = 0; i <= k; i++) {
+                    int offsetI = i*N;
+                    double h = 0;
+                    for (int j = 0; j < N; j++) {
+                        h += r[j]*V[offsetI + j];
+                    }
+                    H[i*m + k] = h;
+                    for (int j = 0; j < N; j++) {
+                        r[j] -= h*V[offsetI + j];
+                    }
+                }
+                double h_next = Math.sqrt(dot(r, r, N));
+                if (h_next != 0.0) {
+                    for (int j = 0; j < N; j++) {
+                        V[offsetNext + j] = r[j]/h_next;
+                    }
+                }
+
+                // apply previous rotations to the new column
+                for (int i = 0; i < k; i++) {
+                    double a = H[i*m + k];
+                    double c = H[(i + 1)*m + k];
+                    H[i*m + k] = cs[i]*a + sn[i]*c;
+                    H[(i + 1)*m + k] = -sn[i]*a + cs[i]*c;
+                }
+
+                // rotation which eliminates h_next
+                double h_kk = H[k*m + k];
+                // scale by the largest magnitude so the squares can't overflow
+                double scale = Math.max(Math.abs(h_kk), Math.abs(h_next));
+                double denom = 0.0;
+                if (scale != 0.0) {
+                    double ratioK = h_kk/scale;
+                    double ratioNext = h_next/scale;
+                    denom = scale*Math.sqrt(ratioK*ratioK + ratioNext*ratioNext);
+                }
+                cs[k] = h_kk/denom;
+                sn[k] = h_next/denom;
+                H[k*m + k] = denom;
+                g[k + 1] = -sn[k]*g[k];
+                g[k] = cs[k]*g[k];
+
+                k++;
+                relative = Math.abs(g[k])/normB;
+                if (relative <= tolerance || h_next == 0.0)
+                    break;
+            }
+
+            // Solve the upper triangular system H*y = g
+            for (int i = k - 1; i >= 0; i--) {
+                double sum = g[i];
+                for (int j = i + 1; j < k; j++) {
+                    sum -= H[i*m + j]*y[j];
+                }
+                y[i] = sum/H[i*m + i];
+            }
+
+            // x = x + M^-1*V*y
+            Arrays.fill(r, 0, N, 0.0);
+            for (int i = 0; i < k; i++) {
+                int offsetI = i*N;
+                double y_i = y[i];
+                for (int j = 0; j < N; j++) {
+                    r[j] += y_i*V[offsetI + j];
+                }
+            }
+            precondition(r, z, N);
+            for (int j = 0; j < N; j++) {
+                x[j] += z[j];
+            }
+        }
+    }
+
+    public int getRestart() {
+        return restart;
+    }
+
+    /**
+     * Number of iterations before GMRES restarts. Memory usage is proportional to this number.
+     */
+    public void setRestart( int restart ) {
+        if (restart <= 0)
+            throw new IllegalArgumentException("Restart must be positive");
+        this.restart = restart;
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.interfaces.decomposition.DecompositionInterface;
+import org.ejml.interfaces.linsol.LinearSolverSparse;
+import org.ejml.ops.DConvertMatrixStruct;
+import org.ejml.sparse.csc.mult.MatrixVectorMult_DSCC;
+import org.ejml.sparse.csc.mult.MatrixVectorMult_MT_DSCC;
+import org.jetbrains.annotations.Nullable;
+import pabeles.concurrency.GrowArray;
+
+import java.util.Arrays;
+
+/**
+ * <p>Base class for iterative sparse linear solvers. Each column in B is solved for independently, starting from
+ * an initial guess of zero, until the relative residual ||b - A*x||/||b|| is less than or equal to the
+ * tolerance or the maximum number of iterations has been reached. Statistics from the most recent call to
+ * solve can be accessed after it returns.</p>
+ *
+ * <p>Workspace is only allocated when the size of A changes, which keeps the inner iteration loop free of memory
+ * allocation. If {@link EjmlConcurrency#useConcurrent} is true for A then matrix-vector multiplications and
+ * dot products are computed using multiple threads.</p>
+ *
+ * <p>Unlike a direct solver there is no measure of how singular the system is and {@link #quality()} is not
+ * supported.</p>
+ *
+ * @author Peter Abeles
+ */
+public abstract class LinearSolverIterative_DSCC implements LinearSolverSparse<DMatrixSparseCSC, DMatrixRMaj> {
+    /** Convergence tolerance for the relative residual */
+    protected double tolerance = 1e-10;
+
+    /** Maximum number of iterations for a single column. If &le; 0 it's twice the number of unknowns */
+    protected int maxIterations = 0;
+
+    /** Optional preconditioner. If null then no preconditioning is done */
+    protected @Nullable Preconditioner_DSCC preconditioner;
+
+    // Reference to the matrix being solved
+    protected DMatrixSparseCSC A = new DMatrixSparseCSC(1, 1, 0);
+
+    // If true then concurrent implementations will be used
+    protected boolean concurrent;
+    protected GrowArray<DGrowArray> listWork = new GrowArray<>(DGrowArray::new);
+
+    // Statistics from the most recent call to solve
+    protected int iterations;
+    protected double residual;
+    protected boolean converged;
+
+    // Storage for a single column in B and X
+    protected DGrowArray gb = new DGrowArray();
+    protected DGrowArray gx = new DGrowArray();
+
+    // Used when solving against sparse matrices
+    protected DMatrixRMaj denseB = new DMatrixRMaj(1, 1);
+    protected DMatrixRMaj denseX = new DMatrixRMaj(1, 1);
+
+    protected LinearSolverIterative_DSCC( @Nullable Preconditioner_DSCC preconditioner ) {
+        this.preconditioner = preconditioner;
+    }
+
+    /**
+     * Solves A*x = b for a single column
+     *
+     * @param b (Input) The right hand side. Not modified.
+     * @param x (Output) The solution. Initialized to zero.
+     * @return Number of iterations it took to converge. -1 if it failed to converge.
+     */
+    protected abstract int solveColumn( double[] b, double[] x );
+
+    /**
+     * Declares workspace for a system with N unknowns
+     */
+    protected abstract void initialize( int N );
+
+    @Override
+    public boolean setA( DMatrixSparseCSC A ) {
+        if (A.numRows != A.numCols)
+            throw new IllegalArgumentException("Must be a square matrix");
+
+        this.A = A;
+        this.concurrent = EjmlConcurrency.useConcurrent(A);
+        initialize(A.numCols);
+
+        return preconditioner == null || preconditioner.setA(A);
+    }
+
+    @Override
+    public /**/double quality() {
+        throw new IllegalArgumentException("Not supported by iterative solvers");
+    }
+
+    @Override
+    public void solve( DMatrixRMaj B, DMatrixRMaj X ) {
+        UtilEjml.checkReshapeSolve(A.numRows, A.numCols, B, X);
+
+        final int N = A.numCols;
+        double[] b = gb.reshape(N).data;
+        double[] x = gx.reshape(N).data;
+
+        iterations = 0;
+        residual = 0;
+        converged = true;
+
+        for (int col = 0; col < B.numCols; col++) {
+            int index = col;
+            for (int i = 0; i < N; i++, index += B.numCols) b[i] = B.data[index];
+
+            Arrays.fill(x, 0, N, 0);
+            int found = solveColumn(b, x);
+            if (found < 0) {
+                converged = false;
+                iterations = Math.max(iterations, getMaxIterations());
+            } else {
+                iterations = Math.max(iterations, found);
+            }
+
+            index = col;
+            for (int i = 0; i < N; i++, index += X.numCols) X.data[index] = x[i];
+        }
+    }
+
+    /**
+     * Solves against a sparse matrix by converting B into a dense matrix. The solution is inherently dense so
+     * there is no advantage over {@link #solve(DMatrixRMaj, DMatrixRMaj)}.
+     */
+    @Override
+    public void solveSparse( DMatrixSparseCSC B, DMatrixSparseCSC X ) {
+        DConvertMatrixStruct.convert(B, denseB);
+        solve(denseB, denseX);
+        DConvertMatrixStruct.convert(denseX, X, 0.0);
+    }
+
+    /**
+     * Records the relative residual for the column which was just solved. The worst case is kept.
+     */
+    protected void updateResidual( double relativeResidual ) {
+        residual = Math.max(residual, relativeResidual);
+    }
+
+    /**
+     * y = A*x
+     */
+    protected void mult( double[] x, double[] y ) {
+        if (concurrent)
+            MatrixVectorMult_MT_DSCC.mult(A, x, 0, y, 0, listWork);
+        else
+            MatrixVectorMult_DSCC.mult(A, x, 0, y, 0);
+    }
+
+    /**
+     * y = A<sup>T</sup>*x. For symmetric matrices this is the same as A*x but faster when using multiple threads.
+     */
+    protected void multTransA( double[] x, double[] y ) {
+        if (concurrent)
+            MatrixVectorMult_MT_DSCC.mult(x, 0, A, y, 0);
+        else
+            MatrixVectorMult_DSCC.mult(x, 0, A, y, 0);
+    }
+
+    /**
+     * Dot product of the first N elements in a and b
+     */
+    protected double dot( double[] a, double[] b, int N ) {
+        if (concurrent)
+            return MatrixVectorMult_MT_DSCC.innerProduct(a, 0, b, 0, N, listWork);
+
+        double sum = 0;
+        for (int i = 0; i < N; i++) {
+            sum += a[i]*b[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Applies the preconditioner, z = M<sup>-1</sup>*r, or copies r into z if there is no preconditioner
+     */
+    protected void precondition( double[] r, double[] z, int N ) {
+        if (preconditioner == null)
+            System.arraycopy(r, 0, z, 0, N);
+        else
+            preconditioner.solve(r, z);
+    }
+
+    @Override
+    public void setStructureLocked( boolean locked ) {
+        if (preconditioner != null)
+            preconditioner.setStructureLocked(locked);
+    }
+
+    @Override
+    public boolean isStructureLocked() {
+        return preconditioner != null && preconditioner.isStructureLocked();
+    }
+
+    @Override
+    public boolean modifiesA() {
+        return false;
+    }
+
+    @Override
+    public boolean modifiesB() {
+        return false;
+    }
+
+    @Override
+    public <D extends DecompositionInterface> D getDecomposition() {
+        throw new RuntimeException("Not supported");
+    }
+
+    /**
+     * Maximum number of iterations which will be used for the current matrix
+     */
+    public int getMaxIterations() {
+        return maxIterations > 0 ? maxIterations : 2*A.numCols;
+    }
+
+    /**
+     * Specifies the maximum number of iterations for a single column. If &le; 0 then it will be twice the number
+     * of unknowns.
+     */
+    public void setMaxIterations( int maxIterations ) {
+        this.maxIterations = maxIterations;
+    }
+
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * Specifies the convergence tolerance for the relative residual, ||b - A*x||/||b||
+     */
+    public void setTolerance( double tolerance ) {
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Largest number of iterations needed by a single column in the most recent call to solve
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Largest relative residual of a single column in the most recent call to solve
+     */
+    public double getResidual() {
+        return residual;
+    }
+
+    /**
+     * True if every column converged in the most recent call to solve
+     */
+    public boolean isConverged() {
+        return converged;
+    }
+
+    public @Nullable Preconditioner_DSCC getPreconditioner() {
+        return preconditioner;
+    }
+
+    /**
+     * If true then the most recent matrix passed to {@link #setA} is being processed using multiple threads
+     */
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+import org.ejml.sparse.csc.misc.TriangularSolver_DSCC;
+
+import static org.ejml.UtilEjml.adjust;
+import static org.ejml.UtilEjml.adjustClear;
+
+/**
+ * <p>Incomplete Cholesky preconditioner with zero fill in, IC(0). A &asymp; L*L<sup>T</sup> where L has the same
+ * non-zero pattern as the lower triangle of A. Any fill in which a complete factorization would create is
+ * discarded.</p>
+ *
+ * <p>Both the upper and lower triangles of the symmetric matrix A need to be filled in. The upper triangle is
+ * read and transposed into L, which results in sorted row indices with the diagonal being the first element
+ * in each column.</p>
+ *
+ * @author Peter Abeles
+ */
+public class PreconditionerIncompleteCholesky_DSCC implements Preconditioner_DSCC {
+    // The lower triangular factor
+    DMatrixSparseCSC L = new DMatrixSparseCSC(1, 1, 0);
+
+    // Index of each element in L inside of the input matrix
+    IGrowArray srcIndex = new IGrowArray();
+    IGrowArray gw = new IGrowArray();
+
+    boolean locked = false;
+    boolean structureComputed = false;
+
+    @Override
+    public boolean setA( DMatrixSparseCSC A ) {
+        if (A.numRows != A.numCols)
+            throw new IllegalArgumentException("Must be a square matrix");
+
+        if (!locked || !structureComputed) {
+            if (!computeStructure(A))
+                return false;
+            structureComputed = true;
+        } else {
+            for (int i = 0; i < L.nz_length; i++) {
+                L.nz_values[i] = A.nz_values[srcIndex.data[i]];
+            }
+        }
+
+        return factor();
+    }
+
+    /**
+     * Copies the upper triangle of A into the pattern of L<sup>T</sup>
+     *
+     * @return false if a diagonal element is missing
+     */
+    boolean computeStructure( DMatrixSparseCSC A ) {
+        final int N = A.numCols;
+
+        // count the number of elements in each column of L, i.e. each row of the upper triangle
+        int[] hist = adjustClear(gw, N);
+        for (int col = 0; col < N; col++) {
+            int idx0 = A.col_idx[col];
+            int idx1 = A.col_idx[col + 1];
+            for (int i = idx0; i < idx1; i++) {
+                int row = A.nz_rows[i];
+                if (row <= col)
+                    hist[row]++;
+            }
+        }
+
+        L.reshape(N, N, 0);
+        L.histogramToStructure(hist);
+        System.arraycopy(L.col_idx, 0, hist, 0, N);
+        int[] src = adjust(srcIndex, L.nz_length);
+
+        // Columns in A are processed in order so the rows in L will be sorted
+        for (int col = 0; col < N; col++) {
+            int idx0 = A.col_idx[col];
+            int idx1 = A.col_idx[col + 1];
+            for (int i = idx0; i < idx1; i++) {
+                int row = A.nz_rows[i];
+                if (row > col)
+                    continue;
+                int index = hist[row]++;
+                L.nz_rows[index] = col;
+                L.nz_values[index] = A.nz_values[i];
+                src[index] = i;
+            }
+        }
+        L.indicesSorted = true;
+
+        // the diagonal must be the first element in every column
+        for (int col = 0; col < N; col++) {
+            int idx0 = L.col_idx[col];
+            if (idx0 == L.col_idx[col + 1] || L.nz_rows[idx0] != col)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Performs the factorization in place. Column 'k' updates every column 'j' with L(j,k) != 0, but only
+     * elements already in the pattern of column 'j' are modified.
+     *
+     * @return false if a non-positive pivot was encountered
+     */
+    boolean factor() {
+        final int N = L.numCols;
+        final int[] rows = L.nz_rows;
+        final double[] values = L.nz_values;
+
+        for (int k = 0; k < N; k++) {
+            int idx0 = L.col_idx[k];
+            int idx1 = L.col_idx[k + 1];
+
+            double diag = values[idx0];
+            if (diag <= 0.0)
+                return false;
+            diag = Math.sqrt(diag);
+            values[idx0] = diag;
+
+            for (int p = idx0 + 1; p < idx1; p++) {
+                values[p] /= diag;
+            }
+
+            // L(i,j) -= L(i,k)*L(j,k) for i >= j. Both columns are sorted so the intersection is a merge
+            for (int p = idx0 + 1; p < idx1; p++) {
+                int j = rows[p];
+                double L_jk = values[p];
+
+                int q = L.col_idx[j];
+                int qEnd = L.col_idx[j + 1];
+                int r = p;
+                while (q < qEnd && r < idx1) {
+                    int rowQ = rows[q];
+                    int rowR = rows[r];
+                    if (rowQ == rowR) {
+                        values[q++] -= values[r++]*L_jk;
+                    } else if (rowQ < rowR) {
+                        q++;
+                    } else {
+                        r++;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void solve( double[] r, double[] z ) {
+        System.arraycopy(r, 0, z, 0, L.numCols);
+        TriangularSolver_DSCC.solveL(L, z);
+        TriangularSolver_DSCC.solveTranL(L, z);
+    }
+
+    @Override
+    public void setStructureLocked( boolean locked ) {
+        this.locked = locked;
+    }
+
+    @Override
+    public boolean isStructureLocked() {
+        return locked;
+    }
+
+    /**
+     * Returns the incomplete lower triangular factor
+     */
+    public DMatrixSparseCSC getL() {
+        return L;
+    }
+}
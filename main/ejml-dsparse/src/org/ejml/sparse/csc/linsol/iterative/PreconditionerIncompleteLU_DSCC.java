@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+
+import static org.ejml.UtilEjml.adjust;
+import static org.ejml.UtilEjml.adjustClear;
+import static org.ejml.UtilEjml.adjustFill;
+
+/**
+ * <p>Incomplete LU preconditioner with zero fill in, ILU(0). A &asymp; L*U where L is unit lower triangular, U is
+ * upper triangular, and together they have the same non-zero pattern as A. Both factors are stored in a single
+ * matrix with the same structure as A, with the unit diagonal of L being implicit.</p>
+ *
+ * <p>Rows in each column are sorted when the structure is computed and the location of each element in the input
+ * matrix is saved. When the structure is locked only the values are copied for new matrices.</p>
+ *
+ * @author Peter Abeles
+ */
+public class PreconditionerIncompleteLU_DSCC implements Preconditioner_DSCC {
+    // Storage for L and U
+    DMatrixSparseCSC LU = new DMatrixSparseCSC(1, 1, 0);
+
+    // Index of the diagonal element in each column
+    IGrowArray diagIndex = new IGrowArray();
+    // Index of each element in LU inside of the input matrix
+    IGrowArray srcIndex = new IGrowArray();
+    IGrowArray gw = new IGrowArray();
+    IGrowArray gt = new IGrowArray();
+    IGrowArray gc = new IGrowArray();
+
+    boolean locked = false;
+    boolean structureComputed = false;
+
+    @Override
+    public boolean setA( DMatrixSparseCSC A ) {
+        if (A.numRows != A.numCols)
+            throw new IllegalArgumentException("Must be a square matrix");
+
+        if (!locked || !structureComputed) {
+            if (!computeStructure(A))
+                return false;
+            structureComputed = true;
+        }
+
+        final int[] src = srcIndex.data;
+        for (int i = 0; i < LU.nz_length; i++) {
+            LU.nz_values[i] = A.nz_values[src[i]];
+        }
+
+        return factor();
+    }
+
+    /**
+     * Copies the structure of A with rows sorted inside of each column. This is done with two counting sorts,
+     * first by row then by column.
+     *
+     * @return false if a diagonal element is missing
+     */
+    boolean computeStructure( DMatrixSparseCSC A ) {
+        final int N = A.numCols;
+        final int nz_length = A.nz_length;
+
+        // Sort by row. Columns are traversed in order so elements in the same row have increasing columns
+        int[] rowStart = adjustClear(gw, N + 1);
+        for (int i = 0; i < nz_length; i++) {
+            rowStart[A.nz_rows[i] + 1]++;
+        }
+        for (int row = 0; row < N; row++) {
+            rowStart[row + 1] += rowStart[row];
+        }
+        int[] byRow = adjust(gt, nz_length);
+        for (int col = 0; col < N; col++) {
+            for (int i = A.col_idx[col]; i < A.col_idx[col + 1]; i++) {
+                byRow[rowStart[A.nz_rows[i]]++] = i;
+            }
+        }
+
+        // Sort by column. Rows are traversed in order so each column will be sorted
+        LU.reshape(N, N, nz_length);
+        System.arraycopy(A.col_idx, 0, LU.col_idx, 0, N + 1);
+        LU.nz_length = nz_length;
+        int[] src = adjust(srcIndex, nz_length);
+        int[] colNext = adjust(gw, N);
+        System.arraycopy(A.col_idx, 0, colNext, 0, N);
+
+        // find the column of each element in A
+        int[] colOf = adjust(gc, nz_length);
+        for (int col = 0; col < N; col++) {
+            for (int i = A.col_idx[col]; i < A.col_idx[col + 1]; i++) {
+                colOf[i] = col;
+            }
+        }
+        for (int i = 0; i < nz_length; i++) {
+            int index = byRow[i];
+            int slot = colNext[colOf[index]]++;
+            LU.nz_rows[slot] = A.nz_rows[index];
+            src[slot] = index;
+        }
+        LU.indicesSorted = true;
+
+        // Locate the diagonal elements
+        int[] diag = adjustFill(diagIndex, N, -1);
+        for (int col = 0; col < N; col++) {
+            for (int i = LU.col_idx[col]; i < LU.col_idx[col + 1]; i++) {
+                if (LU.nz_rows[i] == col) {
+                    diag[col] = i;
+                    break;
+                }
+            }
+            if (diag[col] == -1)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Left looking factorization. Column 'j' is updated by every column 'k' &lt; j with U(k,j) != 0 in increasing
+     * order, but only elements already in the pattern of column 'j' are modified.
+     *
+     * @return false if a zero pivot was encountered
+     */
+    boolean factor() {
+        final int N = LU.numCols;
+        final int[] rows = LU.nz_rows;
+        final double[] values = LU.nz_values;
+        final int[] diag = diagIndex.data;
+
+        // w[row] = location of the row in the current column or -1 if it isn't in the pattern
+        int[] w = adjustFill(gw, N, -1);
+
+        for (int j = 0; j < N; j++) {
+            int idx0 = LU.col_idx[j];
+            int idx1 = LU.col_idx[j + 1];
+            for (int p = idx0; p < idx1; p++) {
+                w[rows[p]] = p;
+            }
+
+            // U(k,j) is final once all columns before k have been applied
+            for (int p = idx0; p < diag[j]; p++) {
+                int k = rows[p];
+                double U_kj = values[p];
+                for (int q = diag[k] + 1; q < LU.col_idx[k + 1]; q++) {
+                    int target = w[rows[q]];
+                    if (target >= 0)
+                        values[target] -= values[q]*U_kj;
+                }
+            }
+
+            double pivot = values[diag[j]];
+            if (pivot == 0.0)
+                return false;
+            for (int p = diag[j] + 1; p < idx1; p++) {
+                values[p] /= pivot;
+            }
+
+            for (int p = idx0; p < idx1; p++) {
+                w[rows[p]] = -1;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void solve( double[] r, double[] z ) {
+        final int N = LU.numCols;
+        final int[] rows = LU.nz_rows;
+        final double[] values = LU.nz_values;
+        final int[] diag = diagIndex.data;
+
+        System.arraycopy(r, 0, z, 0, N);
+
+        // L has a unit diagonal
+        for (int j = 0; j < N; j++) {
+            double z_j = z[j];
+            for (int p = diag[j] + 1; p < LU.col_idx[j + 1]; p++) {
+                z[rows[p]] -= values[p]*z_j;
+            }
+        }
+
+        for (int j = N - 1; j >= 0; j--) {
+            double z_j = z[j] /= values[diag[j]];
+            for (int p = LU.col_idx[j]; p < diag[j]; p++) {
+                z[rows[p]] -= values[p]*z_j;
+            }
+        }
+    }
+
+    @Override
+    public void setStructureLocked( boolean locked ) {
+        this.locked = locked;
+    }
+
+    @Override
+    public boolean isStructureLocked() {
+        return locked;
+    }
+
+    /**
+     * Returns the matrix which stores L and U. Elements above the diagonal belong to U and below to L.
+     */
+    public DMatrixSparseCSC getLU() {
+        return LU;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixSparseCSC;
+
+/**
+ * Jacobi preconditioner. M is the diagonal of A.
+ *
+ * @author Peter Abeles
+ */
+public class PreconditionerJacobi_DSCC implements Preconditioner_DSCC {
+    // inverse of the diagonal elements in A
+    DGrowArray invDiag = new DGrowArray();
+
+    boolean locked = false;
+
+    @Override
+    public boolean setA( DMatrixSparseCSC A ) {
+        if (A.numRows != A.numCols)
+            throw new IllegalArgumentException("Must be a square matrix");
+
+        final int N = A.numCols;
+        double[] d = invDiag.reshape(N).data;
+
+        for (int col = 0; col < N; col++) {
+            int idx0 = A.col_idx[col];
+            int idx1 = A.col_idx[col + 1];
+
+            double value = 0;
+            for (int i = idx0; i < idx1; i++) {
+                if (A.nz_rows[i] == col) {
+                    value = A.nz_values[i];
+                    break;
+                }
+            }
+            if (value == 0.0)
+                return false;
+            d[col] = 1.0/value;
+        }
+        return true;
+    }
+
+    @Override
+    public void solve( double[] r, double[] z ) {
+        final int N = invDiag.length;
+        final double[] d = invDiag.data;
+        for (int i = 0; i < N; i++) {
+            z[i] = r[i]*d[i];
+        }
+    }
+
+    @Override
+    public void setStructureLocked( boolean locked ) {
+        this.locked = locked;
+    }
+
+    @Override
+    public boolean isStructureLocked() {
+        return locked;
+    }
+}
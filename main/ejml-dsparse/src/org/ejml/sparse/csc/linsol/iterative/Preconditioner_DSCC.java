@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.data.DMatrixSparseCSC;
+
+/**
+ * Preconditioner M for an iterative linear solver. The solver never forms M<sup>-1</sup> explicitly and instead
+ * only requests that M*z = r be solved for z.
+ *
+ * @author Peter Abeles
+ */
+public interface Preconditioner_DSCC {
+    /**
+     * Computes the preconditioner for the matrix A.
+     *
+     * @param A (Input) Matrix. Not modified.
+     * @return true if successful or false if the preconditioner could not be computed
+     */
+    boolean setA( DMatrixSparseCSC A );
+
+    /**
+     * Solves M*z = r
+     *
+     * @param r (Input) vector. Not modified.
+     * @param z (Output) vector.
+     */
+    void solve( double[] r, double[] z );
+
+    /**
+     * If true then the non-zero pattern of the most recent matrix passed to {@link #setA} is assumed to
+     * not change and structural calculations will be skipped.
+     */
+    void setStructureLocked( boolean locked );
+
+    boolean isStructureLocked();
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2020, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
  *
  * This file is part of Efficient Java Matrix Library (EJML).
  *
@@ -19,6 +19,7 @@
 package org.ejml.sparse.csc.linsol.lu;
 
 import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
 import org.ejml.data.DGrowArray;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.DMatrixSparseCSC;
@@ -28,11 +29,14 @@ import org.ejml.interfaces.linsol.LinearSolverSparse;
 import org.ejml.sparse.csc.CommonOps_DSCC;
 import org.ejml.sparse.csc.decomposition.lu.LuUpLooking_DSCC;
 import org.ejml.sparse.csc.misc.TriangularSolver_DSCC;
+import org.ejml.sparse.csc.misc.TriangularSolver_MT_DSCC;
 
 import static org.ejml.UtilEjml.adjust;
 
 /**
- * LU Decomposition based solver for square matrices. Uses {@link LuUpLooking_DSCC} internally.
+ * LU Decomposition based solver for square matrices. Uses {@link LuUpLooking_DSCC} internally. If
+ * {@link EjmlConcurrency#useConcurrent} is true for the factors then dense systems are solved with
+ * {@link TriangularSolver_MT_DSCC}.
  *
  * @author Peter Abeles
  */
@@ -44,11 +48,17 @@ public class LinearSolverLu_DSCC implements LinearSolverSparse<DMatrixSparseCSC,
     private final DGrowArray gb = new DGrowArray();
 
     DMatrixSparseCSC Bp = new DMatrixSparseCSC(1, 1, 1);
+    DMatrixSparseCSC Xp = new DMatrixSparseCSC(1, 1, 1);
     DMatrixSparseCSC tmp = new DMatrixSparseCSC(1, 1, 1);
 
     // Number of rows in A
     int AnumRows,AnumCols;
 
+    // Level scheduled solvers for L and U. Only used when the concurrent code is turned on
+    TriangularSolver_MT_DSCC solverL = new TriangularSolver_MT_DSCC();
+    TriangularSolver_MT_DSCC solverU = new TriangularSolver_MT_DSCC();
+    boolean concurrent;
+
     public LinearSolverLu_DSCC( LuUpLooking_DSCC decomposition ) {
         this.decomposition = decomposition;
     }
@@ -57,7 +67,18 @@ public class LinearSolverLu_DSCC implements LinearSolverSparse<DMatrixSparseCSC,
     public boolean setA( DMatrixSparseCSC A ) {
         this.AnumRows = A.numRows;
         this.AnumCols = A.numCols;
-        return decomposition.decompose(A);
+        if (!decomposition.decompose(A))
+            return false;
+
+        // the level sets only need to be computed once for all the systems solved with this decomposition
+        DMatrixSparseCSC L = decomposition.getL();
+        DMatrixSparseCSC U = decomposition.getU();
+        concurrent = EjmlConcurrency.useConcurrent(L) || EjmlConcurrency.useConcurrent(U);
+        if (concurrent) {
+            solverL.process(L, true);
+            solverU.process(U, false);
+        }
+        return true;
     }
 
     @Override
@@ -75,7 +96,13 @@ public class LinearSolverLu_DSCC implements LinearSolverSparse<DMatrixSparseCSC,
         // these are row pivots
         Bp.reshape(B.numRows, B.numCols, B.nz_length);
         int[] Pinv = decomposition.getPinv();
-        CommonOps_DSCC.permute(Pinv, B, null, Bp);
+        if (decomposition.isReduceFill()) {
+            // the fill reducing permutation was applied to the rows before pivoting
+            CommonOps_DSCC.permute(decomposition.getReduceRowPermutationInv(), B, null, tmp);
+            CommonOps_DSCC.permute(Pinv, tmp, null, Bp);
+        } else {
+            CommonOps_DSCC.permute(Pinv, B, null, Bp);
+        }
 
         IGrowArray gw = decomposition.getGw();
         IGrowArray gw1 = decomposition.getGxi();
@@ -83,7 +110,14 @@ public class LinearSolverLu_DSCC implements LinearSolverSparse<DMatrixSparseCSC,
         tmp.reshape(L.numRows, B.numCols, 1);
 
         TriangularSolver_DSCC.solve(L, true, Bp, tmp, null, gx, gw, gw1);
-        TriangularSolver_DSCC.solve(U, false, tmp, X, null, gx, gw, gw1);
+        if (decomposition.isReduceFill()) {
+            // undo the column permutation
+            Xp.reshape(AnumCols, B.numCols, 1);
+            TriangularSolver_DSCC.solve(U, false, tmp, Xp, null, gx, gw, gw1);
+            CommonOps_DSCC.permute(decomposition.getReducePermutation(), Xp, null, X);
+        } else {
+            TriangularSolver_DSCC.solve(U, false, tmp, X, null, gx, gw, gw1);
+        }
     }
 
     @Override
@@ -110,24 +144,38 @@ public class LinearSolverLu_DSCC implements LinearSolverSparse<DMatrixSparseCSC,
 
         final boolean reduceFill = decomposition.isReduceFill();
         final int[] q = reduceFill ? decomposition.getReducePermutation() : null;
+        final int[] qinv = reduceFill ? decomposition.getReduceRowPermutationInv() : null;
 
         // process each column in X and B individually
         for (int colX = 0; colX < X.numCols; colX++) {
             int index = colX;
             for (int i = 0; i < B.numRows; i++, index += X.numCols) b[i] = B.data[index];
 
-            CommonOps_DSCC.permuteInv(pinv, b, x, X.numRows);
-            TriangularSolver_DSCC.solveL(L, x);
-            TriangularSolver_DSCC.solveU(U, x);
-            double[] d;
             if (reduceFill) {
-                CommonOps_DSCC.permute(q, x, b, X.numRows);
-                d = b;
+                // apply the fill reducing row permutation, then the pivots
+                CommonOps_DSCC.permuteInv(qinv, b, x, B.numRows);
+                CommonOps_DSCC.permuteInv(pinv, x, b, B.numRows);
+                solveLU(L, U, b);
+                CommonOps_DSCC.permuteInv(q, b, x, X.numRows);
             } else {
-                d = x;
+                CommonOps_DSCC.permuteInv(pinv, b, x, X.numRows);
+                solveLU(L, U, x);
             }
             index = colX;
-            for (int i = 0; i < X.numRows; i++, index += X.numCols) X.data[index] = d[i];
+            for (int i = 0; i < X.numRows; i++, index += X.numCols) X.data[index] = x[i];
+        }
+    }
+
+    /**
+     * Solves L*U*x = b
+     */
+    private void solveLU( DMatrixSparseCSC L, DMatrixSparseCSC U, double[] x ) {
+        if (concurrent) {
+            solverL.solve(x);
+            solverU.solve(x);
+        } else {
+            TriangularSolver_DSCC.solveL(L, x);
+            TriangularSolver_DSCC.solveU(U, x);
         }
     }
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2020, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
  *
  * This file is part of Efficient Java Matrix Library (EJML).
  *
@@ -48,6 +48,7 @@ public class LinearSolverQrLeftLooking_DSCC implements LinearSolverSparse<DMatri
     private final IGrowArray gw = new IGrowArray();
 
     private final DMatrixSparseCSC tmp = new DMatrixSparseCSC(1, 1, 1);
+    private final DMatrixSparseCSC Xp = new DMatrixSparseCSC(1, 1, 1);
 
     public LinearSolverQrLeftLooking_DSCC( QrLeftLookingDecomposition_DSCC qr ) {
         this.qr = qr;
@@ -79,6 +80,14 @@ public class LinearSolverQrLeftLooking_DSCC implements LinearSolverSparse<DMatri
         DMatrixSparseCSC B_tmp = B.createLike();
         DMatrixSparseCSC swap;
 
+        // Apply the fill reducing row permutation to B
+        if (qr.isFillPermutated()) {
+            CommonOps_DSCC.permuteRowInv(qr.getFillRowPermutationInv(), B, B_tmp);
+            swap = B_tmp;
+            B_tmp = B;
+            B = swap;
+        }
+
         // Apply permutation to B
         int[] pinv = qr.getStructure().getPinv();
         CommonOps_DSCC.permuteRowInv(pinv, B, B_tmp);
@@ -97,7 +106,14 @@ public class LinearSolverQrLeftLooking_DSCC implements LinearSolverSparse<DMatri
 
         // Solve for X
         DMatrixSparseCSC R = qr.getR();
-        TriangularSolver_DSCC.solve(R, false, B, X, null, gx, gw, gw1);
+        if (qr.isFillPermutated()) {
+            // undo the column permutation
+            Xp.reshape(AnumCols, B.numCols, 1);
+            TriangularSolver_DSCC.solve(R, false, B, Xp, null, gx, gw, gw1);
+            CommonOps_DSCC.permute(qr.getFillPermutation(), Xp, null, X);
+        } else {
+            TriangularSolver_DSCC.solve(R, false, B, X, null, gx, gw, gw1);
+        }
     }
 
     @Override
@@ -125,6 +141,12 @@ public class LinearSolverQrLeftLooking_DSCC implements LinearSolverSparse<DMatri
             int index = colX;
             for (int i = 0; i < B.numRows; i++, index += X.numCols) b[i] = B.data[index];
 
+            // apply the fill reducing row permutation
+            if (qr.isFillPermutated()) {
+                CommonOps_DSCC.permuteInv(qr.getFillRowPermutationInv(), b, bp, AnumRows);
+                System.arraycopy(bp, 0, b, 0, AnumRows);
+            }
+
             // apply row pivots
             CommonOps_DSCC.permuteInv(pinv, b, bp, AnumRows);
 
@@ -138,7 +160,7 @@ public class LinearSolverQrLeftLooking_DSCC implements LinearSolverSparse<DMatri
             // undo the permutation
             double[] out;
             if (qr.isFillPermutated()) {
-                CommonOps_DSCC.permute(qr.getFillPermutation(), bp, x, X.numRows);
+                CommonOps_DSCC.permuteInv(qr.getFillPermutation(), bp, x, X.numRows);
                 out = x;
             } else {
                 out = bp;
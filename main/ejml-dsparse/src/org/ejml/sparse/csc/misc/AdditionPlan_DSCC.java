@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.misc;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+
+import java.util.Arrays;
+
+import static org.ejml.UtilEjml.adjust;
+import static org.ejml.UtilEjml.stringShapes;
+
+/**
+ * <p>
+ * Sparse matrix addition, C = &alpha;A + &beta;B, which is split into a symbolic and a numeric step. The symbolic
+ * step computes the structure of C and where each element in A and B goes inside of C. The numeric step only
+ * fills in nz_values and can be called repeatedly for inputs with the same structure but different values.
+ * </p>
+ *
+ * <p>
+ * The plan does not check if the structure of the inputs has changed between calls, only their shape and number
+ * of non-zero elements. Rows in each column of C are sorted.
+ * </p>
+ *
+ * @author Peter Abeles
+ * @see org.ejml.sparse.csc.mult.MultiplicationPlan_DSCC
+ */
+public class AdditionPlan_DSCC {
+    // Location in C.nz_values of each element in A and B
+    final IGrowArray mapA = new IGrowArray();
+    final IGrowArray mapB = new IGrowArray();
+
+    // Used to sanity check the numeric step
+    int numRows, numCols, nzA, nzB, nzC;
+
+    // workspace
+    final IGrowArray gw = new IGrowArray();
+    final IGrowArray gpos = new IGrowArray();
+
+    /**
+     * Computes the structure of C = &alpha;A + &beta;B. Values in C are not computed.
+     *
+     * @param A (Input) Matrix. Not modified.
+     * @param B (Input) Matrix. Not modified.
+     * @param C (Output) Structure of the sum. Modified.
+     */
+    public void symbolic( DMatrixSparseCSC A, DMatrixSparseCSC B, DMatrixSparseCSC C ) {
+        if (A.numRows != B.numRows || A.numCols != B.numCols)
+            throw new MatrixDimensionException("Inconsistent matrix shapes. " + stringShapes(A, B));
+
+        int[] w = adjust(gw, A.numRows, A.numRows);
+        int[] pos = adjust(gpos, A.numRows);
+        int[] mapA = adjust(this.mapA, A.nz_length);
+        int[] mapB = adjust(this.mapB, B.nz_length);
+
+        C.reshape(A.numRows, A.numCols, A.nz_length + B.nz_length);
+
+        int nz = 0;
+        for (int col = 0; col < A.numCols; col++) {
+            final int mark = col + 1;
+            final int idxC0 = nz;
+            nz = markRows(A, col, mark, w, C, nz);
+            nz = markRows(B, col, mark, w, C, nz);
+            C.col_idx[col + 1] = nz;
+
+            Arrays.sort(C.nz_rows, idxC0, nz);
+            for (int i = idxC0; i < nz; i++) {
+                pos[C.nz_rows[i]] = i;
+            }
+            for (int i = A.col_idx[col]; i < A.col_idx[col + 1]; i++) {
+                mapA[i] = pos[A.nz_rows[i]];
+            }
+            for (int i = B.col_idx[col]; i < B.col_idx[col + 1]; i++) {
+                mapB[i] = pos[B.nz_rows[i]];
+            }
+        }
+        C.nz_length = nz;
+        C.indicesSorted = true;
+        Arrays.fill(C.nz_values, 0, nz, 0.0);
+
+        numRows = A.numRows;
+        numCols = A.numCols;
+        nzA = A.nz_length;
+        nzB = B.nz_length;
+        nzC = nz;
+    }
+
+    /**
+     * Computes the values in C = &alpha;A + &beta;B using the plan from the most recent symbolic step.
+     *
+     * @param alpha scalar value multiplied against A
+     * @param A (Input) Matrix with the same structure as in the symbolic step. Not modified.
+     * @param beta scalar value multiplied against B
+     * @param B (Input) Matrix with the same structure as in the symbolic step. Not modified.
+     * @param C (Output) Matrix which was passed into the symbolic step. Values are modified.
+     */
+    public void numeric( double alpha, DMatrixSparseCSC A, double beta, DMatrixSparseCSC B, DMatrixSparseCSC C ) {
+        if (A.numRows != numRows || A.numCols != numCols || B.numRows != numRows || B.numCols != numCols ||
+                A.nz_length != nzA || B.nz_length != nzB || C.nz_length != nzC)
+            throw new IllegalArgumentException("Matrices do not match the symbolic step");
+
+        final double[] values = C.nz_values;
+        Arrays.fill(values, 0, C.nz_length, 0.0);
+
+        final int[] mapA = this.mapA.data;
+        for (int i = 0; i < A.nz_length; i++) {
+            values[mapA[i]] += alpha*A.nz_values[i];
+        }
+        final int[] mapB = this.mapB.data;
+        for (int i = 0; i < B.nz_length; i++) {
+            values[mapB[i]] += beta*B.nz_values[i];
+        }
+    }
+
+    /**
+     * Adds rows in the column of M to C that have not already been added
+     */
+    private static int markRows( DMatrixSparseCSC M, int col, int mark, int[] w, DMatrixSparseCSC C, int nz ) {
+        for (int i = M.col_idx[col]; i < M.col_idx[col + 1]; i++) {
+            int row = M.nz_rows[i];
+            if (w[row] != mark) {
+                w[row] = mark;
+                C.nz_rows[nz++] = row;
+            }
+        }
+        return nz;
+    }
+}
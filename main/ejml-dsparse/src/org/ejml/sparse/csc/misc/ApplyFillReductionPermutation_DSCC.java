@@ -25,7 +25,7 @@ import org.ejml.sparse.csc.CommonOps_DSCC;
 import org.jetbrains.annotations.Nullable;
 
 /**
- * Applies the fill reduction row pivots to the input matrix to reduce fill in during decomposition/solve.
+ * Applies the fill reduction row and column pivots to the input matrix to reduce fill in during decomposition/solve.
  *
  * P*A*Q where P are row pivots and Q are column pivots.
  *
@@ -68,10 +68,12 @@ public class ApplyFillReductionPermutation_DSCC {
         if (pinv.length < gp.length)
             pinv = new int[gp.length];
         CommonOps_DSCC.permutationInverse(gp.data, pinv, gp.length);
-        if (symmetric)
+        if (symmetric) {
             CommonOps_DSCC.permuteSymmetric(A, pinv, Aperm, gw);
-        else
-            CommonOps_DSCC.permuteRowInv(pinv, A, Aperm);
+        } else {
+            IGrowArray gq = fillReduce.getColumn();
+            CommonOps_DSCC.permute(pinv, A, gq == null ? null : gq.data, Aperm);
+        }
         return Aperm;
     }
 
@@ -0,0 +1,574 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.misc;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+
+/**
+ * <p>Computes a fill reducing ordering using the Approximate Minimum Degree (AMD) algorithm. The ordering is
+ * found by performing a symbolic elimination on the quotient graph of A+A<sup>T</sup>, where at each step the
+ * node with the smallest approximate external degree is eliminated. Indistinguishable nodes are merged into
+ * supernodes, elements are absorbed aggressively, and rows which are nearly dense are ordered last. The
+ * returned ordering is postordered using the assembly tree. A column ordering for unsymmetric and rectangular
+ * matrices can be found using the pattern of A<sup>T</sup>A instead, see {@link #processColumns}.</p>
+ *
+ * <p>The output permutation is such that p[k] = i means row/column 'i' in the original matrix is the k-th
+ * row/column in the permuted matrix. It's intended to be used to compute P*A*P<sup>T</sup> before
+ * a Cholesky or LU decomposition.</p>
+ *
+ * <p>See cs_amd() in chapter 7 of "Direct Methods for Sparse Linear Systems" by Tomothy A. Davis</p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("NullAway.Init")
+public class ApproximateMinimumDegree_DSCC {
+
+    // Number of columns in the matrix being ordered
+    int n;
+
+    // Pattern of the quotient graph. Cp = pointers to start of each object. Ci = indexes of nodes and elements
+    IGrowArray gCp = new IGrowArray();
+    IGrowArray gCi = new IGrowArray();
+    int[] Cp, Ci;
+
+    // Transpose of the input matrix
+    DMatrixSparseCSC At = new DMatrixSparseCSC(1, 1, 0);
+    IGrowArray gw = new IGrowArray();
+
+    //---------- Workspace. Each has a length of n+1
+    int[] len = new int[0];    // length of each object's list in Ci
+    int[] nv = new int[0];     // number of nodes a supernode represents. 0 if it's been absorbed
+    int[] next = new int[0];   // next node in degree or hash list
+    int[] last = new int[0];   // previous node in degree list or hash of a node
+    int[] head = new int[0];   // head of degree lists
+    int[] elen = new int[0];   // number of elements in a node's list
+    int[] degree = new int[0]; // approximate degree of each node
+    int[] w = new int[0];      // marks used to compute set differences
+    int[] hhead = new int[0];  // head of hash lists
+    int[] perm = new int[0];   // output permutation with the dense element n at the end
+
+    /**
+     * Computes the fill reducing ordering for the square matrix A. Only the pattern of A is used.
+     *
+     * @param A (Input) Square matrix. Not modified.
+     * @param permutation (Output) The ordering. p[k] = i means row/column 'i' should be the k-th row/column.
+     */
+    public void process( DMatrixSparseCSC A, IGrowArray permutation ) {
+        if (A.numRows != A.numCols)
+            throw new IllegalArgumentException("Must be a square matrix");
+
+        n = A.numCols;
+        permutation.reshape(n);
+        if (n == 0)
+            return;
+
+        constructSymmetricPattern(A);
+        initialize(n);
+        computeOrdering();
+        System.arraycopy(perm, 0, permutation.data, 0, n);
+    }
+
+    /**
+     * Computes a fill reducing column ordering for any matrix A, including rectangular matrices. The ordering is
+     * found from the pattern of A<sup>T</sup>A, which is the pattern of R in a QR decomposition and an upper bound
+     * on the pattern of U in an LU decomposition with partial pivoting. Rows in A which are nearly dense are
+     * ignored since they would make A<sup>T</sup>A dense. Only the pattern of A is used.
+     *
+     * @param A (Input) Matrix. Not modified.
+     * @param permutation (Output) The column ordering. q[k] = j means column 'j' should be the k-th column.
+     */
+    public void processColumns( DMatrixSparseCSC A, IGrowArray permutation ) {
+        n = A.numCols;
+        permutation.reshape(n);
+        if (n == 0)
+            return;
+
+        constructNormalPattern(A);
+        initialize(n);
+        computeOrdering();
+        System.arraycopy(perm, 0, permutation.data, 0, n);
+    }
+
+    /**
+     * Computes the pattern of C = A + A<sup>T</sup> with the diagonal elements removed. Extra space is added to the
+     * end of C to reduce how often garbage collection is needed.
+     */
+    void constructSymmetricPattern( DMatrixSparseCSC A ) {
+        CommonOps_DSCC.transpose(A, At, gw);
+
+        int[] marks = gw.data;
+        gCp.reshape(n + 1);
+        Cp = gCp.data;
+
+        // Count the number of unique off-diagonal elements in each column
+        for (int j = 0; j < n; j++) {
+            marks[j] = -1;
+        }
+        int cnz = 0;
+        for (int j = 0; j < n; j++) {
+            Cp[j] = cnz;
+            cnz += countUnique(A, j, j, marks, j) + countUnique(At, j, j, marks, j);
+        }
+        Cp[n] = cnz;
+
+        // Add elbow room so that the elimination can be done in place
+        int t = cnz + cnz/5 + 2*n;
+        gCi.reshape(t);
+        Ci = gCi.data;
+
+        // marks from the counting pass are all less than n and can't be confused with the marks used here
+        for (int j = 0; j < n; j++) {
+            int idx = copyUnique(A, j, j, marks, j + n, Cp[j]);
+            copyUnique(At, j, j, marks, j + n, idx);
+        }
+    }
+
+    /**
+     * Computes the pattern of C = A<sup>T</sup>A with the diagonal elements removed, after rows in A with more
+     * than 'dense' elements have been dropped. Extra space is added to the end of C to reduce how often garbage
+     * collection is needed.
+     */
+    void constructNormalPattern( DMatrixSparseCSC A ) {
+        CommonOps_DSCC.transpose(A, At, gw);
+
+        // Rows with more elements than this are considered dense and ignored
+        int dense = (int)Math.max(16, 10*Math.sqrt(n));
+        dense = Math.min(n - 2, dense);
+
+        int[] marks = UtilEjml.adjust(gw, n);
+        gCp.reshape(n + 1);
+        Cp = gCp.data;
+
+        // Count the number of unique off-diagonal elements in each column
+        for (int j = 0; j < n; j++) {
+            marks[j] = -1;
+        }
+        int cnz = 0;
+        for (int j = 0; j < n; j++) {
+            Cp[j] = cnz;
+            for (int p = A.col_idx[j]; p < A.col_idx[j + 1]; p++) {
+                int row = A.nz_rows[p];
+                if (At.col_idx[row + 1] - At.col_idx[row] > dense)
+                    continue;
+                cnz += countUnique(At, row, j, marks, j);
+            }
+        }
+        Cp[n] = cnz;
+
+        // Add elbow room so that the elimination can be done in place
+        int t = cnz + cnz/5 + 2*n;
+        gCi.reshape(t);
+        Ci = gCi.data;
+
+        for (int j = 0; j < n; j++) {
+            int idx = Cp[j];
+            for (int p = A.col_idx[j]; p < A.col_idx[j + 1]; p++) {
+                int row = A.nz_rows[p];
+                if (At.col_idx[row + 1] - At.col_idx[row] > dense)
+                    continue;
+                idx = copyUnique(At, row, j, marks, j + n, idx);
+            }
+        }
+    }
+
+    /**
+     * Counts the elements in column 'col' which are not 'j' and have not been marked yet
+     */
+    private static int countUnique( DMatrixSparseCSC A, int col, int j, int[] marks, int mark ) {
+        int total = 0;
+        int idx0 = A.col_idx[col];
+        int idx1 = A.col_idx[col + 1];
+        for (int p = idx0; p < idx1; p++) {
+            int i = A.nz_rows[p];
+            if (i == j || marks[i] == mark)
+                continue;
+            marks[i] = mark;
+            total++;
+        }
+        return total;
+    }
+
+    /**
+     * Copies the elements in column 'col' which are not 'j' and have not been marked yet into Ci.
+     *
+     * @return Index in Ci after the last element written
+     */
+    private int copyUnique( DMatrixSparseCSC A, int col, int j, int[] marks, int mark, int idx ) {
+        int idx0 = A.col_idx[col];
+        int idx1 = A.col_idx[col + 1];
+        for (int p = idx0; p < idx1; p++) {
+            int i = A.nz_rows[p];
+            if (i == j || marks[i] == mark)
+                continue;
+            marks[i] = mark;
+            Ci[idx++] = i;
+        }
+        return idx;
+    }
+
+    void initialize( int n ) {
+        int N = n + 1;
+        if (len.length < N) {
+            len = new int[N];
+            nv = new int[N];
+            next = new int[N];
+            last = new int[N];
+            head = new int[N];
+            elen = new int[N];
+            degree = new int[N];
+            w = new int[N];
+            hhead = new int[N];
+            perm = new int[N];
+        }
+    }
+
+    /**
+     * Performs the minimum degree ordering on the quotient graph stored in Cp and Ci.
+     */
+    void computeOrdering() {
+        int nzmax = gCi.length;
+        int cnz = Cp[n];
+
+        // Nodes with a degree larger than this are considered dense and are ordered last
+        int dense = (int)Math.max(16, 10*Math.sqrt(n));
+        dense = Math.min(n - 2, dense);
+
+        //---------- Initialize quotient graph
+        for (int k = 0; k < n; k++) {
+            len[k] = Cp[k + 1] - Cp[k];
+        }
+        len[n] = 0;
+        for (int i = 0; i <= n; i++) {
+            head[i] = -1;   // degree list i is empty
+            last[i] = -1;
+            next[i] = -1;
+            hhead[i] = -1;  // hash list i is empty
+            nv[i] = 1;      // node i is just one node
+            w[i] = 1;       // node i is alive
+            elen[i] = 0;    // Ek of node i is empty
+            degree[i] = len[i];
+        }
+        int lemax = 0;
+        int mark = clearW(0, 0);
+        elen[n] = -2;  // n is a dead element
+        Cp[n] = -1;    // n is a root of assembly tree
+        w[n] = 0;      // n is a dead element
+
+        //---------- Initialize degree lists
+        int nel = 0;
+        for (int i = 0; i < n; i++) {
+            int d = degree[i];
+            if (d == 0) {            // node i is empty
+                elen[i] = -2;        // element i is dead
+                nel++;
+                Cp[i] = -1;          // i is a root of assembly tree
+                w[i] = 0;
+            } else if (d > dense) {  // node i is dense
+                nv[i] = 0;           // absorb i into element n
+                elen[i] = -1;        // node i is dead
+                nel++;
+                Cp[i] = flip(n);
+                nv[n]++;
+            } else {
+                if (head[d] != -1) last[head[d]] = i;
+                next[i] = head[d];   // put node i in degree list d
+                head[d] = i;
+            }
+        }
+
+        int mindeg = 0;
+        while (nel < n) {
+            //---------- Select node of minimum approximate degree
+            int k = -1;
+            for (; mindeg < n && (k = head[mindeg]) == -1; mindeg++) {}
+            if (next[k] != -1) last[next[k]] = -1;
+            head[mindeg] = next[k];  // remove k from degree list
+            int elenk = elen[k];     // elenk = |Ek|
+            int nvk = nv[k];         // # of nodes k represents
+            nel += nvk;              // nv[k] nodes of A eliminated
+
+            //---------- Garbage collection
+            if (elenk > 0 && cnz + mindeg >= nzmax) {
+                for (int j = 0; j < n; j++) {
+                    int p = Cp[j];
+                    if (p >= 0) {          // j is a live node or element
+                        Cp[j] = Ci[p];     // save first entry of object
+                        Ci[p] = flip(j);   // first entry is now flip(j)
+                    }
+                }
+                int q = 0;
+                for (int p = 0; p < cnz; ) { // scan all of memory
+                    int j = flip(Ci[p++]);
+                    if (j >= 0) {            // found object j
+                        Ci[q] = Cp[j];       // restore first entry of object
+                        Cp[j] = q++;         // new pointer to object j
+                        for (int k3 = 0; k3 < len[j] - 1; k3++) Ci[q++] = Ci[p++];
+                    }
+                }
+                cnz = q;                     // Ci[cnz...nzmax-1] now free
+            }
+
+            //---------- Construct new element
+            int dk = 0;
+            nv[k] = -nvk;                        // flag k as in Lk
+            int p = Cp[k];
+            int pk1 = (elenk == 0) ? p : cnz;    // do in place if elen[k] == 0
+            int pk2 = pk1;
+            for (int k1 = 1; k1 <= elenk + 1; k1++) {
+                int e, pj, ln;
+                if (k1 > elenk) {
+                    e = k;                       // search the nodes in k
+                    pj = p;                      // list of nodes starts at Ci[pj]
+                    ln = len[k] - elenk;         // length of list of nodes in k
+                } else {
+                    e = Ci[p++];                 // search the nodes in e
+                    pj = Cp[e];
+                    ln = len[e];                 // length of list of nodes in e
+                }
+                for (int k2 = 1; k2 <= ln; k2++) {
+                    int i = Ci[pj++];
+                    int nvi = nv[i];
+                    if (nvi <= 0) continue;      // node i dead, or seen
+                    dk += nvi;                   // degree[Lk] += size of node i
+                    nv[i] = -nvi;                // negate nv[i] to denote i in Lk
+                    Ci[pk2++] = i;               // place i in Lk
+                    if (next[i] != -1) last[next[i]] = last[i];
+                    if (last[i] != -1) {         // remove i from degree list
+                        next[last[i]] = next[i];
+                    } else {
+                        head[degree[i]] = next[i];
+                    }
+                }
+                if (e != k) {
+                    Cp[e] = flip(k);             // absorb e into k
+                    w[e] = 0;                    // e is now a dead element
+                }
+            }
+            if (elenk != 0) cnz = pk2;           // Ci[cnz...nzmax] is free
+            degree[k] = dk;                      // external degree of k - |Lk\i|
+            Cp[k] = pk1;                         // element k is in Ci[pk1..pk2-1]
+            len[k] = pk2 - pk1;
+            elen[k] = -2;                        // k is now an element
+
+            //---------- Find set differences
+            mark = clearW(mark, lemax);
+            for (int pk = pk1; pk < pk2; pk++) { // scan 1: find |Le\Lk|
+                int i = Ci[pk];
+                int eln = elen[i];
+                if (eln <= 0) continue;          // skip if elen[i] empty
+                int nvi = -nv[i];                // nv[i] was negated
+                int wnvi = mark - nvi;
+                for (p = Cp[i]; p <= Cp[i] + eln - 1; p++) { // scan Ei
+                    int e = Ci[p];
+                    if (w[e] >= mark) {
+                        w[e] -= nvi;             // decrement |Le\Lk|
+                    } else if (w[e] != 0) {      // ensure e is a live element
+                        w[e] = degree[e] + wnvi; // 1st time e seen in scan 1
+                    }
+                }
+            }
+
+            //---------- Degree update
+            for (int pk = pk1; pk < pk2; pk++) { // scan2: degree update
+                int i = Ci[pk];                  // consider node i in Lk
+                int p1 = Cp[i];
+                int p2 = p1 + elen[i] - 1;
+                int pn = p1;
+                long h = 0;
+                int d = 0;
+                for (p = p1; p <= p2; p++) {     // scan Ei
+                    int e = Ci[p];
+                    if (w[e] != 0) {             // e is an unabsorbed element
+                        int dext = w[e] - mark;  // dext = |Le\Lk|
+                        if (dext > 0) {
+                            d += dext;           // sum up the set differences
+                            Ci[pn++] = e;        // keep e in Ei
+                            h += e;              // compute the hash of node i
+                        } else {
+                            Cp[e] = flip(k);     // aggressive absorb. e->k
+                            w[e] = 0;            // e is a dead element
+                        }
+                    }
+                }
+                elen[i] = pn - p1 + 1;           // elen[i] = |Ei|
+                int p3 = pn;
+                int p4 = p1 + len[i];
+                for (p = p2 + 1; p < p4; p++) {  // prune edges in Ai
+                    int j = Ci[p];
+                    int nvj = nv[j];
+                    if (nvj <= 0) continue;      // node j dead or in Lk
+                    d += nvj;                    // degree(i) += |j|
+                    Ci[pn++] = j;                // place j in node list of i
+                    h += j;                      // compute hash for node i
+                }
+                if (d == 0) {                    // check for mass elimination
+                    Cp[i] = flip(k);             // absorb i into k
+                    int nvi = -nv[i];
+                    dk -= nvi;                   // |Lk| -= |i|
+                    nvk += nvi;                  // |k| += nv[i]
+                    nel += nvi;
+                    nv[i] = 0;
+                    elen[i] = -1;                // node i is dead
+                } else {
+                    degree[i] = Math.min(degree[i], d); // update degree(i)
+                    Ci[pn] = Ci[p3];             // move first node to end
+                    Ci[p3] = Ci[p1];             // move 1st el. to end of Ei
+                    Ci[p1] = k;                  // add k as 1st element in of Ei
+                    len[i] = pn - p1 + 1;        // new len of adj. list of node i
+                    int hash = (int)(h%n);       // finalize hash of i
+                    next[i] = hhead[hash];       // place i in hash bucket
+                    hhead[hash] = i;
+                    last[i] = hash;              // save hash of i in last[i]
+                }
+            }
+            degree[k] = dk;                      // finalize |Lk|
+            lemax = Math.max(lemax, dk);
+            mark = clearW(mark + lemax, lemax);
+
+            //---------- Supernode detection
+            for (int pk = pk1; pk < pk2; pk++) {
+                int i = Ci[pk];
+                if (nv[i] >= 0) continue;        // skip if i is dead
+                int hash = last[i];              // scan hash bucket of node i
+                i = hhead[hash];
+                hhead[hash] = -1;                // hash bucket will be empty
+                for (; i != -1 && next[i] != -1; i = next[i], mark++) {
+                    int ln = len[i];
+                    int eln = elen[i];
+                    for (p = Cp[i] + 1; p <= Cp[i] + ln - 1; p++) w[Ci[p]] = mark;
+                    int jlast = i;
+                    for (int j = next[i]; j != -1; ) { // compare i with all j
+                        boolean ok = (len[j] == ln) && (elen[j] == eln);
+                        for (p = Cp[j] + 1; ok && p <= Cp[j] + ln - 1; p++) {
+                            if (w[Ci[p]] != mark) ok = false; // compare i and j
+                        }
+                        if (ok) {                // i and j are identical
+                            Cp[j] = flip(i);     // absorb j into i
+                            nv[i] += nv[j];
+                            nv[j] = 0;
+                            elen[j] = -1;        // node j is dead
+                            j = next[j];         // delete j from hash bucket
+                            next[jlast] = j;
+                        } else {
+                            jlast = j;           // j and i are different
+                            j = next[j];
+                        }
+                    }
+                }
+            }
+
+            //---------- Finalize new element
+            p = pk1;
+            for (int pk = pk1; pk < pk2; pk++) { // finalize Lk
+                int i = Ci[pk];
+                int nvi = -nv[i];
+                if (nvi <= 0) continue;          // skip if i is dead
+                nv[i] = nvi;                     // restore nv[i]
+                int d = degree[i] + dk - nvi;    // compute external degree(i)
+                d = Math.min(d, n - nel - nvi);
+                if (head[d] != -1) last[head[d]] = i;
+                next[i] = head[d];               // put i back in degree list
+                last[i] = -1;
+                head[d] = i;
+                mindeg = Math.min(mindeg, d);    // find new minimum degree
+                degree[i] = d;
+                Ci[p++] = i;                     // place i in Lk
+            }
+            nv[k] = nvk;                         // # nodes absorbed into k
+            if ((len[k] = p - pk1) == 0) {       // length of adj list of element k
+                Cp[k] = -1;                      // k is a root of the tree
+                w[k] = 0;                        // k is now a dead element
+            }
+            if (elenk != 0) cnz = p;             // free unused space in Lk
+        }
+
+        postorderAssemblyTree();
+    }
+
+    /**
+     * Postorders the assembly tree to produce the final ordering.
+     */
+    private void postorderAssemblyTree() {
+        for (int i = 0; i < n; i++) {
+            Cp[i] = flip(Cp[i]);                 // fix assembly tree
+        }
+        for (int j = 0; j <= n; j++) {
+            head[j] = -1;
+        }
+        for (int j = n; j >= 0; j--) {           // place unordered nodes in lists
+            if (nv[j] > 0) continue;             // skip if j is an element
+            next[j] = head[Cp[j]];               // place j in list of its parent
+            head[Cp[j]] = j;
+        }
+        for (int e = n; e >= 0; e--) {           // place elements in lists
+            if (nv[e] <= 0) continue;            // skip unless e is an element
+            if (Cp[e] != -1) {
+                next[e] = head[Cp[e]];           // place e in list of its parent
+                head[Cp[e]] = e;
+            }
+        }
+        int k = 0;
+        for (int i = 0; i <= n; i++) {           // postorder the assembly tree
+            if (Cp[i] == -1)
+                k = treeDepthFirstSearch(i, k);
+        }
+    }
+
+    /**
+     * Depth first search and postorder of a tree rooted at node j. The lists of children in head/next are
+     * consumed. 'w' is used as the stack.
+     */
+    private int treeDepthFirstSearch( int j, int k ) {
+        int top = 0;
+        w[0] = j;
+        while (top >= 0) {
+            int p = w[top];
+            int i = head[p];      // youngest child of p
+            if (i == -1) {
+                top--;
+                perm[k++] = p;    // node p is the kth postordered node
+            } else {
+                head[p] = next[i];  // remove i from children of p
+                w[++top] = i;       // start dfs on child i
+            }
+        }
+        return k;
+    }
+
+    /**
+     * Clears w if mark is about to overflow or hasn't been initialized yet
+     */
+    private int clearW( int mark, int lemax ) {
+        if (mark < 2 || (mark + lemax < 0)) {
+            for (int k = 0; k < n; k++) {
+                if (w[k] != 0)
+                    w[k] = 1;
+            }
+            mark = 2;
+        }
+        return mark; // at this point, w[0..n-1] < mark holds
+    }
+
+    private static int flip( int i ) {
+        return -i - 2;
+    }
+}
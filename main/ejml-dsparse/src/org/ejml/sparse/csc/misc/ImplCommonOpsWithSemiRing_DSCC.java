@@ -22,6 +22,7 @@ import org.ejml.data.DMatrixSparseCSC;
 import org.ejml.data.IGrowArray;
 import org.ejml.masks.Mask;
 import org.ejml.ops.DSemiRing;
+import org.ejml.sparse.csc.mult.SemiRingKernels_DSCC;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Arrays;
@@ -54,6 +55,9 @@ public class ImplCommonOpsWithSemiRing_DSCC {
         C.indicesSorted = false;
         C.nz_length = 0;
 
+        // use a specialized kernel for built in semirings if one is available
+        final int kernel = SemiRingKernels_DSCC.lookup(semiRing);
+
         for (int col = 0; col < A.numCols; col++) {
             C.col_idx[col] = C.nz_length;
 
@@ -61,8 +65,10 @@ public class ImplCommonOpsWithSemiRing_DSCC {
                 mask.setIndexColumn(col);
             }
 
-            multAddColA(A, col, alpha, C, col + 1, semiRing, mask, x, w);
-            multAddColA(B, col, beta, C, col + 1, semiRing, mask, x, w);
+            if (!SemiRingKernels_DSCC.multAddColA(kernel, A, col, alpha, C, col + 1, col, mask, x, w))
+                multAddColA(A, col, alpha, C, col + 1, semiRing, mask, x, w);
+            if (!SemiRingKernels_DSCC.multAddColA(kernel, B, col, beta, C, col + 1, col, mask, x, w))
+                multAddColA(B, col, beta, C, col + 1, semiRing, mask, x, w);
 
             // take the values in the dense vector 'x' and put them into 'C'
             int idxC0 = C.col_idx[col];
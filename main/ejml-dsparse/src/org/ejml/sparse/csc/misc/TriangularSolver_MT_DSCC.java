@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.misc;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+
+import java.util.Arrays;
+
+import static org.ejml.UtilEjml.adjust;
+
+/**
+ * <p>
+ * Concurrent solver for sparse triangular systems using level scheduling. The dependency graph of the
+ * triangular matrix is split into levels (wavefronts), where all the unknowns in a level only depend on
+ * unknowns in previous levels. Unknowns inside a level are then solved in parallel. Each unknown is computed
+ * entirely by a single thread as a sparse inner product (pull form), so the results do not depend on the
+ * number of threads.
+ * </p>
+ *
+ * <p>
+ * The analysis in {@link #process} is performed once per matrix and is then reused for every call to
+ * {@link #solve} and {@link #solveTran}. It must be called again when the values or structure of the matrix change.
+ * If most of the levels are too narrow to benefit from threads then the same pull form is used
+ * in a single thread.
+ * </p>
+ *
+ * @author Peter Abeles
+ * @see TriangularSolver_DSCC
+ */
+public class TriangularSolver_MT_DSCC {
+    /**
+     * Minimum number of unknowns processed by a thread. A level is only split up if it has at least twice this
+     * many unknowns
+     */
+    public int minimumBlock = 100;
+
+    // The matrix being solved. Column j contains the dependencies of unknown j in solveTran()
+    DMatrixSparseCSC T = new DMatrixSparseCSC(1, 1, 0);
+    // Transpose of T. Column j contains the dependencies of unknown j in solve()
+    DMatrixSparseCSC T_tran = new DMatrixSparseCSC(1, 1, 0);
+
+    // is T lower or upper triangular
+    boolean lower;
+
+    // Level schedule for solve() and solveTran()
+    final LevelSets levelsSolve = new LevelSets();
+    final LevelSets levelsTran = new LevelSets();
+
+    // workspace
+    IGrowArray gw = new IGrowArray();
+
+    /**
+     * Computes the level sets for the triangular matrix. Diagonal elements are assumed to be non-zero.
+     *
+     * @param T (Input) Square lower or upper triangular matrix. A reference is saved internally. Not modified.
+     * @param lower true if T is lower triangular or false if upper triangular
+     */
+    public void process( DMatrixSparseCSC T, boolean lower ) {
+        if (T.numRows != T.numCols)
+            throw new IllegalArgumentException("Must be a square matrix");
+        this.lower = lower;
+        this.T = T;
+        CommonOps_DSCC.transpose(T, T_tran, gw);
+
+        // In solve() lower triangular systems are solved from the first unknown to the last
+        levelsSolve.compute(T_tran, lower, gw, minimumBlock);
+        levelsTran.compute(this.T, !lower, gw, minimumBlock);
+    }
+
+    /**
+     * Solves T*x = b
+     *
+     * @param x (Input) 'b' vector. (Output) 'x' vector
+     */
+    public void solve( double[] x ) {
+        solve(T_tran, levelsSolve, x);
+    }
+
+    /**
+     * Solves T<sup>T</sup>*x = b
+     *
+     * @param x (Input) 'b' vector. (Output) 'x' vector
+     */
+    public void solveTran( double[] x ) {
+        solve(T, levelsTran, x);
+    }
+
+    /**
+     * Solves the system where column 'i' in D contains the coefficients of row 'i' in the triangular system
+     */
+    void solve( DMatrixSparseCSC D, LevelSets levels, double[] x ) {
+        final int[] order = levels.order;
+        if (!levels.concurrent) {
+            solveRange(D, order, 0, D.numCols, x);
+            return;
+        }
+
+        for (int level = 0; level < levels.numLevels; level++) {
+            int idx0 = levels.levelIdx[level];
+            int idx1 = levels.levelIdx[level + 1];
+
+            if (idx1 - idx0 >= 2*minimumBlock) {
+                EjmlConcurrency.loopBlocks(idx0, idx1, minimumBlock, ( i0, i1 ) -> solveRange(D, order, i0, i1, x));
+            } else {
+                solveRange(D, order, idx0, idx1, x);
+            }
+        }
+    }
+
+    /**
+     * Computes the unknowns order[idx0:idx1-1]
+     */
+    static void solveRange( DMatrixSparseCSC D, int[] order, int idx0, int idx1, double[] x ) {
+        for (int idx = idx0; idx < idx1; idx++) {
+            final int i = order[idx];
+            final int p1 = D.col_idx[i + 1];
+
+            double sum = x[i];
+            double diag = 0;
+            for (int p = D.col_idx[i]; p < p1; p++) {
+                int j = D.nz_rows[p];
+                if (j == i)
+                    diag = D.nz_values[p];
+                else
+                    sum -= D.nz_values[p]*x[j];
+            }
+            x[i] = sum/diag;
+        }
+    }
+
+    /**
+     * Number of levels when solving T*x = b
+     */
+    public int getNumLevelsSolve() {
+        return levelsSolve.numLevels;
+    }
+
+    /**
+     * Number of levels when solving T<sup>T</sup>*x = b
+     */
+    public int getNumLevelsTran() {
+        return levelsTran.numLevels;
+    }
+
+    public boolean isLower() {
+        return lower;
+    }
+
+    /**
+     * Unknowns sorted by level. Unknowns inside a level are sorted by index for better memory access.
+     */
+    static class LevelSets {
+        // Unknowns sorted by level
+        int[] order = new int[0];
+        // Index in 'order' where each level starts. Length numLevels+1
+        int[] levelIdx = new int[0];
+        int numLevels;
+        // If false then the levels are too narrow to be worth using threads
+        boolean concurrent;
+
+        /**
+         * Computes the level of each unknown. The level of an unknown is one more than the highest level
+         * of an unknown it depends on.
+         *
+         * @param D Column 'i' contains the unknowns that 'i' depends on
+         * @param forwards If true then unknowns only depend on unknowns with a lower index
+         */
+        void compute( DMatrixSparseCSC D, boolean forwards, IGrowArray gw, int minimumBlock ) {
+            final int N = D.numCols;
+            if (order.length < N)
+                order = new int[N];
+            int[] level = adjust(gw, N);
+
+            numLevels = 0;
+            for (int k = 0; k < N; k++) {
+                int i = forwards ? k : N - 1 - k;
+                int value = 0;
+                for (int p = D.col_idx[i]; p < D.col_idx[i + 1]; p++) {
+                    int j = D.nz_rows[p];
+                    if (j != i)
+                        value = Math.max(value, level[j] + 1);
+                }
+                level[i] = value;
+                numLevels = Math.max(numLevels, value + 1);
+            }
+
+            // counting sort of unknowns by level
+            if (levelIdx.length < numLevels + 1)
+                levelIdx = new int[numLevels + 1];
+            Arrays.fill(levelIdx, 0, numLevels + 1, 0);
+            for (int i = 0; i < N; i++) {
+                levelIdx[level[i] + 1]++;
+            }
+            for (int l = 0; l < numLevels; l++) {
+                levelIdx[l + 1] += levelIdx[l];
+            }
+            // Keep track of how many unknowns can be processed in parallel
+            int parallel = 0;
+            for (int l = 0; l < numLevels; l++) {
+                int width = levelIdx[l + 1] - levelIdx[l];
+                if (width >= 2*minimumBlock)
+                    parallel += width;
+            }
+            concurrent = parallel*2 >= N && N > 0;
+
+            if (!concurrent) {
+                // In a single thread the unknowns are solved in their natural order
+                for (int k = 0; k < N; k++) {
+                    order[k] = forwards ? k : N - 1 - k;
+                }
+                return;
+            }
+
+            for (int i = 0; i < N; i++) {
+                order[levelIdx[level[i]]++] = i;
+            }
+            // undo the shift caused by filling in 'order'
+            for (int l = numLevels; l > 0; l--) {
+                levelIdx[l] = levelIdx[l - 1];
+            }
+            levelIdx[0] = 0;
+        }
+    }
+}
@@ -51,6 +51,9 @@ public class ImplMultiplicationWithSemiRing_DSCC {
         C.indicesSorted = false;
         C.nz_length = 0;
 
+        // use a specialized kernel for built in semirings if one is available
+        final int kernel = SemiRingKernels_DSCC.lookup(semiRing);
+
         // C(i,j) = sum_k A(i,k) * B(k,j)
         int idx0 = B.col_idx[0];
         for (int bj = 1; bj <= B.numCols; bj++) {
@@ -72,7 +75,8 @@ public class ImplMultiplicationWithSemiRing_DSCC {
                 int rowB = B.nz_rows[bi];
                 double valB = B.nz_values[bi];  // B(k,j)  k=rowB j=colB
 
-                multAddColA(A, rowB, valB, C, colB + 1, semiRing, mask, x, w);
+                if (!SemiRingKernels_DSCC.multAddColA(kernel, A, rowB, valB, C, colB + 1, colB, mask, x, w))
+                    multAddColA(A, rowB, valB, C, colB + 1, semiRing, mask, x, w);
             }
 
             // take the values in the dense vector 'x' and put them into 'C'
@@ -97,13 +101,25 @@ public class ImplMultiplicationWithSemiRing_DSCC {
                                     DMatrixSparseCSC C, int mark,
                                     DSemiRing semiRing,
                                     @Nullable Mask mask, double[] x, int[] w ) {
+        multAddColA(A, colA, alpha, C, mark, mark - 1, semiRing, mask, x, w);
+    }
+
+    /**
+     * Same as {@link #multAddColA(DMatrixSparseCSC, int, double, DMatrixSparseCSC, int, DSemiRing, Mask, double[], int[])}
+     * but the column in the mask is specified separately. Used when C only contains a block of the output's columns.
+     */
+    public static void multAddColA( DMatrixSparseCSC A, int colA,
+                                    double alpha,
+                                    DMatrixSparseCSC C, int mark, int maskCol,
+                                    DSemiRing semiRing,
+                                    @Nullable Mask mask, double[] x, int[] w ) {
         int idxA0 = A.col_idx[colA];
         int idxA1 = A.col_idx[colA + 1];
 
         for (int j = idxA0; j < idxA1; j++) {
             int row = A.nz_rows[j];
 
-            if (mask == null || mask.isSet(row, mark - 1)) {
+            if (mask == null || mask.isSet(row, maskCol)) {
                 if (w[row] < mark) {
                     if (C.nz_length >= C.nz_rows.length) {
                         int growToLength = C.nz_length*2 + 1;
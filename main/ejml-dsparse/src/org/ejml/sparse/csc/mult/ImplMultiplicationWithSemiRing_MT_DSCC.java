@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.mult;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.masks.Mask;
+import org.ejml.ops.DSemiRing;
+import org.jetbrains.annotations.Nullable;
+import pabeles.concurrency.GrowArray;
+
+import static org.ejml.UtilEjml.adjust;
+import static org.ejml.sparse.csc.mult.ImplMultiplicationWithSemiRing_DSCC.multAddColA;
+import static org.ejml.sparse.csc.mult.ImplMultiplication_MT_DSCC.stitchMatrix;
+
+/**
+ * Concurrent implementations of {@link ImplMultiplicationWithSemiRing_DSCC}.
+ *
+ * @author Peter Abeles
+ */
+public class ImplMultiplicationWithSemiRing_MT_DSCC {
+    /**
+     * Performs matrix multiplication.  C = A*B. Columns in B are split into blocks which are processed independently
+     * and then stitched together. Each block uses its own copy of the mask.
+     *
+     * @param A Matrix
+     * @param B Matrix
+     * @param C Storage for results.  Data length is increased if increased if insufficient.
+     * @param semiRing Semi-Ring to define + and *
+     * @param mask (Optional) Mask for specifying which entries should be overwritten
+     * @param listWork Storage for internal workspace.
+     */
+    public static void mult( DMatrixSparseCSC A, DMatrixSparseCSC B, DMatrixSparseCSC C, DSemiRing semiRing,
+                             @Nullable Mask mask, GrowArray<Workspace_MT_DSCC> listWork ) {
+        final int kernel = SemiRingKernels_DSCC.lookup(semiRing);
+
+        // Break the problem up into blocks of columns and process them independently
+        EjmlConcurrency.loopBlocks(0, B.numCols, listWork, ( workspace, bj0, bj1 ) -> {
+            DMatrixSparseCSC workC = workspace.mat;
+            workC.reshape(A.numRows, bj1 - bj0, bj1 - bj0);
+            workC.col_idx[0] = 0;
+
+            double[] x = adjust(workspace.gx, A.numRows);
+            int[] w = adjust(workspace.gw, A.numRows, A.numRows);
+            Mask threadMask = mask == null ? null : mask.concurrentCopy();
+
+            // C(i,j) = sum_k A(i,k) * B(k,j)
+            for (int bj = bj0; bj < bj1; bj++) {
+                int colC = bj - bj0;
+                int idx0 = B.col_idx[bj];
+                int idx1 = B.col_idx[bj + 1];
+                workC.col_idx[colC + 1] = workC.nz_length;
+
+                if (idx0 == idx1) {
+                    continue;
+                }
+
+                if (threadMask != null) {
+                    threadMask.setIndexColumn(bj);
+                }
+
+                // C(:,j) = sum_k A(:,k)*B(k,j)
+                for (int bi = idx0; bi < idx1; bi++) {
+                    int rowB = B.nz_rows[bi];
+                    double valB = B.nz_values[bi];  // B(k,j)  k=rowB j=colB
+
+                    if (!SemiRingKernels_DSCC.multAddColA(kernel, A, rowB, valB, workC, colC + 1, bj, threadMask, x, w))
+                        multAddColA(A, rowB, valB, workC, colC + 1, bj, semiRing, threadMask, x, w);
+                }
+
+                // take the values in the dense vector 'x' and put them into 'C'
+                int idxC0 = workC.col_idx[colC];
+                int idxC1 = workC.col_idx[colC + 1];
+
+                for (int i = idxC0; i < idxC1; i++) {
+                    workC.nz_values[i] = x[workC.nz_rows[i]];
+                }
+            }
+        });
+
+        // Stitch the output back together
+        stitchMatrix(C, A.numRows, B.numCols, listWork);
+    }
+}
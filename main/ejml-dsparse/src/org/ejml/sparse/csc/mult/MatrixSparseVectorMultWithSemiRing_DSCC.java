@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.mult;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DVectorSparse;
+import org.ejml.data.IGrowArray;
+import org.ejml.masks.Mask;
+import org.ejml.ops.DSemiRing;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+import static org.ejml.UtilEjml.adjust;
+
+/**
+ * <p>
+ * Sparse matrix times sparse vector under a semiring, y = A*x, with an optional mask on y. Two strategies
+ * are used to compute the product:
+ * </p>
+ * <ul>
+ *     <li>Push: The columns of A which correspond to non-zero elements in x are scattered into y. The cost
+ *     depends on the number of non-zero elements in x and is what you want when x is very sparse.</li>
+ *     <li>Pull: Every element in y which is allowed by the mask is computed as the dot product of a row in A
+ *     with x. The cost depends on the number of rows allowed by the mask and is what you want when x is dense
+ *     and the mask removes most of y, e.g. unvisited nodes in a graph search.</li>
+ * </ul>
+ *
+ * <p>
+ * Pull requires access to the rows of A and a transposed copy of A is computed when the matrix is set.
+ * The matrix is not copied and if its values change the matrix must be set again. By default the direction
+ * is selected automatically. Without a mask push is always used, since pull would need to go through every
+ * element in A. With a mask the number of multiplications push would need is compared against the rows pull
+ * needs to check plus the elements in A scaled by the fraction of rows allowed by the mask.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MatrixSparseVectorMultWithSemiRing_DSCC {
+    public enum Direction {AUTO, PUSH, PULL}
+
+    /** Which strategy is used to compute the product */
+    public Direction direction = Direction.AUTO;
+
+    /**
+     * When the direction is automatically selected, pull is used if the number of multiplications push would
+     * need is more than this factor times the estimated work pull would need.
+     */
+    public double pullThreshold = 1.0;
+
+    // Matrix with its columns in the same order as the vector. Used by push
+    DMatrixSparseCSC byColumn = new DMatrixSparseCSC(1, 1);
+    // Transpose of byColumn. Used by pull
+    DMatrixSparseCSC byRow = new DMatrixSparseCSC(1, 1);
+    // Storage for the transposed matrix
+    final DMatrixSparseCSC transposed = new DMatrixSparseCSC(1, 1);
+    // If true the vector is the first operand in multiplication, i.e. y = x<sup>T</sup>*B
+    boolean vectorFirst;
+
+    // workspace. All elements in marks are zero between calls
+    final IGrowArray marks = new IGrowArray();
+    final DGrowArray values = new DGrowArray();
+
+    // the direction used in the most recent call
+    boolean lastPush;
+
+    /**
+     * Specifies the matrix for y = A*x.
+     *
+     * @param A (Input) Matrix. Reference is saved.
+     */
+    public void setMatrix( DMatrixSparseCSC A ) {
+        byColumn = A;
+        byRow = CommonOps_DSCC.transpose(A, transposed, null);
+        vectorFirst = false;
+        declareWorkspace();
+    }
+
+    /**
+     * Specifies the matrix for y = x<sup>T</sup>*B, i.e. y = B<sup>T</sup>*x. This is the common form
+     * when B is the adjacency matrix of a graph and x the frontier.
+     *
+     * @param B (Input) Matrix. Reference is saved.
+     */
+    public void setMatrixTransposed( DMatrixSparseCSC B ) {
+        byRow = B;
+        byColumn = CommonOps_DSCC.transpose(B, transposed, null);
+        vectorFirst = true;
+        declareWorkspace();
+    }
+
+    private void declareWorkspace() {
+        int N = Math.max(byColumn.numRows, byColumn.numCols);
+        adjust(marks, N, N);
+        adjust(values, N);
+    }
+
+    /**
+     * Computes the product using the most recently specified matrix.
+     *
+     * @param x (Input) Sparse vector. Not modified.
+     * @param y (Output) Sparse vector. Modified.
+     * @param semiRing Semi-Ring to define + and *
+     * @param mask (Optional) Mask for specifying which elements in y can be computed
+     */
+    public void mult( DVectorSparse x, DVectorSparse y, DSemiRing semiRing, @Nullable Mask mask ) {
+        if (x.size != byColumn.numCols)
+            throw new MatrixDimensionException("Vector has " + x.size + " elements but expected " + byColumn.numCols);
+        if (x == y)
+            throw new IllegalArgumentException("x and y can't be the same instance");
+
+        switch (direction) {
+            case PUSH: lastPush = true; break;
+            case PULL: lastPush = false; break;
+            default: lastPush = selectPush(x, mask); break;
+        }
+
+        if (lastPush) {
+            push(byColumn, vectorFirst, x, y, semiRing, mask, marks.data, values.data);
+        } else {
+            pull(byRow, vectorFirst, x, y, semiRing, mask, marks.data, values.data);
+        }
+    }
+
+    /**
+     * Number of multiplications push will need to compute the product
+     */
+    long pushWork( DVectorSparse x ) {
+        long total = 0;
+        for (int k = 0; k < x.nz_length; k++) {
+            int j = x.nz_indices[k];
+            total += byColumn.col_idx[j + 1] - byColumn.col_idx[j];
+        }
+        return total;
+    }
+
+    /**
+     * Returns true if push is expected to be faster than pull
+     */
+    boolean selectPush( DVectorSparse x, @Nullable Mask mask ) {
+        // Pull would go through every element in the matrix
+        if (mask == null)
+            return true;
+
+        // Pull will check every row against the mask. Skip counting allowed rows if push is cheaper than that
+        long work = pushWork(x);
+        if (work <= pullThreshold*byRow.numCols)
+            return true;
+        return work <= pullThreshold*pullWork(mask);
+    }
+
+    /**
+     * Estimated work pull will need to compute the product. Every row is checked against the mask and for each
+     * allowed row all of its elements are traversed.
+     */
+    double pullWork( Mask mask ) {
+        final int N = byRow.numCols;
+        if (N == 0)
+            return 0;
+
+        int allowed = 0;
+        for (int i = 0; i < N; i++) {
+            if (mask.isSet(i))
+                allowed++;
+        }
+        return N + byRow.nz_length*(allowed/(double)N);
+    }
+
+    /**
+     * Computes y = A*x by scattering columns in A. The matrix is only accessed by column so this can be used
+     * without a transposed copy.
+     *
+     * @param A (Input) Matrix. Not modified.
+     * @param x (Input) Sparse vector. Not modified.
+     * @param y (Output) Sparse vector. Modified.
+     * @param semiRing Semi-Ring to define + and *
+     * @param mask (Optional) Mask for specifying which elements in y can be computed
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @param gx (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static void multPush( DMatrixSparseCSC A, DVectorSparse x, DVectorSparse y, DSemiRing semiRing,
+                                 @Nullable Mask mask, @Nullable IGrowArray gw, @Nullable DGrowArray gx ) {
+        if (x.size != A.numCols)
+            throw new MatrixDimensionException("Vector has " + x.size + " elements but expected " + A.numCols);
+        if (x == y)
+            throw new IllegalArgumentException("x and y can't be the same instance");
+        int[] marks = adjust(gw, A.numRows, A.numRows);
+        double[] values = adjust(gx, A.numRows);
+        push(A, false, x, y, semiRing, mask, marks, values);
+    }
+
+    static void push( DMatrixSparseCSC A, boolean vectorFirst, DVectorSparse x, DVectorSparse y,
+                      DSemiRing semiRing, @Nullable Mask mask, int[] marks, double[] values ) {
+        final int N = A.numRows;
+        y.reshape(N);
+
+        for (int k = 0; k < x.nz_length; k++) {
+            int j = x.nz_indices[k];
+            double valX = x.nz_values[k];
+
+            int idx1 = A.col_idx[j + 1];
+            for (int idx = A.col_idx[j]; idx < idx1; idx++) {
+                int i = A.nz_rows[idx];
+                if (mask != null && !mask.isSet(i))
+                    continue;
+
+                double prod = vectorFirst ?
+                        semiRing.mult.func.apply(valX, A.nz_values[idx]) :
+                        semiRing.mult.func.apply(A.nz_values[idx], valX);
+
+                if (marks[i] == 0) {
+                    marks[i] = 1;
+                    values[i] = prod;
+                    y.append(i, 0);
+                } else {
+                    values[i] = semiRing.add.func.apply(values[i], prod);
+                }
+            }
+        }
+
+        // Indices need to be sorted. If there are many of them it's faster to sweep through all the marks
+        if (y.nz_length > N/16) {
+            y.nz_length = 0;
+            for (int i = 0; i < N; i++) {
+                if (marks[i] != 0) {
+                    marks[i] = 0;
+                    y.nz_indices[y.nz_length] = i;
+                    y.nz_values[y.nz_length++] = values[i];
+                }
+            }
+        } else {
+            Arrays.sort(y.nz_indices, 0, y.nz_length);
+            for (int k = 0; k < y.nz_length; k++) {
+                int i = y.nz_indices[k];
+                marks[i] = 0;
+                y.nz_values[k] = values[i];
+            }
+        }
+    }
+
+    static void pull( DMatrixSparseCSC A_t, boolean vectorFirst, DVectorSparse x, DVectorSparse y,
+                      DSemiRing semiRing, @Nullable Mask mask, int[] marks, double[] values ) {
+        final int N = A_t.numCols;
+        y.reshape(N);
+
+        // Scatter x so that its elements can be looked up quickly
+        for (int k = 0; k < x.nz_length; k++) {
+            int j = x.nz_indices[k];
+            marks[j] = 1;
+            values[j] = x.nz_values[k];
+        }
+
+        for (int i = 0; i < N; i++) {
+            if (mask != null && !mask.isSet(i))
+                continue;
+
+            boolean assigned = false;
+            double sum = 0;
+            int idx1 = A_t.col_idx[i + 1];
+            for (int idx = A_t.col_idx[i]; idx < idx1; idx++) {
+                int j = A_t.nz_rows[idx];
+                if (marks[j] == 0)
+                    continue;
+
+                double prod = vectorFirst ?
+                        semiRing.mult.func.apply(values[j], A_t.nz_values[idx]) :
+                        semiRing.mult.func.apply(A_t.nz_values[idx], values[j]);
+                sum = assigned ? semiRing.add.func.apply(sum, prod) : prod;
+                assigned = true;
+            }
+            if (assigned)
+                y.append(i, sum);
+        }
+
+        for (int k = 0; k < x.nz_length; k++) {
+            marks[x.nz_indices[k]] = 0;
+        }
+    }
+
+    /**
+     * Returns true if push was used in the most recent call to mult
+     */
+    public boolean isLastPush() {
+        return lastPush;
+    }
+}
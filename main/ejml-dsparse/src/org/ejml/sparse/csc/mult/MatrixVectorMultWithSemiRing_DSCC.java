@@ -73,14 +73,17 @@ public class MatrixVectorMultWithSemiRing_DSCC {
         // could also just fill where mask.isSet()
         Arrays.fill(c, semiRing.add.id);
 
-        for (int k = 0; k < A.numCols; k++) {
-            int idx0 = A.col_idx[k];
-            int idx1 = A.col_idx[k + 1];
-
-            for (int indexA = idx0; indexA < idx1; indexA++) {
-                c[offsetC + A.nz_rows[indexA]] = semiRing.add.func.apply(
-                        c[offsetC + A.nz_rows[indexA]],
-                        semiRing.mult.func.apply(A.nz_values[indexA], b[offsetB + k]));
+        // use a specialized kernel for built in semirings if one is available
+        if (!SemiRingKernels_DSCC.multAdd(semiRing, A, b, offsetB, c, offsetC)) {
+            for (int k = 0; k < A.numCols; k++) {
+                int idx0 = A.col_idx[k];
+                int idx1 = A.col_idx[k + 1];
+
+                for (int indexA = idx0; indexA < idx1; indexA++) {
+                    c[offsetC + A.nz_rows[indexA]] = semiRing.add.func.apply(
+                            c[offsetC + A.nz_rows[indexA]],
+                            semiRing.mult.func.apply(A.nz_values[indexA], b[offsetB + k]));
+                }
             }
         }
 
@@ -122,6 +125,10 @@ public class MatrixVectorMultWithSemiRing_DSCC {
         if (c.length - offsetC < B.numCols)
             throw new IllegalArgumentException("Length of 'c' isn't long enough");
 
+        // use a specialized kernel for built in semirings if one is available
+        if (SemiRingKernels_DSCC.mult(semiRing, a, offsetA, B, c, offsetC, mask))
+            return;
+
         for (int k = 0; k < B.numCols; k++) {
             if (mask == null || mask.isSet(k)) {
                 int idx0 = B.col_idx[k];
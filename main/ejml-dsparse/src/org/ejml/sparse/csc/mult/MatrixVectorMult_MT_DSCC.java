@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.mult;
+
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixSparseCSC;
+import pabeles.concurrency.GrowArray;
+
+import java.util.Arrays;
+
+/**
+ * Concurrent implementations of functions found in {@link MatrixVectorMult_DSCC}.
+ *
+ * @author Peter Abeles
+ */
+public class MatrixVectorMult_MT_DSCC {
+    /**
+     * c = A*b. Columns in A are split into blocks and each thread accumulates its block into its own vector.
+     * The vectors are then summed together. Extra storage is one vector with A.numRows elements per thread.
+     *
+     * @param A (Input) Matrix
+     * @param b (Input) vector
+     * @param offsetB (Input) first index in vector b
+     * @param c (Output) vector
+     * @param offsetC (Output) first index in vector c
+     * @param listWork (Input) Storage for internal workspace.
+     */
+    public static void mult( DMatrixSparseCSC A,
+                             double[] b, int offsetB,
+                             double[] c, int offsetC,
+                             GrowArray<DGrowArray> listWork ) {
+        if (b.length - offsetB < A.numCols)
+            throw new IllegalArgumentException("Length of 'b' isn't long enough");
+        if (c.length - offsetC < A.numRows)
+            throw new IllegalArgumentException("Length of 'c' isn't long enough");
+
+        if (A.numCols == 0) {
+            Arrays.fill(c, offsetC, offsetC + A.numRows, 0);
+            return;
+        }
+
+        EjmlConcurrency.loopBlocks(0, A.numCols, listWork, ( work, col0, col1 ) -> {
+            double[] y = work.reshape(A.numRows).data;
+            Arrays.fill(y, 0, A.numRows, 0);
+
+            for (int k = col0; k < col1; k++) {
+                int idx0 = A.col_idx[k];
+                int idx1 = A.col_idx[k + 1];
+                double valueB = b[offsetB + k];
+
+                for (int indexA = idx0; indexA < idx1; indexA++) {
+                    y[A.nz_rows[indexA]] += A.nz_values[indexA]*valueB;
+                }
+            }
+        });
+
+        // Sum up results from each block. Rows are independent so this can be done concurrently too
+        final int numBlocks = listWork.size();
+        EjmlConcurrency.loopBlocks(0, A.numRows, ( row0, row1 ) -> {
+            System.arraycopy(listWork.get(0).data, row0, c, offsetC + row0, row1 - row0);
+            for (int block = 1; block < numBlocks; block++) {
+                double[] y = listWork.get(block).data;
+                for (int row = row0; row < row1; row++) {
+                    c[offsetC + row] += y[row];
+                }
+            }
+        });
+    }
+
+    /**
+     * c = a<sup>T</sup>*B. Each element in 'c' is the dot product of 'a' with a column in B, which makes the
+     * columns independent of each other. No additional storage is required. If B is symmetric then this is
+     * the same as B*a.
+     *
+     * @param a (Input) vector
+     * @param offsetA Input) first index in vector a
+     * @param B (Input) Matrix
+     * @param c (Output) vector
+     * @param offsetC (Output) first index in vector c
+     */
+    public static void mult( double[] a, int offsetA,
+                             DMatrixSparseCSC B,
+                             double[] c, int offsetC ) {
+        if (a.length - offsetA < B.numRows)
+            throw new IllegalArgumentException("Length of 'a' isn't long enough");
+        if (c.length - offsetC < B.numCols)
+            throw new IllegalArgumentException("Length of 'c' isn't long enough");
+
+        EjmlConcurrency.loopBlocks(0, B.numCols, ( col0, col1 ) -> {
+            for (int k = col0; k < col1; k++) {
+                int idx0 = B.col_idx[k];
+                int idx1 = B.col_idx[k + 1];
+
+                double sum = 0;
+                for (int indexB = idx0; indexB < idx1; indexB++) {
+                    sum += a[offsetA + B.nz_rows[indexB]]*B.nz_values[indexB];
+                }
+                c[offsetC + k] = sum;
+            }
+        });
+    }
+
+    /**
+     * Computes the dot product of two vectors. Each thread computes the sum for a block and the partial sums
+     * are then added together in a fixed order.
+     *
+     * @param a (Input) vector
+     * @param offsetA (Input) first index in vector a
+     * @param b (Input) vector
+     * @param offsetB (Input) first index in vector b
+     * @param length Number of elements in each vector
+     * @param listWork (Input) Storage for internal workspace.
+     * @return the dot product
+     */
+    public static double innerProduct( double[] a, int offsetA,
+                                       double[] b, int offsetB, int length,
+                                       GrowArray<DGrowArray> listWork ) {
+        if (length == 0)
+            return 0;
+
+        EjmlConcurrency.loopBlocks(0, length, listWork, ( work, idx0, idx1 ) -> {
+            double sum = 0;
+            for (int i = idx0; i < idx1; i++) {
+                sum += a[offsetA + i]*b[offsetB + i];
+            }
+            work.reshape(1).data[0] = sum;
+        });
+
+        double total = 0;
+        for (int block = 0; block < listWork.size(); block++) {
+            total += listWork.get(block).data[0];
+        }
+        return total;
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.mult;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+
+import java.util.Arrays;
+
+import static org.ejml.UtilEjml.adjust;
+import static org.ejml.UtilEjml.stringShapes;
+
+/**
+ * <p>
+ * Sparse-sparse matrix multiplication which is split into a symbolic and a numeric step. The symbolic step
+ * computes the structure of the output matrix (col_idx and nz_rows) and the location in C that each product
+ * A(i,k)*B(k,j) is added to. The numeric step only fills in nz_values and can be called repeatedly
+ * for matrices which have the same structure but different values, e.g. the Jacobian in a Gauss-Newton loop.
+ * </p>
+ *
+ * <p>
+ * The plan does not check if the structure of the inputs has changed between calls, only their shape and number
+ * of non-zero elements. If the structure changes then the symbolic step must be called again. Rows in each column
+ * of C are sorted.
+ * </p>
+ *
+ * <p>
+ * Memory: The plan stores one index for every product A(i,k)*B(k,j), i.e. one for every multiply-add in the
+ * numeric step. This can be much larger than the number of non-zero elements in C. An exception is thrown if
+ * the number of products can't be stored in an array.
+ * </p>
+ *
+ * <pre>
+ * MultiplicationPlan_DSCC plan = new MultiplicationPlan_DSCC();
+ * plan.symbolicMultTransA(J, J, JtJ);
+ * for (...) {
+ *     // update values inside of J
+ *     plan.numeric(J, J, JtJ);
+ * }
+ * </pre>
+ *
+ * @author Peter Abeles
+ */
+public class MultiplicationPlan_DSCC {
+    // Location in C.nz_values that each product is added to. Products are ordered the same as in the numeric loop
+    final IGrowArray scatter = new IGrowArray();
+
+    // Is the plan for A<sup>T</sup>*B instead of A*B
+    boolean transA;
+
+    // Transpose of A when computing A<sup>T</sup>*B and where each element in A is inside of At
+    final DMatrixSparseCSC At = new DMatrixSparseCSC(1, 1, 0);
+    final IGrowArray transposeMap = new IGrowArray();
+
+    // Shape and number of non-zero elements in the inputs and output. Used to sanity check the numeric step
+    int numRowsA, numColsA, nzA;
+    int numRowsB, numColsB, nzB;
+    int nzC;
+
+    // workspace
+    final IGrowArray gw = new IGrowArray();
+    final IGrowArray gpos = new IGrowArray();
+
+    /**
+     * Computes the structure of C = A*B. Values in C are not computed.
+     *
+     * @param A (Input) Left matrix. Not modified.
+     * @param B (Input) Right matrix. Not modified.
+     * @param C (Output) Structure of the product. Modified.
+     */
+    public void symbolicMult( DMatrixSparseCSC A, DMatrixSparseCSC B, DMatrixSparseCSC C ) {
+        if (A.numCols != B.numRows)
+            throw new MatrixDimensionException("Inconsistent matrix shapes. " + stringShapes(A, B));
+        transA = false;
+        symbolic(A, B, C);
+        saveShapes(A, B, C);
+    }
+
+    /**
+     * Computes the structure of C = A<sup>T</sup>*B. Values in C are not computed.
+     *
+     * @param A (Input) Left matrix. Not modified.
+     * @param B (Input) Right matrix. Not modified.
+     * @param C (Output) Structure of the product. Modified.
+     */
+    public void symbolicMultTransA( DMatrixSparseCSC A, DMatrixSparseCSC B, DMatrixSparseCSC C ) {
+        if (A.numRows != B.numRows)
+            throw new MatrixDimensionException("Inconsistent matrix shapes. " + stringShapes(A, B));
+        transA = true;
+
+        // Transpose A while recording where each element went so that the values can be copied quickly later on
+        int[] work = adjust(gw, A.numRows, A.numRows);
+        int[] map = adjust(transposeMap, A.nz_length);
+        At.reshape(A.numCols, A.numRows, A.nz_length);
+        for (int i = 0; i < A.nz_length; i++) {
+            work[A.nz_rows[i]]++;
+        }
+        At.histogramToStructure(work);
+        System.arraycopy(At.col_idx, 0, work, 0, At.numCols);
+        for (int col = 0; col < A.numCols; col++) {
+            for (int i = A.col_idx[col]; i < A.col_idx[col + 1]; i++) {
+                int index = work[A.nz_rows[i]]++;
+                At.nz_rows[index] = col;
+                map[i] = index;
+            }
+        }
+
+        symbolic(At, B, C);
+        saveShapes(A, B, C);
+    }
+
+    /**
+     * Computes the values in C using the plan from the most recent symbolic step. A and B must have the same
+     * structure as they did in the symbolic step.
+     *
+     * @param A (Input) Left matrix. Not modified.
+     * @param B (Input) Right matrix. Not modified.
+     * @param C (Output) Matrix which was passed into the symbolic step. Values are modified.
+     */
+    public void numeric( DMatrixSparseCSC A, DMatrixSparseCSC B, DMatrixSparseCSC C ) {
+        if (A.numRows != numRowsA || A.numCols != numColsA || A.nz_length != nzA ||
+                B.numRows != numRowsB || B.numCols != numColsB || B.nz_length != nzB || C.nz_length != nzC)
+            throw new IllegalArgumentException("Matrices do not match the symbolic step");
+
+        DMatrixSparseCSC L = A;
+        if (transA) {
+            final int[] map = transposeMap.data;
+            for (int i = 0; i < A.nz_length; i++) {
+                At.nz_values[map[i]] = A.nz_values[i];
+            }
+            L = At;
+        }
+
+        final int[] scatter = this.scatter.data;
+        final double[] values = C.nz_values;
+        Arrays.fill(values, 0, C.nz_length, 0.0);
+
+        int k = 0;
+        for (int colB = 0; colB < B.numCols; colB++) {
+            int idxB1 = B.col_idx[colB + 1];
+            for (int bi = B.col_idx[colB]; bi < idxB1; bi++) {
+                int rowB = B.nz_rows[bi];
+                double valB = B.nz_values[bi];
+
+                int idxA1 = L.col_idx[rowB + 1];
+                for (int ai = L.col_idx[rowB]; ai < idxA1; ai++) {
+                    values[scatter[k++]] += L.nz_values[ai]*valB;
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the structure of C=A*B and where each product is added to in C
+     */
+    private void symbolic( DMatrixSparseCSC A, DMatrixSparseCSC B, DMatrixSparseCSC C ) {
+        // w[row] = 1 + the last column in C which contains row. pos[row] = location of row in that column
+        int[] w = adjust(gw, A.numRows, A.numRows);
+        int[] pos = adjust(gpos, A.numRows);
+
+        C.reshape(A.numRows, B.numCols, 0);
+        C.col_idx[0] = 0;
+
+        // count the number of products so that the scatter array can be declared
+        long totalProducts = 0;
+        for (int bi = 0; bi < B.nz_length; bi++) {
+            int rowB = B.nz_rows[bi];
+            totalProducts += A.col_idx[rowB + 1] - A.col_idx[rowB];
+        }
+        if (totalProducts > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Too many products for the plan to store. products=" + totalProducts);
+        int[] scatter = adjust(this.scatter, (int)totalProducts);
+
+        int nz = 0;
+        int k = 0;
+        for (int colB = 0; colB < B.numCols; colB++) {
+            final int mark = colB + 1;
+            final int idxB0 = B.col_idx[colB];
+            final int idxB1 = B.col_idx[colB + 1];
+            final int idxC0 = nz;
+
+            for (int bi = idxB0; bi < idxB1; bi++) {
+                int rowB = B.nz_rows[bi];
+                for (int ai = A.col_idx[rowB]; ai < A.col_idx[rowB + 1]; ai++) {
+                    int row = A.nz_rows[ai];
+                    if (w[row] == mark)
+                        continue;
+                    w[row] = mark;
+                    if (nz >= C.nz_rows.length) {
+                        C.nz_length = nz;
+                        C.growMaxLength(nz*2 + 1, true);
+                    }
+                    C.nz_rows[nz++] = row;
+                }
+            }
+            C.col_idx[colB + 1] = nz;
+
+            Arrays.sort(C.nz_rows, idxC0, nz);
+            for (int i = idxC0; i < nz; i++) {
+                pos[C.nz_rows[i]] = i;
+            }
+
+            for (int bi = idxB0; bi < idxB1; bi++) {
+                int rowB = B.nz_rows[bi];
+                for (int ai = A.col_idx[rowB]; ai < A.col_idx[rowB + 1]; ai++) {
+                    scatter[k++] = pos[A.nz_rows[ai]];
+                }
+            }
+        }
+        C.nz_length = nz;
+        C.indicesSorted = true;
+        Arrays.fill(C.nz_values, 0, nz, 0.0);
+    }
+
+    private void saveShapes( DMatrixSparseCSC A, DMatrixSparseCSC B, DMatrixSparseCSC C ) {
+        numRowsA = A.numRows;
+        numColsA = A.numCols;
+        nzA = A.nz_length;
+        numRowsB = B.numRows;
+        numColsB = B.numCols;
+        nzB = B.nz_length;
+        nzC = C.nz_length;
+    }
+
+    /**
+     * Returns true if the plan is for A<sup>T</sup>*B
+     */
+    public boolean isTransA() {
+        return transA;
+    }
+}
@@ -0,0 +1,1271 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.mult;
+
+import javax.annotation.Generated;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.masks.Mask;
+import org.ejml.ops.DSemiRing;
+import org.ejml.ops.DSemiRings;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Kernels for the semirings in {@link DSemiRings} with the add and multiply operators inlined. Semirings
+ * are looked up by identity and if there is no specialized kernel the caller uses the generic code.
+ *
+ * <p>DO NOT MODIFY. Automatically generated code created by GenerateSemiRingKernels_DSCC</p>
+ *
+ * @author Peter Abeles
+ */
+@Generated("org.ejml.sparse.csc.mult.GenerateSemiRingKernels_DSCC")
+public class SemiRingKernels_DSCC {
+    /** Returned by {@link #lookup(DSemiRing)} when there is no specialized kernel */
+    public static final int GENERIC = -1;
+
+    /**
+     * Returns the ID of the kernel for the semiring or {@link #GENERIC} if there is none.
+     */
+    public static int lookup( DSemiRing semiRing ) {
+        if (semiRing == DSemiRings.PLUS_TIMES) return 0;
+        if (semiRing == DSemiRings.MIN_PLUS) return 1;
+        if (semiRing == DSemiRings.MAX_PLUS) return 2;
+        if (semiRing == DSemiRings.MIN_TIMES) return 3;
+        if (semiRing == DSemiRings.MIN_MAX) return 4;
+        if (semiRing == DSemiRings.MAX_MIN) return 5;
+        if (semiRing == DSemiRings.MAX_TIMES) return 6;
+        if (semiRing == DSemiRings.PLUS_MIN) return 7;
+        if (semiRing == DSemiRings.OR_AND) return 8;
+        if (semiRing == DSemiRings.AND_OR) return 9;
+        if (semiRing == DSemiRings.XOR_AND) return 10;
+        if (semiRing == DSemiRings.XNOR_OR) return 11;
+        if (semiRing == DSemiRings.MIN_FIRST) return 12;
+        if (semiRing == DSemiRings.MIN_SECOND) return 13;
+        if (semiRing == DSemiRings.MAX_FIRST) return 14;
+        if (semiRing == DSemiRings.MAX_SECOND) return 15;
+        return GENERIC;
+    }
+
+    /**
+     * Specialized version of {@link ImplMultiplicationWithSemiRing_DSCC#multAddColA}.
+     *
+     * @param kernel ID from {@link #lookup(DSemiRing)}
+     * @return true if there was a specialized kernel and the operation was performed
+     */
+    public static boolean multAddColA( int kernel, DMatrixSparseCSC A, int colA, double alpha,
+                                       DMatrixSparseCSC C, int mark, int maskCol,
+                                       @Nullable Mask mask, double[] x, int[] w ) {
+        switch (kernel) {
+            case 0: multAddColA_PLUS_TIMES(A, colA, alpha, C, mark, maskCol, mask, x, w); return true;
+            case 1: multAddColA_MIN_PLUS(A, colA, alpha, C, mark, maskCol, mask, x, w); return true;
+            case 2: multAddColA_MAX_PLUS(A, colA, alpha, C, mark, maskCol, mask, x, w); return true;
+            case 3: multAddColA_MIN_TIMES(A, colA, alpha, C, mark, maskCol, mask, x, w); return true;
+            case 4: multAddColA_MIN_MAX(A, colA, alpha, C, mark, maskCol, mask, x, w); return true;
+            case 5: multAddColA_MAX_MIN(A, colA, alpha, C, mark, maskCol, mask, x, w); return true;
+            case 6: multAddColA_MAX_TIMES(A, colA, alpha, C, mark, maskCol, mask, x, w); return true;
+            case 7: multAddColA_PLUS_MIN(A, colA, alpha, C, mark, maskCol, mask, x, w); return true;
+            case 8: multAddColA_OR_AND(A, colA, alpha, C, mark, maskCol, mask, x, w); return true;
+            case 9: multAddColA_AND_OR(A, colA, alpha, C, mark, maskCol, mask, x, w); return true;
+            case 10: multAddColA_XOR_AND(A, colA, alpha, C, mark, maskCol, mask, x, w); return true;
+            case 11: multAddColA_XNOR_OR(A, colA, alpha, C, mark, maskCol, mask, x, w); return true;
+            case 12: multAddColA_MIN_FIRST(A, colA, alpha, C, mark, maskCol, mask, x, w); return true;
+            case 13: multAddColA_MIN_SECOND(A, colA, alpha, C, mark, maskCol, mask, x, w); return true;
+            case 14: multAddColA_MAX_FIRST(A, colA, alpha, C, mark, maskCol, mask, x, w); return true;
+            case 15: multAddColA_MAX_SECOND(A, colA, alpha, C, mark, maskCol, mask, x, w); return true;
+            default: return false;
+        }
+    }
+
+    /**
+     * Specialized inner loop of {@link MatrixVectorMultWithSemiRing_DSCC#multAdd}. c = c + A*b
+     *
+     * @return true if there was a specialized kernel and the operation was performed
+     */
+    public static boolean multAdd( DSemiRing semiRing, DMatrixSparseCSC A,
+                                   double[] b, int offsetB, double[] c, int offsetC ) {
+        switch (lookup(semiRing)) {
+            case 0: multAdd_PLUS_TIMES(A, b, offsetB, c, offsetC); return true;
+            case 1: multAdd_MIN_PLUS(A, b, offsetB, c, offsetC); return true;
+            case 2: multAdd_MAX_PLUS(A, b, offsetB, c, offsetC); return true;
+            case 3: multAdd_MIN_TIMES(A, b, offsetB, c, offsetC); return true;
+            case 4: multAdd_MIN_MAX(A, b, offsetB, c, offsetC); return true;
+            case 5: multAdd_MAX_MIN(A, b, offsetB, c, offsetC); return true;
+            case 6: multAdd_MAX_TIMES(A, b, offsetB, c, offsetC); return true;
+            case 7: multAdd_PLUS_MIN(A, b, offsetB, c, offsetC); return true;
+            case 8: multAdd_OR_AND(A, b, offsetB, c, offsetC); return true;
+            case 9: multAdd_AND_OR(A, b, offsetB, c, offsetC); return true;
+            case 10: multAdd_XOR_AND(A, b, offsetB, c, offsetC); return true;
+            case 11: multAdd_XNOR_OR(A, b, offsetB, c, offsetC); return true;
+            case 12: multAdd_MIN_FIRST(A, b, offsetB, c, offsetC); return true;
+            case 13: multAdd_MIN_SECOND(A, b, offsetB, c, offsetC); return true;
+            case 14: multAdd_MAX_FIRST(A, b, offsetB, c, offsetC); return true;
+            case 15: multAdd_MAX_SECOND(A, b, offsetB, c, offsetC); return true;
+            default: return false;
+        }
+    }
+
+    /**
+     * Specialized version of {@link MatrixVectorMultWithSemiRing_DSCC#mult(double[], int, DMatrixSparseCSC, double[], int, DSemiRing, Mask)}.
+     * c = a<sup>T</sup>*B
+     *
+     * @return true if there was a specialized kernel and the operation was performed
+     */
+    public static boolean mult( DSemiRing semiRing, double[] a, int offsetA, DMatrixSparseCSC B,
+                                double[] c, int offsetC, @Nullable Mask mask ) {
+        switch (lookup(semiRing)) {
+            case 0: mult_PLUS_TIMES(a, offsetA, B, c, offsetC, mask); return true;
+            case 1: mult_MIN_PLUS(a, offsetA, B, c, offsetC, mask); return true;
+            case 2: mult_MAX_PLUS(a, offsetA, B, c, offsetC, mask); return true;
+            case 3: mult_MIN_TIMES(a, offsetA, B, c, offsetC, mask); return true;
+            case 4: mult_MIN_MAX(a, offsetA, B, c, offsetC, mask); return true;
+            case 5: mult_MAX_MIN(a, offsetA, B, c, offsetC, mask); return true;
+            case 6: mult_MAX_TIMES(a, offsetA, B, c, offsetC, mask); return true;
+            case 7: mult_PLUS_MIN(a, offsetA, B, c, offsetC, mask); return true;
+            case 8: mult_OR_AND(a, offsetA, B, c, offsetC, mask); return true;
+            case 9: mult_AND_OR(a, offsetA, B, c, offsetC, mask); return true;
+            case 10: mult_XOR_AND(a, offsetA, B, c, offsetC, mask); return true;
+            case 11: mult_XNOR_OR(a, offsetA, B, c, offsetC, mask); return true;
+            case 12: mult_MIN_FIRST(a, offsetA, B, c, offsetC, mask); return true;
+            case 13: mult_MIN_SECOND(a, offsetA, B, c, offsetC, mask); return true;
+            case 14: mult_MAX_FIRST(a, offsetA, B, c, offsetC, mask); return true;
+            case 15: mult_MAX_SECOND(a, offsetA, B, c, offsetC, mask); return true;
+            default: return false;
+        }
+    }
+
+    public static void multAddColA_PLUS_TIMES( DMatrixSparseCSC A, int colA, double alpha,
+                                        DMatrixSparseCSC C, int mark, int maskCol,
+                                        @Nullable Mask mask, double[] x, int[] w ) {
+        int idxA0 = A.col_idx[colA];
+        int idxA1 = A.col_idx[colA + 1];
+
+        for (int j = idxA0; j < idxA1; j++) {
+            int row = A.nz_rows[j];
+
+            if (mask == null || mask.isSet(row, maskCol)) {
+                double valA = A.nz_values[j];
+                double prod = valA*alpha;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double valX = x[row];
+                    x[row] = valX + prod;
+                }
+            }
+        }
+    }
+
+    public static void multAdd_PLUS_TIMES( DMatrixSparseCSC A,
+                                    double[] b, int offsetB, double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = valA*valB;
+                double valC = c[indexC];
+                c[indexC] = valC + prod;
+            }
+        }
+    }
+
+    public static void mult_PLUS_TIMES( double[] a, int offsetA, DMatrixSparseCSC B,
+                                 double[] c, int offsetC, @Nullable Mask mask ) {
+        final double id = DSemiRings.PLUS_TIMES.add.id;
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask == null || mask.isSet(k)) {
+                int idx0 = B.col_idx[k];
+                int idx1 = B.col_idx[k + 1];
+
+                double sum = id;
+                for (int indexB = idx0; indexB < idx1; indexB++) {
+                    double valA = a[offsetA + B.nz_rows[indexB]];
+                    double valB = B.nz_values[indexB];
+                    double prod = valA*valB;
+                    sum = sum + prod;
+                }
+                c[offsetC + k] = sum;
+            }
+        }
+    }
+
+    public static void multAddColA_MIN_PLUS( DMatrixSparseCSC A, int colA, double alpha,
+                                        DMatrixSparseCSC C, int mark, int maskCol,
+                                        @Nullable Mask mask, double[] x, int[] w ) {
+        int idxA0 = A.col_idx[colA];
+        int idxA1 = A.col_idx[colA + 1];
+
+        for (int j = idxA0; j < idxA1; j++) {
+            int row = A.nz_rows[j];
+
+            if (mask == null || mask.isSet(row, maskCol)) {
+                double valA = A.nz_values[j];
+                double prod = valA + alpha;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double valX = x[row];
+                    x[row] = (valX <= prod) ? valX : prod;
+                }
+            }
+        }
+    }
+
+    public static void multAdd_MIN_PLUS( DMatrixSparseCSC A,
+                                    double[] b, int offsetB, double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = valA + valB;
+                double valC = c[indexC];
+                c[indexC] = (valC <= prod) ? valC : prod;
+            }
+        }
+    }
+
+    public static void mult_MIN_PLUS( double[] a, int offsetA, DMatrixSparseCSC B,
+                                 double[] c, int offsetC, @Nullable Mask mask ) {
+        final double id = DSemiRings.MIN_PLUS.add.id;
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask == null || mask.isSet(k)) {
+                int idx0 = B.col_idx[k];
+                int idx1 = B.col_idx[k + 1];
+
+                double sum = id;
+                for (int indexB = idx0; indexB < idx1; indexB++) {
+                    double valA = a[offsetA + B.nz_rows[indexB]];
+                    double valB = B.nz_values[indexB];
+                    double prod = valA + valB;
+                    sum = (sum <= prod) ? sum : prod;
+                }
+                c[offsetC + k] = sum;
+            }
+        }
+    }
+
+    public static void multAddColA_MAX_PLUS( DMatrixSparseCSC A, int colA, double alpha,
+                                        DMatrixSparseCSC C, int mark, int maskCol,
+                                        @Nullable Mask mask, double[] x, int[] w ) {
+        int idxA0 = A.col_idx[colA];
+        int idxA1 = A.col_idx[colA + 1];
+
+        for (int j = idxA0; j < idxA1; j++) {
+            int row = A.nz_rows[j];
+
+            if (mask == null || mask.isSet(row, maskCol)) {
+                double valA = A.nz_values[j];
+                double prod = valA + alpha;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double valX = x[row];
+                    x[row] = (valX >= prod) ? valX : prod;
+                }
+            }
+        }
+    }
+
+    public static void multAdd_MAX_PLUS( DMatrixSparseCSC A,
+                                    double[] b, int offsetB, double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = valA + valB;
+                double valC = c[indexC];
+                c[indexC] = (valC >= prod) ? valC : prod;
+            }
+        }
+    }
+
+    public static void mult_MAX_PLUS( double[] a, int offsetA, DMatrixSparseCSC B,
+                                 double[] c, int offsetC, @Nullable Mask mask ) {
+        final double id = DSemiRings.MAX_PLUS.add.id;
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask == null || mask.isSet(k)) {
+                int idx0 = B.col_idx[k];
+                int idx1 = B.col_idx[k + 1];
+
+                double sum = id;
+                for (int indexB = idx0; indexB < idx1; indexB++) {
+                    double valA = a[offsetA + B.nz_rows[indexB]];
+                    double valB = B.nz_values[indexB];
+                    double prod = valA + valB;
+                    sum = (sum >= prod) ? sum : prod;
+                }
+                c[offsetC + k] = sum;
+            }
+        }
+    }
+
+    public static void multAddColA_MIN_TIMES( DMatrixSparseCSC A, int colA, double alpha,
+                                        DMatrixSparseCSC C, int mark, int maskCol,
+                                        @Nullable Mask mask, double[] x, int[] w ) {
+        int idxA0 = A.col_idx[colA];
+        int idxA1 = A.col_idx[colA + 1];
+
+        for (int j = idxA0; j < idxA1; j++) {
+            int row = A.nz_rows[j];
+
+            if (mask == null || mask.isSet(row, maskCol)) {
+                double valA = A.nz_values[j];
+                double prod = valA*alpha;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double valX = x[row];
+                    x[row] = (valX <= prod) ? valX : prod;
+                }
+            }
+        }
+    }
+
+    public static void multAdd_MIN_TIMES( DMatrixSparseCSC A,
+                                    double[] b, int offsetB, double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = valA*valB;
+                double valC = c[indexC];
+                c[indexC] = (valC <= prod) ? valC : prod;
+            }
+        }
+    }
+
+    public static void mult_MIN_TIMES( double[] a, int offsetA, DMatrixSparseCSC B,
+                                 double[] c, int offsetC, @Nullable Mask mask ) {
+        final double id = DSemiRings.MIN_TIMES.add.id;
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask == null || mask.isSet(k)) {
+                int idx0 = B.col_idx[k];
+                int idx1 = B.col_idx[k + 1];
+
+                double sum = id;
+                for (int indexB = idx0; indexB < idx1; indexB++) {
+                    double valA = a[offsetA + B.nz_rows[indexB]];
+                    double valB = B.nz_values[indexB];
+                    double prod = valA*valB;
+                    sum = (sum <= prod) ? sum : prod;
+                }
+                c[offsetC + k] = sum;
+            }
+        }
+    }
+
+    public static void multAddColA_MIN_MAX( DMatrixSparseCSC A, int colA, double alpha,
+                                        DMatrixSparseCSC C, int mark, int maskCol,
+                                        @Nullable Mask mask, double[] x, int[] w ) {
+        int idxA0 = A.col_idx[colA];
+        int idxA1 = A.col_idx[colA + 1];
+
+        for (int j = idxA0; j < idxA1; j++) {
+            int row = A.nz_rows[j];
+
+            if (mask == null || mask.isSet(row, maskCol)) {
+                double valA = A.nz_values[j];
+                double prod = (valA >= alpha) ? valA : alpha;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double valX = x[row];
+                    x[row] = (valX <= prod) ? valX : prod;
+                }
+            }
+        }
+    }
+
+    public static void multAdd_MIN_MAX( DMatrixSparseCSC A,
+                                    double[] b, int offsetB, double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = (valA >= valB) ? valA : valB;
+                double valC = c[indexC];
+                c[indexC] = (valC <= prod) ? valC : prod;
+            }
+        }
+    }
+
+    public static void mult_MIN_MAX( double[] a, int offsetA, DMatrixSparseCSC B,
+                                 double[] c, int offsetC, @Nullable Mask mask ) {
+        final double id = DSemiRings.MIN_MAX.add.id;
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask == null || mask.isSet(k)) {
+                int idx0 = B.col_idx[k];
+                int idx1 = B.col_idx[k + 1];
+
+                double sum = id;
+                for (int indexB = idx0; indexB < idx1; indexB++) {
+                    double valA = a[offsetA + B.nz_rows[indexB]];
+                    double valB = B.nz_values[indexB];
+                    double prod = (valA >= valB) ? valA : valB;
+                    sum = (sum <= prod) ? sum : prod;
+                }
+                c[offsetC + k] = sum;
+            }
+        }
+    }
+
+    public static void multAddColA_MAX_MIN( DMatrixSparseCSC A, int colA, double alpha,
+                                        DMatrixSparseCSC C, int mark, int maskCol,
+                                        @Nullable Mask mask, double[] x, int[] w ) {
+        int idxA0 = A.col_idx[colA];
+        int idxA1 = A.col_idx[colA + 1];
+
+        for (int j = idxA0; j < idxA1; j++) {
+            int row = A.nz_rows[j];
+
+            if (mask == null || mask.isSet(row, maskCol)) {
+                double valA = A.nz_values[j];
+                double prod = (valA <= alpha) ? valA : alpha;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double valX = x[row];
+                    x[row] = (valX >= prod) ? valX : prod;
+                }
+            }
+        }
+    }
+
+    public static void multAdd_MAX_MIN( DMatrixSparseCSC A,
+                                    double[] b, int offsetB, double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = (valA <= valB) ? valA : valB;
+                double valC = c[indexC];
+                c[indexC] = (valC >= prod) ? valC : prod;
+            }
+        }
+    }
+
+    public static void mult_MAX_MIN( double[] a, int offsetA, DMatrixSparseCSC B,
+                                 double[] c, int offsetC, @Nullable Mask mask ) {
+        final double id = DSemiRings.MAX_MIN.add.id;
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask == null || mask.isSet(k)) {
+                int idx0 = B.col_idx[k];
+                int idx1 = B.col_idx[k + 1];
+
+                double sum = id;
+                for (int indexB = idx0; indexB < idx1; indexB++) {
+                    double valA = a[offsetA + B.nz_rows[indexB]];
+                    double valB = B.nz_values[indexB];
+                    double prod = (valA <= valB) ? valA : valB;
+                    sum = (sum >= prod) ? sum : prod;
+                }
+                c[offsetC + k] = sum;
+            }
+        }
+    }
+
+    public static void multAddColA_MAX_TIMES( DMatrixSparseCSC A, int colA, double alpha,
+                                        DMatrixSparseCSC C, int mark, int maskCol,
+                                        @Nullable Mask mask, double[] x, int[] w ) {
+        int idxA0 = A.col_idx[colA];
+        int idxA1 = A.col_idx[colA + 1];
+
+        for (int j = idxA0; j < idxA1; j++) {
+            int row = A.nz_rows[j];
+
+            if (mask == null || mask.isSet(row, maskCol)) {
+                double valA = A.nz_values[j];
+                double prod = valA*alpha;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double valX = x[row];
+                    x[row] = (valX >= prod) ? valX : prod;
+                }
+            }
+        }
+    }
+
+    public static void multAdd_MAX_TIMES( DMatrixSparseCSC A,
+                                    double[] b, int offsetB, double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = valA*valB;
+                double valC = c[indexC];
+                c[indexC] = (valC >= prod) ? valC : prod;
+            }
+        }
+    }
+
+    public static void mult_MAX_TIMES( double[] a, int offsetA, DMatrixSparseCSC B,
+                                 double[] c, int offsetC, @Nullable Mask mask ) {
+        final double id = DSemiRings.MAX_TIMES.add.id;
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask == null || mask.isSet(k)) {
+                int idx0 = B.col_idx[k];
+                int idx1 = B.col_idx[k + 1];
+
+                double sum = id;
+                for (int indexB = idx0; indexB < idx1; indexB++) {
+                    double valA = a[offsetA + B.nz_rows[indexB]];
+                    double valB = B.nz_values[indexB];
+                    double prod = valA*valB;
+                    sum = (sum >= prod) ? sum : prod;
+                }
+                c[offsetC + k] = sum;
+            }
+        }
+    }
+
+    public static void multAddColA_PLUS_MIN( DMatrixSparseCSC A, int colA, double alpha,
+                                        DMatrixSparseCSC C, int mark, int maskCol,
+                                        @Nullable Mask mask, double[] x, int[] w ) {
+        int idxA0 = A.col_idx[colA];
+        int idxA1 = A.col_idx[colA + 1];
+
+        for (int j = idxA0; j < idxA1; j++) {
+            int row = A.nz_rows[j];
+
+            if (mask == null || mask.isSet(row, maskCol)) {
+                double valA = A.nz_values[j];
+                double prod = (valA <= alpha) ? valA : alpha;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double valX = x[row];
+                    x[row] = valX + prod;
+                }
+            }
+        }
+    }
+
+    public static void multAdd_PLUS_MIN( DMatrixSparseCSC A,
+                                    double[] b, int offsetB, double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = (valA <= valB) ? valA : valB;
+                double valC = c[indexC];
+                c[indexC] = valC + prod;
+            }
+        }
+    }
+
+    public static void mult_PLUS_MIN( double[] a, int offsetA, DMatrixSparseCSC B,
+                                 double[] c, int offsetC, @Nullable Mask mask ) {
+        final double id = DSemiRings.PLUS_MIN.add.id;
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask == null || mask.isSet(k)) {
+                int idx0 = B.col_idx[k];
+                int idx1 = B.col_idx[k + 1];
+
+                double sum = id;
+                for (int indexB = idx0; indexB < idx1; indexB++) {
+                    double valA = a[offsetA + B.nz_rows[indexB]];
+                    double valB = B.nz_values[indexB];
+                    double prod = (valA <= valB) ? valA : valB;
+                    sum = sum + prod;
+                }
+                c[offsetC + k] = sum;
+            }
+        }
+    }
+
+    public static void multAddColA_OR_AND( DMatrixSparseCSC A, int colA, double alpha,
+                                        DMatrixSparseCSC C, int mark, int maskCol,
+                                        @Nullable Mask mask, double[] x, int[] w ) {
+        int idxA0 = A.col_idx[colA];
+        int idxA1 = A.col_idx[colA + 1];
+
+        for (int j = idxA0; j < idxA1; j++) {
+            int row = A.nz_rows[j];
+
+            if (mask == null || mask.isSet(row, maskCol)) {
+                double valA = A.nz_values[j];
+                double prod = (valA == 0 || alpha == 0) ? 0 : 1;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double valX = x[row];
+                    x[row] = (valX != 0 || prod != 0) ? 1 : 0;
+                }
+            }
+        }
+    }
+
+    public static void multAdd_OR_AND( DMatrixSparseCSC A,
+                                    double[] b, int offsetB, double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = (valA == 0 || valB == 0) ? 0 : 1;
+                double valC = c[indexC];
+                c[indexC] = (valC != 0 || prod != 0) ? 1 : 0;
+            }
+        }
+    }
+
+    public static void mult_OR_AND( double[] a, int offsetA, DMatrixSparseCSC B,
+                                 double[] c, int offsetC, @Nullable Mask mask ) {
+        final double id = DSemiRings.OR_AND.add.id;
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask == null || mask.isSet(k)) {
+                int idx0 = B.col_idx[k];
+                int idx1 = B.col_idx[k + 1];
+
+                double sum = id;
+                for (int indexB = idx0; indexB < idx1; indexB++) {
+                    double valA = a[offsetA + B.nz_rows[indexB]];
+                    double valB = B.nz_values[indexB];
+                    double prod = (valA == 0 || valB == 0) ? 0 : 1;
+                    sum = (sum != 0 || prod != 0) ? 1 : 0;
+                }
+                c[offsetC + k] = sum;
+            }
+        }
+    }
+
+    public static void multAddColA_AND_OR( DMatrixSparseCSC A, int colA, double alpha,
+                                        DMatrixSparseCSC C, int mark, int maskCol,
+                                        @Nullable Mask mask, double[] x, int[] w ) {
+        int idxA0 = A.col_idx[colA];
+        int idxA1 = A.col_idx[colA + 1];
+
+        for (int j = idxA0; j < idxA1; j++) {
+            int row = A.nz_rows[j];
+
+            if (mask == null || mask.isSet(row, maskCol)) {
+                double valA = A.nz_values[j];
+                double prod = (valA != 0 || alpha != 0) ? 1 : 0;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double valX = x[row];
+                    x[row] = (valX == 0 || prod == 0) ? 0 : 1;
+                }
+            }
+        }
+    }
+
+    public static void multAdd_AND_OR( DMatrixSparseCSC A,
+                                    double[] b, int offsetB, double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = (valA != 0 || valB != 0) ? 1 : 0;
+                double valC = c[indexC];
+                c[indexC] = (valC == 0 || prod == 0) ? 0 : 1;
+            }
+        }
+    }
+
+    public static void mult_AND_OR( double[] a, int offsetA, DMatrixSparseCSC B,
+                                 double[] c, int offsetC, @Nullable Mask mask ) {
+        final double id = DSemiRings.AND_OR.add.id;
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask == null || mask.isSet(k)) {
+                int idx0 = B.col_idx[k];
+                int idx1 = B.col_idx[k + 1];
+
+                double sum = id;
+                for (int indexB = idx0; indexB < idx1; indexB++) {
+                    double valA = a[offsetA + B.nz_rows[indexB]];
+                    double valB = B.nz_values[indexB];
+                    double prod = (valA != 0 || valB != 0) ? 1 : 0;
+                    sum = (sum == 0 || prod == 0) ? 0 : 1;
+                }
+                c[offsetC + k] = sum;
+            }
+        }
+    }
+
+    public static void multAddColA_XOR_AND( DMatrixSparseCSC A, int colA, double alpha,
+                                        DMatrixSparseCSC C, int mark, int maskCol,
+                                        @Nullable Mask mask, double[] x, int[] w ) {
+        int idxA0 = A.col_idx[colA];
+        int idxA1 = A.col_idx[colA + 1];
+
+        for (int j = idxA0; j < idxA1; j++) {
+            int row = A.nz_rows[j];
+
+            if (mask == null || mask.isSet(row, maskCol)) {
+                double valA = A.nz_values[j];
+                double prod = (valA == 0 || alpha == 0) ? 0 : 1;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double valX = x[row];
+                    x[row] = ((valX == 0 && prod == 0) || (valX != 0 && prod != 0)) ? 0 : 1;
+                }
+            }
+        }
+    }
+
+    public static void multAdd_XOR_AND( DMatrixSparseCSC A,
+                                    double[] b, int offsetB, double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = (valA == 0 || valB == 0) ? 0 : 1;
+                double valC = c[indexC];
+                c[indexC] = ((valC == 0 && prod == 0) || (valC != 0 && prod != 0)) ? 0 : 1;
+            }
+        }
+    }
+
+    public static void mult_XOR_AND( double[] a, int offsetA, DMatrixSparseCSC B,
+                                 double[] c, int offsetC, @Nullable Mask mask ) {
+        final double id = DSemiRings.XOR_AND.add.id;
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask == null || mask.isSet(k)) {
+                int idx0 = B.col_idx[k];
+                int idx1 = B.col_idx[k + 1];
+
+                double sum = id;
+                for (int indexB = idx0; indexB < idx1; indexB++) {
+                    double valA = a[offsetA + B.nz_rows[indexB]];
+                    double valB = B.nz_values[indexB];
+                    double prod = (valA == 0 || valB == 0) ? 0 : 1;
+                    sum = ((sum == 0 && prod == 0) || (sum != 0 && prod != 0)) ? 0 : 1;
+                }
+                c[offsetC + k] = sum;
+            }
+        }
+    }
+
+    public static void multAddColA_XNOR_OR( DMatrixSparseCSC A, int colA, double alpha,
+                                        DMatrixSparseCSC C, int mark, int maskCol,
+                                        @Nullable Mask mask, double[] x, int[] w ) {
+        int idxA0 = A.col_idx[colA];
+        int idxA1 = A.col_idx[colA + 1];
+
+        for (int j = idxA0; j < idxA1; j++) {
+            int row = A.nz_rows[j];
+
+            if (mask == null || mask.isSet(row, maskCol)) {
+                double valA = A.nz_values[j];
+                double prod = (valA != 0 || alpha != 0) ? 1 : 0;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double valX = x[row];
+                    x[row] = ((valX == 0 && prod == 0) || (valX != 0 && prod != 0)) ? 1 : 0;
+                }
+            }
+        }
+    }
+
+    public static void multAdd_XNOR_OR( DMatrixSparseCSC A,
+                                    double[] b, int offsetB, double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = (valA != 0 || valB != 0) ? 1 : 0;
+                double valC = c[indexC];
+                c[indexC] = ((valC == 0 && prod == 0) || (valC != 0 && prod != 0)) ? 1 : 0;
+            }
+        }
+    }
+
+    public static void mult_XNOR_OR( double[] a, int offsetA, DMatrixSparseCSC B,
+                                 double[] c, int offsetC, @Nullable Mask mask ) {
+        final double id = DSemiRings.XNOR_OR.add.id;
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask == null || mask.isSet(k)) {
+                int idx0 = B.col_idx[k];
+                int idx1 = B.col_idx[k + 1];
+
+                double sum = id;
+                for (int indexB = idx0; indexB < idx1; indexB++) {
+                    double valA = a[offsetA + B.nz_rows[indexB]];
+                    double valB = B.nz_values[indexB];
+                    double prod = (valA != 0 || valB != 0) ? 1 : 0;
+                    sum = ((sum == 0 && prod == 0) || (sum != 0 && prod != 0)) ? 1 : 0;
+                }
+                c[offsetC + k] = sum;
+            }
+        }
+    }
+
+    public static void multAddColA_MIN_FIRST( DMatrixSparseCSC A, int colA, double alpha,
+                                        DMatrixSparseCSC C, int mark, int maskCol,
+                                        @Nullable Mask mask, double[] x, int[] w ) {
+        int idxA0 = A.col_idx[colA];
+        int idxA1 = A.col_idx[colA + 1];
+
+        for (int j = idxA0; j < idxA1; j++) {
+            int row = A.nz_rows[j];
+
+            if (mask == null || mask.isSet(row, maskCol)) {
+                double valA = A.nz_values[j];
+                double prod = valA;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double valX = x[row];
+                    x[row] = (valX <= prod) ? valX : prod;
+                }
+            }
+        }
+    }
+
+    public static void multAdd_MIN_FIRST( DMatrixSparseCSC A,
+                                    double[] b, int offsetB, double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = valA;
+                double valC = c[indexC];
+                c[indexC] = (valC <= prod) ? valC : prod;
+            }
+        }
+    }
+
+    public static void mult_MIN_FIRST( double[] a, int offsetA, DMatrixSparseCSC B,
+                                 double[] c, int offsetC, @Nullable Mask mask ) {
+        final double id = DSemiRings.MIN_FIRST.add.id;
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask == null || mask.isSet(k)) {
+                int idx0 = B.col_idx[k];
+                int idx1 = B.col_idx[k + 1];
+
+                double sum = id;
+                for (int indexB = idx0; indexB < idx1; indexB++) {
+                    double valA = a[offsetA + B.nz_rows[indexB]];
+                    double valB = B.nz_values[indexB];
+                    double prod = valA;
+                    sum = (sum <= prod) ? sum : prod;
+                }
+                c[offsetC + k] = sum;
+            }
+        }
+    }
+
+    public static void multAddColA_MIN_SECOND( DMatrixSparseCSC A, int colA, double alpha,
+                                        DMatrixSparseCSC C, int mark, int maskCol,
+                                        @Nullable Mask mask, double[] x, int[] w ) {
+        int idxA0 = A.col_idx[colA];
+        int idxA1 = A.col_idx[colA + 1];
+
+        for (int j = idxA0; j < idxA1; j++) {
+            int row = A.nz_rows[j];
+
+            if (mask == null || mask.isSet(row, maskCol)) {
+                double valA = A.nz_values[j];
+                double prod = alpha;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double valX = x[row];
+                    x[row] = (valX <= prod) ? valX : prod;
+                }
+            }
+        }
+    }
+
+    public static void multAdd_MIN_SECOND( DMatrixSparseCSC A,
+                                    double[] b, int offsetB, double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = valB;
+                double valC = c[indexC];
+                c[indexC] = (valC <= prod) ? valC : prod;
+            }
+        }
+    }
+
+    public static void mult_MIN_SECOND( double[] a, int offsetA, DMatrixSparseCSC B,
+                                 double[] c, int offsetC, @Nullable Mask mask ) {
+        final double id = DSemiRings.MIN_SECOND.add.id;
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask == null || mask.isSet(k)) {
+                int idx0 = B.col_idx[k];
+                int idx1 = B.col_idx[k + 1];
+
+                double sum = id;
+                for (int indexB = idx0; indexB < idx1; indexB++) {
+                    double valA = a[offsetA + B.nz_rows[indexB]];
+                    double valB = B.nz_values[indexB];
+                    double prod = valB;
+                    sum = (sum <= prod) ? sum : prod;
+                }
+                c[offsetC + k] = sum;
+            }
+        }
+    }
+
+    public static void multAddColA_MAX_FIRST( DMatrixSparseCSC A, int colA, double alpha,
+                                        DMatrixSparseCSC C, int mark, int maskCol,
+                                        @Nullable Mask mask, double[] x, int[] w ) {
+        int idxA0 = A.col_idx[colA];
+        int idxA1 = A.col_idx[colA + 1];
+
+        for (int j = idxA0; j < idxA1; j++) {
+            int row = A.nz_rows[j];
+
+            if (mask == null || mask.isSet(row, maskCol)) {
+                double valA = A.nz_values[j];
+                double prod = valA;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double valX = x[row];
+                    x[row] = (valX >= prod) ? valX : prod;
+                }
+            }
+        }
+    }
+
+    public static void multAdd_MAX_FIRST( DMatrixSparseCSC A,
+                                    double[] b, int offsetB, double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = valA;
+                double valC = c[indexC];
+                c[indexC] = (valC >= prod) ? valC : prod;
+            }
+        }
+    }
+
+    public static void mult_MAX_FIRST( double[] a, int offsetA, DMatrixSparseCSC B,
+                                 double[] c, int offsetC, @Nullable Mask mask ) {
+        final double id = DSemiRings.MAX_FIRST.add.id;
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask == null || mask.isSet(k)) {
+                int idx0 = B.col_idx[k];
+                int idx1 = B.col_idx[k + 1];
+
+                double sum = id;
+                for (int indexB = idx0; indexB < idx1; indexB++) {
+                    double valA = a[offsetA + B.nz_rows[indexB]];
+                    double valB = B.nz_values[indexB];
+                    double prod = valA;
+                    sum = (sum >= prod) ? sum : prod;
+                }
+                c[offsetC + k] = sum;
+            }
+        }
+    }
+
+    public static void multAddColA_MAX_SECOND( DMatrixSparseCSC A, int colA, double alpha,
+                                        DMatrixSparseCSC C, int mark, int maskCol,
+                                        @Nullable Mask mask, double[] x, int[] w ) {
+        int idxA0 = A.col_idx[colA];
+        int idxA1 = A.col_idx[colA + 1];
+
+        for (int j = idxA0; j < idxA1; j++) {
+            int row = A.nz_rows[j];
+
+            if (mask == null || mask.isSet(row, maskCol)) {
+                double valA = A.nz_values[j];
+                double prod = alpha;
+                if (w[row] < mark) {
+                    if (C.nz_length >= C.nz_rows.length) {
+                        int growToLength = C.nz_length*2 + 1;
+                        if (mask != null) {
+                            growToLength = Math.min(growToLength, mask.maxMaskedEntries());
+                        }
+                        C.growMaxLength(growToLength, true);
+                    }
+
+                    w[row] = mark;
+                    C.nz_rows[C.nz_length] = row;
+                    C.col_idx[mark] = ++C.nz_length;
+                    x[row] = prod;
+                } else {
+                    double valX = x[row];
+                    x[row] = (valX >= prod) ? valX : prod;
+                }
+            }
+        }
+    }
+
+    public static void multAdd_MAX_SECOND( DMatrixSparseCSC A,
+                                    double[] b, int offsetB, double[] c, int offsetC ) {
+        for (int k = 0; k < A.numCols; k++) {
+            int idx0 = A.col_idx[k];
+            int idx1 = A.col_idx[k + 1];
+            double valB = b[offsetB + k];
+
+            for (int indexA = idx0; indexA < idx1; indexA++) {
+                int indexC = offsetC + A.nz_rows[indexA];
+                double valA = A.nz_values[indexA];
+                double prod = valB;
+                double valC = c[indexC];
+                c[indexC] = (valC >= prod) ? valC : prod;
+            }
+        }
+    }
+
+    public static void mult_MAX_SECOND( double[] a, int offsetA, DMatrixSparseCSC B,
+                                 double[] c, int offsetC, @Nullable Mask mask ) {
+        final double id = DSemiRings.MAX_SECOND.add.id;
+        for (int k = 0; k < B.numCols; k++) {
+            if (mask == null || mask.isSet(k)) {
+                int idx0 = B.col_idx[k];
+                int idx1 = B.col_idx[k + 1];
+
+                double sum = id;
+                for (int indexB = idx0; indexB < idx1; indexB++) {
+                    double valA = a[offsetA + B.nz_rows[indexB]];
+                    double valB = B.nz_values[indexB];
+                    double prod = valB;
+                    sum = (sum >= prod) ? sum : prod;
+                }
+                c[offsetC + k] = sum;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.sparse.csr;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSR;
+import org.ejml.data.IGrowArray;
+import org.ejml.sparse.csr.misc.ImplCommonOps_DSCR;
+import org.ejml.sparse.csr.mult.ImplMultiplication_DSCR;
+import org.jetbrains.annotations.Nullable;
+
+import static org.ejml.UtilEjml.*;
+
+/**
+ * Common operations for {@link DMatrixSparseCSR compressed sparse row} matrices. Operations which traverse
+ * the matrix one row at a time, e.g. sparse matrix-vector multiplication, access memory sequentially in this format.
+ *
+ * @author Peter Abeles
+ */
+public class CommonOps_DSCR {
+
+    /**
+     * Checks to see if column indicies are sorted into ascending order.  O(N)
+     *
+     * @return true if sorted and false if not
+     */
+    public static boolean checkIndicesSorted( DMatrixSparseCSR A ) {
+        for (int i = 0; i < A.numRows; i++) {
+            int idx0 = A.row_idx[i];
+            int idx1 = A.row_idx[i + 1];
+
+            if (idx0 != idx1 && A.nz_cols[idx0] >= A.numCols)
+                return false;
+
+            for (int j = idx0 + 1; j < idx1; j++) {
+                int col = A.nz_cols[j];
+                if (A.nz_cols[j - 1] >= col)
+                    return false;
+                if (col >= A.numCols)
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean checkStructure( DMatrixSparseCSR A ) {
+        if (A.row_idx.length < A.numRows + 1)
+            return false;
+        if (A.row_idx[A.numRows] != A.nz_length)
+            return false;
+        if (A.nz_cols.length < A.nz_length)
+            return false;
+        if (A.nz_values.length < A.nz_length)
+            return false;
+        if (A.row_idx[0] != 0)
+            return false;
+        for (int i = 0; i < A.numRows; i++) {
+            if (A.row_idx[i] > A.row_idx[i + 1]) {
+                return false;
+            }
+            if (A.row_idx[i + 1] - A.row_idx[i] > A.numCols)
+                return false;
+        }
+        if (!checkSortedFlag(A))
+            return false;
+        if (checkDuplicateElements(A))
+            return false;
+        return true;
+    }
+
+    public static boolean checkSortedFlag( DMatrixSparseCSR A ) {
+        if (A.indicesSorted)
+            return checkIndicesSorted(A);
+        return true;
+    }
+
+    /**
+     * Checks for duplicate elements. A is sorted
+     *
+     * @param A Matrix to be tested.
+     * @return true if duplicates or false if false duplicates
+     */
+    public static boolean checkDuplicateElements( DMatrixSparseCSR A ) {
+        A = A.copy(); // create a copy so that it doesn't modify A
+        A.sortIndices(null);
+        return !checkSortedFlag(A);
+    }
+
+    /**
+     * Perform matrix transpose
+     *
+     * @param A Input matrix.  Not modified
+     * @param A_t Storage for transpose of 'a'.  Must be correct shape.  data length might be adjusted.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @return The transposed matrix
+     */
+    public static DMatrixSparseCSR transpose( DMatrixSparseCSR A, @Nullable DMatrixSparseCSR A_t, @Nullable IGrowArray gw ) {
+        A_t = reshapeOrDeclare(A_t, A.numCols, A.numRows, A.nz_length);
+        ImplCommonOps_DSCR.transpose(A, A_t, gw);
+        return A_t;
+    }
+
+    public static DMatrixSparseCSR mult( DMatrixSparseCSR A, DMatrixSparseCSR B,
+                                         @Nullable DMatrixSparseCSR outputC ) {
+        return mult(A, B, outputC, null, null);
+    }
+
+    /**
+     * Performs matrix multiplication.  C = A*B
+     *
+     * @param outputC (Output) Storage for results.  Data length is increased if insufficient.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @param gx (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static DMatrixSparseCSR mult( DMatrixSparseCSR A, DMatrixSparseCSR B,
+                                         @Nullable DMatrixSparseCSR outputC,
+                                         @Nullable IGrowArray gw, @Nullable DGrowArray gx ) {
+        if (A.numCols != B.numRows)
+            throw new MatrixDimensionException("Inconsistent matrix shapes. " + stringShapes(A, B));
+        outputC = reshapeOrDeclare(outputC, A, A.numRows, B.numCols);
+
+        ImplMultiplication_DSCR.mult(A, B, outputC, gw, gx);
+
+        return outputC;
+    }
+
+    /**
+     * Performs matrix multiplication.  C = A*B. When B is a column vector each element in C is computed with
+     * a single pass through a row in A.
+     *
+     * @param A Matrix
+     * @param B Dense Matrix
+     * @param outputC Dense Matrix
+     */
+    public static DMatrixRMaj mult( DMatrixSparseCSR A, DMatrixRMaj B, @Nullable DMatrixRMaj outputC ) {
+        if (A.numCols != B.numRows)
+            throw new MatrixDimensionException("Inconsistent matrix shapes. " + stringShapes(A, B));
+        outputC = reshapeOrDeclare(outputC, A.numRows, B.numCols);
+
+        ImplMultiplication_DSCR.mult(A, B, outputC);
+
+        return outputC;
+    }
+
+    /**
+     * <p>C = C + A*B</p>
+     */
+    public static void multAdd( DMatrixSparseCSR A, DMatrixRMaj B, DMatrixRMaj outputC ) {
+        if (A.numCols != B.numRows)
+            throw new MatrixDimensionException("Inconsistent matrix shapes. " + stringShapes(A, B));
+        if (A.numRows != outputC.numRows || B.numCols != outputC.numCols)
+            throw new MatrixDimensionException("Inconsistent matrix shapes. " + stringShapes(A, B, outputC));
+
+        ImplMultiplication_DSCR.multAdd(A, B, outputC);
+    }
+
+    /**
+     * Performs matrix multiplication.  C = A<sup>T</sup>*B
+     *
+     * @param A Matrix
+     * @param B Dense Matrix
+     * @param outputC Dense Matrix
+     */
+    public static DMatrixRMaj multTransA( DMatrixSparseCSR A, DMatrixRMaj B, @Nullable DMatrixRMaj outputC ) {
+        if (A.numRows != B.numRows)
+            throw new MatrixDimensionException("Inconsistent matrix shapes. " + stringShapes(A, B));
+        outputC = reshapeOrDeclare(outputC, A.numCols, B.numCols);
+
+        ImplMultiplication_DSCR.multTransA(A, B, outputC);
+
+        return outputC;
+    }
+
+    /**
+     * <p>C = C + A<sup>T</sup>*B</p>
+     */
+    public static void multAddTransA( DMatrixSparseCSR A, DMatrixRMaj B, DMatrixRMaj outputC ) {
+        if (A.numRows != B.numRows)
+            throw new MatrixDimensionException("Inconsistent matrix shapes. " + stringShapes(A, B));
+        if (A.numCols != outputC.numRows || B.numCols != outputC.numCols)
+            throw new MatrixDimensionException("Inconsistent matrix shapes. " + stringShapes(A, B, outputC));
+
+        ImplMultiplication_DSCR.multAddTransA(A, B, outputC);
+    }
+
+    /**
+     * Performs matrix addition:<br>
+     * C = &alpha;A + &beta;B
+     *
+     * @param alpha scalar value multiplied against A
+     * @param A Matrix
+     * @param beta scalar value multiplied against B
+     * @param B Matrix
+     * @param outputC Output matrix.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @param gx (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static DMatrixSparseCSR add( double alpha, DMatrixSparseCSR A, double beta, DMatrixSparseCSR B,
+                                        @Nullable DMatrixSparseCSR outputC,
+                                        @Nullable IGrowArray gw, @Nullable DGrowArray gx ) {
+        if (A.numRows != B.numRows || A.numCols != B.numCols)
+            throw new MatrixDimensionException("Inconsistent matrix shapes. " + stringShapes(A, B));
+        outputC = reshapeOrDeclare(outputC, A, A.numRows, A.numCols);
+
+        ImplCommonOps_DSCR.add(alpha, A, beta, B, outputC, gw, gx);
+
+        return outputC;
+    }
+
+    /**
+     * Creates a submatrix by extracting the specified rows from A. rows = {row0 &le; i &lt; row1}. Since the rows
+     * are stored contiguously this is a single block copy.
+     *
+     * @param A (Input) matrix
+     * @param row0 First row. Inclusive
+     * @param row1 Last row+1.
+     * @param out (Output, Option) Storage for output matrix
+     * @return The submatrix
+     */
+    public static DMatrixSparseCSR extractRows( DMatrixSparseCSR A, int row0, int row1,
+                                                @Nullable DMatrixSparseCSR out ) {
+        if (row0 < 0 || row1 > A.numRows || row0 > row1)
+            throw new IllegalArgumentException("Invalid row range");
+
+        int idx0 = A.row_idx[row0];
+        int length = A.row_idx[row1] - idx0;
+
+        out = reshapeOrDeclare(out, row1 - row0, A.numCols, length);
+
+        for (int row = row0; row <= row1; row++) {
+            out.row_idx[row - row0] = A.row_idx[row] - idx0;
+        }
+        System.arraycopy(A.nz_cols, idx0, out.nz_cols, 0, length);
+        System.arraycopy(A.nz_values, idx0, out.nz_values, 0, length);
+        out.nz_length = length;
+        out.indicesSorted = A.indicesSorted;
+
+        return out;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csr.misc;
+
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixSparseCSR;
+import org.ejml.data.IGrowArray;
+import org.ejml.sparse.csr.CommonOps_DSCR;
+import org.jetbrains.annotations.Nullable;
+
+import static org.ejml.UtilEjml.adjust;
+import static org.ejml.sparse.csr.mult.ImplMultiplication_DSCR.multAddRowB;
+
+/**
+ * Implementation class.  Not recommended for direct use.  Instead use {@link CommonOps_DSCR}
+ * instead.
+ *
+ * @author Peter Abeles
+ */
+public class ImplCommonOps_DSCR {
+
+    /**
+     * Performs a matrix transpose.
+     *
+     * @param A Original matrix.  Not modified.
+     * @param C Storage for transposed 'A'.  Reshaped.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static void transpose( DMatrixSparseCSR A, DMatrixSparseCSR C, @Nullable IGrowArray gw ) {
+        int[] work = adjust(gw, A.numCols, A.numCols);
+        C.reshape(A.numCols, A.numRows, A.nz_length);
+
+        // compute the histogram for each column in 'a'
+        for (int j = 0; j < A.nz_length; j++) {
+            work[A.nz_cols[j]]++;
+        }
+
+        // construct row_idx in the transposed matrix
+        C.histogramToStructure(work);
+        System.arraycopy(C.row_idx, 0, work, 0, C.numRows);
+
+        // fill in the column indexes
+        for (int row = 0; row < A.numRows; row++) {
+            final int idx0 = A.row_idx[row];
+            final int idx1 = A.row_idx[row + 1];
+            for (int i = idx0; i < idx1; i++) {
+                int index = work[A.nz_cols[i]]++;
+                C.nz_cols[index] = row;
+                C.nz_values[index] = A.nz_values[i];
+            }
+        }
+        // rows in A are traversed in order
+        C.indicesSorted = true;
+    }
+
+    /**
+     * Performs matrix addition:<br>
+     * C = &alpha;A + &beta;B
+     *
+     * @param alpha scalar value multiplied against A
+     * @param A Matrix
+     * @param beta scalar value multiplied against B
+     * @param B Matrix
+     * @param C Output matrix.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @param gx (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static void add( double alpha, DMatrixSparseCSR A, double beta, DMatrixSparseCSR B, DMatrixSparseCSR C,
+                            @Nullable IGrowArray gw, @Nullable DGrowArray gx ) {
+        double[] x = adjust(gx, A.numCols);
+        int[] w = adjust(gw, A.numCols, A.numCols);
+
+        C.growMaxLength(A.nz_length + B.nz_length, false);
+        C.indicesSorted = false;
+        C.nz_length = 0;
+        C.row_idx[0] = 0;
+
+        for (int row = 0; row < A.numRows; row++) {
+            C.row_idx[row + 1] = C.nz_length;
+
+            multAddRowB(A, row, alpha, C, row + 1, x, w);
+            multAddRowB(B, row, beta, C, row + 1, x, w);
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            int idxC0 = C.row_idx[row];
+            int idxC1 = C.row_idx[row + 1];
+
+            for (int i = idxC0; i < idxC1; i++) {
+                C.nz_values[i] = x[C.nz_cols[i]];
+            }
+        }
+    }
+}
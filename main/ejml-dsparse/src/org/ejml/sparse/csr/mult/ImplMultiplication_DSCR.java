@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csr.mult;
+
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSR;
+import org.ejml.data.IGrowArray;
+import org.jetbrains.annotations.Nullable;
+
+import static org.ejml.UtilEjml.adjust;
+
+/**
+ * Implementation class for multiplication of row compressed matrices.  Not recommended for direct use.  Instead
+ * use {@link org.ejml.sparse.csr.CommonOps_DSCR}.
+ *
+ * @author Peter Abeles
+ */
+public class ImplMultiplication_DSCR {
+
+    /**
+     * Performs matrix multiplication.  C = A*B. Row-wise Gustavson algorithm, each row in C is the sum of
+     * rows in B scaled by the elements in the same row of A.
+     *
+     * @param A Matrix
+     * @param B Matrix
+     * @param C Storage for results.  Data length is increased if increased if insufficient.
+     * @param gw (Optional) Storage for internal workspace.  Can be null.
+     * @param gx (Optional) Storage for internal workspace.  Can be null.
+     */
+    public static void mult( DMatrixSparseCSR A, DMatrixSparseCSR B, DMatrixSparseCSR C,
+                             @Nullable IGrowArray gw, @Nullable DGrowArray gx ) {
+        double[] x = adjust(gx, B.numCols);
+        int[] w = adjust(gw, B.numCols, B.numCols);
+
+        C.growMaxLength(A.nz_length + B.nz_length, false);
+        C.indicesSorted = false;
+        C.nz_length = 0;
+        C.row_idx[0] = 0;
+
+        // C(i,:) = sum_k A(i,k) * B(k,:)
+        for (int rowA = 0; rowA < A.numRows; rowA++) {
+            int idx0 = A.row_idx[rowA];
+            int idx1 = A.row_idx[rowA + 1];
+            C.row_idx[rowA + 1] = C.nz_length;
+
+            if (idx0 == idx1)
+                continue;
+
+            for (int i = idx0; i < idx1; i++) {
+                multAddRowB(B, A.nz_cols[i], A.nz_values[i], C, rowA + 1, x, w);
+            }
+
+            // take the values in the dense vector 'x' and put them into 'C'
+            int idxC0 = C.row_idx[rowA];
+            int idxC1 = C.row_idx[rowA + 1];
+
+            for (int i = idxC0; i < idxC1; i++) {
+                C.nz_values[i] = x[C.nz_cols[i]];
+            }
+        }
+    }
+
+    /**
+     * Performs the operation x = x + B(k,:)*alpha and adds new elements to the last row in C.
+     *
+     * @param mark Value which marks a column as being part of the current row in C. Must be row+1.
+     */
+    public static void multAddRowB( DMatrixSparseCSR B, int rowB,
+                                    double alpha,
+                                    DMatrixSparseCSR C, int mark,
+                                    double[] x, int[] w ) {
+        int idxB0 = B.row_idx[rowB];
+        int idxB1 = B.row_idx[rowB + 1];
+
+        for (int j = idxB0; j < idxB1; j++) {
+            int col = B.nz_cols[j];
+
+            if (w[col] < mark) {
+                if (C.nz_length >= C.nz_cols.length) {
+                    C.growMaxLength(C.nz_length*2 + 1, true);
+                }
+
+                w[col] = mark;
+                C.nz_cols[C.nz_length] = col;
+                C.row_idx[mark] = ++C.nz_length;
+                x[col] = B.nz_values[j]*alpha;
+            } else {
+                x[col] += B.nz_values[j]*alpha;
+            }
+        }
+    }
+
+    public static void mult( DMatrixSparseCSR A, DMatrixRMaj B, DMatrixRMaj C ) {
+        if (B.numCols == 1) {
+            // matrix-vector product. Each row is a dot product which reads A sequentially
+            for (int row = 0; row < A.numRows; row++) {
+                int idx0 = A.row_idx[row];
+                int idx1 = A.row_idx[row + 1];
+
+                double sum = 0;
+                for (int i = idx0; i < idx1; i++) {
+                    sum += A.nz_values[i]*B.data[A.nz_cols[i]];
+                }
+                C.data[row] = sum;
+            }
+        } else {
+            C.zero();
+            multAdd(A, B, C);
+        }
+    }
+
+    public static void multAdd( DMatrixSparseCSR A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(i,:) = C(i,:) + sum_k A(i,k) * B(k,:)
+        for (int row = 0; row < A.numRows; row++) {
+            int idx0 = A.row_idx[row];
+            int idx1 = A.row_idx[row + 1];
+            int indexC0 = row*C.numCols;
+            int endC = indexC0 + C.numCols;
+
+            for (int i = idx0; i < idx1; i++) {
+                double valueA = A.nz_values[i];
+                int indexB = A.nz_cols[i]*B.numCols;
+                int indexC = indexC0;
+
+                while (indexC < endC) {
+                    C.data[indexC++] += valueA*B.data[indexB++];
+                }
+            }
+        }
+    }
+
+    public static void multTransA( DMatrixSparseCSR A, DMatrixRMaj B, DMatrixRMaj C ) {
+        C.zero();
+        multAddTransA(A, B, C);
+    }
+
+    public static void multAddTransA( DMatrixSparseCSR A, DMatrixRMaj B, DMatrixRMaj C ) {
+        // C(k,:) = C(k,:) + sum_i A(i,k) * B(i,:)
+        for (int row = 0; row < A.numRows; row++) {
+            int idx0 = A.row_idx[row];
+            int idx1 = A.row_idx[row + 1];
+            int indexB0 = row*B.numCols;
+            int endB = indexB0 + B.numCols;
+
+            for (int i = idx0; i < idx1; i++) {
+                double valueA = A.nz_values[i];
+                int indexC = A.nz_cols[i]*C.numCols;
+                int indexB = indexB0;
+
+                while (indexB < endB) {
+                    C.data[indexC++] += valueA*B.data[indexB++];
+                }
+            }
+        }
+    }
+}
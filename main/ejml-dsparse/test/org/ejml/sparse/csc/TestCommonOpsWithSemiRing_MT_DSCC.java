@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.masks.DMaskFactory;
+import org.ejml.masks.Mask;
+import org.ejml.ops.DSemiRing;
+import org.ejml.ops.DSemiRings;
+import org.ejml.sparse.csc.mult.Workspace_MT_DSCC;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pabeles.concurrency.ConcurrencyOps;
+import pabeles.concurrency.GrowArray;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the concurrent implementations against the single threaded ones
+ *
+ * @author Peter Abeles
+ */
+class TestCommonOpsWithSemiRing_MT_DSCC {
+    private final Random rand = new Random(234);
+
+    private final DSemiRing[] semiRings = new DSemiRing[]{
+            DSemiRings.PLUS_TIMES, DSemiRings.MIN_PLUS, DSemiRings.MAX_PLUS, DSemiRings.OR_AND, DSemiRings.MAX_MIN};
+
+    private final GrowArray<Workspace_MT_DSCC> listWork = new GrowArray<>(Workspace_MT_DSCC::new);
+
+    int previousThreads;
+
+    /**
+     * Make sure the work is split into multiple blocks even if there's only one core
+     */
+    @BeforeEach
+    public void before() {
+        previousThreads = ConcurrencyOps.getMaxThreads();
+        ConcurrencyOps.setMaxThreads(4);
+    }
+
+    @AfterEach
+    public void after() {
+        ConcurrencyOps.setMaxThreads(previousThreads);
+    }
+
+    @Test void mult() {
+        for (DSemiRing semiRing : semiRings) {
+            for (int trial = 0; trial < 10; trial++) {
+                DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(20, 15, 60, -1, 1, rand);
+                DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(15, 18, 50, -1, 1, rand);
+
+                for (Mask mask : createMasks(20, 18)) {
+                    DMatrixSparseCSC expected = CommonOpsWithSemiRing_DSCC.mult(A, B, null, semiRing, mask, null, null);
+                    DMatrixSparseCSC found = CommonOpsWithSemiRing_MT_DSCC.mult(A, B, null, semiRing, mask, listWork);
+
+                    assertTrue(CommonOps_DSCC.checkStructure(found));
+                    EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+                }
+            }
+        }
+    }
+
+    @Test void add() {
+        for (DSemiRing semiRing : semiRings) {
+            for (int trial = 0; trial < 10; trial++) {
+                DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(20, 15, 60, -1, 1, rand);
+                DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(20, 15, 50, -1, 1, rand);
+
+                for (Mask mask : createMasks(20, 15)) {
+                    DMatrixSparseCSC expected = CommonOpsWithSemiRing_DSCC.add(
+                            1.5, A, 0.5, B, null, semiRing, mask, null, null);
+                    DMatrixSparseCSC found = CommonOpsWithSemiRing_MT_DSCC.add(
+                            1.5, A, 0.5, B, null, semiRing, mask, listWork);
+
+                    assertTrue(CommonOps_DSCC.checkStructure(found));
+                    EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+                }
+            }
+        }
+    }
+
+    @Test void elementMult() {
+        for (DSemiRing semiRing : semiRings) {
+            for (int trial = 0; trial < 10; trial++) {
+                DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(20, 15, 100, -1, 1, rand);
+                DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(20, 15, 120, -1, 1, rand);
+
+                for (Mask mask : createMasks(20, 15)) {
+                    DMatrixSparseCSC expected = CommonOpsWithSemiRing_DSCC.elementMult(
+                            A, B, null, semiRing, mask, null, null);
+                    DMatrixSparseCSC found = CommonOpsWithSemiRing_MT_DSCC.elementMult(
+                            A, B, null, semiRing, mask, listWork);
+
+                    assertTrue(CommonOps_DSCC.checkStructure(found));
+                    EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+                }
+            }
+        }
+    }
+
+    /**
+     * No mask, sparse structural mask, sparse mask, and a dense mask
+     */
+    private Mask[] createMasks( int numRows, int numCols ) {
+        DMatrixSparseCSC maskMatrix = RandomMatrices_DSCC.rectangle(numRows, numCols, numRows*numCols/3, rand);
+        DMatrixRMaj maskDense = RandomMatrices_DDRM.rectangle(numRows, numCols, 0, 1, rand);
+        for (int i = 0; i < maskDense.data.length; i++) {
+            maskDense.data[i] = maskDense.data[i] > 0.5 ? 1 : 0;
+        }
+
+        return new Mask[]{
+                null,
+                DMaskFactory.builder(maskMatrix, true).build(),
+                DMaskFactory.builder(maskMatrix, false).withNegated(true).build(),
+                DMaskFactory.builder(maskDense).build()};
+    }
+}
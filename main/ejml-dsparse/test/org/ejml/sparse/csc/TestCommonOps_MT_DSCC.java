@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2020, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
  *
  * This file is part of Efficient Java Matrix Library (EJML).
  *
@@ -171,6 +171,24 @@ class TestCommonOps_MT_DSCC {
                 RandomMatrices_DDRM.rectangle(6, 4, rand), false);
     }
 
+    /**
+     * When B is a vector the work is split up across rows or columns of A instead of columns in B
+     */
+    @Test void mult_s_d_vector() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(30, 20, 100, rand);
+        DMatrixRMaj denseA = DConvertMatrixStruct.convert(A, (DMatrixRMaj)null);
+
+        DMatrixRMaj b = RandomMatrices_DDRM.rectangle(20, 1, rand);
+        DMatrixRMaj expected = CommonOps_DDRM.mult(denseA, b, null);
+        DMatrixRMaj found = CommonOps_MT_DSCC.mult(A, b, null, growArray);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected, found, UtilEjml.TEST_F64));
+
+        b = RandomMatrices_DDRM.rectangle(30, 1, rand);
+        expected = CommonOps_DDRM.multTransA(denseA, b, null);
+        found = CommonOps_MT_DSCC.multTransA(A, b, null, growArray);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(expected, found, UtilEjml.TEST_F64));
+    }
+
     private void check_s_d_mult( DMatrixSparseCSC A, DMatrixRMaj B, DMatrixRMaj C, boolean exception ) {
         DMatrixRMaj denseA = DConvertMatrixStruct.convert(A, (DMatrixRMaj)null);
         DMatrixRMaj expected = C.copy();
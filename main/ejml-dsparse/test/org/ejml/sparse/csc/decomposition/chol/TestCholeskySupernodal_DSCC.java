@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.chol;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.interfaces.decomposition.CholeskySparseDecomposition_F64;
+import org.ejml.ops.DConvertMatrixStruct;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.ejml.sparse.csc.misc.ApproximateMinimumDegree_DSCC;
+import org.ejml.sparse.csc.misc.TestApproximateMinimumDegree_DSCC;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestCholeskySupernodal_DSCC extends GenericCholeskyTests_DSCC {
+
+    public TestCholeskySupernodal_DSCC() {
+        canR = false;
+    }
+
+    @Override
+    public CholeskySparseDecomposition_F64<DMatrixSparseCSC> create( boolean lower ) {
+        return new CholeskySupernodal_DSCC(3);
+    }
+
+    /**
+     * A fill reduced grid has large supernodes. Compare against the up looking algorithm with block lengths
+     * which are smaller and larger than the supernodes.
+     */
+    @Test
+    public void compareToUpLooking() {
+        DMatrixSparseCSC A = TestApproximateMinimumDegree_DSCC.createShuffledGrid(12, rand);
+        IGrowArray perm = new IGrowArray();
+        new ApproximateMinimumDegree_DSCC().process(A, perm);
+        DMatrixSparseCSC C = new DMatrixSparseCSC(1, 1, 0);
+        CommonOps_DSCC.permuteSymmetric(A, CommonOps_DSCC.permutationInverse(perm.data, A.numCols), C, null);
+
+        CholeskyUpLooking_DSCC expected = new CholeskyUpLooking_DSCC();
+        assertTrue(expected.decompose(C));
+
+        // a minimum width of 1 forces every supernode through the dense block kernels
+        for (int minFrontWidth : new int[]{1, 8}) {
+            for (int blockLength : new int[]{1, 2, 5, 60}) {
+                CholeskySupernodal_DSCC alg = new CholeskySupernodal_DSCC(blockLength);
+                alg.setMinFrontWidth(minFrontWidth);
+                assertTrue(alg.decompose(C));
+                assertTrue(alg.getNumSupernodes() < C.numCols);
+                assertTrue(CommonOps_DSCC.checkStructure(alg.getL()));
+                EjmlUnitTests.assertEquals(expected.getL(), alg.getL(), UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    /**
+     * A dense matrix is a single supernode
+     */
+    @Test
+    public void denseMatrix() {
+        DMatrixRMaj dense = RandomMatrices_DDRM.symmetricPosDef(25, rand);
+        DMatrixSparseCSC A = DConvertMatrixStruct.convert(dense, (DMatrixSparseCSC)null, 0);
+
+        CholeskySupernodal_DSCC alg = new CholeskySupernodal_DSCC(4);
+        assertTrue(alg.decompose(A));
+        assertEquals(1, alg.getNumSupernodes());
+
+        DMatrixSparseCSC L = alg.getL();
+        DMatrixSparseCSC found = CommonOps_DSCC.mult(L, CommonOps_DSCC.transpose(L, null, null), null);
+        EjmlUnitTests.assertEquals(A, found, UtilEjml.TEST_F64);
+    }
+
+    /**
+     * Only the numerical values should change when the structure is locked
+     */
+    @Test
+    public void lockedStructure() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.symmetricPosDef(30, 0.2, rand);
+        DMatrixSparseCSC B = A.copy();
+        for (int i = 0; i < B.nz_length; i++) {
+            B.nz_values[i] *= 2;
+        }
+
+        CholeskySupernodal_DSCC alg = new CholeskySupernodal_DSCC(4);
+        alg.setStructureLocked(true);
+        assertTrue(alg.decompose(A));
+        assertTrue(alg.decompose(B));
+
+        CholeskyUpLooking_DSCC expected = new CholeskyUpLooking_DSCC();
+        assertTrue(expected.decompose(B));
+        EjmlUnitTests.assertEquals(expected.getL(), alg.getL(), UtilEjml.TEST_F64);
+    }
+}
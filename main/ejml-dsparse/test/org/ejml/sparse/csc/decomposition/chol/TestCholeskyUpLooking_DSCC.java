@@ -18,8 +18,18 @@
 
 package org.ejml.sparse.csc.decomposition.chol;
 
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.CommonOps_DDRM;
 import org.ejml.interfaces.decomposition.CholeskySparseDecomposition_F64;
+import org.ejml.ops.DConvertMatrixStruct;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 public class TestCholeskyUpLooking_DSCC extends GenericCholeskyTests_DSCC {
 
@@ -31,4 +41,86 @@ public class TestCholeskyUpLooking_DSCC extends GenericCholeskyTests_DSCC {
     public CholeskySparseDecomposition_F64<DMatrixSparseCSC> create(boolean lower) {
         return new CholeskyUpLooking_DSCC();
     }
+
+    /**
+     * Remove and add back measurements from a least-squares system. Compare against decomposing from scratch.
+     */
+    @Test void update_downdate() {
+        for (int k : new int[]{1, 3}) {
+            // each column in Jt is a row in the Jacobian
+            DMatrixSparseCSC Jt = RandomMatrices_DSCC.rectangle(30, 60, 150, rand);
+            DMatrixSparseCSC A = normalMatrix(Jt);
+            DMatrixSparseCSC C = new DMatrixSparseCSC(30, k);
+            CommonOps_DSCC.extract(Jt, 0, 30, 10, 10 + k, C, 0, 0);
+
+            var alg = new CholeskyUpLooking_DSCC();
+            assertTrue(alg.decompose(A));
+
+            // remove the rows
+            DMatrixRMaj expected = DConvertMatrixStruct.convert(A, (DMatrixRMaj)null);
+            DMatrixRMaj dense_C = DConvertMatrixStruct.convert(C, (DMatrixRMaj)null);
+            CommonOps_DDRM.multAddTransB(-1.0, dense_C, dense_C, expected);
+            assertTrue(alg.downdate(C));
+            checkFactor(expected, alg.getL());
+
+            // add them back
+            CommonOps_DDRM.multAddTransB(dense_C, dense_C, expected);
+            assertTrue(alg.update(C));
+            checkFactor(expected, alg.getL());
+        }
+    }
+
+    /**
+     * If C isn't contained in the structure of L an exception should be thrown and L not modified
+     */
+    @Test void update_patternNotContained() {
+        DMatrixSparseCSC A = CommonOps_DSCC.identity(5);
+        var alg = new CholeskyUpLooking_DSCC();
+        assertTrue(alg.decompose(A));
+        DMatrixSparseCSC before = alg.getL().copy();
+
+        DMatrixSparseCSC C = new DMatrixSparseCSC(5, 2);
+        C.set(1, 0, 2.0);
+        C.set(1, 1, 1.0);
+        C.set(3, 1, 1.0);
+        assertThrows(IllegalArgumentException.class, () -> alg.update(C));
+        EjmlUnitTests.assertEquals(before, alg.getL());
+    }
+
+    /**
+     * Downdate which results in a matrix that's not positive definite
+     */
+    @Test void downdate_notPositiveDefinite() {
+        DMatrixSparseCSC Jt = RandomMatrices_DSCC.rectangle(20, 40, 100, rand);
+        DMatrixSparseCSC A = normalMatrix(Jt);
+        DMatrixSparseCSC C = new DMatrixSparseCSC(20, 1);
+        CommonOps_DSCC.extract(Jt, 0, 20, 5, 6, C, 0, 0);
+        CommonOps_DSCC.scale(10.0, C, C);
+
+        var alg = new CholeskyUpLooking_DSCC();
+        assertTrue(alg.decompose(A));
+        assertFalse(alg.downdate(C));
+    }
+
+    /**
+     * Jt*J + I
+     */
+    private static DMatrixSparseCSC normalMatrix( DMatrixSparseCSC Jt ) {
+        DMatrixSparseCSC J = CommonOps_DSCC.transpose(Jt, null, null);
+        DMatrixSparseCSC JtJ = CommonOps_DSCC.mult(Jt, J, null);
+        return CommonOps_DSCC.add(1.0, JtJ, 1.0, CommonOps_DSCC.identity(Jt.numRows), null, null, null);
+    }
+
+    /**
+     * Compares L to the lower triangular factor found by decomposing the expected matrix from scratch
+     */
+    private static void checkFactor( DMatrixRMaj expected, DMatrixSparseCSC L ) {
+        var A = DConvertMatrixStruct.convert(expected, (DMatrixSparseCSC)null, 0.0);
+        var alg = new CholeskyUpLooking_DSCC();
+        assertTrue(alg.decompose(A));
+
+        DMatrixRMaj found = DConvertMatrixStruct.convert(L, (DMatrixRMaj)null);
+        DMatrixRMaj truth = DConvertMatrixStruct.convert(alg.getL(), (DMatrixRMaj)null);
+        EjmlUnitTests.assertEquals(truth, found, UtilEjml.TEST_F64);
+    }
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.chol;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+import org.ejml.interfaces.decomposition.CholeskySparseDecomposition_F64;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.ejml.sparse.csc.misc.ApproximateMinimumDegree_DSCC;
+import org.ejml.sparse.csc.misc.TestApproximateMinimumDegree_DSCC;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestCholeskyUpLooking_MT_DSCC extends GenericCholeskyTests_DSCC {
+
+    int previousThreshold;
+
+    public TestCholeskyUpLooking_MT_DSCC() {
+        canR = false;
+    }
+
+    /**
+     * Force it to use the concurrent code even on small matrices
+     */
+    @BeforeEach
+    public void before() {
+        previousThreshold = EjmlConcurrency.ELEMENT_THRESHOLD;
+        EjmlConcurrency.ELEMENT_THRESHOLD = 0;
+    }
+
+    @AfterEach
+    public void after() {
+        EjmlConcurrency.ELEMENT_THRESHOLD = previousThreshold;
+    }
+
+    @Override
+    public CholeskySparseDecomposition_F64<DMatrixSparseCSC> create( boolean lower ) {
+        return new CholeskyUpLooking_MT_DSCC();
+    }
+
+    /**
+     * Compare against the single threaded algorithm using different numbers of threads
+     */
+    @Test
+    public void compareToSingleThread() {
+        DMatrixSparseCSC A = TestApproximateMinimumDegree_DSCC.createShuffledGrid(20, rand);
+        IGrowArray perm = new IGrowArray();
+        new ApproximateMinimumDegree_DSCC().process(A, perm);
+        DMatrixSparseCSC C = new DMatrixSparseCSC(1, 1, 0);
+        CommonOps_DSCC.permuteSymmetric(A, CommonOps_DSCC.permutationInverse(perm.data, A.numCols), C, null);
+
+        CholeskyUpLooking_DSCC expected = new CholeskyUpLooking_DSCC();
+        assertTrue(expected.decompose(C));
+
+        for (int numThreads : new int[]{1, 2, 3, 8}) {
+            CholeskyUpLooking_MT_DSCC alg = new CholeskyUpLooking_MT_DSCC();
+            alg.performSymbolic(C);
+            alg.schedule(C, numThreads);
+            // make sure the top of the tree is being tested
+            assertTrue(numThreads == 1 || alg.getNumTopNodes() > 0);
+            assertTrue(alg.performDecomposition(C));
+            assertTrue(CommonOps_DSCC.checkStructure(alg.getL()));
+            EjmlUnitTests.assertEquals(expected.getL(), alg.getL(), UtilEjml.TEST_F64);
+        }
+    }
+
+    /**
+     * Every subtree must be processed by a single task and all the ancestors of a top node must be top nodes
+     */
+    @Test
+    public void schedule() {
+        for (int trial = 0; trial < 20; trial++) {
+            DMatrixSparseCSC A = RandomMatrices_DSCC.symmetricPosDef(200, 0.02, rand);
+
+            CholeskyUpLooking_MT_DSCC alg = new CholeskyUpLooking_MT_DSCC();
+            alg.performSymbolic(A);
+            alg.schedule(A, 4);
+
+            int total = alg.numTop;
+            for (int task = 0; task < alg.numTasks; task++) {
+                total += alg.taskStart[task + 1] - alg.taskStart[task];
+            }
+            assertEquals(A.numCols, total);
+
+            for (int j = 0; j < A.numCols; j++) {
+                int p = alg.parent[j];
+                if (p == -1)
+                    continue;
+                if (alg.owner[j] == -1)
+                    assertEquals(-1, alg.owner[p]);
+                else if (alg.owner[p] != -1)
+                    assertEquals(alg.owner[j], alg.owner[p]);
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.eig;
+
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.decomposition.eig.SymmetricQRAlgorithmDecomposition_DDRM;
+import org.ejml.ops.DConvertMatrixStruct;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSymmetricLanczosDecomposition_DSCC {
+    Random rand = new Random(234);
+
+    /**
+     * Compare against a dense decomposition with and without concurrency
+     */
+    @Test
+    public void compareToDense() {
+        int threshold = EjmlConcurrency.ELEMENT_THRESHOLD;
+        try {
+            for (int elementThreshold : new int[]{Integer.MAX_VALUE, 0}) {
+                EjmlConcurrency.ELEMENT_THRESHOLD = elementThreshold;
+                for (boolean largest : new boolean[]{true, false}) {
+                    compareToDense(120, 600, 4, largest);
+                }
+            }
+        } finally {
+            EjmlConcurrency.ELEMENT_THRESHOLD = threshold;
+        }
+    }
+
+    private void compareToDense( int N, int nz, int numEigen, boolean largest ) {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.symmetric(N, nz, -1, 1, rand);
+        DMatrixRMaj denseA = DConvertMatrixStruct.convert(A, (DMatrixRMaj)null);
+
+        var alg = new SymmetricLanczosDecomposition_DSCC(numEigen, largest);
+        assertTrue(alg.decompose(A));
+        assertEquals(numEigen, alg.getNumberOfEigenvalues());
+
+        var full = new SymmetricQRAlgorithmDecomposition_DDRM(false);
+        assertTrue(full.decompose(denseA.copy()));
+        double[] expected = new double[N];
+        for (int i = 0; i < N; i++) {
+            expected[i] = full.getEigenvalue(i).real;
+        }
+        Arrays.sort(expected);
+
+        for (int i = 0; i < numEigen; i++) {
+            double value = alg.getEigenvalue(i);
+            assertEquals(largest ? expected[N - 1 - i] : expected[i], value, UtilEjml.TEST_F64);
+
+            DMatrixRMaj v = alg.getEigenVector(i).copy();
+            DMatrixRMaj Av = CommonOps_DDRM.mult(denseA, v, null);
+            CommonOps_DDRM.scale(value, v);
+            assertTrue(MatrixFeatures_DDRM.isIdentical(Av, v, 1e-8));
+        }
+    }
+}
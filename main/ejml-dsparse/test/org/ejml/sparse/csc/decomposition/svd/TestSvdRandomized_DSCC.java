@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.decomposition.svd;
+
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.ejml.dense.row.decomposition.svd.SvdRandomized_DDRM;
+import org.ejml.ops.DConvertMatrixStruct;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSvdRandomized_DSCC {
+    Random rand = new Random(234);
+
+    /**
+     * Given the same random seed the results should be the same as the dense implementation
+     */
+    @Test
+    public void compareToDense() {
+        int threshold = EjmlConcurrency.ELEMENT_THRESHOLD;
+        try {
+            for (int elementThreshold : new int[]{Integer.MAX_VALUE, 0}) {
+                EjmlConcurrency.ELEMENT_THRESHOLD = elementThreshold;
+                compareToDense(150, 80, 800, 5);
+                compareToDense(80, 150, 800, 5);
+            }
+        } finally {
+            EjmlConcurrency.ELEMENT_THRESHOLD = threshold;
+        }
+    }
+
+    private void compareToDense( int numRows, int numCols, int nz, int rank ) {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(numRows, numCols, nz, -1, 1, rand);
+        DMatrixRMaj denseA = DConvertMatrixStruct.convert(A, (DMatrixRMaj)null);
+
+        var alg = new SvdRandomized_DSCC(rank, true, true);
+        alg.setRand(new Random(3));
+        assertTrue(alg.decompose(A));
+
+        var dense = new SvdRandomized_DDRM(rank, true, true);
+        dense.setRand(new Random(3));
+        assertTrue(dense.decompose(denseA));
+
+        assertEquals(rank, alg.numberOfSingularValues());
+        for (int i = 0; i < rank; i++) {
+            assertEquals(dense.getSingularValues()[i], alg.getSingularValues()[i], UtilEjml.TEST_F64);
+        }
+        assertTrue(MatrixFeatures_DDRM.isIdentical(dense.getU(null, false), alg.getU(null, false), UtilEjml.TEST_F64));
+        assertTrue(MatrixFeatures_DDRM.isIdentical(dense.getV(null, false), alg.getV(null, false), UtilEjml.TEST_F64));
+    }
+
+    /**
+     * If the rank is at least as large as the matrix then the decomposition is exact
+     */
+    @Test
+    public void fullRank() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(40, 25, 200, -1, 1, rand);
+        DMatrixRMaj denseA = DConvertMatrixStruct.convert(A, (DMatrixRMaj)null);
+
+        var alg = new SvdRandomized_DSCC(100, true, true);
+        assertTrue(alg.decompose(A));
+        assertEquals(25, alg.numberOfSingularValues());
+
+        DMatrixRMaj UW = CommonOps_DDRM.mult(alg.getU(null, false), alg.getW(null), null);
+        DMatrixRMaj found = CommonOps_DDRM.multTransB(UW, alg.getV(null, false), null);
+        assertTrue(MatrixFeatures_DDRM.isIdentical(denseA, found, UtilEjml.TEST_F64));
+    }
+}
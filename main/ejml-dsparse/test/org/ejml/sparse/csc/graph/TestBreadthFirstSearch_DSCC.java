@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.sparse.csc.graph;
+
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.ejml.sparse.csc.mult.MatrixSparseVectorMultWithSemiRing_DSCC.Direction;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBreadthFirstSearch_DSCC {
+    private final Random rand = new Random(234);
+
+    /**
+     * Compare against a queue based search for every direction
+     */
+    @Test
+    public void compareToQueue() {
+        for (Direction direction : Direction.values()) {
+            BreadthFirstSearch_DSCC alg = new BreadthFirstSearch_DSCC();
+            alg.multiplier.direction = direction;
+
+            for (int N : new int[]{1, 5, 30, 100}) {
+                for (int trial = 0; trial < 5; trial++) {
+                    DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(N, N, N*2, rand);
+                    alg.setGraph(A);
+                    int source = rand.nextInt(N);
+
+                    int[] levels = new int[N];
+                    int reached = bfs(A, source, levels);
+                    assertEquals(reached, alg.process(source));
+                    checkSolution(A, source, levels, alg);
+                }
+            }
+        }
+    }
+
+    /**
+     * Searching a larger graph in between should not change the results
+     */
+    @Test
+    public void recycle() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(40, 40, 80, rand);
+        DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(100, 100, 300, rand);
+
+        BreadthFirstSearch_DSCC alg = new BreadthFirstSearch_DSCC();
+        alg.setGraph(A);
+        alg.process(3);
+        int[] expectedLevels = Arrays.copyOf(alg.getLevels(), 40);
+        int[] expectedParents = Arrays.copyOf(alg.getParents(), 40);
+
+        alg.setGraph(B);
+        alg.process(50);
+        alg.setGraph(A);
+        alg.process(3);
+
+        assertArrayEquals(expectedLevels, Arrays.copyOf(alg.getLevels(), 40));
+        assertArrayEquals(expectedParents, Arrays.copyOf(alg.getParents(), 40));
+    }
+
+    /**
+     * A path graph has one node at each level
+     */
+    @Test
+    public void path() {
+        int N = 10;
+        DMatrixSparseCSC A = new DMatrixSparseCSC(N, N, N);
+        for (int i = 0; i < N - 1; i++) {
+            A.set(i, i + 1, 2.0);
+        }
+
+        BreadthFirstSearch_DSCC alg = new BreadthFirstSearch_DSCC();
+        alg.setGraph(A);
+        assertEquals(N - 2, alg.process(2));
+        assertEquals(N - 2, alg.getNumLevels());
+        assertEquals(-1, alg.getLevels()[1]);
+        assertEquals(-1, alg.getParents()[1]);
+        for (int i = 2; i < N; i++) {
+            assertEquals(i - 2, alg.getLevels()[i]);
+            assertEquals(i == 2 ? 2 : i - 1, alg.getParents()[i]);
+        }
+    }
+
+    @Test
+    public void badInput() {
+        BreadthFirstSearch_DSCC alg = new BreadthFirstSearch_DSCC();
+        assertThrows(IllegalArgumentException.class, () -> alg.setGraph(new DMatrixSparseCSC(4, 5)));
+        alg.setGraph(new DMatrixSparseCSC(4, 4));
+        assertThrows(IllegalArgumentException.class, () -> alg.process(4));
+    }
+
+    private static void checkSolution( DMatrixSparseCSC A, int source, int[] levels, BreadthFirstSearch_DSCC alg ) {
+        for (int i = 0; i < A.numCols; i++) {
+            assertEquals(levels[i], alg.getLevels()[i]);
+            int parent = alg.getParents()[i];
+            if (levels[i] < 0) {
+                assertEquals(-1, parent);
+            } else if (i == source) {
+                assertEquals(source, parent);
+            } else {
+                // the parent is the smallest node in the previous level with an edge to this one
+                assertEquals(levels[i] - 1, levels[parent]);
+                assertTrue(A.isAssigned(parent, i));
+                for (int j = 0; j < parent; j++) {
+                    assertFalse(levels[j] == levels[i] - 1 && A.isAssigned(j, i));
+                }
+            }
+        }
+    }
+
+    private static int bfs( DMatrixSparseCSC A, int source, int[] levels ) {
+        Arrays.fill(levels, -1);
+        levels[source] = 0;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(source);
+        int reached = 1;
+        while (!queue.isEmpty()) {
+            int i = queue.poll();
+            for (int j = 0; j < A.numCols; j++) {
+                if (levels[j] == -1 && A.isAssigned(i, j)) {
+                    levels[j] = levels[i] + 1;
+                    queue.add(j);
+                    reached++;
+                }
+            }
+        }
+        return reached;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.sparse.csc.graph;
+
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestConnectedComponents_DSCC {
+    private final Random rand = new Random(234);
+
+    /**
+     * Compare against union-find on directed graphs
+     */
+    @Test
+    public void compareToUnionFind() {
+        ConnectedComponents_DSCC alg = new ConnectedComponents_DSCC();
+
+        for (int N : new int[]{0, 1, 5, 30, 100}) {
+            for (int trial = 0; trial < 5; trial++) {
+                DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(N, N, N*3/4, rand);
+                alg.setGraph(A, false);
+                int[] expected = unionFind(A);
+                int count = 0;
+                for (int i = 0; i < N; i++) {
+                    if (expected[i] == i)
+                        count++;
+                }
+
+                assertEquals(count, alg.process());
+                assertEquals(count, alg.getNumComponents());
+                for (int i = 0; i < N; i++) {
+                    assertEquals(expected[i], alg.getLabels()[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Same results if it's told the graph is symmetric
+     */
+    @Test
+    public void symmetric() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(60, 60, 40, rand);
+        DMatrixSparseCSC S = CommonOps_DSCC.add(1, A, 1, CommonOps_DSCC.transpose(A, null, null), null, null, null);
+        int[] expected = unionFind(A);
+
+        ConnectedComponents_DSCC alg = new ConnectedComponents_DSCC();
+        alg.setGraph(S, true);
+        alg.process();
+        for (int i = 0; i < 60; i++) {
+            assertEquals(expected[i], alg.getLabels()[i]);
+        }
+    }
+
+    /**
+     * Label of each node is the smallest node in its component
+     */
+    private static int[] unionFind( DMatrixSparseCSC A ) {
+        int N = A.numCols;
+        int[] root = new int[N];
+        for (int i = 0; i < N; i++) {
+            root[i] = i;
+        }
+        for (int col = 0; col < N; col++) {
+            for (int idx = A.col_idx[col]; idx < A.col_idx[col + 1]; idx++) {
+                int a = find(root, A.nz_rows[idx]);
+                int b = find(root, col);
+                root[Math.max(a, b)] = Math.min(a, b);
+            }
+        }
+        for (int i = 0; i < N; i++) {
+            root[i] = find(root, i);
+        }
+        return root;
+    }
+
+    private static int find( int[] root, int i ) {
+        while (root[i] != i) {
+            i = root[i];
+        }
+        return i;
+    }
+}
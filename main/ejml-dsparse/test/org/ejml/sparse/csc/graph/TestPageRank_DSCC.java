@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.sparse.csc.graph;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPageRank_DSCC {
+    private final Random rand = new Random(234);
+
+    /**
+     * Compare against power iteration using a dense Google matrix
+     */
+    @Test
+    public void compareToDense() {
+        PageRank_DSCC alg = new PageRank_DSCC();
+        alg.tolerance = 1e-12;
+        alg.maxIterations = 500;
+
+        for (int N : new int[]{1, 5, 30, 100}) {
+            DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(N, N, N*2, rand);
+            alg.setGraph(A);
+            assertTrue(alg.process());
+            assertTrue(alg.getIterations() <= 500);
+
+            double[] expected = dense(A, alg.damping);
+            double sum = 0;
+            for (int i = 0; i < N; i++) {
+                assertEquals(expected[i], alg.getRank()[i], 1e-9);
+                sum += alg.getRank()[i];
+            }
+            assertEquals(1.0, sum, UtilEjml.TEST_F64);
+        }
+    }
+
+    /**
+     * Every node in a cycle has the same rank
+     */
+    @Test
+    public void cycle() {
+        int N = 7;
+        DMatrixSparseCSC A = new DMatrixSparseCSC(N, N);
+        for (int i = 0; i < N; i++) {
+            A.set(i, (i + 1)%N, 5);
+        }
+
+        PageRank_DSCC alg = new PageRank_DSCC();
+        alg.setGraph(A);
+        assertTrue(alg.process());
+        for (int i = 0; i < N; i++) {
+            assertEquals(1.0/N, alg.getRank()[i], UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test
+    public void notConverged() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(50, 50, 100, rand);
+        PageRank_DSCC alg = new PageRank_DSCC();
+        alg.maxIterations = 2;
+        alg.setGraph(A);
+        assertFalse(alg.process());
+        assertEquals(2, alg.getIterations());
+    }
+
+    private static double[] dense( DMatrixSparseCSC A, double damping ) {
+        int N = A.numCols;
+        double[][] G = new double[N][N];
+        for (int i = 0; i < N; i++) {
+            int degree = 0;
+            for (int j = 0; j < N; j++) {
+                if (A.isAssigned(i, j))
+                    degree++;
+            }
+            for (int j = 0; j < N; j++) {
+                double follow = degree == 0 ? 1.0/N : (A.isAssigned(i, j) ? 1.0/degree : 0);
+                G[i][j] = damping*follow + (1.0 - damping)/N;
+            }
+        }
+
+        double[] r = new double[N];
+        Arrays.fill(r, 1.0/N);
+        for (int iteration = 0; iteration < 2000; iteration++) {
+            double[] next = new double[N];
+            for (int i = 0; i < N; i++) {
+                for (int j = 0; j < N; j++) {
+                    next[j] += r[i]*G[i][j];
+                }
+            }
+            r = next;
+        }
+        return r;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.sparse.csc.graph;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestShortestPath_DSCC {
+    private final Random rand = new Random(234);
+
+    /**
+     * Compare both algorithms against a brute force Bellman-Ford on graphs with positive weights
+     */
+    @Test
+    public void compareToBruteForce() {
+        ShortestPath_DSCC[] algs = new ShortestPath_DSCC[]{
+                new ShortestPath_DSCC(), new ShortestPath_DSCC(0.1), new ShortestPath_DSCC(0.5), new ShortestPath_DSCC(10)};
+
+        for (int N : new int[]{1, 5, 30, 100}) {
+            for (int trial = 0; trial < 5; trial++) {
+                DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(N, N, N*3, 0, 1, rand);
+                int source = rand.nextInt(N);
+                double[] expected = new double[N];
+                assertTrue(bruteForce(A, source, expected));
+
+                for (ShortestPath_DSCC alg : algs) {
+                    alg.setGraph(A);
+                    assertTrue(alg.process(source));
+                    for (int i = 0; i < N; i++) {
+                        assertEquals(expected[i], alg.getDistances()[i], UtilEjml.TEST_F64);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Bellman-Ford can handle negative weights
+     */
+    @Test
+    public void bellmanFord_negative() {
+        int N = 5;
+        DMatrixSparseCSC A = new DMatrixSparseCSC(N, N);
+        A.set(0, 1, 4);
+        A.set(0, 2, 1);
+        A.set(2, 1, -2);
+        A.set(1, 3, 1);
+
+        ShortestPath_DSCC alg = new ShortestPath_DSCC();
+        alg.setGraph(A);
+        assertTrue(alg.process(0));
+        double[] found = alg.getDistances();
+        assertEquals(0, found[0]);
+        assertEquals(-1, found[1]);
+        assertEquals(1, found[2]);
+        assertEquals(0, found[3]);
+        assertEquals(Double.POSITIVE_INFINITY, found[4]);
+
+        // create a negative cycle
+        A.set(1, 2, 1);
+        alg.setGraph(A);
+        assertFalse(alg.process(0));
+    }
+
+    @Test
+    public void deltaStepping_negative() {
+        DMatrixSparseCSC A = new DMatrixSparseCSC(3, 3);
+        A.set(0, 1, -1);
+        assertThrows(IllegalArgumentException.class, () -> new ShortestPath_DSCC(0.5).setGraph(A));
+    }
+
+    /**
+     * Light and heavy edges should be split without losing any
+     */
+    @Test
+    public void splitEdges() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(20, 20, 100, 0, 1, rand);
+        ShortestPath_DSCC alg = new ShortestPath_DSCC(0.3);
+        alg.setGraph(A);
+
+        assertEquals(A.nz_length, alg.lightEdges.nz_length + alg.heavyEdges.nz_length);
+        for (int row = 0; row < 20; row++) {
+            for (int col = 0; col < 20; col++) {
+                double value = A.get(row, col);
+                DMatrixSparseCSC expected = value <= 0.3 ? alg.lightEdges : alg.heavyEdges;
+                DMatrixSparseCSC other = value <= 0.3 ? alg.heavyEdges : alg.lightEdges;
+                if (A.isAssigned(row, col))
+                    assertEquals(value, expected.get(row, col));
+                assertFalse(other.isAssigned(row, col));
+            }
+        }
+    }
+
+    private static boolean bruteForce( DMatrixSparseCSC A, int source, double[] dist ) {
+        int N = A.numCols;
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        dist[source] = 0;
+        for (int iteration = 0; iteration < N; iteration++) {
+            boolean changed = false;
+            for (int i = 0; i < N; i++) {
+                for (int j = 0; j < N; j++) {
+                    if (!A.isAssigned(i, j) || dist[i] + A.get(i, j) >= dist[j])
+                        continue;
+                    dist[j] = dist[i] + A.get(i, j);
+                    changed = true;
+                }
+            }
+            if (!changed)
+                return true;
+        }
+        return false;
+    }
+}
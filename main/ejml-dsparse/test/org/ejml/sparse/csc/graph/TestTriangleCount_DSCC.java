@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ejml.sparse.csc.graph;
+
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestTriangleCount_DSCC {
+    private final Random rand = new Random(234);
+
+    /**
+     * Compare against checking every triplet of nodes
+     */
+    @Test
+    public void compareToBruteForce() {
+        TriangleCount_DSCC alg = new TriangleCount_DSCC();
+
+        for (int N : new int[]{0, 1, 3, 10, 40, 10}) {
+            for (int trial = 0; trial < 5; trial++) {
+                DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(N, N, N*N/4, rand);
+                DMatrixSparseCSC S = CommonOps_DSCC.add(1, A, 1, CommonOps_DSCC.transpose(A, null, null), null, null, null);
+
+                long expected = 0;
+                for (int i = 0; i < N; i++) {
+                    for (int j = 0; j < i; j++) {
+                        for (int k = 0; k < j; k++) {
+                            if (S.isAssigned(i, j) && S.isAssigned(j, k) && S.isAssigned(i, k))
+                                expected++;
+                        }
+                    }
+                }
+                assertEquals(expected, alg.process(S));
+            }
+        }
+    }
+
+    /**
+     * The example graph has two triangles which share a node and an isolated node. Weights and the diagonal
+     * are ignored.
+     */
+    @Test
+    public void twoTriangles() {
+        DMatrixSparseCSC A = new DMatrixSparseCSC(6, 6, 24);
+        A.set(0, 1, 2);
+        A.set(0, 2, 3);
+        A.set(1, 2, 4);
+        A.set(2, 3, 5);
+        A.set(2, 4, 6);
+        A.set(3, 4, 7);
+        A.set(2, 2, 1);
+        A.set(5, 5, 1);
+        DMatrixSparseCSC S = CommonOps_DSCC.add(1, A, 1, CommonOps_DSCC.transpose(A, null, null), null, null, null);
+
+        TriangleCount_DSCC alg = new TriangleCount_DSCC();
+        assertEquals(2, alg.process(S));
+        assertEquals(1, alg.getEdgeTriangles().get(4, 2));
+        assertEquals(0, alg.getEdgeTriangles().get(5, 0));
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2020, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
  *
  * This file is part of Efficient Java Matrix Library (EJML).
  *
@@ -18,9 +18,12 @@
 
 package org.ejml.sparse.csc.linsol.chol;
 
+import org.ejml.EjmlUnitTests;
 import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.RandomMatrices_DDRM;
 import org.ejml.interfaces.linsol.LinearSolverSparse;
 import org.ejml.sparse.ComputePermutation;
 import org.ejml.sparse.FillReducing;
@@ -28,6 +31,9 @@ import org.ejml.sparse.csc.RandomMatrices_DSCC;
 import org.ejml.sparse.csc.decomposition.chol.CholeskyUpLooking_DSCC;
 import org.ejml.sparse.csc.factory.FillReductionFactory_DSCC;
 import org.ejml.sparse.csc.linsol.GenericLinearSolverSparseTests_DSCC;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * @author Peter Abeles
@@ -40,7 +46,7 @@ public class TestLinearSolverCholesky_DSCC extends GenericLinearSolverSparseTest
         canHandleTall = false;
         canDecomposeZeros = false;
 
-        permutationTests = new FillReducing[]{FillReducing.NONE, FillReducing.IDENTITY}; // todo add a cholesky specific
+        permutationTests = new FillReducing[]{FillReducing.NONE, FillReducing.IDENTITY, FillReducing.AMD};
     }
 
     @Override
@@ -56,4 +62,41 @@ public class TestLinearSolverCholesky_DSCC extends GenericLinearSolverSparseTest
         // this was messing up tests
         return RandomMatrices_DSCC.symmetricPosDef(N, 0.25, rand);
     }
+
+    /**
+     * Solve using the level scheduled triangular solver and compare against the single threaded solution
+     */
+    @Test
+    public void concurrentTriangularSolve() {
+        int previous = EjmlConcurrency.ELEMENT_THRESHOLD;
+        int previousThreads = EjmlConcurrency.getMaxThreads();
+        boolean previousConcurrent = EjmlConcurrency.USE_CONCURRENT;
+        try {
+            EjmlConcurrency.setMaxThreads(3);
+            for (FillReducing permutation : permutationTests) {
+                DMatrixSparseCSC A = createA(120);
+                DMatrixRMaj B = RandomMatrices_DDRM.rectangle(A.numRows, 3, rand);
+                DMatrixRMaj expected = new DMatrixRMaj(1, 1);
+                DMatrixRMaj found = new DMatrixRMaj(1, 1);
+
+                EjmlConcurrency.ELEMENT_THRESHOLD = Integer.MAX_VALUE;
+                LinearSolverCholesky_DSCC alg = (LinearSolverCholesky_DSCC)createSolver(permutation);
+                assertTrue(alg.setA(A.copy()));
+                assertFalse(alg.concurrent);
+                alg.solve(B, expected);
+
+                EjmlConcurrency.ELEMENT_THRESHOLD = 0;
+                alg.solverL.minimumBlock = 1;
+                assertTrue(alg.setA(A.copy()));
+                assertTrue(alg.concurrent);
+                alg.solve(B, found);
+
+                EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+            }
+        } finally {
+            EjmlConcurrency.ELEMENT_THRESHOLD = previous;
+            EjmlConcurrency.setMaxThreads(previousThreads);
+            EjmlConcurrency.USE_CONCURRENT = previousConcurrent;
+        }
+    }
 }
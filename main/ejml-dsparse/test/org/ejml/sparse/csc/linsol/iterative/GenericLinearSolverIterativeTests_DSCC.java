@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.sparse.Preconditioning;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for iterative solvers which can handle general non-symmetric matrices
+ *
+ * @author Peter Abeles
+ */
+public abstract class GenericLinearSolverIterativeTests_DSCC {
+    protected final Random rand = new Random(234);
+
+    protected abstract LinearSolverIterative_DSCC createSolver( Preconditioning type );
+
+    @Test
+    void randomSolveable() {
+        for (Preconditioning type : new Preconditioning[]{Preconditioning.NONE, Preconditioning.JACOBI, Preconditioning.INCOMPLETE_LU}) {
+            LinearSolverIterative_DSCC solver = createSolver(type);
+
+            for (int N : new int[]{1, 5, 20, 50}) {
+                for (int trial = 0; trial < 5; trial++) {
+                    checkSolve(solver, createDiagonallyDominant(N, 0.3, 2.0, rand), 3);
+                }
+            }
+        }
+    }
+
+    /**
+     * A convection-diffusion like matrix with a weak diagonal. ILU should reduce the number of iterations.
+     */
+    @Test
+    void preconditioningHelps() {
+        DMatrixSparseCSC A = createDiagonallyDominant(200, 0.03, 1.05, rand);
+
+        LinearSolverIterative_DSCC none = createSolver(Preconditioning.NONE);
+        LinearSolverIterative_DSCC ilu = createSolver(Preconditioning.INCOMPLETE_LU);
+        checkSolve(none, A, 1);
+        checkSolve(ilu, A, 1);
+
+        assertTrue(ilu.getIterations() < none.getIterations());
+    }
+
+    @Test
+    void solveSparse() {
+        LinearSolverIterative_DSCC solver = createSolver(Preconditioning.INCOMPLETE_LU);
+        DMatrixSparseCSC A = createDiagonallyDominant(20, 0.3, 2.0, rand);
+        DMatrixSparseCSC X = RandomMatrices_DSCC.rectangle(20, 3, 20, rand);
+        DMatrixSparseCSC B = CommonOps_DSCC.mult(A, X, null);
+
+        assertTrue(solver.setA(A));
+        DMatrixSparseCSC found = new DMatrixSparseCSC(1, 1, 0);
+        solver.solveSparse(B, found);
+        assertTrue(CommonOps_DSCC.checkStructure(found));
+        EjmlUnitTests.assertEquals(X, found, 1e-6);
+    }
+
+    /**
+     * If B is zero then the solution is zero and no iterations are needed
+     */
+    @Test
+    void zeroB() {
+        LinearSolverIterative_DSCC solver = createSolver(Preconditioning.NONE);
+        DMatrixSparseCSC A = createDiagonallyDominant(10, 0.3, 2.0, rand);
+        DMatrixRMaj X = RandomMatrices_DDRM.rectangle(10, 2, rand);
+
+        assertTrue(solver.setA(A));
+        solver.solve(new DMatrixRMaj(10, 2), X);
+        assertEquals(0.0, CommonOps_DDRM.elementMaxAbs(X));
+        assertEquals(0, solver.getIterations());
+        assertTrue(solver.isConverged());
+    }
+
+    /**
+     * Stops at the maximum number of iterations and reports it didn't converge
+     */
+    @Test
+    void maxIterations() {
+        LinearSolverIterative_DSCC solver = createSolver(Preconditioning.NONE);
+        DMatrixSparseCSC A = createDiagonallyDominant(100, 0.05, 1.05, rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(A.numRows, 1, rand);
+        DMatrixRMaj X = new DMatrixRMaj(1, 1);
+
+        solver.setMaxIterations(2);
+        assertTrue(solver.setA(A));
+        solver.solve(B, X);
+        assertFalse(solver.isConverged());
+        assertEquals(2, solver.getIterations());
+        assertTrue(solver.getResidual() > solver.getTolerance());
+
+        // remove the limit so that it converges
+        solver.setMaxIterations(0);
+        solver.solve(B, X);
+        assertTrue(solver.isConverged());
+        assertTrue(solver.getResidual() <= solver.getTolerance());
+    }
+
+    /**
+     * The concurrent code path should produce the same solution
+     */
+    @Test
+    void concurrent() {
+        int previousThreshold = EjmlConcurrency.ELEMENT_THRESHOLD;
+        int previousThreads = EjmlConcurrency.getMaxThreads();
+        boolean previousConcurrent = EjmlConcurrency.USE_CONCURRENT;
+        try {
+            // make sure concurrency is enabled even if there's only one core
+            EjmlConcurrency.setMaxThreads(3);
+
+            DMatrixSparseCSC A = createDiagonallyDominant(150, 0.05, 1.5, rand);
+            DMatrixRMaj B = RandomMatrices_DDRM.rectangle(A.numRows, 2, rand);
+
+            LinearSolverIterative_DSCC single = createSolver(Preconditioning.INCOMPLETE_LU);
+            LinearSolverIterative_DSCC multi = createSolver(Preconditioning.INCOMPLETE_LU);
+
+            EjmlConcurrency.ELEMENT_THRESHOLD = Integer.MAX_VALUE;
+            assertTrue(single.setA(A));
+            assertFalse(single.isConcurrent());
+            EjmlConcurrency.ELEMENT_THRESHOLD = 0;
+            assertTrue(multi.setA(A));
+            assertTrue(multi.isConcurrent());
+
+            DMatrixRMaj expected = new DMatrixRMaj(1, 1);
+            DMatrixRMaj found = new DMatrixRMaj(1, 1);
+            single.solve(B, expected);
+            multi.solve(B, found);
+
+            EjmlUnitTests.assertEquals(expected, found, 1e-8);
+        } finally {
+            EjmlConcurrency.ELEMENT_THRESHOLD = previousThreshold;
+            EjmlConcurrency.setMaxThreads(previousThreads);
+            EjmlConcurrency.USE_CONCURRENT = previousConcurrent;
+        }
+    }
+
+    /**
+     * Locking the structure should produce identical results when the values change
+     */
+    @Test
+    void structureLocked() {
+        LinearSolverIterative_DSCC solver = createSolver(Preconditioning.INCOMPLETE_LU);
+        DMatrixSparseCSC A = createDiagonallyDominant(40, 0.1, 2.0, rand);
+
+        assertTrue(solver.setA(A));
+        solver.setStructureLocked(true);
+        assertTrue(solver.isStructureLocked());
+
+        CommonOps_DSCC.scale(2.0, A, A);
+        checkSolve(solver, A, 2);
+    }
+
+    @Test
+    void notSquare() {
+        LinearSolverIterative_DSCC solver = createSolver(Preconditioning.NONE);
+        assertThrows(IllegalArgumentException.class, () -> solver.setA(RandomMatrices_DSCC.rectangle(5, 4, 10, rand)));
+    }
+
+    protected void checkSolve( LinearSolverIterative_DSCC solver, DMatrixSparseCSC A, int numCols ) {
+        DMatrixSparseCSC A_cpy = A.copy();
+        DMatrixRMaj X = RandomMatrices_DDRM.rectangle(A.numCols, numCols, rand);
+        DMatrixRMaj B = CommonOps_DSCC.mult(A, X, null);
+        DMatrixRMaj B_cpy = B.copy();
+
+        assertTrue(solver.setA(A));
+        DMatrixRMaj found = new DMatrixRMaj(1, 1);
+        solver.solve(B, found);
+
+        assertTrue(solver.isConverged());
+        assertTrue(solver.getResidual() <= solver.getTolerance());
+        assertTrue(solver.getIterations() <= solver.getMaxIterations());
+
+        DMatrixRMaj foundB = CommonOps_DSCC.mult(A, found, null);
+        EjmlUnitTests.assertEquals(B_cpy, foundB, 1e-6);
+        EjmlUnitTests.assertEquals(A_cpy, A, 0.0);
+        EjmlUnitTests.assertEquals(B_cpy, B, 0.0);
+    }
+
+    /**
+     * Creates a random non-symmetric matrix where the diagonal is the sum of the absolute value of the other
+     * elements in its row multiplied by 'dominance'
+     */
+    public static DMatrixSparseCSC createDiagonallyDominant( int N, double fill, double dominance, Random rand ) {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(N, N, (int)(N*N*fill), -1, 1, rand);
+        double[] rowSum = new double[N];
+        for (int col = 0; col < N; col++) {
+            for (int idx = A.col_idx[col]; idx < A.col_idx[col + 1]; idx++) {
+                int row = A.nz_rows[idx];
+                if (row != col)
+                    rowSum[row] += Math.abs(A.nz_values[idx]);
+            }
+        }
+        for (int i = 0; i < N; i++) {
+            A.set(i, i, dominance*rowSum[i] + 0.1);
+        }
+        return A;
+    }
+}
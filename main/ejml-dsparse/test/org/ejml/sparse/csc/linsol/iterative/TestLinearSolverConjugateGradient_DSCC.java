@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.sparse.Preconditioning;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.ejml.sparse.csc.factory.LinearSolverFactory_DSCC;
+import org.ejml.sparse.csc.misc.TestApproximateMinimumDegree_DSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLinearSolverConjugateGradient_DSCC {
+    private final Random rand = new Random(234);
+
+    @Test
+    void randomSolveable() {
+        for (Preconditioning type : Preconditioning.values()) {
+            LinearSolverIterative_DSCC solver = LinearSolverFactory_DSCC.conjugateGradient(type);
+
+            for (int N : new int[]{1, 5, 20, 50}) {
+                for (int trial = 0; trial < 5; trial++) {
+                    DMatrixSparseCSC A = RandomMatrices_DSCC.symmetricPosDef(N, 0.7, rand);
+                    checkSolve(solver, A, 3);
+                }
+            }
+        }
+    }
+
+    /**
+     * A 2D grid is a more typical problem for an iterative solver. Preconditioning should reduce the number of
+     * iterations.
+     */
+    @Test
+    void grid() {
+        DMatrixSparseCSC A = TestApproximateMinimumDegree_DSCC.createShuffledGrid(20, rand);
+        // weaken the diagonal so that it's harder to solve
+        for (int col = 0; col < A.numCols; col++) {
+            A.set(col, col, 4.01);
+        }
+
+        int[] iterations = new int[Preconditioning.values().length];
+        for (Preconditioning type : Preconditioning.values()) {
+            LinearSolverIterative_DSCC solver = LinearSolverFactory_DSCC.conjugateGradient(type);
+            checkSolve(solver, A, 1);
+            iterations[type.ordinal()] = solver.getIterations();
+        }
+
+        assertTrue(iterations[Preconditioning.INCOMPLETE_CHOLESKY.ordinal()] < iterations[Preconditioning.NONE.ordinal()]);
+    }
+
+    @Test
+    void solveSparse() {
+        LinearSolverIterative_DSCC solver = LinearSolverFactory_DSCC.conjugateGradient(Preconditioning.JACOBI);
+        DMatrixSparseCSC A = RandomMatrices_DSCC.symmetricPosDef(20, 0.7, rand);
+        DMatrixSparseCSC X = RandomMatrices_DSCC.rectangle(20, 3, 20, rand);
+        DMatrixSparseCSC B = CommonOps_DSCC.mult(A, X, null);
+
+        assertTrue(solver.setA(A));
+        DMatrixSparseCSC found = new DMatrixSparseCSC(1, 1, 0);
+        solver.solveSparse(B, found);
+        assertTrue(CommonOps_DSCC.checkStructure(found));
+        EjmlUnitTests.assertEquals(X, found, 1e-6);
+    }
+
+    /**
+     * If B is zero then the solution is zero and no iterations are needed
+     */
+    @Test
+    void zeroB() {
+        LinearSolverIterative_DSCC solver = LinearSolverFactory_DSCC.conjugateGradient(Preconditioning.NONE);
+        DMatrixSparseCSC A = RandomMatrices_DSCC.symmetricPosDef(10, 0.7, rand);
+        DMatrixRMaj X = RandomMatrices_DDRM.rectangle(10, 2, rand);
+
+        assertTrue(solver.setA(A));
+        solver.solve(new DMatrixRMaj(10, 2), X);
+        assertEquals(0.0, CommonOps_DDRM.elementMaxAbs(X));
+        assertEquals(0, solver.getIterations());
+        assertTrue(solver.isConverged());
+    }
+
+    /**
+     * Stops at the maximum number of iterations and reports it didn't converge
+     */
+    @Test
+    void maxIterations() {
+        LinearSolverIterative_DSCC solver = LinearSolverFactory_DSCC.conjugateGradient(Preconditioning.NONE);
+        DMatrixSparseCSC A = TestApproximateMinimumDegree_DSCC.createShuffledGrid(10, rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(A.numRows, 1, rand);
+        DMatrixRMaj X = new DMatrixRMaj(1, 1);
+
+        solver.setMaxIterations(2);
+        assertTrue(solver.setA(A));
+        solver.solve(B, X);
+        assertFalse(solver.isConverged());
+        assertEquals(2, solver.getIterations());
+        assertTrue(solver.getResidual() > solver.getTolerance());
+
+        // loosen the tolerance so that it converges
+        solver.setMaxIterations(0);
+        solver.setTolerance(1e-3);
+        solver.solve(B, X);
+        assertTrue(solver.isConverged());
+        assertTrue(solver.getResidual() <= 1e-3);
+    }
+
+    /**
+     * The concurrent code path should produce the same solution
+     */
+    @Test
+    void concurrent() {
+        int previousThreshold = EjmlConcurrency.ELEMENT_THRESHOLD;
+        int previousThreads = EjmlConcurrency.getMaxThreads();
+        boolean previousConcurrent = EjmlConcurrency.USE_CONCURRENT;
+        try {
+            // make sure concurrency is enabled even if there's only one core
+            EjmlConcurrency.setMaxThreads(3);
+
+            DMatrixSparseCSC A = TestApproximateMinimumDegree_DSCC.createShuffledGrid(15, rand);
+            DMatrixRMaj B = RandomMatrices_DDRM.rectangle(A.numRows, 2, rand);
+
+            LinearSolverIterative_DSCC single = LinearSolverFactory_DSCC.conjugateGradient(Preconditioning.JACOBI);
+            LinearSolverIterative_DSCC multi = LinearSolverFactory_DSCC.conjugateGradient(Preconditioning.JACOBI);
+
+            EjmlConcurrency.ELEMENT_THRESHOLD = Integer.MAX_VALUE;
+            assertTrue(single.setA(A));
+            assertFalse(single.isConcurrent());
+            EjmlConcurrency.ELEMENT_THRESHOLD = 0;
+            assertTrue(multi.setA(A));
+            assertTrue(multi.isConcurrent());
+
+            DMatrixRMaj expected = new DMatrixRMaj(1, 1);
+            DMatrixRMaj found = new DMatrixRMaj(1, 1);
+            single.solve(B, expected);
+            multi.solve(B, found);
+
+            EjmlUnitTests.assertEquals(expected, found, 1e-8);
+        } finally {
+            EjmlConcurrency.ELEMENT_THRESHOLD = previousThreshold;
+            EjmlConcurrency.setMaxThreads(previousThreads);
+            EjmlConcurrency.USE_CONCURRENT = previousConcurrent;
+        }
+    }
+
+    /**
+     * Locking the structure should produce identical results when the values change
+     */
+    @Test
+    void structureLocked() {
+        LinearSolverIterative_DSCC solver = LinearSolverFactory_DSCC.conjugateGradient(Preconditioning.INCOMPLETE_CHOLESKY);
+        DMatrixSparseCSC A = TestApproximateMinimumDegree_DSCC.createShuffledGrid(8, rand);
+
+        assertTrue(solver.setA(A));
+        solver.setStructureLocked(true);
+        assertTrue(solver.isStructureLocked());
+
+        CommonOps_DSCC.scale(2.0, A, A);
+        checkSolve(solver, A, 2);
+    }
+
+    @Test
+    void notSquare() {
+        LinearSolverIterative_DSCC solver = LinearSolverFactory_DSCC.conjugateGradient(Preconditioning.NONE);
+        assertThrows(IllegalArgumentException.class, () -> solver.setA(RandomMatrices_DSCC.rectangle(5, 4, 10, rand)));
+    }
+
+    private void checkSolve( LinearSolverIterative_DSCC solver, DMatrixSparseCSC A, int numCols ) {
+        DMatrixSparseCSC A_cpy = A.copy();
+        DMatrixRMaj X = RandomMatrices_DDRM.rectangle(A.numCols, numCols, rand);
+        DMatrixRMaj B = CommonOps_DSCC.mult(A, X, null);
+        DMatrixRMaj B_cpy = B.copy();
+
+        assertTrue(solver.setA(A));
+        DMatrixRMaj found = new DMatrixRMaj(1, 1);
+        solver.solve(B, found);
+
+        assertTrue(solver.isConverged());
+        assertTrue(solver.getResidual() <= solver.getTolerance());
+        assertTrue(solver.getIterations() <= solver.getMaxIterations());
+
+        DMatrixRMaj foundB = CommonOps_DSCC.mult(A, found, null);
+        EjmlUnitTests.assertEquals(B_cpy, foundB, 1e-6);
+        EjmlUnitTests.assertEquals(A_cpy, A, 0.0);
+        EjmlUnitTests.assertEquals(B_cpy, B, 0.0);
+    }
+}
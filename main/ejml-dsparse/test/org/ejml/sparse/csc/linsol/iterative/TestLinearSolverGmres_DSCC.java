@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.sparse.Preconditioning;
+import org.ejml.sparse.csc.factory.LinearSolverFactory_DSCC;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLinearSolverGmres_DSCC extends GenericLinearSolverIterativeTests_DSCC {
+    @Override
+    protected LinearSolverIterative_DSCC createSolver( Preconditioning type ) {
+        return LinearSolverFactory_DSCC.gmres(type, 10);
+    }
+
+    /**
+     * Without restarting GMRES will find the exact solution in at most N iterations
+     */
+    @Test
+    void noRestartFiniteTermination() {
+        int N = 25;
+        DMatrixSparseCSC A = createDiagonallyDominant(N, 0.3, 0.2, rand);
+        LinearSolverGmres_DSCC solver = new LinearSolverGmres_DSCC(null, N);
+        checkSolve(solver, A, 1);
+        assertTrue(solver.getIterations() <= N);
+    }
+
+    /**
+     * Restart length should not change the solution
+     */
+    @Test
+    void differentRestart() {
+        DMatrixSparseCSC A = createDiagonallyDominant(60, 0.1, 1.5, rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(A.numRows, 1, rand);
+
+        DMatrixRMaj expected = new DMatrixRMaj(1, 1);
+        DMatrixRMaj found = new DMatrixRMaj(1, 1);
+
+        LinearSolverGmres_DSCC solver = new LinearSolverGmres_DSCC(null, 60);
+        assertTrue(solver.setA(A));
+        solver.solve(B, expected);
+
+        for (int restart : new int[]{1, 3, 20}) {
+            solver.setRestart(restart);
+            assertTrue(solver.setA(A));
+            solver.solve(B, found);
+            assertTrue(solver.isConverged());
+            EjmlUnitTests.assertEquals(expected, found, 1e-7);
+        }
+    }
+
+    /**
+     * Increasing restart after setA() has been called must resize the workspace
+     */
+    @Test
+    void setRestartAfterSetA() {
+        DMatrixSparseCSC A = createDiagonallyDominant(60, 0.1, 1.5, rand);
+        DMatrixRMaj B = RandomMatrices_DDRM.rectangle(A.numRows, 1, rand);
+
+        DMatrixRMaj expected = new DMatrixRMaj(1, 1);
+        DMatrixRMaj found = new DMatrixRMaj(1, 1);
+
+        LinearSolverGmres_DSCC solver = new LinearSolverGmres_DSCC(null, 60);
+        assertTrue(solver.setA(A));
+        solver.solve(B, expected);
+
+        solver.setRestart(5);
+        assertTrue(solver.setA(A));
+        for (int restart : new int[]{5, 42, 3}) {
+            solver.setRestart(restart);
+            solver.solve(B, found);
+            assertTrue(solver.isConverged());
+            EjmlUnitTests.assertEquals(expected, found, 1e-7);
+        }
+    }
+
+    @Test
+    void badRestart() {
+        assertThrows(IllegalArgumentException.class, () -> new LinearSolverGmres_DSCC(null, 0));
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.decomposition.chol.CholeskyUpLooking_DSCC;
+import org.ejml.sparse.csc.misc.TestApproximateMinimumDegree_DSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPreconditionerIncompleteCholesky_DSCC {
+    private final Random rand = new Random(234);
+
+    /**
+     * There is no fill in with a tridiagonal matrix so the incomplete factor is the same as the complete one
+     */
+    @Test
+    void noFillIn() {
+        int N = 20;
+        DMatrixSparseCSC A = new DMatrixSparseCSC(N, N, 3*N);
+        for (int i = 0; i < N; i++) {
+            A.set(i, i, 3 + rand.nextDouble());
+            if (i > 0) {
+                double value = rand.nextDouble() - 0.5;
+                A.set(i, i - 1, value);
+                A.set(i - 1, i, value);
+            }
+        }
+
+        PreconditionerIncompleteCholesky_DSCC alg = new PreconditionerIncompleteCholesky_DSCC();
+        assertTrue(alg.setA(A));
+
+        CholeskyUpLooking_DSCC chol = new CholeskyUpLooking_DSCC();
+        assertTrue(chol.decompose(A));
+
+        assertTrue(CommonOps_DSCC.checkStructure(alg.getL()));
+        EjmlUnitTests.assertEquals(chol.getL(), alg.getL(), UtilEjml.TEST_F64);
+    }
+
+    /**
+     * The defining property of IC(0) is that L*L' matches A for every element in the pattern of A
+     */
+    @Test
+    void matchesPattern() {
+        DMatrixSparseCSC A = TestApproximateMinimumDegree_DSCC.createShuffledGrid(10, rand);
+
+        PreconditionerIncompleteCholesky_DSCC alg = new PreconditionerIncompleteCholesky_DSCC();
+        assertTrue(alg.setA(A));
+
+        DMatrixSparseCSC L = alg.getL();
+        assertEquals((A.nz_length + A.numCols)/2, L.nz_length);
+        DMatrixSparseCSC LLt = CommonOps_DSCC.mult(L, CommonOps_DSCC.transpose(L, null, null), null);
+
+        for (int col = 0; col < A.numCols; col++) {
+            for (int i = A.col_idx[col]; i < A.col_idx[col + 1]; i++) {
+                int row = A.nz_rows[i];
+                assertEquals(A.nz_values[i], LLt.get(row, col), UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    /**
+     * Values in A change after the structure has been locked
+     */
+    @Test
+    void structureLocked() {
+        DMatrixSparseCSC A = TestApproximateMinimumDegree_DSCC.createShuffledGrid(6, rand);
+
+        PreconditionerIncompleteCholesky_DSCC expected = new PreconditionerIncompleteCholesky_DSCC();
+        PreconditionerIncompleteCholesky_DSCC alg = new PreconditionerIncompleteCholesky_DSCC();
+        alg.setStructureLocked(true);
+        assertTrue(alg.setA(A));
+
+        CommonOps_DSCC.scale(3.0, A, A);
+        assertTrue(alg.setA(A));
+        assertTrue(expected.setA(A));
+        EjmlUnitTests.assertEquals(expected.getL(), alg.getL(), UtilEjml.TEST_F64);
+    }
+
+    /**
+     * Not positive definite or a diagonal element is missing
+     */
+    @Test
+    void failure() {
+        PreconditionerIncompleteCholesky_DSCC alg = new PreconditionerIncompleteCholesky_DSCC();
+        assertFalse(alg.setA(CommonOps_DSCC.diag(1, -2, 3)));
+
+        DMatrixSparseCSC A = CommonOps_DSCC.diag(1, 2, 3);
+        A.remove(1, 1);
+        assertFalse(alg.setA(A));
+    }
+}
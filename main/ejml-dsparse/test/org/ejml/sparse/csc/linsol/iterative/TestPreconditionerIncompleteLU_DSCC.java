@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.linsol.iterative;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPreconditionerIncompleteLU_DSCC {
+    private final Random rand = new Random(234);
+
+    /**
+     * There is no fill in with a tridiagonal matrix so applying the preconditioner is the same as solving
+     */
+    @Test
+    void noFillIn() {
+        int N = 20;
+        DMatrixSparseCSC A = new DMatrixSparseCSC(N, N, 3*N);
+        for (int i = 0; i < N; i++) {
+            A.set(i, i, 3 + rand.nextDouble());
+            if (i > 0) {
+                A.set(i, i - 1, rand.nextDouble() - 0.5);
+                A.set(i - 1, i, rand.nextDouble() - 0.5);
+            }
+        }
+        // the input doesn't need to be sorted
+        reverseRows(A);
+
+        PreconditionerIncompleteLU_DSCC alg = new PreconditionerIncompleteLU_DSCC();
+        assertTrue(alg.setA(A));
+        assertTrue(CommonOps_DSCC.checkStructure(alg.getLU()));
+
+        DMatrixRMaj x = RandomMatrices_DDRM.rectangle(N, 1, rand);
+        DMatrixRMaj b = CommonOps_DSCC.mult(A, x, null);
+        DMatrixRMaj found = new DMatrixRMaj(N, 1);
+        alg.solve(b.data, found.data);
+
+        EjmlUnitTests.assertEquals(x, found, UtilEjml.TEST_F64);
+    }
+
+    /**
+     * The defining property of ILU(0) is that L*U matches A for every element in the pattern of A
+     */
+    @Test
+    void matchesPattern() {
+        DMatrixSparseCSC A = GenericLinearSolverIterativeTests_DSCC.createDiagonallyDominant(50, 0.1, 1.5, rand);
+
+        PreconditionerIncompleteLU_DSCC alg = new PreconditionerIncompleteLU_DSCC();
+        assertTrue(alg.setA(A));
+
+        DMatrixSparseCSC LU = alg.getLU();
+        assertEquals(A.nz_length, LU.nz_length);
+        DMatrixSparseCSC L = new DMatrixSparseCSC(1, 1, 0);
+        DMatrixSparseCSC U = new DMatrixSparseCSC(1, 1, 0);
+        splitLU(LU, L, U);
+        DMatrixSparseCSC found = CommonOps_DSCC.mult(L, U, null);
+
+        for (int col = 0; col < A.numCols; col++) {
+            for (int i = A.col_idx[col]; i < A.col_idx[col + 1]; i++) {
+                int row = A.nz_rows[i];
+                assertEquals(A.nz_values[i], found.get(row, col), UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    /**
+     * Values in A change after the structure has been locked
+     */
+    @Test
+    void structureLocked() {
+        DMatrixSparseCSC A = GenericLinearSolverIterativeTests_DSCC.createDiagonallyDominant(30, 0.1, 1.5, rand);
+
+        PreconditionerIncompleteLU_DSCC expected = new PreconditionerIncompleteLU_DSCC();
+        PreconditionerIncompleteLU_DSCC alg = new PreconditionerIncompleteLU_DSCC();
+        alg.setStructureLocked(true);
+        assertTrue(alg.setA(A));
+
+        CommonOps_DSCC.scale(3.0, A, A);
+        assertTrue(alg.setA(A));
+        assertTrue(expected.setA(A));
+        EjmlUnitTests.assertEquals(expected.getLU(), alg.getLU(), UtilEjml.TEST_F64);
+    }
+
+    /**
+     * Zero pivot or a diagonal element is missing
+     */
+    @Test
+    void failure() {
+        PreconditionerIncompleteLU_DSCC alg = new PreconditionerIncompleteLU_DSCC();
+        DMatrixSparseCSC A = CommonOps_DSCC.diag(1, 0, 3);
+        assertFalse(alg.setA(A));
+
+        A = CommonOps_DSCC.diag(1, 2, 3);
+        A.remove(1, 1);
+        assertFalse(alg.setA(A));
+    }
+
+    /**
+     * Reverses the order of rows inside of each column so that they are no longer sorted
+     */
+    private static void reverseRows( DMatrixSparseCSC A ) {
+        for (int col = 0; col < A.numCols; col++) {
+            for (int i = A.col_idx[col], j = A.col_idx[col + 1] - 1; i < j; i++, j--) {
+                int row = A.nz_rows[i];
+                A.nz_rows[i] = A.nz_rows[j];
+                A.nz_rows[j] = row;
+                double value = A.nz_values[i];
+                A.nz_values[i] = A.nz_values[j];
+                A.nz_values[j] = value;
+            }
+        }
+        A.indicesSorted = false;
+    }
+
+    /**
+     * Splits the combined matrix into a unit lower triangular and an upper triangular matrix
+     */
+    private static void splitLU( DMatrixSparseCSC LU, DMatrixSparseCSC L, DMatrixSparseCSC U ) {
+        int N = LU.numCols;
+        L.reshape(N, N, LU.nz_length);
+        U.reshape(N, N, LU.nz_length);
+        for (int col = 0; col < N; col++) {
+            L.set(col, col, 1.0);
+            for (int i = LU.col_idx[col]; i < LU.col_idx[col + 1]; i++) {
+                int row = LU.nz_rows[i];
+                if (row > col)
+                    L.set(row, col, LU.nz_values[i]);
+                else
+                    U.set(row, col, LU.nz_values[i]);
+            }
+        }
+    }
+}
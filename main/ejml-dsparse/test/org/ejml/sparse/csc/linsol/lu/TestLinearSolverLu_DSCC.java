@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2020, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
  *
  * This file is part of Efficient Java Matrix Library (EJML).
  *
@@ -19,8 +19,11 @@
 package org.ejml.sparse.csc.linsol.lu;
 
 import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.dense.row.RandomMatrices_DDRM;
 import org.ejml.interfaces.linsol.LinearSolverSparse;
 import org.ejml.ops.DConvertMatrixStruct;
 import org.ejml.sparse.ComputePermutation;
@@ -32,7 +35,7 @@ import org.ejml.sparse.csc.factory.FillReductionFactory_DSCC;
 import org.ejml.sparse.csc.linsol.GenericLinearSolverSparseTests_DSCC;
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * @author Peter Abeles
@@ -42,6 +45,8 @@ public class TestLinearSolverLu_DSCC extends GenericLinearSolverSparseTests_DSCC
     public TestLinearSolverLu_DSCC() {
         canDecomposeZeros = false;
         canLockStructure = false;
+        permutationTests = new FillReducing[]{FillReducing.NONE, FillReducing.IDENTITY, FillReducing.AMD,
+                FillReducing.COLAMD};
     }
 
     @Override
@@ -114,4 +119,42 @@ public class TestLinearSolverLu_DSCC extends GenericLinearSolverSparseTests_DSCC
             0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 1.0, 0.0, 7.5, 10.0, 1.0, 0.0, 0.0, 0.0, 0.0, 0.0, 1.0, 0.0, 0.0, 0.0, 0.0,
             0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, -0.0, 1.0, 1.0, 0.0, -0.0, 0.0, 0.0, 0.0, 0.0, 0.0, -0.0
     });
-}
\ No newline at end of file
+
+    /**
+     * Solve using the level scheduled triangular solver and compare against the single threaded solution
+     */
+    @Test
+    public void concurrentTriangularSolve() {
+        int previous = EjmlConcurrency.ELEMENT_THRESHOLD;
+        int previousThreads = EjmlConcurrency.getMaxThreads();
+        boolean previousConcurrent = EjmlConcurrency.USE_CONCURRENT;
+        try {
+            EjmlConcurrency.setMaxThreads(3);
+            for (FillReducing permutation : permutationTests) {
+                DMatrixSparseCSC A = createA(120);
+                DMatrixRMaj B = RandomMatrices_DDRM.rectangle(A.numRows, 3, rand);
+                DMatrixRMaj expected = new DMatrixRMaj(1, 1);
+                DMatrixRMaj found = new DMatrixRMaj(1, 1);
+
+                EjmlConcurrency.ELEMENT_THRESHOLD = Integer.MAX_VALUE;
+                LinearSolverLu_DSCC alg = (LinearSolverLu_DSCC)createSolver(permutation);
+                assertTrue(alg.setA(A.copy()));
+                assertFalse(alg.concurrent);
+                alg.solve(B, expected);
+
+                EjmlConcurrency.ELEMENT_THRESHOLD = 0;
+                alg.solverL.minimumBlock = 1;
+                alg.solverU.minimumBlock = 1;
+                assertTrue(alg.setA(A.copy()));
+                assertTrue(alg.concurrent);
+                alg.solve(B, found);
+
+                EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+            }
+        } finally {
+            EjmlConcurrency.ELEMENT_THRESHOLD = previous;
+            EjmlConcurrency.setMaxThreads(previousThreads);
+            EjmlConcurrency.USE_CONCURRENT = previousConcurrent;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.misc;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestAdditionPlan_DSCC {
+    Random rand = new Random(234);
+
+    @Test void compareToCommonOps() {
+        AdditionPlan_DSCC alg = new AdditionPlan_DSCC();
+        for (int trial = 0; trial < 20; trial++) {
+            for (int[] shape : new int[][]{{5, 5}, {10, 5}, {5, 10}, {0, 4}, {4, 0}}) {
+                int N = shape[0]*shape[1];
+                DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(shape[0], shape[1], N/3, -1, 1, rand);
+                DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(shape[0], shape[1], N/2, -1, 1, rand);
+                DMatrixSparseCSC C = RandomMatrices_DSCC.rectangle(2, 3, 4, -1, 1, rand);
+
+                alg.symbolic(A, B, C);
+                assertTrue(CommonOps_DSCC.checkStructure(C));
+                alg.numeric(1.5, A, -0.5, B, C);
+
+                DMatrixSparseCSC expected = new DMatrixSparseCSC(1, 1, 0);
+                CommonOps_DSCC.add(1.5, A, -0.5, B, expected, null, null);
+                EjmlUnitTests.assertEquals(expected, C, UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    /**
+     * Changing the values but not the structure should only require the numeric step
+     */
+    @Test void numeric_newValues() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(20, 15, 60, -1, 1, rand);
+        DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(20, 15, 50, -1, 1, rand);
+        DMatrixSparseCSC C = new DMatrixSparseCSC(1, 1, 0);
+        DMatrixSparseCSC expected = new DMatrixSparseCSC(1, 1, 0);
+
+        AdditionPlan_DSCC alg = new AdditionPlan_DSCC();
+        alg.symbolic(A, B, C);
+
+        for (int trial = 0; trial < 5; trial++) {
+            for (int i = 0; i < A.nz_length; i++) {
+                A.nz_values[i] = (double)rand.nextGaussian();
+            }
+            for (int i = 0; i < B.nz_length; i++) {
+                B.nz_values[i] = (double)rand.nextGaussian();
+            }
+            alg.numeric(2.0, A, 3.0, B, C);
+            CommonOps_DSCC.add(2.0, A, 3.0, B, expected, null, null);
+            EjmlUnitTests.assertEquals(expected, C, UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test void checkShapes() {
+        AdditionPlan_DSCC alg = new AdditionPlan_DSCC();
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(5, 4, 10, -1, 1, rand);
+        DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(4, 5, 10, -1, 1, rand);
+        DMatrixSparseCSC C = new DMatrixSparseCSC(1, 1, 0);
+
+        assertThrows(MatrixDimensionException.class, () -> alg.symbolic(A, B, C));
+
+        DMatrixSparseCSC B2 = RandomMatrices_DSCC.rectangle(5, 4, 10, -1, 1, rand);
+        alg.symbolic(A, B2, C);
+        DMatrixSparseCSC A2 = RandomMatrices_DSCC.rectangle(5, 4, 12, -1, 1, rand);
+        assertThrows(IllegalArgumentException.class, () -> alg.numeric(1, A2, 1, B2, C));
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.misc;
+
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.IGrowArray;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.ejml.sparse.csc.decomposition.chol.CholeskyUpLooking_DSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestApproximateMinimumDegree_DSCC {
+    private final Random rand = new Random(234);
+
+    /**
+     * The output should always be a valid permutation, including for degenerate matrices
+     */
+    @Test
+    public void validPermutation() {
+        ApproximateMinimumDegree_DSCC alg = new ApproximateMinimumDegree_DSCC();
+        IGrowArray perm = new IGrowArray();
+
+        for (int N : new int[]{0, 1, 2, 3, 10, 50, 200}) {
+            for (int trial = 0; trial < 10; trial++) {
+                DMatrixSparseCSC A = RandomMatrices_DSCC.symmetric(N, N*N/4, -1, 1, rand);
+                alg.process(A, perm);
+                assertEquals(N, perm.length);
+                checkPermutation(perm.data, N);
+            }
+        }
+    }
+
+    /**
+     * An arrow matrix with the dense row/column first will completely fill in. AMD should move it to the end
+     * which results in no fill in.
+     */
+    @Test
+    public void arrowMatrix() {
+        int N = 30;
+        DMatrixSparseCSC A = new DMatrixSparseCSC(N, N, 3*N);
+        for (int i = 0; i < N; i++) {
+            A.set(i, i, N);
+            if (i > 0) {
+                A.set(0, i, 1);
+                A.set(i, 0, 1);
+            }
+        }
+
+        IGrowArray perm = new IGrowArray();
+        new ApproximateMinimumDegree_DSCC().process(A, perm);
+        checkPermutation(perm.data, N);
+        assertEquals(0, perm.data[N - 1]);
+
+        assertEquals(N*(N + 1)/2, countFactorNonZero(A, null));
+        assertEquals(2*N - 1, countFactorNonZero(A, perm.data));
+    }
+
+    /**
+     * A 2D grid whose nodes have been randomly shuffled should have much less fill in after being ordered
+     */
+    @Test
+    public void reducesFill() {
+        DMatrixSparseCSC A = createShuffledGrid(15, rand);
+
+        IGrowArray perm = new IGrowArray();
+        new ApproximateMinimumDegree_DSCC().process(A, perm);
+        checkPermutation(perm.data, A.numCols);
+
+        int before = countFactorNonZero(A, null);
+        int after = countFactorNonZero(A, perm.data);
+        assertTrue(after*2 < before, "before " + before + " after " + after);
+    }
+
+    /**
+     * Processing a matrix with a different shape in between should not change the results
+     */
+    @Test
+    public void recycleWorkspace() {
+        DMatrixSparseCSC A = createShuffledGrid(8, rand);
+        DMatrixSparseCSC B = RandomMatrices_DSCC.symmetric(100, 800, -1, 1, rand);
+
+        ApproximateMinimumDegree_DSCC alg = new ApproximateMinimumDegree_DSCC();
+        IGrowArray expected = new IGrowArray();
+        IGrowArray found = new IGrowArray();
+
+        alg.process(A, expected);
+        alg.process(B, found);
+        alg.process(A, found);
+
+        assertEquals(expected.length, found.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected.data[i], found.data[i]);
+        }
+    }
+
+    /**
+     * A column ordering should be valid for any shape matrix and reduce fill in when A<sup>T</sup>A is factored
+     */
+    @Test
+    public void processColumns() {
+        ApproximateMinimumDegree_DSCC alg = new ApproximateMinimumDegree_DSCC();
+        IGrowArray perm = new IGrowArray();
+
+        for (int rows : new int[]{0, 1, 5, 30, 120}) {
+            for (int cols : new int[]{0, 1, 5, 30, 120}) {
+                DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(rows, cols, rows*cols/10, rand);
+                alg.processColumns(A, perm);
+                assertEquals(cols, perm.length);
+                checkPermutation(perm.data, cols);
+            }
+        }
+
+        // Stacking a shuffled grid on top of an identity creates a tall matrix with a sparse normal matrix
+        DMatrixSparseCSC grid = createShuffledGrid(15, rand);
+        DMatrixSparseCSC A = new DMatrixSparseCSC(1, 1, 0);
+        CommonOps_DSCC.concatRows(grid, CommonOps_DSCC.identity(grid.numCols), A);
+        alg.processColumns(A, perm);
+        checkPermutation(perm.data, A.numCols);
+
+        DMatrixSparseCSC AtA = CommonOps_DSCC.mult(CommonOps_DSCC.transpose(A, null, null), A, null);
+        int before = countFactorNonZero(AtA, null);
+        int after = countFactorNonZero(AtA, perm.data);
+        assertTrue(after*2 < before, "before " + before + " after " + after);
+    }
+
+    /**
+     * Dense rows are ignored when the column ordering is computed
+     */
+    @Test
+    public void processColumns_denseRow() {
+        int N = 100;
+        DMatrixSparseCSC A = new DMatrixSparseCSC(N + 1, N, 3*N);
+        for (int i = 0; i < N; i++) {
+            A.set(i, i, 2);
+            A.set(N, i, 1);
+        }
+
+        ApproximateMinimumDegree_DSCC alg = new ApproximateMinimumDegree_DSCC();
+        alg.n = N;
+        alg.constructNormalPattern(A);
+
+        // without the dense row there are no off-diagonal elements in A'A
+        assertEquals(0, alg.Cp[N]);
+    }
+
+    @Test
+    public void notSquare() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(5, 6, 10, rand);
+        assertThrows(IllegalArgumentException.class, () -> new ApproximateMinimumDegree_DSCC().process(A, new IGrowArray()));
+    }
+
+    private static void checkPermutation( int[] perm, int N ) {
+        boolean[] seen = new boolean[N];
+        for (int i = 0; i < N; i++) {
+            assertFalse(seen[perm[i]]);
+            seen[perm[i]] = true;
+        }
+    }
+
+    /**
+     * Creates a SPD matrix from a 2D grid graph with the order of the nodes randomized
+     */
+    public static DMatrixSparseCSC createShuffledGrid( int width, Random rand ) {
+        int N = width*width;
+        int[] order = new int[N];
+        for (int i = 0; i < N; i++) {
+            order[i] = i;
+        }
+        for (int i = N - 1; i > 0; i--) {
+            int j = rand.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+
+        DMatrixSparseCSC A = new DMatrixSparseCSC(N, N, 5*N);
+        for (int y = 0; y < width; y++) {
+            for (int x = 0; x < width; x++) {
+                int i = order[y*width + x];
+                A.set(i, i, 4.5);
+                if (x + 1 < width) {
+                    int j = order[y*width + x + 1];
+                    A.set(i, j, -1);
+                    A.set(j, i, -1);
+                }
+                if (y + 1 < width) {
+                    int j = order[(y + 1)*width + x];
+                    A.set(i, j, -1);
+                    A.set(j, i, -1);
+                }
+            }
+        }
+        return A;
+    }
+
+    /**
+     * Number of non-zero elements in the Cholesky factor after the symmetric permutation has been applied
+     */
+    public static int countFactorNonZero( DMatrixSparseCSC A, int[] perm ) {
+        DMatrixSparseCSC C = A;
+        if (perm != null) {
+            int[] pinv = CommonOps_DSCC.permutationInverse(perm, A.numCols);
+            C = new DMatrixSparseCSC(1, 1, 0);
+            CommonOps_DSCC.permuteSymmetric(A, pinv, C, null);
+        }
+        CholeskyUpLooking_DSCC chol = new CholeskyUpLooking_DSCC();
+        assertTrue(chol.decompose(C));
+        return chol.getL().nz_length;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.misc;
+
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.ejml.sparse.csc.decomposition.chol.CholeskyUpLooking_DSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestTriangularSolver_MT_DSCC {
+
+    Random rand = new Random(234);
+
+    @Test
+    public void solveLower() {
+        for (int minimumBlock : new int[]{1, 4, 1000}) {
+            DMatrixSparseCSC L = createLower(150);
+
+            TriangularSolver_MT_DSCC alg = new TriangularSolver_MT_DSCC();
+            alg.minimumBlock = minimumBlock;
+            alg.process(L, true);
+            assertTrue(alg.isLower());
+
+            double[] b = randomVector(L.numCols);
+
+            double[] expected = b.clone();
+            double[] found = b.clone();
+            TriangularSolver_DSCC.solveL(L, expected);
+            alg.solve(found);
+            assertVectorEquals(expected, found);
+
+            expected = b.clone();
+            found = b.clone();
+            TriangularSolver_DSCC.solveTranL(L, expected);
+            alg.solveTran(found);
+            assertVectorEquals(expected, found);
+        }
+    }
+
+    @Test
+    public void solveUpper() {
+        for (int minimumBlock : new int[]{1, 4, 1000}) {
+            DMatrixSparseCSC L = createLower(150);
+            DMatrixSparseCSC U = CommonOps_DSCC.transpose(L, null, null);
+
+            TriangularSolver_MT_DSCC alg = new TriangularSolver_MT_DSCC();
+            alg.minimumBlock = minimumBlock;
+            alg.process(U, false);
+            assertFalse(alg.isLower());
+
+            double[] b = randomVector(L.numCols);
+
+            double[] expected = b.clone();
+            double[] found = b.clone();
+            TriangularSolver_DSCC.solveU(U, expected);
+            alg.solve(found);
+            assertVectorEquals(expected, found);
+
+            // U' = L
+            expected = b.clone();
+            found = b.clone();
+            TriangularSolver_DSCC.solveL(L, expected);
+            alg.solveTran(found);
+            assertVectorEquals(expected, found);
+        }
+    }
+
+    /**
+     * Every unknown must be in a later level than all the unknowns it depends on
+     */
+    @Test
+    public void levelSets() {
+        DMatrixSparseCSC L = createLower(200);
+        TriangularSolver_MT_DSCC alg = new TriangularSolver_MT_DSCC();
+        alg.minimumBlock = 1;
+        alg.process(L, true);
+
+        checkLevels(alg.T_tran, alg.levelsSolve);
+        checkLevels(alg.T, alg.levelsTran);
+        assertEquals(alg.levelsSolve.numLevels, alg.getNumLevelsSolve());
+        assertEquals(alg.levelsTran.numLevels, alg.getNumLevelsTran());
+    }
+
+    private static void checkLevels( DMatrixSparseCSC D, TriangularSolver_MT_DSCC.LevelSets levels ) {
+        assertTrue(levels.concurrent);
+        int N = D.numCols;
+        int[] level = new int[N];
+        boolean[] seen = new boolean[N];
+        for (int l = 0; l < levels.numLevels; l++) {
+            assertTrue(levels.levelIdx[l] < levels.levelIdx[l + 1]);
+            for (int idx = levels.levelIdx[l]; idx < levels.levelIdx[l + 1]; idx++) {
+                int i = levels.order[idx];
+                assertFalse(seen[i]);
+                seen[i] = true;
+                level[i] = l;
+            }
+        }
+        assertEquals(N, levels.levelIdx[levels.numLevels]);
+
+        for (int i = 0; i < N; i++) {
+            for (int p = D.col_idx[i]; p < D.col_idx[i + 1]; p++) {
+                int j = D.nz_rows[p];
+                if (j != i)
+                    assertTrue(level[j] < level[i]);
+            }
+        }
+    }
+
+    /**
+     * Dense triangular matrices have one unknown in each level and should be solved in a single thread
+     */
+    @Test
+    public void narrowLevels() {
+        DMatrixSparseCSC L = RandomMatrices_DSCC.triangleLower(30, 0, 30*31/2, 0.5, 1, rand);
+        TriangularSolver_MT_DSCC alg = new TriangularSolver_MT_DSCC();
+        alg.minimumBlock = 1;
+        alg.process(L, true);
+
+        assertEquals(30, alg.getNumLevelsSolve());
+        assertFalse(alg.levelsSolve.concurrent);
+
+        double[] expected = randomVector(30);
+        double[] found = expected.clone();
+        TriangularSolver_DSCC.solveL(L, expected);
+        alg.solve(found);
+        assertVectorEquals(expected, found);
+    }
+
+    @Test
+    public void notSquare() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(5, 4, 10, rand);
+        assertThrows(IllegalArgumentException.class, () -> new TriangularSolver_MT_DSCC().process(A, true));
+    }
+
+    /**
+     * Cholesky factor of a sparse SPD matrix. Produces a well conditioned triangular matrix with many levels
+     */
+    private DMatrixSparseCSC createLower( int N ) {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.symmetricPosDef(N, 0.97, rand);
+        CholeskyUpLooking_DSCC chol = new CholeskyUpLooking_DSCC();
+        assertTrue(chol.decompose(A));
+        return chol.getL().copy();
+    }
+
+    private double[] randomVector( int N ) {
+        double[] v = new double[N];
+        for (int i = 0; i < N; i++) {
+            v[i] = rand.nextDouble()*2 - 1;
+        }
+        return v;
+    }
+
+    private static void assertVectorEquals( double[] expected, double[] found ) {
+        double scale = 0;
+        for (double v : expected) {
+            scale = Math.max(scale, Math.abs(v));
+        }
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], found[i], UtilEjml.TEST_F64*Math.max(1, scale));
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.mult;
+
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DVectorSparse;
+import org.ejml.masks.DMaskFactory;
+import org.ejml.masks.Mask;
+import org.ejml.ops.DSemiRing;
+import org.ejml.ops.DSemiRings;
+import org.ejml.sparse.csc.CommonOpsWithSemiRing_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.ejml.sparse.csc.mult.MatrixSparseVectorMultWithSemiRing_DSCC.Direction;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMatrixSparseVectorMultWithSemiRing_DSCC {
+    Random rand = new Random(234);
+
+    DSemiRing[] semiRings = new DSemiRing[]{
+            DSemiRings.PLUS_TIMES, DSemiRings.MIN_PLUS, DSemiRings.OR_AND, DSemiRings.MIN_FIRST, DSemiRings.MAX_SECOND};
+
+    /**
+     * Compare y = A*x against multiplying by a matrix with one column
+     */
+    @Test void mult() {
+        MatrixSparseVectorMultWithSemiRing_DSCC alg = new MatrixSparseVectorMultWithSemiRing_DSCC();
+        for (DSemiRing semiRing : semiRings) {
+            for (int nzX : new int[]{0, 1, 5, 30}) {
+                DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(40, 30, 200, -1, 1, rand);
+                DVectorSparse x = randomVector(30, nzX);
+                DMatrixSparseCSC X = toColumn(x);
+                alg.setMatrix(A);
+
+                for (Mask mask : createMasks(40)) {
+                    DMatrixSparseCSC expected = CommonOpsWithSemiRing_DSCC.mult(A, X, null, semiRing, null, null, null);
+
+                    for (Direction direction : Direction.values()) {
+                        alg.direction = direction;
+                        DVectorSparse y = new DVectorSparse(1);
+                        alg.mult(x, y, semiRing, mask);
+                        checkColumn(expected, y, mask);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Compare y = x<sup>T</sup>*B against multiplying by a matrix with one row
+     */
+    @Test void multTransposed() {
+        MatrixSparseVectorMultWithSemiRing_DSCC alg = new MatrixSparseVectorMultWithSemiRing_DSCC();
+        for (DSemiRing semiRing : semiRings) {
+            for (int nzX : new int[]{0, 1, 5, 30}) {
+                DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(30, 40, 200, -1, 1, rand);
+                DVectorSparse x = randomVector(30, nzX);
+                DMatrixSparseCSC X = toRow(x);
+                alg.setMatrixTransposed(B);
+
+                for (Mask mask : createMasks(40)) {
+                    DMatrixSparseCSC expected = CommonOpsWithSemiRing_DSCC.mult(X, B, null, semiRing, null, null, null);
+                    DMatrixSparseCSC expectedColumn = new DMatrixSparseCSC(40, 1);
+                    for (int col = 0; col < 40; col++) {
+                        if (expected.isAssigned(0, col))
+                            expectedColumn.set(col, 0, expected.get(0, col));
+                    }
+
+                    for (Direction direction : Direction.values()) {
+                        alg.direction = direction;
+                        DVectorSparse y = new DVectorSparse(1);
+                        alg.mult(x, y, semiRing, mask);
+                        checkColumn(expectedColumn, y, mask);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test void multPush() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(40, 30, 200, -1, 1, rand);
+        DVectorSparse x = randomVector(30, 10);
+        DMatrixSparseCSC expected = CommonOpsWithSemiRing_DSCC.mult(A, toColumn(x), null, DSemiRings.MIN_PLUS, null, null, null);
+
+        DVectorSparse y = CommonOpsWithSemiRing_DSCC.mult(A, x, null, DSemiRings.MIN_PLUS, null, null, null);
+        checkColumn(expected, y, null);
+    }
+
+    /**
+     * Without a mask push should always be used. With a mask, dense frontiers should pull only when the mask
+     * removes most of the output.
+     */
+    @Test void selectDirection() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.generateUniform(500, 500, 5, -1, 1, rand);
+        MatrixSparseVectorMultWithSemiRing_DSCC alg = new MatrixSparseVectorMultWithSemiRing_DSCC();
+        alg.setMatrix(A);
+        DVectorSparse y = new DVectorSparse(1);
+
+        // No mask
+        alg.mult(randomVector(500, 2), y, DSemiRings.OR_AND, null);
+        assertTrue(alg.isLastPush());
+        alg.mult(randomVector(500, 400), y, DSemiRings.OR_AND, null);
+        assertTrue(alg.isLastPush());
+
+        // Mask which allows about 10% of the rows
+        double[] visited = new double[500];
+        for (int i = 0; i < visited.length; i++) {
+            visited[i] = rand.nextDouble() < 0.9 ? 1 : 0;
+        }
+        Mask sparseMask = DMaskFactory.builder(visited).withNegated(true).build();
+        alg.mult(randomVector(500, 2), y, DSemiRings.OR_AND, sparseMask);
+        assertTrue(alg.isLastPush());
+        alg.mult(randomVector(500, 400), y, DSemiRings.OR_AND, sparseMask);
+        assertFalse(alg.isLastPush());
+
+        // Mask which allows every row
+        Mask denseMask = DMaskFactory.builder(new double[500]).withNegated(true).build();
+        alg.mult(randomVector(500, 400), y, DSemiRings.OR_AND, denseMask);
+        assertTrue(alg.isLastPush());
+    }
+
+    @Test void checkShape() {
+        MatrixSparseVectorMultWithSemiRing_DSCC alg = new MatrixSparseVectorMultWithSemiRing_DSCC();
+        alg.setMatrix(RandomMatrices_DSCC.rectangle(10, 8, 20, -1, 1, rand));
+        DVectorSparse x = new DVectorSparse(10);
+        assertThrows(MatrixDimensionException.class, () -> alg.mult(x, new DVectorSparse(1), DSemiRings.OR_AND, null));
+        DVectorSparse x8 = new DVectorSparse(8);
+        assertThrows(IllegalArgumentException.class, () -> alg.mult(x8, x8, DSemiRings.OR_AND, null));
+    }
+
+    private void checkColumn( DMatrixSparseCSC expected, DVectorSparse found, Mask mask ) {
+        assertEquals(expected.numRows, found.size);
+        assertTrue(found.checkStructure());
+        for (int i = 0; i < expected.numRows; i++) {
+            boolean allowed = mask == null || mask.isSet(i);
+            assertEquals(allowed && expected.isAssigned(i, 0), found.isAssigned(i));
+            if (found.isAssigned(i))
+                assertEquals(expected.get(i, 0), found.get(i), UtilEjml.TEST_F64);
+        }
+    }
+
+    private Mask[] createMasks( int size ) {
+        double[] visited = new double[size];
+        for (int i = 0; i < size; i++) {
+            visited[i] = rand.nextBoolean() ? 1 : 0;
+        }
+        return new Mask[]{null, DMaskFactory.builder(visited).withNegated(true).build()};
+    }
+
+    private DVectorSparse randomVector( int size, int nz ) {
+        DVectorSparse x = new DVectorSparse(size);
+        while (x.nz_length < nz) {
+            x.set(rand.nextInt(size), rand.nextDouble() + 0.5);
+        }
+        return x;
+    }
+
+    private static DMatrixSparseCSC toColumn( DVectorSparse x ) {
+        DMatrixSparseCSC X = new DMatrixSparseCSC(x.size, 1, x.nz_length);
+        for (int k = 0; k < x.nz_length; k++) {
+            X.set(x.nz_indices[k], 0, x.nz_values[k]);
+        }
+        return X;
+    }
+
+    private static DMatrixSparseCSC toRow( DVectorSparse x ) {
+        DMatrixSparseCSC X = new DMatrixSparseCSC(1, x.size, x.nz_length);
+        for (int k = 0; k < x.nz_length; k++) {
+            X.set(0, x.nz_indices[k], x.nz_values[k]);
+        }
+        return X;
+    }
+}
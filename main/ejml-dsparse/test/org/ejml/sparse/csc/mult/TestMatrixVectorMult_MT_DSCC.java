@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.mult;
+
+import org.ejml.UtilEjml;
+import org.ejml.concurrency.EjmlConcurrency;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pabeles.concurrency.GrowArray;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMatrixVectorMult_MT_DSCC {
+    Random rand = new Random(234);
+
+    GrowArray<DGrowArray> listWork = new GrowArray<>(DGrowArray::new);
+
+    int previousThreads;
+    boolean previousConcurrent;
+
+    /**
+     * Make sure the work is split up into multiple blocks even if there's only one core
+     */
+    @BeforeEach
+    public void before() {
+        previousThreads = EjmlConcurrency.getMaxThreads();
+        previousConcurrent = EjmlConcurrency.USE_CONCURRENT;
+        EjmlConcurrency.setMaxThreads(3);
+    }
+
+    @AfterEach
+    public void after() {
+        EjmlConcurrency.setMaxThreads(previousThreads);
+        EjmlConcurrency.USE_CONCURRENT = previousConcurrent;
+    }
+
+    @Test
+    public void mult_A_v() {
+        for (int numCols : new int[]{0, 1, 4, 31}) {
+            DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(17, numCols, 3*numCols, rand);
+            double[] v = random(numCols + 2);
+
+            double[] expected = new double[A.numRows + 1];
+            double[] found = new double[A.numRows + 1];
+            found[1] = 10; // should be overwritten
+
+            MatrixVectorMult_DSCC.mult(A, v, 2, expected, 1);
+            MatrixVectorMult_MT_DSCC.mult(A, v, 2, found, 1, listWork);
+
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(expected[i], found[i], UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    @Test
+    public void mult_v_A() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(17, 31, 90, rand);
+        double[] v = random(A.numRows + 2);
+
+        double[] expected = new double[A.numCols + 1];
+        double[] found = new double[A.numCols + 1];
+
+        MatrixVectorMult_DSCC.mult(v, 2, A, expected, 1);
+        MatrixVectorMult_MT_DSCC.mult(v, 2, A, found, 1);
+
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], found[i], UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test
+    public void innerProduct() {
+        for (int length : new int[]{0, 1, 5, 100}) {
+            double[] a = random(length + 1);
+            double[] b = random(length + 2);
+
+            double expected = 0;
+            for (int i = 0; i < length; i++) {
+                expected += a[i + 1]*b[i + 2];
+            }
+
+            assertEquals(expected, MatrixVectorMult_MT_DSCC.innerProduct(a, 1, b, 2, length, listWork), UtilEjml.TEST_F64);
+        }
+    }
+
+    private double[] random( int length ) {
+        double[] v = new double[length];
+        for (int i = 0; i < length; i++) {
+            v[i] = rand.nextDouble() - 0.5;
+        }
+        return v;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.mult;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.sparse.csc.CommonOps_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMultiplicationPlan_DSCC {
+    Random rand = new Random(234);
+
+    @Test void mult() {
+        MultiplicationPlan_DSCC alg = new MultiplicationPlan_DSCC();
+        for (int trial = 0; trial < 20; trial++) {
+            for (int[] shape : new int[][]{{5, 5, 5}, {10, 5, 5}, {5, 10, 5}, {5, 5, 10}, {0, 4, 3}, {4, 0, 3}}) {
+                DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(shape[0], shape[1], shape[0]*shape[1]/3, -1, 1, rand);
+                DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(shape[1], shape[2], shape[1]*shape[2]/3, -1, 1, rand);
+                DMatrixSparseCSC C = RandomMatrices_DSCC.rectangle(2, 3, 4, -1, 1, rand);
+
+                alg.symbolicMult(A, B, C);
+                assertFalse(alg.isTransA());
+                assertTrue(CommonOps_DSCC.checkStructure(C));
+                alg.numeric(A, B, C);
+                EjmlUnitTests.assertEquals(CommonOps_DSCC.mult(A, B, null), C, UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    @Test void multTransA() {
+        MultiplicationPlan_DSCC alg = new MultiplicationPlan_DSCC();
+        for (int trial = 0; trial < 20; trial++) {
+            for (int[] shape : new int[][]{{5, 5, 5}, {10, 5, 5}, {5, 10, 5}, {5, 5, 10}, {0, 4, 3}, {4, 0, 3}}) {
+                DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(shape[1], shape[0], shape[0]*shape[1]/3, -1, 1, rand);
+                DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(shape[1], shape[2], shape[1]*shape[2]/3, -1, 1, rand);
+                DMatrixSparseCSC C = new DMatrixSparseCSC(1, 1, 0);
+
+                alg.symbolicMultTransA(A, B, C);
+                assertTrue(alg.isTransA());
+                assertTrue(CommonOps_DSCC.checkStructure(C));
+                alg.numeric(A, B, C);
+
+                DMatrixSparseCSC At = CommonOps_DSCC.transpose(A, null, null);
+                EjmlUnitTests.assertEquals(CommonOps_DSCC.mult(At, B, null), C, UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    /**
+     * Changing the values but not the structure should only require the numeric step
+     */
+    @Test void numeric_newValues() {
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(20, 15, 60, -1, 1, rand);
+        DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(15, 12, 50, -1, 1, rand);
+        DMatrixSparseCSC C = new DMatrixSparseCSC(1, 1, 0);
+        DMatrixSparseCSC D = new DMatrixSparseCSC(1, 1, 0);
+
+        MultiplicationPlan_DSCC planMult = new MultiplicationPlan_DSCC();
+        MultiplicationPlan_DSCC planTransA = new MultiplicationPlan_DSCC();
+        DMatrixSparseCSC At = CommonOps_DSCC.transpose(A, null, null);
+        planMult.symbolicMult(A, B, C);
+        planTransA.symbolicMultTransA(At, B, D);
+
+        for (int trial = 0; trial < 5; trial++) {
+            for (int i = 0; i < A.nz_length; i++) {
+                A.nz_values[i] = (double)rand.nextGaussian();
+            }
+            for (int i = 0; i < B.nz_length; i++) {
+                B.nz_values[i] = (double)rand.nextGaussian();
+            }
+            CommonOps_DSCC.transpose(A, At, null);
+
+            planMult.numeric(A, B, C);
+            planTransA.numeric(At, B, D);
+
+            DMatrixSparseCSC expected = CommonOps_DSCC.mult(A, B, null);
+            EjmlUnitTests.assertEquals(expected, C, UtilEjml.TEST_F64);
+            EjmlUnitTests.assertEquals(expected, D, UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test void checkShapes() {
+        MultiplicationPlan_DSCC alg = new MultiplicationPlan_DSCC();
+        DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(5, 4, 10, -1, 1, rand);
+        DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(5, 3, 10, -1, 1, rand);
+        DMatrixSparseCSC C = new DMatrixSparseCSC(1, 1, 0);
+
+        assertThrows(MatrixDimensionException.class, () -> alg.symbolicMult(A, B, C));
+
+        alg.symbolicMultTransA(A, B, C);
+        assertEquals(4, C.numRows);
+        assertEquals(3, C.numCols);
+
+        // structure doesn't match the plan
+        DMatrixSparseCSC A2 = RandomMatrices_DSCC.rectangle(5, 4, 12, -1, 1, rand);
+        assertThrows(IllegalArgumentException.class, () -> alg.numeric(A2, B, C));
+    }
+
+    /**
+     * The outer product of two dense vectors has more products than an array can hold
+     */
+    @Test void tooManyProducts() {
+        int N = 50_000;
+        DMatrixSparseCSC A = new DMatrixSparseCSC(N, 1, N);
+        DMatrixSparseCSC B = new DMatrixSparseCSC(1, N, N);
+        for (int i = 0; i < N; i++) {
+            A.nz_rows[i] = i;
+            B.nz_rows[i] = 0;
+            B.col_idx[i + 1] = i + 1;
+        }
+        A.col_idx[1] = N;
+        A.nz_length = N;
+        B.nz_length = N;
+
+        MultiplicationPlan_DSCC alg = new MultiplicationPlan_DSCC();
+        assertThrows(IllegalArgumentException.class, () -> alg.symbolicMult(A, B, new DMatrixSparseCSC(1, 1, 0)));
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csc.mult;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.masks.DMaskFactory;
+import org.ejml.masks.Mask;
+import org.ejml.ops.DSemiRing;
+import org.ejml.ops.DSemiRings;
+import org.ejml.sparse.csc.CommonOpsWithSemiRing_DSCC;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Compares the specialized kernels against the generic code by using a copy of the semiring, which has
+ * the same operators but a different identity.
+ *
+ * @author Peter Abeles
+ */
+public class TestSemiRingKernels_DSCC {
+    Random rand = new Random(234);
+
+    /**
+     * Every semiring in DSemiRings should have a kernel and semirings created by the user should not
+     */
+    @Test void lookup() throws IllegalAccessException {
+        List<DSemiRing> semiRings = builtInSemiRings();
+        assertEquals(16, semiRings.size());
+        for (DSemiRing semiRing : semiRings) {
+            assertNotEquals(SemiRingKernels_DSCC.GENERIC, SemiRingKernels_DSCC.lookup(semiRing));
+            assertEquals(SemiRingKernels_DSCC.GENERIC, SemiRingKernels_DSCC.lookup(copy(semiRing)));
+        }
+    }
+
+    @Test void mult() throws IllegalAccessException {
+        for (DSemiRing semiRing : builtInSemiRings()) {
+            for (int trial = 0; trial < 5; trial++) {
+                DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(20, 15, 60, -1, 1, rand);
+                DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(15, 18, 50, -1, 1, rand);
+                Mask mask = DMaskFactory.builder(RandomMatrices_DSCC.rectangle(20, 18, 100, rand), true).build();
+
+                for (Mask m : new Mask[]{null, mask}) {
+                    DMatrixSparseCSC expected = CommonOpsWithSemiRing_DSCC.mult(A, B, null, copy(semiRing), m, null, null);
+                    DMatrixSparseCSC found = CommonOpsWithSemiRing_DSCC.mult(A, B, null, semiRing, m, null, null);
+                    EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+                }
+            }
+        }
+    }
+
+    @Test void add() throws IllegalAccessException {
+        for (DSemiRing semiRing : builtInSemiRings()) {
+            for (int trial = 0; trial < 5; trial++) {
+                DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(20, 15, 60, -1, 1, rand);
+                DMatrixSparseCSC B = RandomMatrices_DSCC.rectangle(20, 15, 50, -1, 1, rand);
+
+                DMatrixSparseCSC expected = CommonOpsWithSemiRing_DSCC.add(1.5, A, 0.5, B, null, copy(semiRing), null, null, null);
+                DMatrixSparseCSC found = CommonOpsWithSemiRing_DSCC.add(1.5, A, 0.5, B, null, semiRing, null, null, null);
+                EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+            }
+        }
+    }
+
+    @Test void matrixVector() throws IllegalAccessException {
+        for (DSemiRing semiRing : builtInSemiRings()) {
+            DMatrixSparseCSC A = RandomMatrices_DSCC.rectangle(20, 15, 60, -1, 1, rand);
+            double[] b = new double[]{0.5, -1, 2, 0, 0.1, 1, 0.3, -0.2, 1, 1.5, -2, 0.9, 0.4, 1, 0};
+            double[] a = new double[20];
+            for (int i = 0; i < a.length; i++) {
+                a[i] = rand.nextDouble() - 0.5;
+            }
+
+            double[] expected = new double[20];
+            double[] found = new double[20];
+            MatrixVectorMultWithSemiRing_DSCC.mult(A, b, expected, copy(semiRing), null);
+            MatrixVectorMultWithSemiRing_DSCC.mult(A, b, found, semiRing, null);
+            assertArrayEquals(expected, found);
+
+            expected = new double[15];
+            found = new double[15];
+            MatrixVectorMultWithSemiRing_DSCC.mult(a, A, expected, copy(semiRing), null);
+            MatrixVectorMultWithSemiRing_DSCC.mult(a, A, found, semiRing, null);
+            assertArrayEquals(expected, found);
+        }
+    }
+
+    private static void assertArrayEquals( double[] expected, double[] found ) {
+        assertEquals(expected.length, found.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], found[i], UtilEjml.TEST_F64);
+        }
+    }
+
+    private static DSemiRing copy( DSemiRing semiRing ) {
+        return new DSemiRing(semiRing.add, semiRing.mult);
+    }
+
+    private static List<DSemiRing> builtInSemiRings() throws IllegalAccessException {
+        List<DSemiRing> found = new ArrayList<>();
+        for (Field f : DSemiRings.class.getFields()) {
+            if (Modifier.isStatic(f.getModifiers()) && f.getType() == DSemiRing.class)
+                found.add((DSemiRing)f.get(null));
+        }
+        return found;
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.sparse.csr;
+
+import org.ejml.EjmlUnitTests;
+import org.ejml.MatrixDimensionException;
+import org.ejml.UtilEjml;
+import org.ejml.data.DGrowArray;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.data.DMatrixSparseCSC;
+import org.ejml.data.DMatrixSparseCSR;
+import org.ejml.data.IGrowArray;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.ops.DConvertMatrixStruct;
+import org.ejml.sparse.csc.RandomMatrices_DSCC;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCommonOps_DSCR {
+
+    private final Random rand = new Random(234);
+
+    @Test
+    void checkIndicesSorted() {
+        DMatrixSparseCSR a = new DMatrixSparseCSR(3, 5, 0);
+        a.set(0, 0, 5);
+        a.set(0, 1, 6);
+        a.set(0, 4, 7);
+        a.set(2, 1, 5);
+
+        // test positive case first
+        assertTrue(CommonOps_DSCR.checkIndicesSorted(a));
+
+        // test negative case second
+        a.nz_cols[1] = 5;
+        assertFalse(CommonOps_DSCR.checkIndicesSorted(a));
+    }
+
+    @Test
+    void transpose() {
+        for (int trial = 0; trial < 10; trial++) {
+            DMatrixSparseCSR a = random(5 + trial, 8, 4*trial + 1);
+            DMatrixSparseCSR b = CommonOps_DSCR.transpose(a, new DMatrixSparseCSR(1, 1, 0), new IGrowArray());
+
+            assertEquals(a.numCols, b.numRows);
+            assertEquals(a.numRows, b.numCols);
+            assertTrue(CommonOps_DSCR.checkStructure(b));
+            EjmlUnitTests.assertEquals(CommonOps_DDRM.transpose(dense(a), null), dense(b), UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test
+    void mult_sparse() {
+        IGrowArray gw = new IGrowArray();
+        DGrowArray gx = new DGrowArray();
+        DMatrixSparseCSR c = new DMatrixSparseCSR(1, 1, 0);
+
+        for (int trial = 0; trial < 10; trial++) {
+            DMatrixSparseCSR a = random(4 + trial, 6, 3*trial + 2);
+            DMatrixSparseCSR b = random(6, 3 + trial, 2*trial + 3);
+
+            CommonOps_DSCR.mult(a, b, c, gw, gx);
+            assertTrue(CommonOps_DSCR.checkStructure(c));
+            assertEquals(a.numRows, c.numRows);
+            assertEquals(b.numCols, c.numCols);
+            EjmlUnitTests.assertEquals(CommonOps_DDRM.mult(dense(a), dense(b), null), dense(c), UtilEjml.TEST_F64);
+        }
+
+        assertThrows(MatrixDimensionException.class, () -> CommonOps_DSCR.mult(random(3, 4, 4), random(3, 4, 4), null));
+    }
+
+    @Test
+    void mult_dense() {
+        // B with a single column takes a special code path
+        for (int colsB : new int[]{1, 3}) {
+            DMatrixSparseCSR a = random(7, 6, 15);
+            DMatrixRMaj b = RandomMatrices_DDRM.rectangle(6, colsB, -1, 1, rand);
+
+            DMatrixRMaj expected = CommonOps_DDRM.mult(dense(a), b, null);
+            DMatrixRMaj found = CommonOps_DSCR.mult(a, b, RandomMatrices_DDRM.rectangle(2, 3, rand));
+            EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+
+            DMatrixRMaj c = RandomMatrices_DDRM.rectangle(7, colsB, -1, 1, rand);
+            CommonOps_DDRM.add(c, expected, expected);
+            CommonOps_DSCR.multAdd(a, b, c);
+            EjmlUnitTests.assertEquals(expected, c, UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test
+    void multTransA() {
+        DMatrixSparseCSR a = random(7, 6, 15);
+        DMatrixRMaj b = RandomMatrices_DDRM.rectangle(7, 4, -1, 1, rand);
+
+        DMatrixRMaj expected = CommonOps_DDRM.multTransA(dense(a), b, null);
+        DMatrixRMaj found = CommonOps_DSCR.multTransA(a, b, RandomMatrices_DDRM.rectangle(2, 3, rand));
+        EjmlUnitTests.assertEquals(expected, found, UtilEjml.TEST_F64);
+
+        DMatrixRMaj c = RandomMatrices_DDRM.rectangle(6, 4, -1, 1, rand);
+        CommonOps_DDRM.add(c, expected, expected);
+        CommonOps_DSCR.multAddTransA(a, b, c);
+        EjmlUnitTests.assertEquals(expected, c, UtilEjml.TEST_F64);
+    }
+
+    @Test
+    void add() {
+        DMatrixSparseCSR c = new DMatrixSparseCSR(1, 1, 0);
+
+        for (int trial = 0; trial < 10; trial++) {
+            DMatrixSparseCSR a = random(5, 4 + trial, 3*trial + 1);
+            DMatrixSparseCSR b = random(5, 4 + trial, 2*trial + 4);
+
+            CommonOps_DSCR.add(1.5, a, -0.5, b, c, null, null);
+            assertTrue(CommonOps_DSCR.checkStructure(c));
+
+            DMatrixRMaj expected = new DMatrixRMaj(1, 1);
+            CommonOps_DDRM.add(1.5, dense(a), -0.5, dense(b), expected);
+            EjmlUnitTests.assertEquals(expected, dense(c), UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test
+    void extractRows() {
+        DMatrixSparseCSR a = random(8, 6, 25);
+
+        DMatrixSparseCSR b = CommonOps_DSCR.extractRows(a, 2, 6, null);
+        assertTrue(CommonOps_DSCR.checkStructure(b));
+        assertEquals(4, b.numRows);
+        assertEquals(6, b.numCols);
+        EjmlUnitTests.assertEquals(CommonOps_DDRM.extract(dense(a), 2, 6, 0, 6), dense(b), UtilEjml.TEST_F64);
+
+        // empty range
+        b = CommonOps_DSCR.extractRows(a, 3, 3, b);
+        assertEquals(0, b.numRows);
+        assertEquals(0, b.nz_length);
+        assertTrue(CommonOps_DSCR.checkStructure(b));
+    }
+
+    private DMatrixSparseCSR random( int rows, int cols, int nz ) {
+        DMatrixSparseCSC a = RandomMatrices_DSCC.rectangle(rows, cols, nz, -1, 1, rand);
+        return DConvertMatrixStruct.convert(a, (DMatrixSparseCSR)null);
+    }
+
+    private static DMatrixRMaj dense( DMatrixSparseCSR a ) {
+        return DConvertMatrixStruct.convert(a, (DMatrixRMaj)null);
+    }
+}
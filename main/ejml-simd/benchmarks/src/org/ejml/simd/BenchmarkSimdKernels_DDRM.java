@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.simd;
+
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.misc.SimdKernels_DDRM;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares operations in {@link CommonOps_DDRM} with and without the Vector API kernels
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class BenchmarkSimdKernels_DDRM {
+
+    @Param({"true", "false"})
+    public boolean simd;
+
+    @Param({"100", "1000"})
+    public int size;
+
+    public DMatrixRMaj A = new DMatrixRMaj(1, 1);
+    public DMatrixRMaj B = new DMatrixRMaj(1, 1);
+    public DMatrixRMaj C = new DMatrixRMaj(1, 1);
+    public DMatrixRMaj x = new DMatrixRMaj(1, 1);
+    public DMatrixRMaj y = new DMatrixRMaj(1, 1);
+
+    @Nullable SimdKernels_DDRM previous;
+
+    @Setup
+    public void setup() {
+        var rand = new Random(234);
+        A = RandomMatrices_DDRM.rectangle(size, size, -1, 1, rand);
+        B = RandomMatrices_DDRM.rectangle(size, size, 0.5, 1, rand);
+        C = RandomMatrices_DDRM.rectangle(size, size, -1, 1, rand);
+        x = RandomMatrices_DDRM.rectangle(size, 1, -1, 1, rand);
+        y = RandomMatrices_DDRM.rectangle(size, 1, -1, 1, rand);
+
+        previous = CommonOps_DDRM.getSimdKernels();
+        CommonOps_DDRM.setSimdKernels(simd ? new SimdKernelsVector_DDRM() : null);
+    }
+
+    @TearDown
+    public void teardown() {
+        CommonOps_DDRM.setSimdKernels(previous);
+    }
+
+    // @formatter:off
+    @Benchmark public double dot() { return CommonOps_DDRM.dot(x, y); }
+    @Benchmark public void mult_vector() { CommonOps_DDRM.mult(A, x, y); }
+    @Benchmark public void multTransA_vector() { CommonOps_DDRM.multTransA(A, x, y); }
+    @Benchmark public void add() { CommonOps_DDRM.add(A, B, C); }
+    @Benchmark public void addEquals_beta() { CommonOps_DDRM.addEquals(C, 1e-8, A); }
+    @Benchmark public void elementMult() { CommonOps_DDRM.elementMult(A, B, C); }
+    @Benchmark public void elementDiv() { CommonOps_DDRM.elementDiv(A, B, C); }
+    @Benchmark public void scale() { CommonOps_DDRM.scale(1.5, A, C); }
+    // @formatter:on
+
+    public static void main( String[] args ) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(BenchmarkSimdKernels_DDRM.class.getSimpleName())
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.simd;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import org.ejml.dense.row.misc.SimdKernels_DDRM;
+
+/**
+ * Implementation of {@link SimdKernels_DDRM} using the Java Vector API. The preferred species is used, which
+ * is the widest vector the hardware supports. Elements past the last full vector are processed with scalar code.
+ *
+ * @author Peter Abeles
+ */
+public class SimdKernelsVector_DDRM implements SimdKernels_DDRM {
+    static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    /**
+     * Vector API falls back to very slow Java code when there's only a single lane
+     */
+    @Override public boolean isSupported() {
+        return SPECIES.length() > 1;
+    }
+
+    @Override public double dot( double[] a, int offsetA, double[] b, int offsetB, int length ) {
+        final int bound = SPECIES.loopBound(length);
+        int i = 0;
+        double total = 0.0;
+        if (bound > 0) {
+            // Two accumulators hide the latency of the fused multiply add
+            DoubleVector sum0 = DoubleVector.zero(SPECIES);
+            DoubleVector sum1 = DoubleVector.zero(SPECIES);
+            final int step = SPECIES.length();
+            for (; i + step < bound; i += 2*step) {
+                sum0 = DoubleVector.fromArray(SPECIES, a, offsetA + i).
+                        fma(DoubleVector.fromArray(SPECIES, b, offsetB + i), sum0);
+                sum1 = DoubleVector.fromArray(SPECIES, a, offsetA + i + step).
+                        fma(DoubleVector.fromArray(SPECIES, b, offsetB + i + step), sum1);
+            }
+            for (; i < bound; i += step) {
+                sum0 = DoubleVector.fromArray(SPECIES, a, offsetA + i).
+                        fma(DoubleVector.fromArray(SPECIES, b, offsetB + i), sum0);
+            }
+            total = sum0.add(sum1).reduceLanes(VectorOperators.ADD);
+        }
+        for (; i < length; i++) {
+            total += a[offsetA + i]*b[offsetB + i];
+        }
+        return total;
+    }
+
+    @Override public void axpy( double alpha, double[] x, int offsetX, double[] y, int offsetY, int length ) {
+        final int bound = SPECIES.loopBound(length);
+        final DoubleVector valpha = DoubleVector.broadcast(SPECIES, alpha);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector vx = DoubleVector.fromArray(SPECIES, x, offsetX + i);
+            DoubleVector vy = DoubleVector.fromArray(SPECIES, y, offsetY + i);
+            vx.fma(valpha, vy).intoArray(y, offsetY + i);
+        }
+        for (; i < length; i++) {
+            y[offsetY + i] += alpha*x[offsetX + i];
+        }
+    }
+
+    @Override public void add( double[] a, double[] b, double[] c, int length ) {
+        final int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector va = DoubleVector.fromArray(SPECIES, a, i);
+            DoubleVector vb = DoubleVector.fromArray(SPECIES, b, i);
+            va.add(vb).intoArray(c, i);
+        }
+        for (; i < length; i++) {
+            c[i] = a[i] + b[i];
+        }
+    }
+
+    @Override public void add( double alpha, double[] a, double beta, double[] b, double[] c, int length ) {
+        final int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector va = DoubleVector.fromArray(SPECIES, a, i);
+            DoubleVector vb = DoubleVector.fromArray(SPECIES, b, i);
+            va.mul(alpha).add(vb.mul(beta)).intoArray(c, i);
+        }
+        for (; i < length; i++) {
+            c[i] = alpha*a[i] + beta*b[i];
+        }
+    }
+
+    @Override public void subtract( double[] a, double[] b, double[] c, int length ) {
+        final int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector va = DoubleVector.fromArray(SPECIES, a, i);
+            DoubleVector vb = DoubleVector.fromArray(SPECIES, b, i);
+            va.sub(vb).intoArray(c, i);
+        }
+        for (; i < length; i++) {
+            c[i] = a[i] - b[i];
+        }
+    }
+
+    @Override public void elementMult( double[] a, double[] b, double[] c, int length ) {
+        final int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector va = DoubleVector.fromArray(SPECIES, a, i);
+            DoubleVector vb = DoubleVector.fromArray(SPECIES, b, i);
+            va.mul(vb).intoArray(c, i);
+        }
+        for (; i < length; i++) {
+            c[i] = a[i]*b[i];
+        }
+    }
+
+    @Override public void elementDiv( double[] a, double[] b, double[] c, int length ) {
+        final int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector va = DoubleVector.fromArray(SPECIES, a, i);
+            DoubleVector vb = DoubleVector.fromArray(SPECIES, b, i);
+            va.div(vb).intoArray(c, i);
+        }
+        for (; i < length; i++) {
+            c[i] = a[i]/b[i];
+        }
+    }
+
+    @Override public void scale( double alpha, double[] a, double[] b, int length ) {
+        final int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, a, i).mul(alpha).intoArray(b, i);
+        }
+        for (; i < length; i++) {
+            b[i] = alpha*a[i];
+        }
+    }
+}
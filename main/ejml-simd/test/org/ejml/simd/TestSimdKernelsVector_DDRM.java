@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2021, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of Efficient Java Matrix Library (EJML).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ejml.simd;
+
+import org.ejml.EjmlParameters;
+import org.ejml.EjmlUnitTests;
+import org.ejml.UtilEjml;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.RandomMatrices_DDRM;
+import org.ejml.dense.row.misc.SimdKernels_DDRM;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSimdKernelsVector_DDRM {
+    Random rand = new Random(234);
+
+    SimdKernelsVector_DDRM alg = new SimdKernelsVector_DDRM();
+
+    // lengths which include zero, less than one vector, and partial vectors at the end
+    int[] lengths = new int[]{0, 1, 3, 7, 8, 9, 16, 31, 64, 101};
+
+    @Nullable SimdKernels_DDRM previousKernels;
+    int previousSwitch;
+
+    @BeforeEach
+    void before() {
+        previousKernels = CommonOps_DDRM.getSimdKernels();
+        previousSwitch = EjmlParameters.SIMD_LENGTH_SWITCH;
+    }
+
+    @AfterEach
+    void after() {
+        CommonOps_DDRM.setSimdKernels(previousKernels);
+        EjmlParameters.SIMD_LENGTH_SWITCH = previousSwitch;
+    }
+
+    /**
+     * The kernels should be found through the service loader when this module is on the class path
+     */
+    @Test
+    void loadedByCommonOps() {
+        if (!alg.isSupported())
+            return;
+        assertTrue(SimdKernels_DDRM.load() instanceof SimdKernelsVector_DDRM);
+        assertTrue(previousKernels instanceof SimdKernelsVector_DDRM);
+    }
+
+    @Test
+    void dot() {
+        for (int length : lengths) {
+            double[] a = random(length + 2);
+            double[] b = random(length + 3);
+
+            double expected = 0;
+            for (int i = 0; i < length; i++) {
+                expected += a[i + 2]*b[i + 3];
+            }
+            assertEquals(expected, alg.dot(a, 2, b, 3, length), UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test
+    void axpy() {
+        for (int length : lengths) {
+            double[] x = random(length + 1);
+            double[] y = random(length + 4);
+            double[] expected = y.clone();
+            for (int i = 0; i < length; i++) {
+                expected[i + 4] += 1.5*x[i + 1];
+            }
+            alg.axpy(1.5, x, 1, y, 4, length);
+            assertArrayEquals(expected, y, UtilEjml.TEST_F64);
+        }
+    }
+
+    @Test
+    void elementWise() {
+        for (int length : lengths) {
+            double[] a = random(length);
+            double[] b = random(length);
+            double[] c = new double[length];
+            double[] expected = new double[length];
+
+            for (int i = 0; i < length; i++) expected[i] = a[i] + b[i];
+            alg.add(a, b, c, length);
+            assertArrayEquals(expected, c, UtilEjml.TEST_F64);
+
+            for (int i = 0; i < length; i++) expected[i] = 2.0*a[i] - 0.5*b[i];
+            alg.add(2.0, a, -0.5, b, c, length);
+            assertArrayEquals(expected, c, UtilEjml.TEST_F64);
+
+            for (int i = 0; i < length; i++) expected[i] = a[i] - b[i];
+            alg.subtract(a, b, c, length);
+            assertArrayEquals(expected, c, UtilEjml.TEST_F64);
+
+            for (int i = 0; i < length; i++) expected[i] = a[i]*b[i];
+            alg.elementMult(a, b, c, length);
+            assertArrayEquals(expected, c, UtilEjml.TEST_F64);
+
+            for (int i = 0; i < length; i++) expected[i] = a[i]/b[i];
+            alg.elementDiv(a, b, c, length);
+            assertArrayEquals(expected, c, UtilEjml.TEST_F64);
+
+            for (int i = 0; i < length; i++) expected[i] = 3.0*a[i];
+            alg.scale(3.0, a, c, length);
+            assertArrayEquals(expected, c, UtilEjml.TEST_F64);
+
+            // output is the same as the input
+            alg.scale(3.0, a, a, length);
+            assertArrayEquals(expected, a, UtilEjml.TEST_F64);
+        }
+    }
+
+    /**
+     * Compare the results from CommonOps when it's using SIMD kernels against the standard implementation
+     */
+    @Test
+    void compareCommonOps() {
+        EjmlParameters.SIMD_LENGTH_SWITCH = 0;
+
+        for (int length : lengths) {
+            DMatrixRMaj A = RandomMatrices_DDRM.rectangle(length, length + 2, -1, 1, rand);
+            DMatrixRMaj B = RandomMatrices_DDRM.rectangle(length, length + 2, -1, 1, rand);
+            DMatrixRMaj x = RandomMatrices_DDRM.rectangle(length + 2, 1, -1, 1, rand);
+            DMatrixRMaj y = RandomMatrices_DDRM.rectangle(length, 1, -1, 1, rand);
+
+            DMatrixRMaj[] expected = compute(null, A, B, x, y);
+            DMatrixRMaj[] found = compute(alg, A, B, x, y);
+
+            assertEquals(expected.length, found.length);
+            for (int i = 0; i < expected.length; i++) {
+                EjmlUnitTests.assertEquals(expected[i], found[i], UtilEjml.TEST_F64);
+            }
+            CommonOps_DDRM.setSimdKernels(null);
+            double dotExpected = CommonOps_DDRM.dot(x, x);
+            CommonOps_DDRM.setSimdKernels(alg);
+            assertEquals(dotExpected, CommonOps_DDRM.dot(x, x), UtilEjml.TEST_F64);
+        }
+    }
+
+    private DMatrixRMaj[] compute( @Nullable SimdKernels_DDRM kernels,
+                                   DMatrixRMaj A, DMatrixRMaj B, DMatrixRMaj x, DMatrixRMaj y ) {
+        CommonOps_DDRM.setSimdKernels(kernels);
+
+        DMatrixRMaj multAdd = y.copy();
+        CommonOps_DDRM.multAdd(A, x, multAdd);
+        DMatrixRMaj multAddTransA = x.copy();
+        CommonOps_DDRM.multAddTransA(A, y, multAddTransA);
+
+        DMatrixRMaj addEquals = A.copy();
+        CommonOps_DDRM.addEquals(addEquals, B);
+        DMatrixRMaj addEqualsBeta = A.copy();
+        CommonOps_DDRM.addEquals(addEqualsBeta, 0.5, B);
+        DMatrixRMaj subtractEquals = A.copy();
+        CommonOps_DDRM.subtractEquals(subtractEquals, B);
+        DMatrixRMaj elementMult = A.copy();
+        CommonOps_DDRM.elementMult(elementMult, B);
+        DMatrixRMaj elementDiv = A.copy();
+        CommonOps_DDRM.elementDiv(elementDiv, B);
+        DMatrixRMaj scale = A.copy();
+        CommonOps_DDRM.scale(2.5, scale);
+
+        return new DMatrixRMaj[]{
+                CommonOps_DDRM.mult(A, x, null),
+                CommonOps_DDRM.multTransA(A, y, null),
+                CommonOps_DDRM.multTransB(A, CommonOps_DDRM.transpose(x, null), null),
+                CommonOps_DDRM.multTransAB(A, CommonOps_DDRM.transpose(y, null), null),
+                multAdd, multAddTransA,
+                CommonOps_DDRM.add(A, B, null),
+                CommonOps_DDRM.add(0.5, A, -2.0, B, null),
+                CommonOps_DDRM.subtract(A, B, null),
+                CommonOps_DDRM.elementMult(A, B, null),
+                CommonOps_DDRM.elementDiv(A, B, null),
+                addEquals, addEqualsBeta, subtractEquals, elementMult, elementDiv, scale,
+                scaled(A)};
+    }
+
+    private static DMatrixRMaj scaled( DMatrixRMaj A ) {
+        DMatrixRMaj out = new DMatrixRMaj(1, 1);
+        CommonOps_DDRM.scale(2.5, A, out);
+        return out;
+    }
+
+    private double[] random( int length ) {
+        double[] v = new double[length];
+        for (int i = 0; i < length; i++) {
+            v[i] = rand.nextDouble() + 0.5;
+        }
+        return v;
+    }
+}